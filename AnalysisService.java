@@ -0,0 +1,876 @@
+//********************************************************************
+//
+//  Developer:     Mauricio Rivas
+//
+//  Program #:     Three
+//
+//  File Name:     AnalysisService.java
+//
+//  Course:        COSC 4301 Modern Programming
+//
+//  Due Date:      4/14/2025
+//
+//  Instructor:    Prof. Fred Kumi
+//
+//  Java Version:  11
+//
+//  Description:   This class keeps a household dataset and the FPL
+//                 income limits in memory and answers queries over a
+//                 local HTTP endpoint, so each question does not cost
+//                 a JVM start, a file parse, and a guideline fetch.
+//                 Totals and group-by tables are computed once per
+//                 load; listings scan the columns and stop as soon as
+//                 a page is full. A changed data file is reloaded in
+//                 the background and swapped in atomically, so queries
+//                 never see a half-loaded dataset. With
+//                 -Dservice.index=true a HouseholdIndex is built at
+//                 each load, and listings combine its bitmaps instead
+//                 of scanning, so they also report the match total.
+//
+//                 GET  /summary                     report totals
+//                 GET  /average                     average income
+//                 GET  /below-fpl?offset=&limit=    households below FPL
+//                 GET  /medicaid?offset=&limit=     Medicaid-eligible
+//                 GET  /groups?by=state|size|state,size
+//                 GET  /households?state=&members=&minMembers=
+//                      &maxMembers=&minIncome=&maxIncome=&belowFpl=
+//                      &medicaid=&offset=&limit=
+//                      (state may list several, e.g. Alaska,Hawaii)
+//                 POST /reload[?file=]              reload the data
+//
+//********************************************************************
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+
+public class AnalysisService {
+    public static final int DEFAULT_PORT = 8301;
+
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 10000;
+    private static final long DEFAULT_POLL_SECONDS = 5;
+
+    private final FPLThresholdTable thresholds;
+    private final boolean indexed;
+    private final RunMetrics metrics = RunMetrics.getShared();
+    private volatile Dataset dataset;
+    private HttpServer server;
+    private ExecutorService workers;
+    private ScheduledExecutorService watcher;
+    //***************************************************************
+    //
+    //  Method:       main
+    //
+    //  Description:  Loads a data file and serves queries until the
+    //                process is stopped:
+    //                  java AnalysisService [dataFile]
+    //                The port, worker threads, and reload poll interval
+    //                are set with service.port, service.threads, and
+    //                service.pollSeconds (0 turns polling off), and
+    //                service.index=true builds the listing indexes.
+    //
+    //  Parameters:   String[] args - optional data file name
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    public static void main(String[] args) throws IOException {
+        Path file = Paths.get(args.length > 0 ? args[0] : "Program3Data.txt");
+        FPLThresholdTable thresholds = FPLThresholdTable.load(FPLGuidelineCache.getShared(),
+                FPLGuidelineCache.DEFAULT_YEAR);
+        AnalysisService service = new AnalysisService(thresholds, file);
+        int port = Integer.getInteger("service.port", DEFAULT_PORT);
+        service.start(port, Integer.getInteger("service.threads", Runtime.getRuntime().availableProcessors() * 2),
+                Long.getLong("service.pollSeconds", DEFAULT_POLL_SECONDS));
+        System.out.println("Serving " + service.dataset.table.size() + " households from " + file
+                + " on http://localhost:" + port + "/");
+        service.printIndexStats();
+    }
+    //***************************************************************
+    //
+    //  Method:       AnalysisService (Constructor)
+    //
+    //  Description:  Creates a service and loads its first dataset,
+    //                indexing it if service.index is true.
+    //
+    //  Parameters:   FPLThresholdTable thresholds - income limits
+    //                Path file                    - text or snapshot
+    //                                               household file
+    //
+    //  Returns:      None
+    //
+    //***************************************************************
+    public AnalysisService(FPLThresholdTable thresholds, Path file) throws IOException {
+        this(thresholds, file, Boolean.getBoolean("service.index"));
+    }
+    //***************************************************************
+    //
+    //  Method:       AnalysisService (Constructor)
+    //
+    //  Description:  Creates a service and loads its first dataset.
+    //
+    //  Parameters:   FPLThresholdTable thresholds - income limits
+    //                Path file                    - text or snapshot
+    //                                               household file
+    //                boolean indexed              - build a
+    //                                               HouseholdIndex at
+    //                                               each load
+    //
+    //  Returns:      None
+    //
+    //***************************************************************
+    public AnalysisService(FPLThresholdTable thresholds, Path file, boolean indexed) throws IOException {
+        this.thresholds = thresholds;
+        this.indexed = indexed;
+        this.dataset = load(file);
+    }
+    //***************************************************************
+    //
+    //  Method:       start
+    //
+    //  Description:  Starts serving on the loopback address with a
+    //                fixed pool of worker threads, and polls the data
+    //                file for changes. Nagle's algorithm is turned off
+    //                unless configured otherwise; with it on, each small
+    //                response waits out the client's delayed ACK (about
+    //                40 ms).
+    //
+    //  Parameters:   int port           - TCP port, 0 for any free one
+    //                int threads        - worker threads
+    //                long pollSeconds   - seconds between checks of the
+    //                                     data file, 0 to not poll
+    //
+    //  Returns:      int - the port being served
+    //
+    //***************************************************************
+    public synchronized int start(int port, int threads, long pollSeconds) throws IOException {
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.createContext("/", this::handle);
+        workers = Executors.newFixedThreadPool(Math.max(1, threads));
+        server.setExecutor(workers);
+        server.start();
+
+        if (pollSeconds > 0) {
+            watcher = Executors.newSingleThreadScheduledExecutor(task -> {
+                Thread thread = new Thread(task, "dataset-watcher");
+                thread.setDaemon(true);
+                return thread;
+            });
+            watcher.scheduleWithFixedDelay(this::reloadIfChanged, pollSeconds, pollSeconds, TimeUnit.SECONDS);
+        }
+        return server.getAddress().getPort();
+    }
+    //***************************************************************
+    //
+    //  Method:       stop
+    //
+    //  Description:  Stops serving and releases the worker threads.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    public synchronized void stop() {
+        if (watcher != null) {
+            watcher.shutdownNow();
+        }
+        if (server != null) {
+            server.stop(0);
+            workers.shutdown();
+        }
+    }
+    //***************************************************************
+    //
+    //  Method:       reload
+    //
+    //  Description:  Loads a data file and swaps it in. Queries keep
+    //                using the old dataset until the new one is ready;
+    //                if the load fails the old one stays.
+    //
+    //  Parameters:   Path file - text or snapshot household file
+    //
+    //  Returns:      int - number of households loaded
+    //
+    //***************************************************************
+    public synchronized int reload(Path file) throws IOException {
+        Dataset loaded = load(file);
+        dataset = loaded;
+        return loaded.table.size();
+    }
+    //***************************************************************
+    //
+    //  Method:       reloadIfChanged
+    //
+    //  Description:  Reloads the current data file if its modified
+    //                time has changed since it was loaded.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    private void reloadIfChanged() {
+        Dataset current = dataset;
+        try {
+            if (!Files.getLastModifiedTime(current.file).equals(current.modified)) {
+                int count = reload(current.file);
+                System.out.println("Reloaded " + count + " households from " + current.file);
+                printIndexStats();
+            }
+        } catch (IOException | RuntimeException e) {
+            metrics.error("Error reloading " + current.file + ", keeping the loaded data: " + e.getMessage());
+        }
+    }
+    //***************************************************************
+    //
+    //  Method:       load
+    //
+    //  Description:  Reads a data file and precomputes its totals,
+    //                group-by table, and index if enabled. Snapshots
+    //                are mapped in place.
+    //
+    //  Parameters:   Path file - text or snapshot household file
+    //
+    //  Returns:      Dataset - the loaded data
+    //
+    //***************************************************************
+    private Dataset load(Path file) throws IOException {
+        FileTime modified = Files.getLastModifiedTime(file);
+        HouseholdTable table;
+        if (HouseholdSnapshot.isSnapshot(file)) {
+            table = HouseholdSnapshot.open(file);
+        } else {
+            ColumnarHouseholdStore store = new ColumnarHouseholdStore();
+            store.loadMapped(file);
+            store.trimToSize();
+            table = store;
+        }
+        HouseholdAggregate totals = new HouseholdAggregate(thresholds);
+        totals.add(table);
+        GroupedAggregate groups = new GroupedAggregate(thresholds);
+        groups.add(table);
+        HouseholdIndex index = indexed ? new HouseholdIndex(table, thresholds) : null;
+        return new Dataset(file, modified, table, totals, groups, index);
+    }
+    //***************************************************************
+    //
+    //  Method:       printIndexStats
+    //
+    //  Description:  Prints how long the current dataset's index took
+    //                to build and the memory it holds.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    private void printIndexStats() {
+        HouseholdIndex index = dataset.index;
+        if (index != null) {
+            System.out.printf("Indexed %d households in %d ms (%.1f MB)%n", index.size(),
+                    index.getBuildNanos() / 1_000_000, index.getSizeInBytes() / 1e6);
+        }
+    }
+    //***************************************************************
+    //
+    //  Method:       handle
+    //
+    //  Description:  Answers one HTTP request with a JSON body. Bad
+    //                parameters give 400, unknown paths 404.
+    //
+    //  Parameters:   HttpExchange exchange - request and response
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    private void handle(HttpExchange exchange) throws IOException {
+        int status = 200;
+        String body;
+        try {
+            Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+            String path = exchange.getRequestURI().getPath();
+            if (path.equals("/reload")) {
+                if (!exchange.getRequestMethod().equals("POST")) {
+                    status = 405;
+                    body = error("Use POST to reload");
+                } else {
+                    String file = query.get("file");
+                    int count = reload(file != null ? Paths.get(file) : dataset.file);
+                    body = "{\"households\":" + count + "}";
+                }
+            } else {
+                body = query(path, query, dataset);
+                if (body == null) {
+                    status = 404;
+                    body = error("Unknown path: " + path);
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            status = 400;
+            body = error(e.getMessage());
+        } catch (IOException | RuntimeException e) {
+            status = 500;
+            body = error(e.toString());
+        }
+
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+    //***************************************************************
+    //
+    //  Method:       query
+    //
+    //  Description:  Runs one read-only query against a dataset.
+    //
+    //  Parameters:   String path               - request path
+    //                Map<String, String> query - decoded parameters
+    //                Dataset data              - dataset to query
+    //
+    //  Returns:      String - JSON body, or null for an unknown path
+    //
+    //***************************************************************
+    String query(String path, Map<String, String> query, Dataset data) {
+        HouseholdAggregate totals = data.totals;
+        switch (path) {
+            case "/summary":
+                return new StringBuilder("{\"households\":").append(totals.getCount())
+                        .append(",\"averageIncome\":").append(number(totals.getAverageIncome()))
+                        .append(",\"belowPoverty\":").append(totals.getBelowPovertyCount())
+                        .append(",\"percentBelowPoverty\":").append(number(totals.getPercentBelowPoverty()))
+                        .append(",\"medicaidEligible\":").append(totals.getMedicaidEligibleCount())
+                        .append(",\"percentMedicaidEligible\":").append(number(totals.getPercentMedicaidEligible()))
+                        .append(",\"year\":").append(thresholds.getYear())
+                        .append(",\"degraded\":").append(thresholds.isDegraded())
+                        .append(indexStats(data.index))
+                        .append(",\"file\":").append(jsonString(data.file.toString())).append('}').toString();
+            case "/average":
+                return "{\"households\":" + totals.getCount()
+                        + ",\"averageIncome\":" + number(totals.getAverageIncome()) + "}";
+            case "/below-fpl":
+                return listing(data, new Filter().belowPoverty(true), query, totals.getBelowPovertyCount());
+            case "/medicaid":
+                return listing(data, new Filter().medicaid(true), query, totals.getMedicaidEligibleCount());
+            case "/households":
+                return listing(data, Filter.parse(query), query, -1);
+            case "/groups":
+                return groups(data.groups, query.getOrDefault("by", "state"));
+            default:
+                return null;
+        }
+    }
+    //***************************************************************
+    //
+    //  Method:       listing
+    //
+    //  Description:  Lists one page of the households that pass a
+    //                filter. With an index the filter's bitmap gives
+    //                the rows and their total; without one the table is
+    //                scanned only until the page is full and one more
+    //                match has been seen.
+    //
+    //  Parameters:   Dataset data              - dataset to list
+    //                Filter filter             - rows to include
+    //                Map<String, String> query - offset and limit
+    //                long total                - known match count, or
+    //                                            -1 if not known
+    //
+    //  Returns:      String - JSON body
+    //
+    //***************************************************************
+    private String listing(Dataset data, Filter filter, Map<String, String> query, long total) {
+        long offset = parseLong(query, "offset", 0);
+        long limit = parseLong(query, "limit", DEFAULT_PAGE_SIZE);
+        if (offset < 0 || limit < 0 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("offset must be >= 0 and limit between 0 and " + MAX_PAGE_SIZE);
+        }
+
+        HouseholdTable table = data.table;
+        RowBitmap rows = data.index != null ? filter.select(data.index) : null;
+        if (rows != null) {
+            total = rows.cardinality();
+        }
+        StringBuilder json = new StringBuilder(64 + (int) limit * 64).append("{\"offset\":").append(offset);
+        if (total >= 0) {
+            json.append(",\"total\":").append(total);
+        }
+        json.append(",\"households\":[");
+        int first = json.length();
+        IntConsumer append = i -> json.append(json.length() > first ? "," : "")
+                .append("{\"id\":").append(table.getId(i))
+                .append(",\"income\":").append(number(table.getIncome(i)))
+                .append(",\"members\":").append(table.getMembers(i))
+                .append(",\"state\":").append(jsonString(table.getState(i))).append('}');
+        boolean more = false;
+        if (rows != null) {
+            more = rows.forEach(offset, limit, append);
+        } else {
+            long seen = 0;
+            for (int i = 0; i < table.size(); i++) {
+                if (filter.matches(table, i, thresholds)) {
+                    if (seen >= offset + limit) {
+                        more = true;
+                        break;
+                    }
+                    if (seen++ >= offset) {
+                        append.accept(i);
+                    }
+                }
+            }
+        }
+        return json.append("],\"more\":").append(more).append('}').toString();
+    }
+    //***************************************************************
+    //
+    //  Method:       groups
+    //
+    //  Description:  Lists the precomputed group-by rows: one per
+    //                state, per household size, or per non-empty state
+    //                and size pair.
+    //
+    //  Parameters:   GroupedAggregate groups - precomputed groups
+    //                String by               - state, size, or
+    //                                          state,size
+    //
+    //  Returns:      String - JSON body
+    //
+    //***************************************************************
+    private static String groups(GroupedAggregate groups, String by) {
+        boolean byState = by.equals("state") || by.equals("state,size");
+        boolean bySize = by.equals("size") || by.equals("state,size");
+        if (!byState && !bySize) {
+            throw new IllegalArgumentException("by must be state, size, or state,size");
+        }
+
+        StringBuilder json = new StringBuilder("{\"by\":").append(jsonString(by)).append(",\"groups\":[");
+        boolean first = true;
+        for (int state = byState ? 0 : GroupedAggregate.ALL; state < (byState ? GroupedAggregate.STATE_GROUPS : 0);
+                state++) {
+            for (int size = bySize ? 0 : GroupedAggregate.ALL; size < (bySize ? GroupedAggregate.SIZE_GROUPS : 0);
+                    size++) {
+                long count = groups.getCount(state, size);
+                if (count == 0) {
+                    continue;
+                }
+                json.append(first ? "{" : ",{");
+                first = false;
+                if (byState) {
+                    json.append("\"state\":").append(jsonString(
+                            state == GroupedAggregate.OTHER_STATE ? "Other" : StateTable.name(state))).append(',');
+                }
+                if (bySize) {
+                    json.append("\"members\":").append(size).append(',');
+                }
+                json.append("\"households\":").append(count)
+                        .append(",\"averageIncome\":").append(number(groups.getAverageIncome(state, size)))
+                        .append(",\"percentBelowPoverty\":").append(number(groups.getPercentBelowPoverty(state, size)))
+                        .append(",\"percentMedicaidEligible\":")
+                        .append(number(groups.getPercentMedicaidEligible(state, size))).append('}');
+            }
+        }
+        return json.append("]}").toString();
+    }
+    //***************************************************************
+    //
+    //  Method:       parseQuery
+    //
+    //  Description:  Splits a URL query string into decoded names and
+    //                values. A name without '=' gets an empty value.
+    //
+    //  Parameters:   String rawQuery - query string, or null
+    //
+    //  Returns:      Map<String, String> - parameters by name
+    //
+    //***************************************************************
+    static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return query;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int equals = pair.indexOf('=');
+            String name = equals < 0 ? pair : pair.substring(0, equals);
+            String value = equals < 0 ? "" : pair.substring(equals + 1);
+            query.put(URLDecoder.decode(name, StandardCharsets.UTF_8),
+                    URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return query;
+    }
+    //***************************************************************
+    //
+    //  Method:       indexStats
+    //
+    //  Description:  Builds the JSON fields that describe the index,
+    //                or nothing when there is no index.
+    //
+    //  Parameters:   HouseholdIndex index - row index, or null
+    //
+    //  Returns:      String - JSON fields with a leading comma
+    //
+    //***************************************************************
+    private static String indexStats(HouseholdIndex index) {
+        if (index == null) {
+            return "";
+        }
+        return ",\"index\":{\"buildMillis\":" + index.getBuildNanos() / 1_000_000
+                + ",\"bytes\":" + index.getSizeInBytes() + "}";
+    }
+    //***************************************************************
+    //
+    //  Method:       parseLong
+    //
+    //  Description:  Reads a whole-number query parameter.
+    //
+    //  Parameters:   Map<String, String> query - query parameters
+    //                String name               - parameter name
+    //                long defaultValue         - value if missing
+    //
+    //  Returns:      long - parameter value
+    //
+    //***************************************************************
+    private static long parseLong(Map<String, String> query, String name, long defaultValue) {
+        String value = query.get(name);
+        try {
+            return value == null ? defaultValue : Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " must be a whole number: " + value);
+        }
+    }
+    //***************************************************************
+    //
+    //  Method:       number
+    //
+    //  Description:  Formats a number for a JSON response, writing
+    //                null for NaN and the infinities.
+    //
+    //  Parameters:   double value - number to format
+    //
+    //  Returns:      String - JSON number or null
+    //
+    //***************************************************************
+    private static String number(double value) {
+        return Double.isFinite(value) ? Double.toString(value) : "null";
+    }
+    //***************************************************************
+    //
+    //  Method:       error
+    //
+    //  Description:  Builds the JSON body of an error response.
+    //
+    //  Parameters:   String message - error description
+    //
+    //  Returns:      String - JSON object
+    //
+    //***************************************************************
+    private static String error(String message) {
+        return "{\"error\":" + jsonString(String.valueOf(message)) + "}";
+    }
+    //***************************************************************
+    //
+    //  Method:       jsonString
+    //
+    //  Description:  Quotes text for a JSON response, escaping
+    //                quotes, backslashes, and control characters.
+    //
+    //  Parameters:   String value - text to quote
+    //
+    //  Returns:      String - JSON string
+    //
+    //***************************************************************
+    private static String jsonString(String value) {
+        StringBuilder json = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                json.append('\\').append(c);
+            } else if (c < 0x20) {
+                json.append(String.format("\\u%04x", (int) c));
+            } else {
+                json.append(c);
+            }
+        }
+        return json.append('"').toString();
+    }
+
+    //***************************************************************
+    //
+    //  Class:        Dataset
+    //
+    //  Description:  One loaded data file and the totals and index
+    //                computed from it. Never changed after it is built,
+    //                so queries can read it without locking.
+    //
+    //***************************************************************
+    static final class Dataset {
+        final Path file;
+        final FileTime modified;
+        final HouseholdTable table;
+        final HouseholdAggregate totals;
+        final GroupedAggregate groups;
+        final HouseholdIndex index;
+        //***************************************************************
+        //
+        //  Method:       Dataset (Constructor)
+        //
+        //  Description:  Holds one loaded file and everything computed
+        //                from it.
+        //
+        //  Parameters:   Path file                 - data file
+        //                FileTime modified         - file time at load
+        //                HouseholdTable table      - loaded households
+        //                HouseholdAggregate totals - report totals
+        //                GroupedAggregate groups   - grouped totals
+        //                HouseholdIndex index      - row index, or null
+        //
+        //  Returns:      None
+        //
+        //***************************************************************
+        Dataset(Path file, FileTime modified, HouseholdTable table, HouseholdAggregate totals,
+                GroupedAggregate groups, HouseholdIndex index) {
+            this.file = file;
+            this.modified = modified;
+            this.table = table;
+            this.totals = totals;
+            this.groups = groups;
+            this.index = index;
+        }
+    }
+
+    //***************************************************************
+    //
+    //  Class:        Filter
+    //
+    //  Description:  The row conditions of a listing query. Unset
+    //                conditions match every household. A household
+    //                matches if it is in any of the listed states and
+    //                meets every other condition.
+    //
+    //***************************************************************
+    static final class Filter {
+        private String[] states;
+        private int[] stateCodes;
+        private int minMembers = 0;
+        private int maxMembers = Integer.MAX_VALUE;
+        private double minIncome = Double.NEGATIVE_INFINITY;
+        private double maxIncome = Double.POSITIVE_INFINITY;
+        private Boolean belowPoverty;
+        private Boolean medicaid;
+        //***************************************************************
+        //
+        //  Method:       parse
+        //
+        //  Description:  Reads the listing conditions from query
+        //                parameters: state (comma separated), members,
+        //                minMembers, maxMembers, minIncome, maxIncome,
+        //                belowFpl, and medicaid.
+        //
+        //  Parameters:   Map<String, String> query - query parameters
+        //
+        //  Returns:      Filter - the conditions
+        //
+        //***************************************************************
+        static Filter parse(Map<String, String> query) {
+            Filter filter = new Filter();
+            if (query.containsKey("state")) {
+                filter.states = query.get("state").split(",");
+                filter.stateCodes = new int[filter.states.length];
+                for (int s = 0; s < filter.states.length; s++) {
+                    filter.stateCodes[s] = StateTable.lookup(filter.states[s]);
+                }
+            }
+            try {
+                if (query.containsKey("members")) {
+                    filter.minMembers = Integer.parseInt(query.get("members"));
+                    filter.maxMembers = filter.minMembers;
+                }
+                if (query.containsKey("minMembers")) {
+                    filter.minMembers = Integer.parseInt(query.get("minMembers"));
+                }
+                if (query.containsKey("maxMembers")) {
+                    filter.maxMembers = Integer.parseInt(query.get("maxMembers"));
+                }
+                if (query.containsKey("minIncome")) {
+                    filter.minIncome = Double.parseDouble(query.get("minIncome"));
+                }
+                if (query.containsKey("maxIncome")) {
+                    filter.maxIncome = Double.parseDouble(query.get("maxIncome"));
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("members, minIncome, and maxIncome must be numbers");
+            }
+            if (filter.minMembers < 0 || Double.isNaN(filter.minIncome) || Double.isNaN(filter.maxIncome)) {
+                throw new IllegalArgumentException("members must be >= 0 and incomes must be numbers");
+            }
+            if (query.containsKey("belowFpl")) {
+                filter.belowPoverty = Boolean.valueOf(query.get("belowFpl"));
+            }
+            if (query.containsKey("medicaid")) {
+                filter.medicaid = Boolean.valueOf(query.get("medicaid"));
+            }
+            return filter;
+        }
+        //***************************************************************
+        //
+        //  Method:       belowPoverty
+        //
+        //  Description:  Requires households to be, or not be, below the
+        //                poverty level.
+        //
+        //  Parameters:   boolean value - true for below poverty
+        //
+        //  Returns:      Filter - this filter
+        //
+        //***************************************************************
+        Filter belowPoverty(boolean value) {
+            belowPoverty = value;
+            return this;
+        }
+        //***************************************************************
+        //
+        //  Method:       medicaid
+        //
+        //  Description:  Requires households to be, or not be, eligible
+        //                for Medicaid.
+        //
+        //  Parameters:   boolean value - true for eligible
+        //
+        //  Returns:      Filter - this filter
+        //
+        //***************************************************************
+        Filter medicaid(boolean value) {
+            medicaid = value;
+            return this;
+        }
+        //***************************************************************
+        //
+        //  Method:       matches
+        //
+        //  Description:  Tells whether one household meets every
+        //                condition.
+        //
+        //  Parameters:   HouseholdTable table         - loaded households
+        //                int index                    - table position
+        //                FPLThresholdTable thresholds - income limits
+        //
+        //  Returns:      boolean - true if the household matches
+        //
+        //***************************************************************
+        boolean matches(HouseholdTable table, int index, FPLThresholdTable thresholds) {
+            double income = table.getIncome(index);
+            if (income < minIncome || income > maxIncome) {
+                return false;
+            }
+            int size = table.getMembers(index);
+            if (size < minMembers || size > maxMembers) {
+                return false;
+            }
+            int code = table.getStateCode(index);
+            if (states != null && !inStates(table, index, code)) {
+                return false;
+            }
+            if (belowPoverty != null && (income < thresholds.povertyLevel(size)) != belowPoverty) {
+                return false;
+            }
+            return medicaid == null
+                    || (income < thresholds.medicaidLevel(StateTable.regionOf(code), size)) == medicaid;
+        }
+        //***************************************************************
+        //
+        //  Method:       inStates
+        //
+        //  Description:  Tells whether a household is in one of the
+        //                listed states. A name the state table does not
+        //                know matches that spelling exactly.
+        //
+        //  Parameters:   HouseholdTable table - loaded households
+        //                int index            - table position
+        //                int code             - its StateTable code
+        //
+        //  Returns:      boolean - true if it is in a listed state
+        //
+        //***************************************************************
+        private boolean inStates(HouseholdTable table, int index, int code) {
+            for (int s = 0; s < states.length; s++) {
+                if (stateCodes[s] != StateTable.UNKNOWN ? code == stateCodes[s]
+                        : code == StateTable.UNKNOWN && states[s].equals(table.getState(index))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        //***************************************************************
+        //
+        //  Method:       select
+        //
+        //  Description:  Returns the rows that meet every condition,
+        //                taken from the index instead of checking each
+        //                row.
+        //
+        //  Parameters:   HouseholdIndex index - row index
+        //
+        //  Returns:      RowBitmap - matching rows
+        //
+        //***************************************************************
+        RowBitmap select(HouseholdIndex index) {
+            RowBitmap rows = null;
+            if (states != null) {
+                rows = RowBitmap.empty();
+                for (String name : states) {
+                    rows = rows.or(index.state(name));
+                }
+            }
+            if (belowPoverty != null) {
+                rows = require(rows, index.belowPoverty(), belowPoverty, index);
+            }
+            if (medicaid != null) {
+                rows = require(rows, index.medicaidEligible(), medicaid, index);
+            }
+            rows = index.filterIncome(rows == null ? index.all() : rows, minIncome, maxIncome);
+            return index.filterMembers(rows, minMembers, maxMembers);
+        }
+        //***************************************************************
+        //
+        //  Method:       require
+        //
+        //  Description:  Keeps only the rows with, or without, a flag.
+        //
+        //  Parameters:   RowBitmap rows       - rows so far, null for all
+        //                RowBitmap flagged    - rows with the flag
+        //                boolean wanted       - true to keep flagged rows
+        //                HouseholdIndex index - row index
+        //
+        //  Returns:      RowBitmap - remaining rows
+        //
+        //***************************************************************
+        private static RowBitmap require(RowBitmap rows, RowBitmap flagged, boolean wanted, HouseholdIndex index) {
+            if (wanted) {
+                return rows == null ? flagged : rows.and(flagged);
+            }
+            return (rows == null ? index.all() : rows).andNot(flagged);
+        }
+    }
+}
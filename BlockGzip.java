@@ -0,0 +1,728 @@
+//********************************************************************
+//
+//  Developer:     Mauricio Rivas
+//
+//  Program #:     Three
+//
+//  File Name:     BlockGzip.java
+//
+//  Course:        COSC 4301 Modern Programming
+//
+//  Due Date:      4/14/2025
+//
+//  Instructor:    Prof. Fred Kumi
+//
+//  Java Version:  11
+//
+//  Description:   This class reads and writes block gzip (BGZF) files,
+//                 the format written by bgzip. The file is a series of
+//                 gzip members holding at most 64 KB of text each, and
+//                 each member's header gives its compressed size. The
+//                 chain of headers is the index: every block can be
+//                 found without decompressing anything, so blocks are
+//                 decoded on several threads at once. The file is also
+//                 ordinary multi-member gzip, so gunzip, zcat, and
+//                 GZIPInputStream read it as well. Converting a text
+//                 file from the command line:
+//
+//                     java BlockGzip <households.txt> <households.txt.gz>
+//
+//********************************************************************
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+public final class BlockGzip {
+    public static final int MAX_BLOCK_BYTES = 1 << 16;
+    public static final int BLOCK_DATA_BYTES = 0xFF00;
+
+    private static final int HEADER_BYTES = 18;
+    private static final int TRAILER_BYTES = 8;
+    private static final int FIXED_HEADER_BYTES = 12;
+    private static final int MAX_HEADER_BYTES = FIXED_HEADER_BYTES + 0xFFFF;
+    private static final int FLAG_EXTRA = 4;
+    private static final int FLAG_HEADER_CRC = 2;
+    private static final int FLAG_NAME = 8;
+    private static final int FLAG_COMMENT = 16;
+    private static final int READ_AHEAD_BLOCKS = 16;
+    private static final byte[] EOF_BLOCK = {
+        0x1f, (byte) 0x8b, 8, 4, 0, 0, 0, 0, 0, (byte) 0xff, 6, 0, 'B', 'C', 2, 0, 0x1b, 0,
+        3, 0, 0, 0, 0, 0, 0, 0, 0, 0
+    };
+    //***************************************************************
+    //
+    //  Method:       BlockGzip (Constructor)
+    //
+    //  Description:  Not used; the class has only static members.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      None
+    //
+    //***************************************************************
+    private BlockGzip() {
+    }
+    //***************************************************************
+    //
+    //  Method:       main
+    //
+    //  Description:  Compresses a household text file to block gzip.
+    //
+    //  Parameters:   String[] args - input text file, output file
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            System.out.println("Usage: java BlockGzip <households.txt> <households.txt.gz>");
+            return;
+        }
+        try {
+            long start = System.nanoTime();
+            int blocks = write(Paths.get(args[0]), Paths.get(args[1]));
+            System.out.printf("Wrote %d blocks (%d bytes from %d) to %s in %d ms%n", blocks,
+                    Files.size(Paths.get(args[1])), Files.size(Paths.get(args[0])), args[1],
+                    (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException | RuntimeException e) {
+            System.out.println("Error compressing " + args[0] + ": " + e.getMessage());
+        }
+    }
+    //***************************************************************
+    //
+    //  Method:       write
+    //
+    //  Description:  Compresses a file to block gzip, ending with the
+    //                empty block bgzip uses to mark the end of file.
+    //                The file is written beside the target and moved
+    //                into place.
+    //
+    //  Parameters:   Path source - file to compress
+    //                Path target - block gzip file to write
+    //
+    //  Returns:      int - number of data blocks written
+    //
+    //***************************************************************
+    public static int write(Path source, Path target) throws IOException {
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        CRC32 crc = new CRC32();
+        byte[] data = new byte[BLOCK_DATA_BYTES];
+        ByteBuffer block = ByteBuffer.allocate(MAX_BLOCK_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        int blocks = 0;
+        try (InputStream in = Files.newInputStream(source);
+             OutputStream out = Files.newOutputStream(temp)) {
+            int length;
+            while ((length = in.readNBytes(data, 0, data.length)) > 0) {
+                deflater.reset();
+                deflater.setInput(data, 0, length);
+                deflater.finish();
+                int room = MAX_BLOCK_BYTES - HEADER_BYTES - TRAILER_BYTES;
+                int compressed = 0;
+                int written = -1;
+                while (!deflater.finished() && written != 0) {
+                    written = deflater.deflate(block.array(), HEADER_BYTES + compressed, room - compressed);
+                    compressed += written;
+                }
+                if (!deflater.finished()) {
+                    throw new IOException("Block did not fit in " + MAX_BLOCK_BYTES + " bytes");
+                }
+                int size = HEADER_BYTES + compressed + TRAILER_BYTES;
+                crc.reset();
+                crc.update(data, 0, length);
+                block.clear();
+                block.put(EOF_BLOCK, 0, HEADER_BYTES - 2).putShort((short) (size - 1));
+                block.position(HEADER_BYTES + compressed);
+                block.putInt((int) crc.getValue()).putInt(length);
+                out.write(block.array(), 0, size);
+                blocks++;
+            }
+            out.write(EOF_BLOCK);
+        } finally {
+            deflater.end();
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        return blocks;
+    }
+    //***************************************************************
+    //
+    //  Method:       isGzip
+    //
+    //  Description:  Tells whether a file starts with the gzip magic
+    //                number, which no household text file starts with.
+    //
+    //  Parameters:   Path file - file to check
+    //
+    //  Returns:      boolean - true for a gzip file of any kind
+    //
+    //***************************************************************
+    public static boolean isGzip(Path file) throws IOException {
+        ByteBuffer magic = readHeader(file, 2);
+        return magic.position() == 2 && (magic.get(0) & 0xFF) == 0x1f && (magic.get(1) & 0xFF) == 0x8b;
+    }
+    //***************************************************************
+    //
+    //  Method:       isBlockGzip
+    //
+    //  Description:  Tells whether a file starts with a block gzip
+    //                member, one whose header records its size.
+    //
+    //  Parameters:   Path file - file to check
+    //
+    //  Returns:      boolean - true for a block gzip file
+    //
+    //***************************************************************
+    public static boolean isBlockGzip(Path file) throws IOException {
+        return blockSize(readHeader(file, MAX_HEADER_BYTES)) > 0;
+    }
+    //***************************************************************
+    //
+    //  Method:       blockOffsets
+    //
+    //  Description:  Walks the block headers to find where every block
+    //                starts, reading only the headers.
+    //
+    //  Parameters:   FileChannel channel - open block gzip file
+    //
+    //  Returns:      long[] - block start offsets, followed by the
+    //                file size
+    //
+    //***************************************************************
+    public static long[] blockOffsets(FileChannel channel) throws IOException {
+        long length = channel.size();
+        long[] offsets = new long[(int) Math.min(Integer.MAX_VALUE - 8, length / (MAX_BLOCK_BYTES / 4) + 16)];
+        ByteBuffer header = ByteBuffer.allocate(MAX_HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        int count = 0;
+        long offset = 0;
+        while (offset < length) {
+            header.clear().limit((int) Math.min(FIXED_HEADER_BYTES, length - offset));
+            readFully(channel, header, offset);
+            if (header.limit() == FIXED_HEADER_BYTES) {
+                header.limit((int) Math.min(FIXED_HEADER_BYTES + (header.getShort(10) & 0xFFFF), length - offset));
+                readFully(channel, header, offset);
+            }
+            int size = blockSize(header);
+            if (size <= 0) {
+                throw new IOException("Not a block gzip member at offset " + offset);
+            }
+            if (offset + size > length) {
+                throw new IOException("Block gzip file is truncated at offset " + offset);
+            }
+            if (count == offsets.length) {
+                offsets = Arrays.copyOf(offsets, count * 2);
+            }
+            offsets[count++] = offset;
+            offset += size;
+        }
+        offsets = Arrays.copyOf(offsets, count + 1);
+        offsets[count] = length;
+        return offsets;
+    }
+    //***************************************************************
+    //
+    //  Method:       parseBlocks
+    //
+    //  Description:  Decodes a run of blocks and parses the records
+    //                that start in it. Lines may cross blocks: a run
+    //                after the first skips through its first newline,
+    //                and every run decodes following blocks until it
+    //                has finished the line it stopped in, so splitting
+    //                the blocks into runs anywhere parses every record
+    //                exactly once.
+    //
+    //  Parameters:   FileChannel channel   - open block gzip file
+    //                long[] offsets        - from blockOffsets
+    //                int first             - first block of the run
+    //                int last              - block after the run
+    //                HouseholdParser.RecordHandler handler - receives
+    //                                        each record
+    //
+    //  Returns:      long - number of records parsed
+    //
+    //***************************************************************
+    public static long parseBlocks(FileChannel channel, long[] offsets, int first, int last,
+                                   HouseholdParser.RecordHandler handler) throws IOException {
+        Decoder decoder = new Decoder((last - first + 1) * MAX_BLOCK_BYTES);
+        try {
+            for (int block = first; block < last; block++) {
+                decoder.decode(channel, offsets[block], offsets[block + 1]);
+            }
+            int own = decoder.length;
+            int start = 0;
+            if (first > 0) {
+                start = indexOfNewline(decoder.data, 0, own) + 1;
+                if (start == 0) {
+                    return 0;
+                }
+            }
+            int end = -1;
+            int scanned = own;
+            for (int block = last; end < 0 && block < offsets.length - 1; block++) {
+                decoder.decode(channel, offsets[block], offsets[block + 1]);
+                end = indexOfNewline(decoder.data, scanned, decoder.length);
+                scanned = decoder.length;
+            }
+            end = end < 0 ? decoder.length : end + 1;
+            return new HouseholdParser().parse(ByteBuffer.wrap(decoder.data), start, end, handler);
+        } finally {
+            decoder.end();
+        }
+    }
+    //***************************************************************
+    //
+    //  Method:       newInputStream
+    //
+    //  Description:  Opens a block gzip file as a stream of its text.
+    //                Blocks are decoded ahead of the reader, in
+    //                batches on worker threads, and handed over in
+    //                order. Closing the stream stops the workers.
+    //
+    //  Parameters:   Path file   - block gzip file
+    //                int threads - worker threads decoding blocks
+    //
+    //  Returns:      InputStream - the decompressed text
+    //
+    //***************************************************************
+    public static InputStream newInputStream(Path file, int threads) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            return new BlockInputStream(channel, blockOffsets(channel), Math.max(1, threads));
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+    //***************************************************************
+    //
+    //  Method:       readHeader
+    //
+    //  Description:  Reads the start of a file, or all of it if it is
+    //                shorter.
+    //
+    //  Parameters:   Path file - file to read
+    //                int bytes - most bytes to read
+    //
+    //  Returns:      ByteBuffer - little-endian buffer of the bytes
+    //                read
+    //
+    //***************************************************************
+    private static ByteBuffer readHeader(Path file, int bytes) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate((int) Math.min(bytes, channel.size()));
+            readFully(channel, header.order(ByteOrder.LITTLE_ENDIAN), 0);
+            return header;
+        }
+    }
+    //***************************************************************
+    //
+    //  Method:       readFully
+    //
+    //  Description:  Fills a buffer from a file position, failing if
+    //                the file ends first.
+    //
+    //  Parameters:   FileChannel channel - open file
+    //                ByteBuffer buffer   - buffer to fill
+    //                long offset         - position of buffer start
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long offset) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, offset + buffer.position()) < 0) {
+                throw new EOFException("Block gzip file is truncated at offset " + offset);
+            }
+        }
+    }
+    //***************************************************************
+    //
+    //  Method:       blockSize
+    //
+    //  Description:  Reads the size of a gzip member from the BC
+    //                field of its header, as bgzip writes it.
+    //
+    //  Parameters:   ByteBuffer header - little-endian member header,
+    //                                    up to its limit
+    //
+    //  Returns:      int - member size in bytes, or -1 if the header
+    //                is not a block gzip header
+    //
+    //***************************************************************
+    private static int blockSize(ByteBuffer header) {
+        if (header.limit() < HEADER_BYTES || (header.get(0) & 0xFF) != 0x1f || (header.get(1) & 0xFF) != 0x8b
+                || header.get(2) != 8 || (header.get(3) & FLAG_EXTRA) == 0) {
+            return -1;
+        }
+        int extraEnd = Math.min(FIXED_HEADER_BYTES + (header.getShort(10) & 0xFFFF), header.limit());
+        for (int field = FIXED_HEADER_BYTES; field + 4 <= extraEnd; ) {
+            int fieldLength = header.getShort(field + 2) & 0xFFFF;
+            if (header.get(field) == 'B' && header.get(field + 1) == 'C' && fieldLength == 2
+                    && field + 6 <= extraEnd) {
+                return (header.getShort(field + 4) & 0xFFFF) + 1;
+            }
+            field += 4 + fieldLength;
+        }
+        return -1;
+    }
+    //***************************************************************
+    //
+    //  Method:       indexOfNewline
+    //
+    //  Description:  Finds the first newline in part of an array.
+    //
+    //  Parameters:   byte[] data - text bytes
+    //                int from    - first index to check
+    //                int to      - index to stop before
+    //
+    //  Returns:      int - index of the newline, or -1
+    //
+    //***************************************************************
+    private static int indexOfNewline(byte[] data, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (data[i] == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    //***************************************************************
+    //
+    //  Class:        Decoder
+    //
+    //  Description:  Inflates gzip members, appending their text to
+    //                one growing array and checking each member's
+    //                CRC32 and length.
+    //
+    //***************************************************************
+    private static final class Decoder {
+        private final Inflater inflater = new Inflater(true);
+        private final CRC32 crc = new CRC32();
+        private final ByteBuffer member = ByteBuffer.allocate(MAX_BLOCK_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        byte[] data;
+        int length;
+        //***************************************************************
+        //
+        //  Method:       Decoder (Constructor)
+        //
+        //  Description:  Creates a decoder sized for the given amount of
+        //                text.
+        //
+        //  Parameters:   int capacity - expected text bytes
+        //
+        //  Returns:      None
+        //
+        //***************************************************************
+        Decoder(int capacity) {
+            data = new byte[capacity + 1];
+        }
+        //***************************************************************
+        //
+        //  Method:       decode
+        //
+        //  Description:  Reads and inflates one member, appending its
+        //                text to the array and checking its CRC32 and
+        //                length.
+        //
+        //  Parameters:   FileChannel channel - open file
+        //                long start          - member offset
+        //                long end            - offset of the next member
+        //
+        //  Returns:      void
+        //
+        //***************************************************************
+        void decode(FileChannel channel, long start, long end) throws IOException {
+            int size = (int) (end - start);
+            if (size > member.capacity() || size < HEADER_BYTES + TRAILER_BYTES) {
+                throw new IOException("Bad block gzip member size " + size + " at offset " + start);
+            }
+            member.clear().limit(size);
+            readFully(channel, member, start);
+            int dataStart = skipHeader(start);
+            int expectedCrc = member.getInt(size - 8);
+            int expectedLength = member.getInt(size - 4);
+            if (expectedLength < 0 || expectedLength > MAX_BLOCK_BYTES) {
+                throw new IOException("Bad block gzip length " + expectedLength + " at offset " + start);
+            }
+            if (data.length - length <= expectedLength) {
+                data = Arrays.copyOf(data, Math.max(data.length * 2, length + expectedLength + 1));
+            }
+            inflater.reset();
+            inflater.setInput(member.array(), dataStart, size - TRAILER_BYTES - dataStart);
+            int inflated = 0;
+            int count = -1;
+            try {
+                while (!inflater.finished() && count != 0 && inflated <= expectedLength) {
+                    count = inflater.inflate(data, length + inflated, expectedLength + 1 - inflated);
+                    inflated += count;
+                }
+            } catch (DataFormatException e) {
+                throw new IOException("Corrupt block gzip data at offset " + start + ": " + e.getMessage(), e);
+            }
+            crc.reset();
+            crc.update(data, length, inflated);
+            if (!inflater.finished() || inflated != expectedLength || (int) crc.getValue() != expectedCrc) {
+                throw new IOException("Block gzip CRC or length mismatch at offset " + start);
+            }
+            length += inflated;
+        }
+        //***************************************************************
+        //
+        //  Method:       end
+        //
+        //  Description:  Frees the inflater's native memory.
+        //
+        //  Parameters:   None
+        //
+        //  Returns:      void
+        //
+        //***************************************************************
+        void end() {
+            inflater.end();
+        }
+        //***************************************************************
+        //
+        //  Method:       skipHeader
+        //
+        //  Description:  Skips the header of the member in the buffer:
+        //                the extra field, name, comment, and header CRC.
+        //
+        //  Parameters:   long start - member offset, for messages
+        //
+        //  Returns:      int - index of the deflate data
+        //
+        //***************************************************************
+        private int skipHeader(long start) throws IOException {
+            int flags = member.get(3);
+            int position = FIXED_HEADER_BYTES + (member.getShort(10) & 0xFFFF);
+            if ((flags & FLAG_NAME) != 0) {
+                position = skipString(position, start);
+            }
+            if ((flags & FLAG_COMMENT) != 0) {
+                position = skipString(position, start);
+            }
+            if ((flags & FLAG_HEADER_CRC) != 0) {
+                position += 2;
+            }
+            if (position > member.limit() - TRAILER_BYTES) {
+                throw new IOException("Bad block gzip header at offset " + start);
+            }
+            return position;
+        }
+        //***************************************************************
+        //
+        //  Method:       skipString
+        //
+        //  Description:  Skips a zero-terminated header string.
+        //
+        //  Parameters:   int position - index of the string
+        //                long start   - member offset, for messages
+        //
+        //  Returns:      int - index after the terminator
+        //
+        //***************************************************************
+        private int skipString(int position, long start) throws IOException {
+            while (position < member.limit() && member.get(position) != 0) {
+                position++;
+            }
+            if (position == member.limit()) {
+                throw new IOException("Bad block gzip header at offset " + start);
+            }
+            return position + 1;
+        }
+    }
+
+    //***************************************************************
+    //
+    //  Class:        BlockInputStream
+    //
+    //  Description:  Streams the text of a block gzip file, keeping a
+    //                few batches of blocks per worker decoding ahead
+    //                of the reader.
+    //
+    //***************************************************************
+    private static final class BlockInputStream extends InputStream {
+        private final FileChannel channel;
+        private final long[] offsets;
+        private final ExecutorService pool;
+        private final ArrayDeque<Future<ByteBuffer>> ahead = new ArrayDeque<>();
+        private final int window;
+        private int nextBlock;
+        private ByteBuffer current = ByteBuffer.allocate(0);
+        //***************************************************************
+        //
+        //  Method:       BlockInputStream (Constructor)
+        //
+        //  Description:  Starts decoding the first batches of blocks.
+        //
+        //  Parameters:   FileChannel channel - open file; closed on close
+        //                long[] offsets      - block starts and file end
+        //                int threads         - decoder threads
+        //
+        //  Returns:      None
+        //
+        //***************************************************************
+        BlockInputStream(FileChannel channel, long[] offsets, int threads) {
+            this.channel = channel;
+            this.offsets = offsets;
+            this.window = threads * 2;
+            this.pool = Executors.newFixedThreadPool(threads, task -> {
+                Thread thread = new Thread(task, "block-gzip-decoder");
+                thread.setDaemon(true);
+                return thread;
+            });
+            fill();
+        }
+        //***************************************************************
+        //
+        //  Method:       read
+        //
+        //  Description:  Reads one byte of text.
+        //
+        //  Parameters:   None
+        //
+        //  Returns:      int - the byte, or -1 at the end
+        //
+        //***************************************************************
+        @Override
+        public int read() throws IOException {
+            return advance() ? current.get() & 0xFF : -1;
+        }
+        //***************************************************************
+        //
+        //  Method:       read
+        //
+        //  Description:  Reads text from the current batch, waiting for
+        //                the next batch when it is used up.
+        //
+        //  Parameters:   byte[] buffer - array to fill
+        //                int offset    - first index to fill
+        //                int length    - most bytes to read
+        //
+        //  Returns:      int - bytes read, or -1 at the end
+        //
+        //***************************************************************
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (!advance()) {
+                return -1;
+            }
+            int count = Math.min(length, current.remaining());
+            current.get(buffer, offset, count);
+            return count;
+        }
+        //***************************************************************
+        //
+        //  Method:       close
+        //
+        //  Description:  Stops the decoder threads and closes the file.
+        //
+        //  Parameters:   None
+        //
+        //  Returns:      void
+        //
+        //***************************************************************
+        @Override
+        public void close() throws IOException {
+            pool.shutdownNow();
+            ahead.clear();
+            channel.close();
+        }
+        //***************************************************************
+        //
+        //  Method:       advance
+        //
+        //  Description:  Moves to the next decoded batch if the current
+        //                one is used up.
+        //
+        //  Parameters:   None
+        //
+        //  Returns:      boolean - false at the end of the text
+        //
+        //***************************************************************
+        private boolean advance() throws IOException {
+            while (!current.hasRemaining()) {
+                if (ahead.isEmpty()) {
+                    return false;
+                }
+                current = next();
+            }
+            return true;
+        }
+        //***************************************************************
+        //
+        //  Method:       next
+        //
+        //  Description:  Waits for the oldest batch being decoded and
+        //                queues another.
+        //
+        //  Parameters:   None
+        //
+        //  Returns:      ByteBuffer - text of the batch
+        //
+        //***************************************************************
+        private ByteBuffer next() throws IOException {
+            try {
+                ByteBuffer batch = ahead.poll().get();
+                fill();
+                return batch;
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                throw cause instanceof IOException ? (IOException) cause : new IOException(cause);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while decoding block gzip", e);
+            }
+        }
+        //***************************************************************
+        //
+        //  Method:       fill
+        //
+        //  Description:  Queues batches of blocks for decoding until the
+        //                read-ahead window is full or no blocks are left.
+        //
+        //  Parameters:   None
+        //
+        //  Returns:      void
+        //
+        //***************************************************************
+        private void fill() {
+            while (ahead.size() < window && nextBlock < offsets.length - 1) {
+                int first = nextBlock;
+                int last = Math.min(offsets.length - 1, first + READ_AHEAD_BLOCKS);
+                nextBlock = last;
+                ahead.add(pool.submit(() -> {
+                    Decoder decoder = new Decoder((last - first) * MAX_BLOCK_BYTES);
+                    try {
+                        for (int block = first; block < last; block++) {
+                            decoder.decode(channel, offsets[block], offsets[block + 1]);
+                        }
+                        return ByteBuffer.wrap(decoder.data, 0, decoder.length);
+                    } finally {
+                        decoder.end();
+                    }
+                }));
+            }
+        }
+    }
+}
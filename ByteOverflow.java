@@ -0,0 +1,99 @@
+//********************************************************************
+//
+//  Developer:     Mauricio Rivas
+//
+//  Program #:     Three
+//
+//  File Name:     ByteOverflow.java
+//
+//  Course:        COSC 4301 Modern Programming
+//
+//  Due Date:      4/14/2025
+//
+//  Instructor:    Prof. Fred Kumi
+//
+//  Java Version:  11
+//
+//  Description:   This class lets a one-byte column hold any int. The
+//                 values 0-254 are stored in the byte itself; any
+//                 other value is stored as the escape byte 255 and
+//                 kept in a map by row. Household sizes and state
+//                 codes almost always fit, so the map stays empty and
+//                 the column keeps its size.
+//
+//********************************************************************
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class ByteOverflow {
+    public static final int ESCAPE = 0xFF;
+
+    private final Map<Integer, Integer> values = new HashMap<>();
+    //***************************************************************
+    //
+    //  Method:       encode
+    //
+    //  Description:  Returns the byte to store for one row, keeping
+    //                the value aside when it does not fit.
+    //
+    //  Parameters:   int row   - row the byte is stored in
+    //                int value - value to store
+    //
+    //  Returns:      byte - the value, or the escape byte
+    //
+    //***************************************************************
+    public byte encode(int row, int value) {
+        if (value >= 0 && value < ESCAPE) {
+            values.remove(row);
+            return (byte) value;
+        }
+        values.put(row, value);
+        return (byte) ESCAPE;
+    }
+    //***************************************************************
+    //
+    //  Method:       decode
+    //
+    //  Description:  Returns the value of one row from its stored byte.
+    //
+    //  Parameters:   int row     - row the byte was read from
+    //                byte stored - the stored byte
+    //
+    //  Returns:      int - the value
+    //
+    //***************************************************************
+    public int decode(int row, byte stored) {
+        int value = stored & 0xFF;
+        return value != ESCAPE ? value : values.get(row);
+    }
+    //***************************************************************
+    //
+    //  Method:       isEmpty
+    //
+    //  Description:  Tells whether every value so far fit in its byte,
+    //                so the column can be read as plain bytes.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      boolean - true if no value was escaped
+    //
+    //***************************************************************
+    public boolean isEmpty() {
+        return values.isEmpty();
+    }
+    //***************************************************************
+    //
+    //  Method:       clear
+    //
+    //  Description:  Forgets every escaped value.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    public void clear() {
+        values.clear();
+    }
+}
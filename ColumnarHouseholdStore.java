@@ -0,0 +1,333 @@
+//********************************************************************
+//
+//  Developer:     Mauricio Rivas
+//
+//  Program #:     Three
+//
+//  File Name:     ColumnarHouseholdStore.java
+//
+//  Course:        COSC 4301 Modern Programming
+//
+//  Due Date:      4/14/2025
+//
+//  Instructor:    Prof. Fred Kumi
+//
+//  Java Version:  11
+//
+//  Description:   This class stores households as primitive columns
+//                 (int ID, double income, byte members, byte state)
+//                 instead of one object per record, which takes about
+//                 14 bytes of heap per household. Sizes and state
+//                 codes that do not fit a byte are kept aside by a
+//                 ByteOverflow. A reference year column is added only
+//                 once a record carries a year.
+//                 Files can be loaded through the stream parser or
+//                 memory-mapped with HouseholdParser.parseMapped.
+//
+//********************************************************************
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+public class ColumnarHouseholdStore implements HouseholdTable, HouseholdParser.RecordHandler {
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int AVERAGE_LINE_BYTES = 24;
+
+    private int[] ids = new int[INITIAL_CAPACITY];
+    private double[] incomes = new double[INITIAL_CAPACITY];
+    private byte[] members = new byte[INITIAL_CAPACITY];
+    private byte[] states = new byte[INITIAL_CAPACITY];
+    private short[] years;
+    private int size;
+
+    private final StateDictionary dictionary = new StateDictionary();
+    private final ByteOverflow wideMembers = new ByteOverflow();
+    private final ByteOverflow wideStates = new ByteOverflow();
+    //***************************************************************
+    //
+    //  Method:       loadMapped
+    //
+    //  Description:  Memory-maps a household file and appends every
+    //                record to the columns, sized up front from the
+    //                file length.
+    //
+    //  Parameters:   Path file - household data file
+    //
+    //  Returns:      long - number of records added
+    //
+    //***************************************************************
+    public long loadMapped(Path file) throws IOException {
+        ensureCapacity(size + (int) Math.min(Integer.MAX_VALUE - 8, Files.size(file) / AVERAGE_LINE_BYTES));
+        return new HouseholdParser().parseMapped(file, this);
+    }
+    //***************************************************************
+    //
+    //  Method:       onRecord
+    //
+    //  Description:  Appends one parsed household to the columns.
+    //
+    //  Parameters:   int id         - Household ID
+    //                double income  - Annual income
+    //                int members    - Number of household members
+    //                int stateCode  - StateTable code or UNKNOWN
+    //                String state   - State of residence
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    @Override
+    public void onRecord(int id, double income, int members, int stateCode, String state) {
+        add(id, income, members, stateCode, state);
+    }
+    //***************************************************************
+    //
+    //  Method:       onRecord
+    //
+    //  Description:  Appends one parsed household and its reference
+    //                year to the columns.
+    //
+    //  Parameters:   record fields - as above
+    //                int year      - reference year, or 0 for none
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    @Override
+    public void onRecord(int id, double income, int members, int stateCode, String state, int year) {
+        add(id, income, members, stateCode, state);
+        if (year != 0) {
+            setReferenceYear(size - 1, year);
+        }
+    }
+    //***************************************************************
+    //
+    //  Method:       add
+    //
+    //  Description:  Appends one household to the columns. A state
+    //                spelled exactly as in the state table is stored
+    //                as its code alone; any other spelling is kept in
+    //                the dictionary with the code it resolves to, so it
+    //                prints as written.
+    //
+    //  Parameters:   int id         - Household ID
+    //                double income  - Annual income
+    //                int members    - Number of household members
+    //                int stateCode  - StateTable code or UNKNOWN
+    //                String state   - State of residence
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    public void add(int id, double income, int members, int stateCode, String state) {
+        if (size == ids.length) {
+            ensureCapacity(size + (size >> 1) + 1);
+        }
+        ids[size] = id;
+        incomes[size] = income;
+        this.members[size] = wideMembers.encode(size, members);
+        states[size] = wideStates.encode(size, dictionary.encode(stateCode, state));
+        size++;
+    }
+    //***************************************************************
+    //
+    //  Method:       setReferenceYear
+    //
+    //  Description:  Sets the guideline year of one household. The
+    //                year column is created the first time it is used.
+    //
+    //  Parameters:   int index - position in the store
+    //                int year  - reference year, or 0 for none
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    public void setReferenceYear(int index, int year) {
+        if (year < 0 || year > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Reference year out of range for ID " + ids[index] + ": " + year);
+        }
+        if (years == null) {
+            if (year == 0) {
+                return;
+            }
+            years = new short[ids.length];
+        }
+        years[index] = (short) year;
+    }
+    //***************************************************************
+    //
+    //  Method:       trimToSize
+    //
+    //  Description:  Shrinks the columns to the number of households.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    public void trimToSize() {
+        if (size < ids.length) {
+            ids = Arrays.copyOf(ids, size);
+            incomes = Arrays.copyOf(incomes, size);
+            members = Arrays.copyOf(members, size);
+            states = Arrays.copyOf(states, size);
+            if (years != null) {
+                years = Arrays.copyOf(years, size);
+            }
+        }
+    }
+
+    //***************************************************************
+    //
+    //  Method:       addTo
+    //
+    //  Description:  Adds every household to an aggregate straight
+    //                from the columns, or row by row when some size or
+    //                state code did not fit its byte.
+    //
+    //  Parameters:   HouseholdAggregate totals - aggregate to add to
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    public void addTo(HouseholdAggregate totals) {
+        if (!wideMembers.isEmpty() || !wideStates.isEmpty()) {
+            for (int i = 0; i < size; i++) {
+                totals.add(incomes[i], getMembers(i), getStateCode(i));
+            }
+            return;
+        }
+        totals.addColumns(incomes, members, states, dictionary.getStateCodes(), 0, size);
+    }
+    //***************************************************************
+    //
+    //  Method:       size
+    //
+    //  Description:  Returns the number of households in the store.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      int - household count
+    //
+    //***************************************************************
+    @Override
+    public int size() {
+        return size;
+    }
+    //***************************************************************
+    //
+    //  Method:       getId
+    //
+    //  Description:  Returns the ID of one household.
+    //
+    //  Parameters:   int index - position in the table
+    //
+    //  Returns:      int - Household ID
+    //
+    //***************************************************************
+    @Override
+    public int getId(int index) {
+        return ids[index];
+    }
+    //***************************************************************
+    //
+    //  Method:       getIncome
+    //
+    //  Description:  Returns the annual income of one household.
+    //
+    //  Parameters:   int index - position in the table
+    //
+    //  Returns:      double - Annual income
+    //
+    //***************************************************************
+    @Override
+    public double getIncome(int index) {
+        return incomes[index];
+    }
+    //***************************************************************
+    //
+    //  Method:       getMembers
+    //
+    //  Description:  Returns the number of people in one household.
+    //
+    //  Parameters:   int index - position in the table
+    //
+    //  Returns:      int - Number of household members
+    //
+    //***************************************************************
+    @Override
+    public int getMembers(int index) {
+        return wideMembers.decode(index, members[index]);
+    }
+    //***************************************************************
+    //
+    //  Method:       getStateCode
+    //
+    //  Description:  Returns the StateTable code of the state one
+    //                household lives in, decoding a dictionary code.
+    //
+    //  Parameters:   int index - position in the table
+    //
+    //  Returns:      int - StateTable code or UNKNOWN
+    //
+    //***************************************************************
+    @Override
+    public int getStateCode(int index) {
+        return dictionary.stateCode(wideStates.decode(index, states[index]));
+    }
+    //***************************************************************
+    //
+    //  Method:       getState
+    //
+    //  Description:  Returns the state of one household as it was
+    //                written.
+    //
+    //  Parameters:   int index - position in the table
+    //
+    //  Returns:      String - State name
+    //
+    //***************************************************************
+    @Override
+    public String getState(int index) {
+        return dictionary.name(wideStates.decode(index, states[index]));
+    }
+    //***************************************************************
+    //
+    //  Method:       getReferenceYear
+    //
+    //  Description:  Returns the guideline year of one household.
+    //
+    //  Parameters:   int index - position in the table
+    //
+    //  Returns:      int - reference year, or 0 for none
+    //
+    //***************************************************************
+    @Override
+    public int getReferenceYear(int index) {
+        return years == null ? 0 : years[index];
+    }
+    //***************************************************************
+    //
+    //  Method:       ensureCapacity
+    //
+    //  Description:  Grows every column to hold at least the given
+    //                number of households.
+    //
+    //  Parameters:   int capacity - rows needed
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    private void ensureCapacity(int capacity) {
+        if (capacity > ids.length) {
+            ids = Arrays.copyOf(ids, capacity);
+            incomes = Arrays.copyOf(incomes, capacity);
+            members = Arrays.copyOf(members, capacity);
+            states = Arrays.copyOf(states, capacity);
+            if (years != null) {
+                years = Arrays.copyOf(years, capacity);
+            }
+        }
+    }
+}
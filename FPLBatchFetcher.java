@@ -0,0 +1,461 @@
+//********************************************************************
+//
+//  Developer:     Mauricio Rivas
+//
+//  Program #:     Three
+//
+//  File Name:     FPLBatchFetcher.java
+//
+//  Course:        COSC 4301 Modern Programming
+//
+//  Due Date:      4/14/2025
+//
+//  Instructor:    Prof. Fred Kumi
+//
+//  Java Version:  11
+//
+//  Description:   This class sends poverty guideline requests to the
+//                 HHS API through one shared HTTP/2 client. Requests
+//                 are sent asynchronously with a cap on how many are in
+//                 flight and a timeout on each one, so a cold start
+//                 costs about one round-trip instead of one per key.
+//                 Timeouts, connection errors, 429, and 5xx answers are
+//                 retried with exponential backoff and jitter inside a
+//                 deadline for the whole key, and a circuit breaker
+//                 stops calling the API for a while after repeated
+//                 failures, so a slow or failing API cannot stall a
+//                 run.
+//
+//********************************************************************
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+public class FPLBatchFetcher {
+    private static final String DEFAULT_API_URL =
+            "https://aspe.hhs.gov/topics/poverty-economic-mobility/poverty-guidelines/api/";
+    private static final int DEFAULT_CONCURRENCY = 36;
+    private static final long DEFAULT_TIMEOUT_MILLIS = 10000;
+    private static final long DEFAULT_CONNECT_TIMEOUT_MILLIS = 3000;
+    private static final int DEFAULT_RETRIES = 2;
+    private static final long DEFAULT_BACKOFF_MILLIS = 200;
+    private static final long MAX_BACKOFF_MILLIS = 2000;
+    private static final long DEFAULT_DEADLINE_MILLIS = 15000;
+    private static final int DEFAULT_BREAKER_FAILURES = 5;
+    private static final long DEFAULT_BREAKER_OPEN_MILLIS = 30000;
+    private static FPLBatchFetcher shared;
+
+    private final HttpClient client;
+    private final String apiUrl;
+    private final Semaphore permits;
+    private final Duration timeout;
+    private final int retries;
+    private final long backoffMillis;
+    private final long deadlineMillis;
+    private final CircuitBreaker breaker;
+    //***************************************************************
+    //
+    //  Method:       getShared
+    //
+    //  Description:  Returns the fetcher shared by the whole program.
+    //                The API address, concurrency cap, and timeout can
+    //                be set with the fpl.api.url, fpl.fetch.concurrency,
+    //                and fpl.fetch.timeoutMillis system properties, and
+    //                the retry and breaker settings with
+    //                fpl.fetch.connectTimeoutMillis, fpl.fetch.retries,
+    //                fpl.fetch.backoffMillis, fpl.fetch.deadlineMillis,
+    //                fpl.breaker.failures, and fpl.breaker.openMillis.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      FPLBatchFetcher - the shared fetcher
+    //
+    //***************************************************************
+    public static synchronized FPLBatchFetcher getShared() {
+        if (shared == null) {
+            shared = new FPLBatchFetcher(
+                    System.getProperty("fpl.api.url", DEFAULT_API_URL),
+                    Integer.getInteger("fpl.fetch.concurrency", DEFAULT_CONCURRENCY),
+                    Duration.ofMillis(Long.getLong("fpl.fetch.timeoutMillis", DEFAULT_TIMEOUT_MILLIS)),
+                    Duration.ofMillis(Long.getLong("fpl.fetch.connectTimeoutMillis", DEFAULT_CONNECT_TIMEOUT_MILLIS)),
+                    Integer.getInteger("fpl.fetch.retries", DEFAULT_RETRIES),
+                    Long.getLong("fpl.fetch.backoffMillis", DEFAULT_BACKOFF_MILLIS),
+                    Long.getLong("fpl.fetch.deadlineMillis", DEFAULT_DEADLINE_MILLIS),
+                    Integer.getInteger("fpl.breaker.failures", DEFAULT_BREAKER_FAILURES),
+                    Long.getLong("fpl.breaker.openMillis", DEFAULT_BREAKER_OPEN_MILLIS));
+        }
+        return shared;
+    }
+    //***************************************************************
+    //
+    //  Method:       FPLBatchFetcher (Constructor)
+    //
+    //  Description:  Creates a fetcher with its own pooled HTTP/2
+    //                client and the default retry and breaker settings.
+    //
+    //  Parameters:   String apiUrl      - base URL ending in "/"
+    //                int maxConcurrent  - most requests in flight
+    //                Duration timeout   - limit for each request
+    //
+    //  Returns:      None
+    //
+    //***************************************************************
+    public FPLBatchFetcher(String apiUrl, int maxConcurrent, Duration timeout) {
+        this(apiUrl, maxConcurrent, timeout, Duration.ofMillis(DEFAULT_CONNECT_TIMEOUT_MILLIS), DEFAULT_RETRIES,
+                DEFAULT_BACKOFF_MILLIS, DEFAULT_DEADLINE_MILLIS, DEFAULT_BREAKER_FAILURES,
+                DEFAULT_BREAKER_OPEN_MILLIS);
+    }
+    //***************************************************************
+    //
+    //  Method:       FPLBatchFetcher (Constructor)
+    //
+    //  Description:  Creates a fetcher with its own pooled HTTP/2
+    //                client, retry policy, and circuit breaker.
+    //
+    //  Parameters:   String apiUrl            - base URL ending in "/"
+    //                int maxConcurrent        - most keys in flight
+    //                Duration timeout         - limit for each request
+    //                Duration connectTimeout  - limit for connecting
+    //                int retries              - retries after the first
+    //                                           attempt of a key
+    //                long backoffMillis       - first retry delay, then
+    //                                           doubled up to 2 seconds
+    //                long deadlineMillis      - limit for all attempts
+    //                                           of one key
+    //                int breakerFailures      - failures in a row that
+    //                                           open the breaker
+    //                long breakerOpenMillis   - time the breaker stays
+    //                                           open before one trial
+    //
+    //  Returns:      None
+    //
+    //***************************************************************
+    public FPLBatchFetcher(String apiUrl, int maxConcurrent, Duration timeout, Duration connectTimeout, int retries,
+            long backoffMillis, long deadlineMillis, int breakerFailures, long breakerOpenMillis) {
+        this.apiUrl = apiUrl.endsWith("/") ? apiUrl : apiUrl + "/";
+        this.permits = new Semaphore(Math.max(1, maxConcurrent));
+        this.timeout = timeout;
+        this.retries = Math.max(0, retries);
+        this.backoffMillis = Math.max(1, backoffMillis);
+        this.deadlineMillis = deadlineMillis;
+        this.breaker = new CircuitBreaker(Math.max(1, breakerFailures), breakerOpenMillis);
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(connectTimeout)
+                .build();
+    }
+    //***************************************************************
+    //
+    //  Method:       fetchAsync
+    //
+    //  Description:  Sends one guideline request without waiting for
+    //                the answer, retrying it as needed. The caller
+    //                blocks only while the concurrency cap is reached.
+    //                The permit is released before any stage the caller
+    //                adds to the returned future runs, so such a stage
+    //                may block without holding a request slot. While
+    //                the circuit breaker is open the answer is NaN at
+    //                once and no request is sent.
+    //
+    //  Parameters:   int year      - guideline year
+    //                String region - region code (us/ak/hi)
+    //                int size      - household size
+    //
+    //  Returns:      CompletableFuture<Double> - guideline income, or
+    //                NaN if the request failed
+    //
+    //***************************************************************
+    public CompletableFuture<Double> fetchAsync(int year, String region, int size) {
+        if (!breaker.allow()) {
+            return CompletableFuture.completedFuture(Double.NaN);
+        }
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            breaker.failure();
+            return CompletableFuture.completedFuture(Double.NaN);
+        }
+
+        CompletableFuture<Double> attempts = new CompletableFuture<>();
+        CompletableFuture<Double> result = attempts.handle((income, error) -> {
+            permits.release();
+            return error != null ? Double.NaN : income;
+        });
+        try {
+            URI uri = URI.create(apiUrl + year + "/" + region + "/" + size);
+            attempt(uri, 0, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(deadlineMillis), attempts);
+        } catch (RuntimeException e) {
+            breaker.failure();
+            attempts.complete(Double.NaN);
+        }
+        return result;
+    }
+    //***************************************************************
+    //
+    //  Method:       attempt
+    //
+    //  Description:  Sends one try of a request and completes the
+    //                result, or schedules the next try after a backoff
+    //                when the failure is worth retrying and the
+    //                deadline leaves room for it.
+    //
+    //  Parameters:   URI uri                          - request address
+    //                int tried                        - tries already made
+    //                long deadline                    - System.nanoTime
+    //                                                   limit for the key
+    //                CompletableFuture<Double> result - completed with
+    //                                                   the income or NaN
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    private void attempt(URI uri, int tried, long deadline, CompletableFuture<Double> result) {
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0) {
+            result.complete(Double.NaN);
+            return;
+        }
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(uri)
+                .timeout(Duration.ofNanos(Math.min(timeout.toNanos(), remaining)))
+                .GET()
+                .build();
+        RunMetrics metrics = RunMetrics.getShared();
+        long start = metrics.start();
+        client.sendAsync(request, HttpResponse.BodyHandlers.ofString()).whenComplete((response, error) -> {
+            double income = error != null || response.statusCode() != 200
+                    ? Double.NaN
+                    : FPLGuidelineCache.extractIncomeFromJson(response.body());
+            boolean ok = income > 0;
+            metrics.httpRequest(start, !ok);
+            if (ok) {
+                breaker.success();
+                result.complete(income);
+                return;
+            }
+            breaker.failure();
+            long delay = backoff(tried);
+            boolean retryable = error != null ? isRetryable(error) : isRetryable(response.statusCode());
+            if (!retryable || tried >= retries || !breaker.allow()
+                    || System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delay) >= deadline) {
+                result.complete(Double.NaN);
+                return;
+            }
+            metrics.count(RunMetrics.RETRIES, 1);
+            CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS).execute(() -> {
+                try {
+                    attempt(uri, tried + 1, deadline, result);
+                } catch (RuntimeException e) {
+                    result.complete(Double.NaN);
+                }
+            });
+        });
+    }
+    //***************************************************************
+    //
+    //  Method:       fetch
+    //
+    //  Description:  Sends one guideline request and waits for it.
+    //
+    //  Parameters:   int year      - guideline year
+    //                String region - region code (us/ak/hi)
+    //                int size      - household size
+    //
+    //  Returns:      double - guideline income, or NaN on failure
+    //
+    //***************************************************************
+    public double fetch(int year, String region, int size) {
+        return fetchAsync(year, region, size).join();
+    }
+    //***************************************************************
+    //
+    //  Method:       isCircuitOpen
+    //
+    //  Description:  Tells whether the breaker is open, so new
+    //                requests fail at once.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      boolean - true if the breaker is open
+    //
+    //***************************************************************
+    public boolean isCircuitOpen() {
+        return breaker.isOpen();
+    }
+    //***************************************************************
+    //
+    //  Method:       backoff
+    //
+    //  Description:  Returns the delay before a retry: the base delay
+    //                doubled per try made, capped at 2 seconds, of
+    //                which a random half is jitter so keys that failed
+    //                together do not retry together.
+    //
+    //  Parameters:   int tried - tries already made
+    //
+    //  Returns:      long - delay in milliseconds
+    //
+    //***************************************************************
+    private long backoff(int tried) {
+        long ceiling = Math.min(MAX_BACKOFF_MILLIS, backoffMillis << Math.min(tried, 20));
+        return ceiling / 2 + ThreadLocalRandom.current().nextLong(ceiling / 2 + 1);
+    }
+    //***************************************************************
+    //
+    //  Method:       isRetryable
+    //
+    //  Description:  Tells whether an HTTP status is worth retrying:
+    //                429 or a server error.
+    //
+    //  Parameters:   int status - HTTP status code
+    //
+    //  Returns:      boolean - true to retry
+    //
+    //***************************************************************
+    private static boolean isRetryable(int status) {
+        return status == 429 || status >= 500;
+    }
+    //***************************************************************
+    //
+    //  Method:       isRetryable
+    //
+    //  Description:  Tells whether a request failure is worth
+    //                retrying: a connection or timeout error, not a
+    //                bad answer.
+    //
+    //  Parameters:   Throwable error - the failure, possibly wrapped
+    //
+    //  Returns:      boolean - true to retry
+    //
+    //***************************************************************
+    private static boolean isRetryable(Throwable error) {
+        Throwable cause = error.getCause() != null ? error.getCause() : error;
+        return cause instanceof IOException;
+    }
+    //***************************************************************
+    //
+    //  Class:        CircuitBreaker
+    //
+    //  Description:  Counts request failures in a row. When they reach
+    //                the threshold the breaker opens and requests fail
+    //                at once; after the open time one trial request is
+    //                let through, and its success closes the breaker
+    //                while its failure opens it again.
+    //
+    //***************************************************************
+    private static final class CircuitBreaker {
+        private final int threshold;
+        private final long openNanos;
+        private int failures;
+        private boolean open;
+        private boolean trial;
+        private long openedAt;
+        //***************************************************************
+        //
+        //  Method:       CircuitBreaker (Constructor)
+        //
+        //  Description:  Creates a closed breaker.
+        //
+        //  Parameters:   int threshold   - failures in a row that open it
+        //                long openMillis - time it stays open
+        //
+        //  Returns:      None
+        //
+        //***************************************************************
+        CircuitBreaker(int threshold, long openMillis) {
+            this.threshold = threshold;
+            this.openNanos = TimeUnit.MILLISECONDS.toNanos(openMillis);
+        }
+        //***************************************************************
+        //
+        //  Method:       allow
+        //
+        //  Description:  Tells whether a request may be sent. Once the
+        //                open time has passed, the first caller is let
+        //                through as the trial request.
+        //
+        //  Parameters:   None
+        //
+        //  Returns:      boolean - true to send the request
+        //
+        //***************************************************************
+        synchronized boolean allow() {
+            if (!open) {
+                return true;
+            }
+            if (trial || System.nanoTime() - openedAt < openNanos) {
+                return false;
+            }
+            trial = true;
+            return true;
+        }
+        //***************************************************************
+        //
+        //  Method:       success
+        //
+        //  Description:  Records a successful request, which closes the
+        //                breaker.
+        //
+        //  Parameters:   None
+        //
+        //  Returns:      void
+        //
+        //***************************************************************
+        synchronized void success() {
+            failures = 0;
+            open = false;
+            trial = false;
+        }
+        //***************************************************************
+        //
+        //  Method:       failure
+        //
+        //  Description:  Records a failed request. Reaching the threshold
+        //                opens the breaker, and a failed trial keeps it
+        //                open for another open time.
+        //
+        //  Parameters:   None
+        //
+        //  Returns:      void
+        //
+        //***************************************************************
+        synchronized void failure() {
+            if (open) {
+                if (trial) {
+                    trial = false;
+                    openedAt = System.nanoTime();
+                }
+                return;
+            }
+            if (++failures >= threshold) {
+                open = true;
+                openedAt = System.nanoTime();
+                RunMetrics.getShared().error("FPL API failing, pausing requests for "
+                        + TimeUnit.NANOSECONDS.toMillis(openNanos) + " ms.");
+            }
+        }
+        //***************************************************************
+        //
+        //  Method:       isOpen
+        //
+        //  Description:  Tells whether the breaker is open.
+        //
+        //  Parameters:   None
+        //
+        //  Returns:      boolean - true if open
+        //
+        //***************************************************************
+        synchronized boolean isOpen() {
+            return open;
+        }
+    }
+}
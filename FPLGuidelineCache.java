@@ -0,0 +1,455 @@
+//********************************************************************
+//
+//  Developer:     Mauricio Rivas
+//
+//  Program #:     Three
+//
+//  File Name:     FPLGuidelineCache.java
+//
+//  Course:        COSC 4301 Modern Programming
+//
+//  Due Date:      4/14/2025
+//
+//  Instructor:    Prof. Fred Kumi
+//
+//  Java Version:  11
+//
+//  Description:   This class keeps the federal poverty guideline table
+//                 keyed by (year, region, household size). Values are
+//                 held in memory, saved to a local file with a time to
+//                 live, and loaded from that file at startup so a warm
+//                 start makes no API calls at all. Years and regions
+//                 held by the guideline store are answered from it
+//                 first, and with the fpl.offline system property set
+//                 the API is never called. An entry past its time to
+//                 live is still answered at once while a fresh value
+//                 is fetched in the background, and is kept if that
+//                 fetch fails.
+//
+//********************************************************************
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+public class FPLGuidelineCache {
+    public static final int DEFAULT_YEAR = 2025;
+
+    private static final String DEFAULT_FILE = "FPLGuidelineCache.txt";
+    private static final long DEFAULT_TTL_HOURS = 24 * 30;
+    private static FPLGuidelineCache shared;
+
+    private final Map<String, Double> levels = new HashMap<>();
+    private final Map<String, Long> fetchedAt = new HashMap<>();
+    private final Set<String> failed = new HashSet<>();
+    private final Set<String> refreshing = new HashSet<>();
+    private final Path file;
+    private final long ttlMillis;
+    private final FPLBatchFetcher fetcher;
+    private final GuidelineStore store;
+    private final RunMetrics metrics = RunMetrics.getShared();
+    private boolean dirty;
+    //***************************************************************
+    //
+    //  Method:       getShared
+    //
+    //  Description:  Returns the cache shared by Program3 and
+    //                HouseholdProcessor, backed by the shared guideline
+    //                store. The file name and time to live can be set
+    //                with the fpl.cache.file and fpl.cache.ttlHours
+    //                system properties; -Dfpl.offline=true turns off
+    //                the API.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      FPLGuidelineCache - the shared cache
+    //
+    //***************************************************************
+    public static synchronized FPLGuidelineCache getShared() {
+        if (shared == null) {
+            String fileName = System.getProperty("fpl.cache.file", DEFAULT_FILE);
+            long ttlHours = Long.getLong("fpl.cache.ttlHours", DEFAULT_TTL_HOURS);
+            FPLBatchFetcher fetcher = Boolean.getBoolean("fpl.offline") ? null : FPLBatchFetcher.getShared();
+            shared = new FPLGuidelineCache(fileName, ttlHours, fetcher, GuidelineStore.getShared());
+        }
+        return shared;
+    }
+    //***************************************************************
+    //
+    //  Method:       FPLGuidelineCache (Constructor)
+    //
+    //  Description:  Creates a cache backed by the given file and
+    //                loads its entries.
+    //
+    //  Parameters:   String fileName         - cache file on disk
+    //                long ttlHours           - hours before an entry expires
+    //                FPLBatchFetcher fetcher - source for missing keys
+    //
+    //  Returns:      None
+    //
+    //***************************************************************
+    public FPLGuidelineCache(String fileName, long ttlHours, FPLBatchFetcher fetcher) {
+        this(fileName, ttlHours, fetcher, new GuidelineStore());
+    }
+    //***************************************************************
+    //
+    //  Method:       FPLGuidelineCache (Constructor)
+    //
+    //  Description:  Creates a cache that answers from a guideline
+    //                store before its file or the API.
+    //
+    //  Parameters:   String fileName         - cache file on disk
+    //                long ttlHours           - hours before an entry expires
+    //                FPLBatchFetcher fetcher - source for missing keys,
+    //                                          or null to stay offline
+    //                GuidelineStore store    - preloaded guidelines
+    //
+    //  Returns:      None
+    //
+    //***************************************************************
+    public FPLGuidelineCache(String fileName, long ttlHours, FPLBatchFetcher fetcher, GuidelineStore store) {
+        this.file = Paths.get(fileName);
+        this.ttlMillis = ttlHours * 60 * 60 * 1000;
+        this.fetcher = fetcher;
+        this.store = store;
+        load();
+    }
+    //***************************************************************
+    //
+    //  Method:       getFPL
+    //
+    //  Description:  Returns the poverty guideline for one key. The
+    //                API is only called when the key is neither in the
+    //                store nor cached, and a failed key is not retried
+    //                during the run. A cached value past its time to
+    //                live is returned as is and refreshed in the
+    //                background. The cache is locked only to read and
+    //                publish entries, never while a request is waited
+    //                for.
+    //
+    //  Parameters:   int year      - guideline year
+    //                String region - region code (us/ak/hi)
+    //                int size      - household size
+    //
+    //  Returns:      double - guideline income, or NaN if unavailable
+    //
+    //***************************************************************
+    public double getFPL(int year, String region, int size) {
+        double stored = store.getFPL(year, region, size);
+        if (!Double.isNaN(stored)) {
+            metrics.count(RunMetrics.CACHE_HITS, 1);
+            return stored;
+        }
+        String key = key(year, region, size);
+        Double level;
+        boolean refresh = false;
+        synchronized (this) {
+            level = levels.get(key);
+            if (level != null) {
+                metrics.count(RunMetrics.CACHE_HITS, 1);
+                refresh = isStale(key) && startRefresh(key);
+            } else {
+                metrics.count(RunMetrics.CACHE_MISSES, 1);
+                if (failed.contains(key) || fetcher == null) {
+                    return Double.NaN;
+                }
+            }
+        }
+        if (level != null) {
+            if (refresh) {
+                revalidate(key, year, region, size);
+            }
+            return level;
+        }
+
+        double fetched = fetcher.fetch(year, region, size);
+        synchronized (this) {
+            record(key, fetched);
+        }
+        return fetched;
+    }
+    //***************************************************************
+    //
+    //  Method:       prefetch
+    //
+    //  Description:  Fetches every missing (region, size) key for one
+    //                year concurrently, so later getFPL calls are all
+    //                answered from memory. Keys in the store are not
+    //                fetched, and stale keys are refreshed in the
+    //                background. Requests are sent and waited for
+    //                outside the cache lock.
+    //
+    //  Parameters:   int year         - guideline year
+    //                String[] regions - region codes (us/ak/hi)
+    //                int[] sizes      - household sizes
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    public void prefetch(int year, String[] regions, int[] sizes) {
+        if (fetcher == null) {
+            return;
+        }
+        List<String> keys = new ArrayList<>();
+        List<String> stale = new ArrayList<>();
+        synchronized (this) {
+            for (String region : regions) {
+                for (int size : sizes) {
+                    String key = key(year, region, size);
+                    if (!Double.isNaN(store.getFPL(year, region, size))) {
+                        continue;
+                    }
+                    if (levels.containsKey(key)) {
+                        if (isStale(key) && startRefresh(key)) {
+                            stale.add(key);
+                        }
+                    } else if (!failed.contains(key) && !keys.contains(key)) {
+                        keys.add(key);
+                    }
+                }
+            }
+        }
+        metrics.count(RunMetrics.CACHE_MISSES, keys.size());
+
+        for (String key : stale) {
+            String[] parts = key.split("/");
+            revalidate(key, year, parts[1], Integer.parseInt(parts[2]));
+        }
+        List<CompletableFuture<Double>> pending = new ArrayList<>();
+        for (String key : keys) {
+            String[] parts = key.split("/");
+            pending.add(fetcher.fetchAsync(year, parts[1], Integer.parseInt(parts[2])));
+        }
+        double[] fetched = new double[keys.size()];
+        for (int i = 0; i < keys.size(); i++) {
+            fetched[i] = pending.get(i).join();
+        }
+        synchronized (this) {
+            for (int i = 0; i < keys.size(); i++) {
+                record(keys.get(i), fetched[i]);
+            }
+        }
+    }
+    //***************************************************************
+    //
+    //  Method:       save
+    //
+    //  Description:  Writes the cached table to disk if any entry was
+    //                added since it was loaded or last saved.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    public synchronized void save() {
+        if (!dirty) {
+            return;
+        }
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file))) {
+            out.println("# year region size income fetchedAtMillis");
+            for (Map.Entry<String, Double> entry : levels.entrySet()) {
+                String[] parts = entry.getKey().split("/");
+                out.println(parts[0] + " " + parts[1] + " " + parts[2] + " "
+                        + entry.getValue() + " " + fetchedAt.get(entry.getKey()));
+            }
+            dirty = false;
+        } catch (IOException e) {
+            System.out.println("Error writing FPL cache file: " + file);
+        }
+    }
+    //***************************************************************
+    //
+    //  Method:       load
+    //
+    //  Description:  Reads the entries of the cache file, expired
+    //                ones included so they can be served while they
+    //                are refreshed. A missing or damaged file leaves the
+    //                cache empty.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    private void load() {
+        if (!Files.exists(file)) {
+            return;
+        }
+        try (BufferedReader in = Files.newBufferedReader(file)) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] parts = line.split("\\s+");
+                put(key(Integer.parseInt(parts[0]), parts[1], Integer.parseInt(parts[2])),
+                        Double.parseDouble(parts[3]), Long.parseLong(parts[4]));
+            }
+        } catch (IOException | RuntimeException e) {
+            System.out.println("Error reading FPL cache file, starting empty: " + file);
+            levels.clear();
+            fetchedAt.clear();
+        }
+    }
+    //***************************************************************
+    //
+    //  Method:       extractIncomeFromJson
+    //
+    //  Description:  Parses a JSON string to extract income value.
+    //
+    //  Parameters:   String json - JSON response body
+    //
+    //  Returns:      double - extracted income value, 0 if missing
+    //
+    //***************************************************************
+    static double extractIncomeFromJson(String json) {
+        String key = "\"income\":";
+        int index = json.indexOf(key);
+        if (index == -1) return 0.0;
+
+        int start = index + key.length();
+        int end = json.indexOf(",", start);
+        if (end == -1) {
+            end = json.indexOf("}", start);
+        }
+        if (end == -1) {
+            return 0.0;
+        }
+
+        String value = json.substring(start, end).replaceAll("[^0-9.]", "").trim();
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            System.out.println("Error parsing poverty income value: " + value);
+            return 0.0;
+        }
+    }
+
+    //***************************************************************
+    //
+    //  Method:       revalidate
+    //
+    //  Description:  Starts a background fetch of a stale key claimed
+    //                with startRefresh. Called without the cache lock;
+    //                the lock is taken only to publish the answer. A
+    //                good answer replaces the cached value; a failed
+    //                one leaves the stale value in place.
+    //
+    //  Parameters:   String key    - cache key
+    //                int year      - guideline year
+    //                String region - region code (us/ak/hi)
+    //                int size      - household size
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    private void revalidate(String key, int year, String region, int size) {
+        fetcher.fetchAsync(year, region, size).thenAccept(level -> {
+            synchronized (this) {
+                refreshing.remove(key);
+                if (!Double.isNaN(level)) {
+                    put(key, level, System.currentTimeMillis());
+                    dirty = true;
+                }
+            }
+        });
+    }
+    //***************************************************************
+    //
+    //  Method:       startRefresh
+    //
+    //  Description:  Marks a key as being refreshed, unless it
+    //                already is or there is no fetcher.
+    //
+    //  Parameters:   String key - year/region/size key
+    //
+    //  Returns:      boolean - true if the caller should refresh it
+    //
+    //***************************************************************
+    private boolean startRefresh(String key) {
+        return fetcher != null && refreshing.add(key);
+    }
+    //***************************************************************
+    //
+    //  Method:       isStale
+    //
+    //  Description:  Tells whether a cached guideline is older than
+    //                the time to live.
+    //
+    //  Parameters:   String key - year/region/size key
+    //
+    //  Returns:      boolean - true if stale
+    //
+    //***************************************************************
+    private boolean isStale(String key) {
+        return System.currentTimeMillis() - fetchedAt.get(key) > ttlMillis;
+    }
+    //***************************************************************
+    //
+    //  Method:       record
+    //
+    //  Description:  Saves the answer of a fetch, or remembers the
+    //                key as failed when there was no answer, so it is
+    //                not asked for again this run.
+    //
+    //  Parameters:   String key   - year/region/size key
+    //                double level - fetched level, or NaN
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    private void record(String key, double level) {
+        if (Double.isNaN(level)) {
+            failed.add(key);
+        } else {
+            put(key, level, System.currentTimeMillis());
+            dirty = true;
+        }
+    }
+    //***************************************************************
+    //
+    //  Method:       put
+    //
+    //  Description:  Stores one guideline level and the time it was
+    //                fetched.
+    //
+    //  Parameters:   String key   - year/region/size key
+    //                double level - 100% guideline income
+    //                long time    - fetch time in epoch milliseconds
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    private void put(String key, double level, long time) {
+        levels.put(key, level);
+        fetchedAt.put(key, time);
+    }
+    //***************************************************************
+    //
+    //  Method:       key
+    //
+    //  Description:  Builds the cache key of one guideline.
+    //
+    //  Parameters:   int year      - guideline year
+    //                String region - region code, e.g. "us"
+    //                int size      - household size
+    //
+    //  Returns:      String - year/region/size key
+    //
+    //***************************************************************
+    private static String key(int year, String region, int size) {
+        return year + "/" + region + "/" + size;
+    }
+}
@@ -0,0 +1,376 @@
+//********************************************************************
+//
+//  Developer:     Mauricio Rivas
+//
+//  Program #:     Three
+//
+//  File Name:     FPLThresholdTable.java
+//
+//  Course:        COSC 4301 Modern Programming
+//
+//  Due Date:      4/14/2025
+//
+//  Instructor:    Prof. Fred Kumi
+//
+//  Java Version:  11
+//
+//  Description:   This class holds the income limits used by the
+//                 analysis code, precomputed for every multiplier of
+//                 the poverty guideline (100%, 138%, and any others
+//                 configured), guideline region, and household size.
+//                 Checking a household is one array index and one
+//                 compare, with no boxing or String handling. Sizes
+//                 above the table are extended by the guideline's
+//                 amount per additional person. A region whose
+//                 guidelines cannot be loaded is filled from the
+//                 nearest year in the guideline store, with a warning,
+//                 and the table is marked degraded.
+//
+//********************************************************************
+
+import java.util.Arrays;
+
+public class FPLThresholdTable {
+    public static final int MAX_TABLE_SIZE = 12;
+    public static final double POVERTY_MULTIPLIER = 1.00;
+    public static final double MEDICAID_MULTIPLIER = 1.38;
+    public static final int POVERTY_LEVEL = 0;
+    public static final int MEDICAID_LEVEL = 1;
+
+    private final int year;
+    private final double[] multipliers;
+    private final double[][][] limits;
+    private final double[][] increments;
+    private boolean degraded;
+    //***************************************************************
+    //
+    //  Method:       load
+    //
+    //  Description:  Builds the table for one year from the FPL cache
+    //                with the multipliers set by the fpl.multipliers
+    //                system property (comma separated, e.g. "1.5,2"),
+    //                in addition to 100% and 138%.
+    //
+    //  Parameters:   FPLGuidelineCache cache - guideline source
+    //                int year                - guideline year
+    //
+    //  Returns:      FPLThresholdTable - the loaded table
+    //
+    //***************************************************************
+    public static FPLThresholdTable load(FPLGuidelineCache cache, int year) {
+        return load(cache, year, parseMultipliers(System.getProperty("fpl.multipliers", "")));
+    }
+    //***************************************************************
+    //
+    //  Method:       load
+    //
+    //  Description:  Builds the table for one year from the FPL cache,
+    //                fetching every region and size it needs in one
+    //                batch. Regions that are still missing a size get
+    //                fallback values instead of silently making every
+    //                household ineligible.
+    //
+    //  Parameters:   FPLGuidelineCache cache   - guideline source
+    //                int year                  - guideline year
+    //                double... extraMultipliers - limits to precompute
+    //                                             besides 100% and 138%
+    //
+    //  Returns:      FPLThresholdTable - the loaded table
+    //
+    //***************************************************************
+    public static FPLThresholdTable load(FPLGuidelineCache cache, int year, double... extraMultipliers) {
+        int[] sizes = new int[MAX_TABLE_SIZE];
+        for (int i = 0; i < sizes.length; i++) {
+            sizes[i] = i + 1;
+        }
+        cache.prefetch(year, StateTable.REGION_CODES, sizes);
+
+        double[][] guidelines = new double[StateTable.REGION_CODES.length][MAX_TABLE_SIZE + 1];
+        for (int region = 0; region < guidelines.length; region++) {
+            for (int size = 1; size <= MAX_TABLE_SIZE; size++) {
+                guidelines[region][size] = cache.getFPL(year, StateTable.REGION_CODES[region], size);
+            }
+        }
+        cache.save();
+        boolean degraded = fillMissing(year, guidelines, GuidelineStore.getShared());
+        FPLThresholdTable table = new FPLThresholdTable(year, guidelines, extraMultipliers);
+        table.degraded = degraded;
+        return table;
+    }
+    //***************************************************************
+    //
+    //  Method:       fillMissing
+    //
+    //  Description:  Replaces every region that has a missing size
+    //                with the guidelines of the stored year closest to
+    //                the requested one (the earlier year on a tie),
+    //                printing a warning for each region replaced.
+    //
+    //  Parameters:   int year              - requested guideline year
+    //                double[][] guidelines - 100% guidelines by region
+    //                                        and size, filled in place
+    //                GuidelineStore store  - source of fallback values
+    //
+    //  Returns:      boolean - true if any region was missing
+    //
+    //***************************************************************
+    static boolean fillMissing(int year, double[][] guidelines, GuidelineStore store) {
+        boolean degraded = false;
+        for (int region = 0; region < guidelines.length; region++) {
+            boolean missing = false;
+            for (int size = 1; size <= MAX_TABLE_SIZE; size++) {
+                missing |= Double.isNaN(guidelines[region][size]);
+            }
+            if (!missing) {
+                continue;
+            }
+            degraded = true;
+
+            int fallbackYear = 0;
+            for (int stored : store.getYears()) {
+                boolean present = !Double.isNaN(store.getFPL(stored, region, 1));
+                if (present && (fallbackYear == 0 || Math.abs(stored - year) < Math.abs(fallbackYear - year))) {
+                    fallbackYear = stored;
+                }
+            }
+            String code = StateTable.REGION_CODES[region];
+            if (fallbackYear == 0) {
+                System.out.println("Warning: FPL guidelines for " + year + "/" + code
+                        + " are unavailable and no fallback is stored; limits for this region are unusable.");
+                continue;
+            }
+            System.out.println("Warning: FPL guidelines for " + year + "/" + code + " are unavailable; using the "
+                    + fallbackYear + " guidelines instead (degraded mode).");
+            for (int size = 1; size <= MAX_TABLE_SIZE; size++) {
+                guidelines[region][size] = store.getFPL(fallbackYear, region, size);
+            }
+        }
+        return degraded;
+    }
+    //***************************************************************
+    //
+    //  Method:       FPLThresholdTable (Constructor)
+    //
+    //  Description:  Precomputes every limit from the 100% guidelines.
+    //                A missing guideline (NaN) gives a limit no income
+    //                falls below.
+    //
+    //  Parameters:   int year                  - guideline year
+    //                double[][] guidelines     - 100% guideline indexed
+    //                                            by region, then size
+    //                                            1 to MAX_TABLE_SIZE
+    //                double... extraMultipliers - limits to precompute
+    //                                             besides 100% and 138%
+    //
+    //  Returns:      None
+    //
+    //***************************************************************
+    public FPLThresholdTable(int year, double[][] guidelines, double... extraMultipliers) {
+        this.year = year;
+        this.multipliers = new double[2 + extraMultipliers.length];
+        multipliers[POVERTY_LEVEL] = POVERTY_MULTIPLIER;
+        multipliers[MEDICAID_LEVEL] = MEDICAID_MULTIPLIER;
+        System.arraycopy(extraMultipliers, 0, multipliers, 2, extraMultipliers.length);
+
+        this.limits = new double[multipliers.length][guidelines.length][MAX_TABLE_SIZE + 1];
+        this.increments = new double[multipliers.length][guidelines.length];
+        for (int level = 0; level < multipliers.length; level++) {
+            for (int region = 0; region < guidelines.length; region++) {
+                double[] row = limits[level][region];
+                for (int size = 1; size <= MAX_TABLE_SIZE; size++) {
+                    row[size] = guidelines[region][size] * multipliers[level];
+                }
+                row[0] = row[1];
+                increments[level][region] = row[MAX_TABLE_SIZE] - row[MAX_TABLE_SIZE - 1];
+            }
+        }
+    }
+    //***************************************************************
+    //
+    //  Method:       getYear
+    //
+    //  Description:  Returns the guideline year of the table.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      int - guideline year
+    //
+    //***************************************************************
+    public int getYear() {
+        return year;
+    }
+    //***************************************************************
+    //
+    //  Method:       isDegraded
+    //
+    //  Description:  Tells whether any region of the table was filled
+    //                with fallback guidelines from another year.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      boolean - true in degraded mode
+    //
+    //***************************************************************
+    public boolean isDegraded() {
+        return degraded;
+    }
+    //***************************************************************
+    //
+    //  Method:       getMultipliers
+    //
+    //  Description:  Returns the precomputed multipliers in level
+    //                order: 100%, 138%, then any configured extras.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      double[] - multipliers, indexed by level
+    //
+    //***************************************************************
+    public double[] getMultipliers() {
+        return multipliers.clone();
+    }
+    //***************************************************************
+    //
+    //  Method:       levelOf
+    //
+    //  Description:  Finds the precomputed level for a multiplier.
+    //
+    //  Parameters:   double multiplier - e.g. 1.38 for 138% of FPL
+    //
+    //  Returns:      int - level for limit(), or -1 if the multiplier
+    //                was not precomputed
+    //
+    //***************************************************************
+    public int levelOf(double multiplier) {
+        for (int level = 0; level < multipliers.length; level++) {
+            if (multipliers[level] == multiplier) {
+                return level;
+            }
+        }
+        return -1;
+    }
+    //***************************************************************
+    //
+    //  Method:       fingerprint
+    //
+    //  Description:  Returns a value that changes whenever the year
+    //                or any threshold in the table changes, so saved
+    //                results built from an older table can be detected.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      long - table fingerprint
+    //
+    //***************************************************************
+    public long fingerprint() {
+        long hash = year;
+        for (double[][] level : limits) {
+            for (double[] row : level) {
+                for (double value : row) {
+                    hash = hash * 31 + Double.doubleToLongBits(value);
+                }
+            }
+        }
+        return hash;
+    }
+    //***************************************************************
+    //
+    //  Method:       limit
+    //
+    //  Description:  Returns an income limit. Sizes below 1 use the
+    //                1-person limit; sizes above the table add the
+    //                per-person amount for each additional member.
+    //
+    //  Parameters:   int level   - POVERTY_LEVEL, MEDICAID_LEVEL, or a
+    //                              value from levelOf
+    //                int region  - StateTable region constant
+    //                int members - household size
+    //
+    //  Returns:      double - income limit
+    //
+    //***************************************************************
+    public double limit(int level, int region, int members) {
+        double[] row = limits[level][region];
+        if (members > MAX_TABLE_SIZE) {
+            return row[MAX_TABLE_SIZE] + increments[level][region] * (members - MAX_TABLE_SIZE);
+        }
+        return row[Math.max(members, 0)];
+    }
+    //***************************************************************
+    //
+    //  Method:       limit
+    //
+    //  Description:  Returns the income limit for a multiplier of the
+    //                poverty guideline, such as 1.33 or 2.00.
+    //
+    //  Parameters:   double multiplier - precomputed multiplier
+    //                int region        - StateTable region constant
+    //                int members       - household size
+    //
+    //  Returns:      double - income limit
+    //
+    //***************************************************************
+    public double limit(double multiplier, int region, int members) {
+        int level = levelOf(multiplier);
+        if (level < 0) {
+            throw new IllegalArgumentException("FPL multiplier " + multiplier
+                    + " was not precomputed; add it to fpl.multipliers");
+        }
+        return limit(level, region, members);
+    }
+    //***************************************************************
+    //
+    //  Method:       povertyLevel
+    //
+    //  Description:  Returns the poverty line for a household size,
+    //                from the contiguous US guideline as the reports
+    //                have always used.
+    //
+    //  Parameters:   int members - household size
+    //
+    //  Returns:      double - poverty line income
+    //
+    //***************************************************************
+    public double povertyLevel(int members) {
+        return limit(POVERTY_LEVEL, StateTable.REGION_CONTIGUOUS, members);
+    }
+    //***************************************************************
+    //
+    //  Method:       medicaidLevel
+    //
+    //  Description:  Returns the Medicaid income limit (138% of FPL)
+    //                for a household in a guideline region.
+    //
+    //  Parameters:   int region  - StateTable region constant
+    //                int members - household size
+    //
+    //  Returns:      double - Medicaid income limit
+    //
+    //***************************************************************
+    public double medicaidLevel(int region, int members) {
+        return limit(MEDICAID_LEVEL, region, members);
+    }
+    //***************************************************************
+    //
+    //  Method:       parseMultipliers
+    //
+    //  Description:  Parses a comma separated list of multipliers,
+    //                ignoring blank entries.
+    //
+    //  Parameters:   String list - e.g. "1.5,2"
+    //
+    //  Returns:      double[] - the multipliers
+    //
+    //***************************************************************
+    static double[] parseMultipliers(String list) {
+        String[] parts = list.trim().isEmpty() ? new String[0] : list.split(",");
+        double[] values = new double[parts.length];
+        int count = 0;
+        for (String part : parts) {
+            if (!part.trim().isEmpty()) {
+                values[count++] = Double.parseDouble(part.trim());
+            }
+        }
+        return Arrays.copyOf(values, count);
+    }
+}
@@ -0,0 +1,367 @@
+//********************************************************************
+//
+//  Developer:     Mauricio Rivas
+//
+//  Program #:     Three
+//
+//  File Name:     FusedAnalyticsEngine.java
+//
+//  Course:        COSC 4301 Modern Programming
+//
+//  Due Date:      4/14/2025
+//
+//  Instructor:    Prof. Fred Kumi
+//
+//  Java Version:  11
+//
+//  Description:   This class computes every report total (income sum,
+//                 count, below-FPL count, Medicaid-eligible count) in a
+//                 single pass over the data. Only the above-average
+//                 listing needs the finished average; for in-memory
+//                 tables it is a second pass over the columns, and for
+//                 files it reads back a compact spill file written
+//                 during the first pass instead of parsing the text
+//                 again.
+//
+//********************************************************************
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class FusedAnalyticsEngine {
+    private static final int SPILL_BUFFER_BYTES = 1 << 16;
+
+    //***************************************************************
+    //
+    //  Interface:    RowVisitor
+    //
+    //  Description:  Sees each row of a table during the fused pass,
+    //                along with whether it is below the poverty line.
+    //
+    //***************************************************************
+    public interface RowVisitor {
+        //***************************************************************
+        //
+        //  Method:       visit
+        //
+        //  Description:  Sees one row of the table.
+        //
+        //  Parameters:   int index            - position in the table
+        //                boolean belowPoverty - true if below poverty
+        //
+        //  Returns:      void
+        //
+        //***************************************************************
+        void visit(int index, boolean belowPoverty);
+    }
+
+    //***************************************************************
+    //
+    //  Interface:    RowHandler
+    //
+    //  Description:  Receives the rows selected by a listing pass.
+    //
+    //***************************************************************
+    public interface RowHandler {
+        //***************************************************************
+        //
+        //  Method:       accept
+        //
+        //  Description:  Receives one selected row.
+        //
+        //  Parameters:   int index - position in the table
+        //
+        //  Returns:      void
+        //
+        //***************************************************************
+        void accept(int index);
+    }
+
+    private final FPLThresholdTable thresholds;
+    //***************************************************************
+    //
+    //  Method:       FusedAnalyticsEngine (Constructor)
+    //
+    //  Description:  Creates an engine for one set of income limits.
+    //
+    //  Parameters:   FPLThresholdTable thresholds - income limits
+    //
+    //  Returns:      None
+    //
+    //***************************************************************
+    public FusedAnalyticsEngine(FPLThresholdTable thresholds) {
+        this.thresholds = thresholds;
+    }
+    //***************************************************************
+    //
+    //  Method:       scan
+    //
+    //  Description:  Computes all report totals in one pass over a
+    //                table. The visitor, if given, sees every row in
+    //                the same pass so listings can be produced without
+    //                another scan. Without a visitor the totals come
+    //                from the column kernels where the table allows.
+    //
+    //  Parameters:   HouseholdTable households - data to analyze
+    //                RowVisitor visitor        - per-row callback, or
+    //                                            null
+    //
+    //  Returns:      HouseholdAggregate - report totals
+    //
+    //***************************************************************
+    public HouseholdAggregate scan(HouseholdTable households, RowVisitor visitor) {
+        HouseholdAggregate totals = new HouseholdAggregate(thresholds);
+        if (visitor == null) {
+            totals.add(households);
+            return totals;
+        }
+        for (int i = 0; i < households.size(); i++) {
+            double income = households.getIncome(i);
+            int members = households.getMembers(i);
+            totals.add(income, members, households.getStateCode(i));
+            visitor.visit(i, income < thresholds.povertyLevel(members));
+        }
+        return totals;
+    }
+    //***************************************************************
+    //
+    //  Method:       forEachAboveAverage
+    //
+    //  Description:  Runs the one extra pass the reports need: the
+    //                rows whose income exceeds the finished average.
+    //
+    //  Parameters:   HouseholdTable households - data to list
+    //                double average            - average income
+    //                RowHandler handler        - receives each row
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    public void forEachAboveAverage(HouseholdTable households, double average, RowHandler handler) {
+        for (int i = 0; i < households.size(); i++) {
+            if (households.getIncome(i) > average) {
+                handler.accept(i);
+            }
+        }
+    }
+    //***************************************************************
+    //
+    //  Method:       forEachAboveAverage
+    //
+    //  Description:  Lists one page of the above-average rows. The
+    //                scan stops as soon as the page is full and one
+    //                more matching row has been seen.
+    //
+    //  Parameters:   HouseholdTable households - data to list
+    //                double average            - average income
+    //                long skip                 - matching rows to skip
+    //                int limit                 - most rows to list
+    //                RowHandler handler        - receives each row
+    //
+    //  Returns:      boolean - true if more rows match after the page
+    //
+    //***************************************************************
+    public boolean forEachAboveAverage(HouseholdTable households, double average, long skip, int limit,
+                                       RowHandler handler) {
+        long seen = 0;
+        for (int i = 0; i < households.size(); i++) {
+            if (households.getIncome(i) > average) {
+                if (seen >= skip + limit) {
+                    return true;
+                }
+                if (seen++ >= skip) {
+                    handler.accept(i);
+                }
+            }
+        }
+        return false;
+    }
+    //***************************************************************
+    //
+    //  Method:       scanFile
+    //
+    //  Description:  Streams a household file once, computing the
+    //                totals while writing each record to a binary
+    //                spill file. The returned scan lists above-average
+    //                records from the spill, so the text is parsed only
+    //                once and nothing is kept in memory.
+    //
+    //  Parameters:   Path file - input data
+    //
+    //  Returns:      FileScan - totals and spill; close it when done
+    //
+    //***************************************************************
+    public FileScan scanFile(Path file) throws IOException {
+        HouseholdAggregate totals = new HouseholdAggregate(thresholds);
+        Path spill = Files.createTempFile("households", ".spill");
+        try (InputStream in = HouseholdParser.open(file);
+             DataOutputStream out = new DataOutputStream(
+                     new BufferedOutputStream(Files.newOutputStream(spill), SPILL_BUFFER_BYTES))) {
+            new HouseholdParser().parse(in, (id, income, members, stateCode, state) -> {
+                totals.add(income, members, stateCode);
+                writeSpill(out, id, income, members, stateCode, state);
+            });
+        } catch (UncheckedIOException e) {
+            Files.deleteIfExists(spill);
+            throw e.getCause();
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(spill);
+            throw e;
+        }
+        return new FileScan(totals, spill);
+    }
+    //***************************************************************
+    //
+    //  Method:       writeSpill
+    //
+    //  Description:  Writes one record to the spill file. States
+    //                spelled as in StateTable are stored as their code
+    //                only; other names are written out in full.
+    //
+    //  Parameters:   DataOutputStream out - spill file
+    //                record fields        - household to write
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    private static void writeSpill(DataOutputStream out, int id, double income, int members,
+                                   int stateCode, String state) {
+        try {
+            out.writeInt(id);
+            out.writeDouble(income);
+            out.writeInt(members);
+            boolean canonical = stateCode != StateTable.UNKNOWN && StateTable.name(stateCode).equals(state);
+            out.writeByte(stateCode);
+            out.writeBoolean(canonical);
+            if (!canonical) {
+                out.writeUTF(state);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    //***************************************************************
+    //
+    //  Method:       readSpill
+    //
+    //  Description:  Reads the spill file back in order and hands on
+    //                every record whose income exceeds the average.
+    //
+    //  Parameters:   Path spill                           - spill file
+    //                double average                       - average
+    //                HouseholdParser.RecordHandler handler - receives
+    //                                                        records
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    private static void readSpill(Path spill, double average, HouseholdParser.RecordHandler handler)
+            throws IOException {
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(spill), SPILL_BUFFER_BYTES))) {
+            while (true) {
+                int id;
+                try {
+                    id = in.readInt();
+                } catch (EOFException e) {
+                    return;
+                }
+                double income = in.readDouble();
+                int members = in.readInt();
+                int stateCode = in.readByte();
+                String state = in.readBoolean() ? StateTable.name(stateCode) : in.readUTF();
+                if (income > average) {
+                    handler.onRecord(id, income, members, stateCode, state);
+                }
+            }
+        }
+    }
+
+    //***************************************************************
+    //
+    //  Class:        FileScan
+    //
+    //  Description:  The result of scanFile: the report totals and the
+    //                spill file used for the above-average listing.
+    //
+    //***************************************************************
+    public static class FileScan implements AutoCloseable {
+        private final HouseholdAggregate totals;
+        private final Path spill;
+        //***************************************************************
+        //
+        //  Method:       FileScan (Constructor)
+        //
+        //  Description:  Keeps the totals of one scan and the spill file
+        //                it wrote.
+        //
+        //  Parameters:   HouseholdAggregate totals - report totals
+        //                Path spill                - file of the
+        //                                            households read
+        //
+        //  Returns:      None
+        //
+        //***************************************************************
+        FileScan(HouseholdAggregate totals, Path spill) {
+            this.totals = totals;
+            this.spill = spill;
+        }
+        //***************************************************************
+        //
+        //  Method:       getTotals
+        //
+        //  Description:  Returns the report totals of the scanned file.
+        //
+        //  Parameters:   None
+        //
+        //  Returns:      HouseholdAggregate - report totals
+        //
+        //***************************************************************
+        public HouseholdAggregate getTotals() {
+            return totals;
+        }
+        //***************************************************************
+        //
+        //  Method:       forEachAboveAverage
+        //
+        //  Description:  Reads the spill file back and passes each
+        //                household with an above-average income to the
+        //                handler.
+        //
+        //  Parameters:   HouseholdParser.RecordHandler handler - receives
+        //                                                        each
+        //                                                        household
+        //
+        //  Returns:      void
+        //
+        //***************************************************************
+        public void forEachAboveAverage(HouseholdParser.RecordHandler handler) throws IOException {
+            if (totals.getCount() > 0) {
+                readSpill(spill, totals.getAverageIncome(), handler);
+            }
+        }
+        //***************************************************************
+        //
+        //  Method:       close
+        //
+        //  Description:  Deletes the spill file.
+        //
+        //  Parameters:   None
+        //
+        //  Returns:      void
+        //
+        //***************************************************************
+        @Override
+        public void close() throws IOException {
+            Files.deleteIfExists(spill);
+        }
+    }
+}
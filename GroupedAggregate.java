@@ -0,0 +1,415 @@
+//********************************************************************
+//
+//  Developer:     Mauricio Rivas
+//
+//  Program #:     Three
+//
+//  File Name:     GroupedAggregate.java
+//
+//  Course:        COSC 4301 Modern Programming
+//
+//  Due Date:      4/14/2025
+//
+//  Instructor:    Prof. Fred Kumi
+//
+//  Java Version:  11
+//
+//  Description:   This class accumulates the report totals for every
+//                 state and household size at once. Each state code
+//                 (plus one group for names outside StateTable) and
+//                 size bucket has a cell in flat primitive arrays, so
+//                 a household is added with one index computation and
+//                 no map lookups. Totals by state, by size, or overall
+//                 are sums over the cells. Partial results from
+//                 separate chunks can be merged, as with
+//                 HouseholdAggregate.
+//
+//********************************************************************
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+public class GroupedAggregate implements HouseholdParser.RecordHandler {
+    public static final int ALL = -1;
+    public static final int OTHER_STATE = StateTable.COUNT;
+    public static final int STATE_GROUPS = StateTable.COUNT + 1;
+    public static final int SIZE_GROUPS = HouseholdAggregate.SIZE_BUCKETS;
+    private static final int CELLS = STATE_GROUPS * SIZE_GROUPS;
+
+    private final FPLThresholdTable thresholds;
+    private final long[] count = new long[CELLS];
+    private final long[] incomeCents = new long[CELLS];
+    private final double[] otherIncome = new double[CELLS];
+    private final long[] belowPoverty = new long[CELLS];
+    private final long[] medicaidEligible = new long[CELLS];
+    //***************************************************************
+    //
+    //  Method:       GroupedAggregate (Constructor)
+    //
+    //  Description:  Creates an empty set of groups.
+    //
+    //  Parameters:   FPLThresholdTable thresholds - income limits
+    //
+    //  Returns:      None
+    //
+    //***************************************************************
+    public GroupedAggregate(FPLThresholdTable thresholds) {
+        this.thresholds = thresholds;
+    }
+    //***************************************************************
+    //
+    //  Method:       onRecord
+    //
+    //  Description:  Adds one parsed household to its group.
+    //
+    //  Parameters:   int id         - Household ID
+    //                double income  - Annual income
+    //                int members    - Number of household members
+    //                int stateCode  - StateTable code or UNKNOWN
+    //                String state   - State of residence
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    @Override
+    public void onRecord(int id, double income, int members, int stateCode, String state) {
+        add(income, members, stateCode);
+    }
+    //***************************************************************
+    //
+    //  Method:       add
+    //
+    //  Description:  Adds one household to its state and size cell.
+    //                Incomes in whole cents are summed exactly, as in
+    //                HouseholdAggregate.
+    //
+    //  Parameters:   double income  - Annual income
+    //                int members    - Number of household members
+    //                int stateCode  - StateTable code or UNKNOWN
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    public void add(double income, int members, int stateCode) {
+        int cell = stateGroup(stateCode) * SIZE_GROUPS + HouseholdAggregate.sizeBucket(members);
+        count[cell]++;
+        long cents = HouseholdAggregate.wholeCents(income);
+        if (cents != HouseholdAggregate.NOT_WHOLE_CENTS) {
+            incomeCents[cell] += cents;
+        } else {
+            otherIncome[cell] += income;
+        }
+        if (income < thresholds.povertyLevel(members)) {
+            belowPoverty[cell]++;
+        }
+        if (income < thresholds.medicaidLevel(StateTable.regionOf(stateCode), members)) {
+            medicaidEligible[cell]++;
+        }
+    }
+    //***************************************************************
+    //
+    //  Method:       add
+    //
+    //  Description:  Adds every household in a table to its group.
+    //
+    //  Parameters:   HouseholdTable households - data to add
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    public void add(HouseholdTable households) {
+        for (int i = 0; i < households.size(); i++) {
+            add(households.getIncome(i), households.getMembers(i), households.getStateCode(i));
+        }
+    }
+    //***************************************************************
+    //
+    //  Method:       merge
+    //
+    //  Description:  Adds the cells of another set of groups to this
+    //                one.
+    //
+    //  Parameters:   GroupedAggregate other - partial totals
+    //
+    //  Returns:      GroupedAggregate - this aggregate
+    //
+    //***************************************************************
+    public GroupedAggregate merge(GroupedAggregate other) {
+        for (int cell = 0; cell < CELLS; cell++) {
+            count[cell] += other.count[cell];
+            incomeCents[cell] += other.incomeCents[cell];
+            otherIncome[cell] += other.otherIncome[cell];
+            belowPoverty[cell] += other.belowPoverty[cell];
+            medicaidEligible[cell] += other.medicaidEligible[cell];
+        }
+        return this;
+    }
+    //***************************************************************
+    //
+    //  Method:       writeTo
+    //
+    //  Description:  Writes every cell in binary form. The floating
+    //                point part of each income sum is written as raw
+    //                bits, as in HouseholdAggregate.
+    //
+    //  Parameters:   DataOutput out - destination
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(CELLS);
+        for (int cell = 0; cell < CELLS; cell++) {
+            out.writeLong(count[cell]);
+            out.writeLong(incomeCents[cell]);
+            out.writeLong(Double.doubleToRawLongBits(otherIncome[cell]));
+            out.writeLong(belowPoverty[cell]);
+            out.writeLong(medicaidEligible[cell]);
+        }
+    }
+    //***************************************************************
+    //
+    //  Method:       readFrom
+    //
+    //  Description:  Reads cells written by writeTo.
+    //
+    //  Parameters:   DataInput in                 - source
+    //                FPLThresholdTable thresholds - income limits the
+    //                                               cells were built
+    //                                               with
+    //
+    //  Returns:      GroupedAggregate - the restored groups
+    //
+    //***************************************************************
+    public static GroupedAggregate readFrom(DataInput in, FPLThresholdTable thresholds) throws IOException {
+        int cells = in.readInt();
+        if (cells != CELLS) {
+            throw new IOException("Group layout mismatch: expected " + CELLS + " cells, found " + cells);
+        }
+        GroupedAggregate groups = new GroupedAggregate(thresholds);
+        for (int cell = 0; cell < CELLS; cell++) {
+            groups.count[cell] = in.readLong();
+            groups.incomeCents[cell] = in.readLong();
+            groups.otherIncome[cell] = Double.longBitsToDouble(in.readLong());
+            groups.belowPoverty[cell] = in.readLong();
+            groups.medicaidEligible[cell] = in.readLong();
+        }
+        return groups;
+    }
+    //***************************************************************
+    //
+    //  Method:       stateGroup
+    //
+    //  Description:  Returns the state group of a StateTable code.
+    //
+    //  Parameters:   int stateCode - StateTable code or UNKNOWN
+    //
+    //  Returns:      int - the code, or OTHER_STATE for UNKNOWN
+    //
+    //***************************************************************
+    public static int stateGroup(int stateCode) {
+        return stateCode == StateTable.UNKNOWN ? OTHER_STATE : stateCode;
+    }
+    //***************************************************************
+    //
+    //  Method:       sizeGroup
+    //
+    //  Description:  Returns the size group of a household size. The
+    //                last group holds every size from 13 up.
+    //
+    //  Parameters:   int members - household size
+    //
+    //  Returns:      int - size group
+    //
+    //***************************************************************
+    public static int sizeGroup(int members) {
+        return HouseholdAggregate.sizeBucket(members);
+    }
+    //***************************************************************
+    //
+    //  Method:       getCount
+    //
+    //  Description:  Returns the households in a group. Either
+    //                argument may be ALL to total over it.
+    //
+    //  Parameters:   int stateGroup - state group or ALL
+    //                int sizeGroup  - size group or ALL
+    //
+    //  Returns:      long - number of households
+    //
+    //***************************************************************
+    public long getCount(int stateGroup, int sizeGroup) {
+        return sum(count, stateGroup, sizeGroup);
+    }
+    //***************************************************************
+    //
+    //  Method:       getTotalIncome
+    //
+    //  Description:  Returns the income of the households in a group:
+    //                the whole-cent total plus the incomes that were
+    //                not whole cents.
+    //
+    //  Parameters:   int stateGroup - state group or ALL
+    //                int sizeGroup  - size group or ALL
+    //
+    //  Returns:      double - total income
+    //
+    //***************************************************************
+    public double getTotalIncome(int stateGroup, int sizeGroup) {
+        double other = 0;
+        for (int state = first(stateGroup); state <= last(stateGroup, STATE_GROUPS); state++) {
+            for (int size = first(sizeGroup); size <= last(sizeGroup, SIZE_GROUPS); size++) {
+                other += otherIncome[state * SIZE_GROUPS + size];
+            }
+        }
+        return sum(incomeCents, stateGroup, sizeGroup) / 100.0 + other;
+    }
+    //***************************************************************
+    //
+    //  Method:       getAverageIncome
+    //
+    //  Description:  Returns the mean income of the households in a
+    //                group.
+    //
+    //  Parameters:   int stateGroup - state group or ALL
+    //                int sizeGroup  - size group or ALL
+    //
+    //  Returns:      double - average income
+    //
+    //***************************************************************
+    public double getAverageIncome(int stateGroup, int sizeGroup) {
+        return getTotalIncome(stateGroup, sizeGroup) / getCount(stateGroup, sizeGroup);
+    }
+    //***************************************************************
+    //
+    //  Method:       getBelowPovertyCount
+    //
+    //  Description:  Returns the households in a group below the
+    //                poverty level.
+    //
+    //  Parameters:   int stateGroup - state group or ALL
+    //                int sizeGroup  - size group or ALL
+    //
+    //  Returns:      long - households below poverty
+    //
+    //***************************************************************
+    public long getBelowPovertyCount(int stateGroup, int sizeGroup) {
+        return sum(belowPoverty, stateGroup, sizeGroup);
+    }
+    //***************************************************************
+    //
+    //  Method:       getPercentBelowPoverty
+    //
+    //  Description:  Returns the share of a group below the poverty
+    //                level.
+    //
+    //  Parameters:   int stateGroup - state group or ALL
+    //                int sizeGroup  - size group or ALL
+    //
+    //  Returns:      double - percent below poverty
+    //
+    //***************************************************************
+    public double getPercentBelowPoverty(int stateGroup, int sizeGroup) {
+        return (getBelowPovertyCount(stateGroup, sizeGroup) * 100.0) / getCount(stateGroup, sizeGroup);
+    }
+    //***************************************************************
+    //
+    //  Method:       getMedicaidEligibleCount
+    //
+    //  Description:  Returns the households in a group eligible for
+    //                Medicaid.
+    //
+    //  Parameters:   int stateGroup - state group or ALL
+    //                int sizeGroup  - size group or ALL
+    //
+    //  Returns:      long - Medicaid-eligible households
+    //
+    //***************************************************************
+    public long getMedicaidEligibleCount(int stateGroup, int sizeGroup) {
+        return sum(medicaidEligible, stateGroup, sizeGroup);
+    }
+    //***************************************************************
+    //
+    //  Method:       getPercentMedicaidEligible
+    //
+    //  Description:  Returns the share of a group eligible for
+    //                Medicaid.
+    //
+    //  Parameters:   int stateGroup - state group or ALL
+    //                int sizeGroup  - size group or ALL
+    //
+    //  Returns:      double - percent eligible for Medicaid
+    //
+    //***************************************************************
+    public double getPercentMedicaidEligible(int stateGroup, int sizeGroup) {
+        return (getMedicaidEligibleCount(stateGroup, sizeGroup) * 100.0) / getCount(stateGroup, sizeGroup);
+    }
+    //***************************************************************
+    //
+    //  Method:       getThresholds
+    //
+    //  Description:  Returns the guideline table the groups were
+    //                counted with.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      FPLThresholdTable - poverty thresholds
+    //
+    //***************************************************************
+    public FPLThresholdTable getThresholds() {
+        return thresholds;
+    }
+    //***************************************************************
+    //
+    //  Method:       sum
+    //
+    //  Description:  Adds up the cells of a group, over every state
+    //                or size group where the argument is ALL.
+    //
+    //  Parameters:   long[] cells   - one cell per state and size
+    //                int stateGroup - state group or ALL
+    //                int sizeGroup  - size group or ALL
+    //
+    //  Returns:      long - sum of the cells
+    //
+    //***************************************************************
+    private static long sum(long[] cells, int stateGroup, int sizeGroup) {
+        long total = 0;
+        for (int state = first(stateGroup); state <= last(stateGroup, STATE_GROUPS); state++) {
+            for (int size = first(sizeGroup); size <= last(sizeGroup, SIZE_GROUPS); size++) {
+                total += cells[state * SIZE_GROUPS + size];
+            }
+        }
+        return total;
+    }
+    //***************************************************************
+    //
+    //  Method:       first
+    //
+    //  Description:  Returns the first group a group argument covers.
+    //
+    //  Parameters:   int group - group or ALL
+    //
+    //  Returns:      int - first group index
+    //
+    //***************************************************************
+    private static int first(int group) {
+        return group == ALL ? 0 : group;
+    }
+    //***************************************************************
+    //
+    //  Method:       last
+    //
+    //  Description:  Returns the last group a group argument covers.
+    //
+    //  Parameters:   int group  - group or ALL
+    //                int groups - number of groups
+    //
+    //  Returns:      int - last group index
+    //
+    //***************************************************************
+    private static int last(int group, int groups) {
+        return group == ALL ? groups - 1 : group;
+    }
+}
@@ -0,0 +1,558 @@
+//********************************************************************
+//
+//  Developer:     Mauricio Rivas
+//
+//  Program #:     Three
+//
+//  File Name:     GuidelineStore.java
+//
+//  Course:        COSC 4301 Modern Programming
+//
+//  Due Date:      4/14/2025
+//
+//  Instructor:    Prof. Fred Kumi
+//
+//  Java Version:  11
+//
+//  Description:   This class holds the poverty guidelines for several
+//                 years and all three regions as the published pair
+//                 of amounts: the guideline for the first person and
+//                 the amount added for each additional person. The
+//                 table is loaded from the CSV file bundled with the
+//                 program and from an optional user file in CSV or
+//                 JSON form, so runs need no network at all. The HHS
+//                 API is only used to refresh the user file.
+//
+//********************************************************************
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+public class GuidelineStore {
+    public static final String BUNDLED_RESOURCE = "/fpl-guidelines.csv";
+
+    private static final String DEFAULT_USER_FILE = "FPLGuidelines.csv";
+    private static final String CSV_HEADER = "year,region,first_person,additional_person";
+    private static final int FIRST_PERSON = 0;
+    private static final int ADDITIONAL_PERSON = 1;
+    private static GuidelineStore shared;
+
+    private int firstYear;
+    private double[][][] amounts = new double[0][][];
+    //***************************************************************
+    //
+    //  Method:       getShared
+    //
+    //  Description:  Returns the store shared by the whole program:
+    //                the bundled table, overlaid with the user file
+    //                named by the fpl.guidelines.file system property
+    //                (FPLGuidelines.csv by default) if it exists.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      GuidelineStore - the shared store
+    //
+    //***************************************************************
+    public static synchronized GuidelineStore getShared() {
+        if (shared == null) {
+            shared = new GuidelineStore();
+            shared.loadBundled();
+            Path userFile = userFile();
+            if (Files.exists(userFile)) {
+                try {
+                    shared.load(userFile);
+                } catch (IOException | RuntimeException e) {
+                    System.out.println("Error reading FPL guideline file, using bundled values: " + userFile);
+                }
+            }
+        }
+        return shared;
+    }
+    //***************************************************************
+    //
+    //  Method:       main
+    //
+    //  Description:  Lists the stored guidelines, or refreshes one
+    //                year from the HHS API into the user file:
+    //                  java GuidelineStore list
+    //                  java GuidelineStore refresh <year>
+    //
+    //  Parameters:   String[] args - command-line arguments
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    public static void main(String[] args) throws IOException {
+        GuidelineStore store = getShared();
+        if (args.length == 2 && args[0].equals("refresh")) {
+            int year = Integer.parseInt(args[1]);
+            int regions = store.refresh(year, FPLBatchFetcher.getShared());
+            if (regions == 0) {
+                System.out.println("No guidelines could be fetched for " + year + ".");
+                return;
+            }
+            store.save(userFile());
+            System.out.println("Refreshed " + regions + " regions for " + year + " into " + userFile());
+        } else if (args.length == 1 && args[0].equals("list")) {
+            try (PrintWriter out = new PrintWriter(System.out)) {
+                store.write(out);
+            }
+        } else {
+            System.out.println("Usage: java GuidelineStore list | refresh <year>");
+        }
+    }
+    //***************************************************************
+    //
+    //  Method:       getFPL
+    //
+    //  Description:  Returns the 100% guideline for a household. Sizes
+    //                below 1 use the 1-person guideline.
+    //
+    //  Parameters:   int year   - guideline year
+    //                int region - StateTable region constant
+    //                int size   - household size
+    //
+    //  Returns:      double - guideline income, or NaN if the year or
+    //                region is not in the store
+    //
+    //***************************************************************
+    public synchronized double getFPL(int year, int region, int size) {
+        int index = year - firstYear;
+        if (index < 0 || index >= amounts.length || amounts[index] == null) {
+            return Double.NaN;
+        }
+        double[] pair = amounts[index][region];
+        return pair[FIRST_PERSON] + pair[ADDITIONAL_PERSON] * (Math.max(size, 1) - 1);
+    }
+    //***************************************************************
+    //
+    //  Method:       getFPL
+    //
+    //  Description:  Returns the 100% guideline for a region code.
+    //
+    //  Parameters:   int year      - guideline year
+    //                String region - region code (us/ak/hi)
+    //                int size      - household size
+    //
+    //  Returns:      double - guideline income, or NaN if unknown
+    //
+    //***************************************************************
+    public double getFPL(int year, String region, int size) {
+        int code = regionIndex(region);
+        return code < 0 ? Double.NaN : getFPL(year, code, size);
+    }
+    //***************************************************************
+    //
+    //  Method:       contains
+    //
+    //  Description:  Tells whether every region of a year is stored.
+    //
+    //  Parameters:   int year - guideline year
+    //
+    //  Returns:      boolean - true if the year is complete
+    //
+    //***************************************************************
+    public synchronized boolean contains(int year) {
+        int index = year - firstYear;
+        if (index < 0 || index >= amounts.length || amounts[index] == null) {
+            return false;
+        }
+        for (double[] pair : amounts[index]) {
+            if (Double.isNaN(pair[FIRST_PERSON])) {
+                return false;
+            }
+        }
+        return true;
+    }
+    //***************************************************************
+    //
+    //  Method:       getYears
+    //
+    //  Description:  Returns the years with at least one region stored.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      int[] - years in ascending order
+    //
+    //***************************************************************
+    public synchronized int[] getYears() {
+        int[] years = new int[amounts.length];
+        int count = 0;
+        for (int i = 0; i < amounts.length; i++) {
+            if (amounts[i] != null) {
+                years[count++] = firstYear + i;
+            }
+        }
+        return Arrays.copyOf(years, count);
+    }
+    //***************************************************************
+    //
+    //  Method:       put
+    //
+    //  Description:  Stores the guideline of one year and region,
+    //                replacing any earlier value.
+    //
+    //  Parameters:   int year                 - guideline year
+    //                int region               - StateTable region
+    //                double firstPerson       - 1-person guideline
+    //                double additionalPerson  - amount per additional
+    //                                           person
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    public synchronized void put(int year, int region, double firstPerson, double additionalPerson) {
+        if (amounts.length == 0) {
+            firstYear = year;
+        }
+        if (year < firstYear) {
+            double[][][] grown = new double[amounts.length + firstYear - year][][];
+            System.arraycopy(amounts, 0, grown, firstYear - year, amounts.length);
+            amounts = grown;
+            firstYear = year;
+        } else if (year - firstYear >= amounts.length) {
+            amounts = Arrays.copyOf(amounts, year - firstYear + 1);
+        }
+
+        int index = year - firstYear;
+        if (amounts[index] == null) {
+            double[][] regions = new double[StateTable.REGION_CODES.length][];
+            for (int i = 0; i < regions.length; i++) {
+                regions[i] = new double[] {Double.NaN, Double.NaN};
+            }
+            amounts[index] = regions;
+        }
+        amounts[index][region][FIRST_PERSON] = firstPerson;
+        amounts[index][region][ADDITIONAL_PERSON] = additionalPerson;
+    }
+    //***************************************************************
+    //
+    //  Method:       load
+    //
+    //  Description:  Adds the guidelines in a user file. Files ending
+    //                in .json are read as JSON, anything else as CSV.
+    //
+    //  Parameters:   Path file - guideline table
+    //
+    //  Returns:      int - number of entries read
+    //
+    //***************************************************************
+    public int load(Path file) throws IOException {
+        try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return file.toString().toLowerCase().endsWith(".json") ? loadJson(in) : loadCsv(in);
+        }
+    }
+    //***************************************************************
+    //
+    //  Method:       loadCsv
+    //
+    //  Description:  Adds the rows of a CSV table with the columns
+    //                year,region,first_person,additional_person. Blank
+    //                lines, # comments, and the header are skipped.
+    //
+    //  Parameters:   Reader reader - CSV text
+    //
+    //  Returns:      int - number of entries read
+    //
+    //***************************************************************
+    public int loadCsv(Reader reader) throws IOException {
+        BufferedReader in = new BufferedReader(reader);
+        int entries = 0;
+        String line;
+        while ((line = in.readLine()) != null) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#") || line.startsWith("year")) {
+                continue;
+            }
+            String[] parts = line.split(",");
+            if (parts.length != 4) {
+                throw new IllegalArgumentException("Malformed FPL guideline row: " + line);
+            }
+            put(Integer.parseInt(parts[0].trim()), requireRegion(parts[1].trim()),
+                    Double.parseDouble(parts[2].trim()), Double.parseDouble(parts[3].trim()));
+            entries++;
+        }
+        return entries;
+    }
+    //***************************************************************
+    //
+    //  Method:       loadJson
+    //
+    //  Description:  Adds the objects of a JSON array such as
+    //                [{"year": 2025, "region": "us",
+    //                  "first_person": 15650, "additional_person": 5500}]
+    //                Each object is read field by field, so other
+    //                fields and their order do not matter.
+    //
+    //  Parameters:   Reader reader - JSON text
+    //
+    //  Returns:      int - number of entries read
+    //
+    //***************************************************************
+    public int loadJson(Reader reader) throws IOException {
+        StringBuilder text = new StringBuilder();
+        char[] chunk = new char[4096];
+        int read;
+        while ((read = reader.read(chunk)) != -1) {
+            text.append(chunk, 0, read);
+        }
+
+        int entries = 0;
+        int start = text.indexOf("{");
+        while (start >= 0) {
+            int end = text.indexOf("}", start);
+            if (end < 0) {
+                throw new IllegalArgumentException("Unterminated FPL guideline object at offset " + start);
+            }
+            String entry = text.substring(start, end + 1);
+            put((int) jsonNumber(entry, "year"), requireRegion(jsonString(entry, "region")),
+                    jsonNumber(entry, "first_person"), jsonNumber(entry, "additional_person"));
+            entries++;
+            start = text.indexOf("{", end);
+        }
+        return entries;
+    }
+    //***************************************************************
+    //
+    //  Method:       save
+    //
+    //  Description:  Writes every stored guideline as CSV. The file is
+    //                written beside the target and moved into place.
+    //
+    //  Parameters:   Path file - destination
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    public synchronized void save(Path file) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(temp, StandardCharsets.UTF_8))) {
+            write(out);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+    }
+    //***************************************************************
+    //
+    //  Method:       refresh
+    //
+    //  Description:  Fetches the 1- and 2-person guidelines of every
+    //                region for one year and stores the pair they
+    //                imply. Regions that fail keep their old values.
+    //
+    //  Parameters:   int year                - guideline year
+    //                FPLBatchFetcher fetcher - API client
+    //
+    //  Returns:      int - number of regions updated
+    //
+    //***************************************************************
+    public int refresh(int year, FPLBatchFetcher fetcher) {
+        String[] regions = StateTable.REGION_CODES;
+        List<CompletableFuture<Double>> pending = new ArrayList<>();
+        for (String region : regions) {
+            pending.add(fetcher.fetchAsync(year, region, 1));
+            pending.add(fetcher.fetchAsync(year, region, 2));
+        }
+
+        int updated = 0;
+        for (int region = 0; region < regions.length; region++) {
+            double one = pending.get(2 * region).join();
+            double two = pending.get(2 * region + 1).join();
+            if (!Double.isNaN(one) && !Double.isNaN(two)) {
+                put(year, region, one, two - one);
+                updated++;
+            }
+        }
+        return updated;
+    }
+    //***************************************************************
+    //
+    //  Method:       write
+    //
+    //  Description:  Writes the CSV header and one row per stored year
+    //                and region.
+    //
+    //  Parameters:   PrintWriter out - destination
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    private synchronized void write(PrintWriter out) {
+        out.println(CSV_HEADER);
+        for (int year : getYears()) {
+            double[][] regions = amounts[year - firstYear];
+            for (int region = 0; region < regions.length; region++) {
+                if (!Double.isNaN(regions[region][FIRST_PERSON])) {
+                    out.println(year + "," + StateTable.REGION_CODES[region] + ","
+                            + plain(regions[region][FIRST_PERSON]) + ","
+                            + plain(regions[region][ADDITIONAL_PERSON]));
+                }
+            }
+        }
+    }
+    //***************************************************************
+    //
+    //  Method:       loadBundled
+    //
+    //  Description:  Adds the table packaged with the program. A
+    //                missing resource leaves the store empty.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    private void loadBundled() {
+        try (InputStream in = GuidelineStore.class.getResourceAsStream(BUNDLED_RESOURCE)) {
+            if (in != null) {
+                loadCsv(new InputStreamReader(in, StandardCharsets.UTF_8));
+            }
+        } catch (IOException | RuntimeException e) {
+            System.out.println("Error reading bundled FPL guidelines: " + e.getMessage());
+        }
+    }
+    //***************************************************************
+    //
+    //  Method:       userFile
+    //
+    //  Description:  Returns the file of downloaded guidelines, from
+    //                the fpl.guidelines.file property or
+    //                FPLGuidelines.csv.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      Path - user guideline file
+    //
+    //***************************************************************
+    private static Path userFile() {
+        return Paths.get(System.getProperty("fpl.guidelines.file", DEFAULT_USER_FILE));
+    }
+    //***************************************************************
+    //
+    //  Method:       regionIndex
+    //
+    //  Description:  Returns the index of a region code in
+    //                StateTable.REGION_CODES, ignoring case.
+    //
+    //  Parameters:   String region - region code, e.g. AK
+    //
+    //  Returns:      int - region index, or -1 if unknown
+    //
+    //***************************************************************
+    private static int regionIndex(String region) {
+        for (int i = 0; i < StateTable.REGION_CODES.length; i++) {
+            if (StateTable.REGION_CODES[i].equalsIgnoreCase(region)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    //***************************************************************
+    //
+    //  Method:       requireRegion
+    //
+    //  Description:  Returns the index of a region code, rejecting an
+    //                unknown one.
+    //
+    //  Parameters:   String region - region code, e.g. AK
+    //
+    //  Returns:      int - region index
+    //
+    //***************************************************************
+    private static int requireRegion(String region) {
+        int index = regionIndex(region);
+        if (index < 0) {
+            throw new IllegalArgumentException("Unknown FPL region: " + region);
+        }
+        return index;
+    }
+    //***************************************************************
+    //
+    //  Method:       plain
+    //
+    //  Description:  Formats an amount for the CSV file, without a
+    //                decimal point when it is whole.
+    //
+    //  Parameters:   double value - dollar amount
+    //
+    //  Returns:      String - amount as text
+    //
+    //***************************************************************
+    private static String plain(double value) {
+        return value == Math.rint(value) ? Long.toString((long) value) : Double.toString(value);
+    }
+    //***************************************************************
+    //
+    //  Method:       jsonNumber
+    //
+    //  Description:  Reads a number field of a guideline entry.
+    //
+    //  Parameters:   String entry - one JSON guideline entry
+    //                String field - field name
+    //
+    //  Returns:      double - field value
+    //
+    //***************************************************************
+    private static double jsonNumber(String entry, String field) {
+        String value = jsonValue(entry, field);
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Bad FPL guideline field " + field + ": " + value);
+        }
+    }
+    //***************************************************************
+    //
+    //  Method:       jsonString
+    //
+    //  Description:  Reads a text field of a guideline entry, without
+    //                its quotes.
+    //
+    //  Parameters:   String entry - one JSON guideline entry
+    //                String field - field name
+    //
+    //  Returns:      String - field value
+    //
+    //***************************************************************
+    private static String jsonString(String entry, String field) {
+        String value = jsonValue(entry, field);
+        return value.startsWith("\"") && value.endsWith("\"") ? value.substring(1, value.length() - 1) : value;
+    }
+    //***************************************************************
+    //
+    //  Method:       jsonValue
+    //
+    //  Description:  Returns the raw text of a field of a guideline
+    //                entry, up to the next comma or closing brace.
+    //
+    //  Parameters:   String entry - one JSON guideline entry
+    //                String field - field name
+    //
+    //  Returns:      String - field text
+    //
+    //***************************************************************
+    private static String jsonValue(String entry, String field) {
+        int index = entry.indexOf("\"" + field + "\"");
+        int colon = index < 0 ? -1 : entry.indexOf(':', index);
+        if (colon < 0) {
+            throw new IllegalArgumentException("Missing FPL guideline field: " + field);
+        }
+        int end = entry.indexOf(',', colon);
+        if (end < 0) {
+            end = entry.indexOf('}', colon);
+        }
+        return entry.substring(colon + 1, end).trim();
+    }
+}
@@ -0,0 +1,245 @@
+//********************************************************************
+//
+//  Developer:     Mauricio Rivas
+//
+//  Program #:     Three
+//
+//  File Name:     Histogram.java
+//
+//  Course:        COSC 4301 Modern Programming
+//
+//  Due Date:      4/14/2025
+//
+//  Instructor:    Prof. Fred Kumi
+//
+//  Java Version:  11
+//
+//  Description:   This class counts values in fixed buckets. Bucket i
+//                 holds values from bounds[i - 1] (inclusive) up to
+//                 bounds[i]; the first bucket has no lower limit and
+//                 the last has no upper limit. Counts are exact and
+//                 histograms with the same bounds can be merged.
+//
+//********************************************************************
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+public class Histogram {
+    private static final int MAX_SERIALIZED_BOUNDS = 1 << 20;
+
+    private final double[] bounds;
+    private final long[] counts;
+    //***************************************************************
+    //
+    //  Method:       Histogram (Constructor)
+    //
+    //  Description:  Creates an empty histogram.
+    //
+    //  Parameters:   double... bounds - bucket boundaries, ascending
+    //
+    //  Returns:      None
+    //
+    //***************************************************************
+    public Histogram(double... bounds) {
+        for (int i = 1; i < bounds.length; i++) {
+            if (!(bounds[i] > bounds[i - 1])) {
+                throw new IllegalArgumentException("Histogram bounds must be ascending: " + Arrays.toString(bounds));
+            }
+        }
+        this.bounds = bounds.clone();
+        this.counts = new long[bounds.length + 1];
+    }
+    //***************************************************************
+    //
+    //  Method:       linear
+    //
+    //  Description:  Creates a histogram with equal-width buckets
+    //                between an underflow and an overflow bucket.
+    //
+    //  Parameters:   double first - first boundary
+    //                double width - bucket width
+    //                int buckets  - number of equal-width buckets
+    //
+    //  Returns:      Histogram - the empty histogram
+    //
+    //***************************************************************
+    public static Histogram linear(double first, double width, int buckets) {
+        double[] bounds = new double[buckets + 1];
+        for (int i = 0; i < bounds.length; i++) {
+            bounds[i] = first + width * i;
+        }
+        return new Histogram(bounds);
+    }
+    //***************************************************************
+    //
+    //  Method:       add
+    //
+    //  Description:  Counts one value. NaN values are ignored.
+    //
+    //  Parameters:   double value - value to count
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    public void add(double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        int index = Arrays.binarySearch(bounds, value);
+        counts[index >= 0 ? index + 1 : -index - 1]++;
+    }
+    //***************************************************************
+    //
+    //  Method:       merge
+    //
+    //  Description:  Adds the counts of a histogram with the same
+    //                bounds.
+    //
+    //  Parameters:   Histogram other - counts to add
+    //
+    //  Returns:      Histogram - this histogram
+    //
+    //***************************************************************
+    public Histogram merge(Histogram other) {
+        if (!Arrays.equals(bounds, other.bounds)) {
+            throw new IllegalArgumentException("Cannot merge histograms with different bounds");
+        }
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+        return this;
+    }
+    //***************************************************************
+    //
+    //  Method:       writeTo
+    //
+    //  Description:  Writes the bounds and counts in binary form.
+    //
+    //  Parameters:   DataOutput out - destination
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(bounds.length);
+        for (double bound : bounds) {
+            out.writeDouble(bound);
+        }
+        for (long count : counts) {
+            out.writeLong(count);
+        }
+    }
+    //***************************************************************
+    //
+    //  Method:       readFrom
+    //
+    //  Description:  Reads a histogram written by writeTo.
+    //
+    //  Parameters:   DataInput in - source
+    //
+    //  Returns:      Histogram - the restored histogram
+    //
+    //***************************************************************
+    public static Histogram readFrom(DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length < 0 || length > MAX_SERIALIZED_BOUNDS) {
+            throw new IOException("Histogram data is damaged: " + length + " bounds");
+        }
+        double[] bounds = new double[length];
+        for (int i = 0; i < length; i++) {
+            bounds[i] = in.readDouble();
+        }
+        Histogram histogram;
+        try {
+            histogram = new Histogram(bounds);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Histogram data is damaged: " + e.getMessage(), e);
+        }
+        for (int i = 0; i < histogram.counts.length; i++) {
+            histogram.counts[i] = in.readLong();
+        }
+        return histogram;
+    }
+    //***************************************************************
+    //
+    //  Method:       getBucketCount
+    //
+    //  Description:  Returns the number of buckets, including the
+    //                underflow and overflow buckets.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      int - number of buckets
+    //
+    //***************************************************************
+    public int getBucketCount() {
+        return counts.length;
+    }
+    //***************************************************************
+    //
+    //  Method:       getCount
+    //
+    //  Description:  Returns the number of values counted in one
+    //                bucket.
+    //
+    //  Parameters:   int bucket - bucket index
+    //
+    //  Returns:      long - values in the bucket
+    //
+    //***************************************************************
+    public long getCount(int bucket) {
+        return counts[bucket];
+    }
+    //***************************************************************
+    //
+    //  Method:       getLowerBound
+    //
+    //  Description:  Returns the lowest value one bucket holds.
+    //
+    //  Parameters:   int bucket - bucket index
+    //
+    //  Returns:      double - inclusive lower bound, or negative
+    //                infinity for the first bucket
+    //
+    //***************************************************************
+    public double getLowerBound(int bucket) {
+        return bucket == 0 ? Double.NEGATIVE_INFINITY : bounds[bucket - 1];
+    }
+    //***************************************************************
+    //
+    //  Method:       getUpperBound
+    //
+    //  Description:  Returns the value one bucket counts up to.
+    //
+    //  Parameters:   int bucket - bucket index
+    //
+    //  Returns:      double - exclusive upper bound, or infinity for
+    //                the last bucket
+    //
+    //***************************************************************
+    public double getUpperBound(int bucket) {
+        return bucket == bounds.length ? Double.POSITIVE_INFINITY : bounds[bucket];
+    }
+    //***************************************************************
+    //
+    //  Method:       getTotal
+    //
+    //  Description:  Returns the number of values counted in every
+    //                bucket.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      long - total count
+    //
+    //***************************************************************
+    public long getTotal() {
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,527 @@
+//********************************************************************
+//
+//  Developer:     Mauricio Rivas
+//
+//  Program #:     Three
+//
+//  File Name:     HouseholdAggregate.java
+//
+//  Course:        COSC 4301 Modern Programming
+//
+//  Due Date:      4/14/2025
+//
+//  Instructor:    Prof. Fred Kumi
+//
+//  Java Version:  11
+//
+//  Description:   This class accumulates the report totals for a set
+//                 of households: income sum, count, households below
+//                 the poverty line, and households eligible for
+//                 Medicaid. Partial aggregates from separate chunks
+//                 can be merged, and incomes given in whole cents
+//                 total the same in any order. Any other income is
+//                 summed with Kahan compensation, so its rounding
+//                 error does not grow with the number of households.
+//
+//********************************************************************
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+public class HouseholdAggregate implements HouseholdParser.RecordHandler {
+    static final double MAX_CENTS_INCOME = 1e12;
+    static final long NOT_WHOLE_CENTS = Long.MIN_VALUE;
+    public static final int SIZE_BUCKETS = FPLThresholdTable.MAX_TABLE_SIZE + 2;
+
+    private final FPLThresholdTable thresholds;
+    private long count;
+    private long incomeCents;
+    private double otherIncome;
+    private double otherCompensation;
+    private long belowPoverty;
+    private long medicaidEligible;
+    private final long[] belowBySize = new long[SIZE_BUCKETS];
+    private final long[] medicaidByRegion = new long[StateTable.REGION_CODES.length];
+    //***************************************************************
+    //
+    //  Method:       HouseholdAggregate (Constructor)
+    //
+    //  Description:  Creates an empty aggregate.
+    //
+    //  Parameters:   FPLThresholdTable thresholds - income limits
+    //
+    //  Returns:      None
+    //
+    //***************************************************************
+    public HouseholdAggregate(FPLThresholdTable thresholds) {
+        this.thresholds = thresholds;
+    }
+    //***************************************************************
+    //
+    //  Method:       onRecord
+    //
+    //  Description:  Adds one parsed household to the totals.
+    //
+    //  Parameters:   int id         - Household ID
+    //                double income  - Annual income
+    //                int members    - Number of household members
+    //                int stateCode  - StateTable code or UNKNOWN
+    //                String state   - State of residence
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    @Override
+    public void onRecord(int id, double income, int members, int stateCode, String state) {
+        add(income, members, stateCode);
+    }
+    //***************************************************************
+    //
+    //  Method:       add
+    //
+    //  Description:  Adds one household to the totals. Incomes with at
+    //                most two decimal places are summed exactly as
+    //                whole cents, so the total does not depend on the
+    //                order households are added or merged.
+    //
+    //  Parameters:   double income  - Annual income
+    //                int members    - Number of household members
+    //                int stateCode  - StateTable code or UNKNOWN
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    public void add(double income, int members, int stateCode) {
+        count++;
+        addIncome(income);
+        if (income < thresholds.povertyLevel(members)) {
+            belowPoverty++;
+            belowBySize[sizeBucket(members)]++;
+        }
+        int region = StateTable.regionOf(stateCode);
+        if (income < thresholds.medicaidLevel(region, members)) {
+            medicaidEligible++;
+            medicaidByRegion[region]++;
+        }
+    }
+    //***************************************************************
+    //
+    //  Method:       add
+    //
+    //  Description:  Adds every household in a table to the totals.
+    //                Columnar and off-heap stores are added with the
+    //                column kernels.
+    //
+    //  Parameters:   HouseholdTable households - data to add
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    public void add(HouseholdTable households) {
+        if (households instanceof ColumnarHouseholdStore) {
+            ((ColumnarHouseholdStore) households).addTo(this);
+            return;
+        }
+        if (households instanceof OffHeapHouseholdStore) {
+            ((OffHeapHouseholdStore) households).addTo(this);
+            return;
+        }
+        for (int i = 0; i < households.size(); i++) {
+            add(households.getIncome(i), households.getMembers(i), households.getStateCode(i));
+        }
+    }
+    //***************************************************************
+    //
+    //  Method:       addColumns
+    //
+    //  Description:  Adds a range of households held in columns, using
+    //                IncomeKernels. Incomes are summed a block at a
+    //                time; a block holding an income that is not whole
+    //                cents is added one income at a time instead, so
+    //                the totals are exactly those of add() per row.
+    //
+    //  Parameters:   double[] incomes        - income column
+    //                byte[] members          - household size column
+    //                byte[] states           - state code column as
+    //                                          stored by
+    //                                          ColumnarHouseholdStore
+    //                int[] otherStateCodes   - StateTable code of each
+    //                                          dictionary entry
+    //                int from                - first index
+    //                int to                  - index after the last
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    void addColumns(double[] incomes, byte[] members, byte[] states, int[] otherStateCodes, int from, int to) {
+        for (int start = from; start < to; start += Math.min(IncomeKernels.BLOCK_SIZE, to - start)) {
+            int end = start + Math.min(IncomeKernels.BLOCK_SIZE, to - start);
+            long cents = IncomeKernels.sumWholeCents(incomes, start, end);
+            if (cents != NOT_WHOLE_CENTS) {
+                incomeCents += cents;
+            } else {
+                for (int i = start; i < end; i++) {
+                    addIncome(incomes[i]);
+                }
+            }
+        }
+        count += to - from;
+
+        long[] bySize = new long[IncomeKernels.SIZE_CODES];
+        double[] poverty = IncomeKernels.sizeLimits(thresholds, FPLThresholdTable.POVERTY_LEVEL,
+                StateTable.REGION_CONTIGUOUS);
+        belowPoverty += IncomeKernels.countBelow(incomes, members, from, to, poverty, bySize);
+        for (int size = 0; size < bySize.length; size++) {
+            belowBySize[sizeBucket(size)] += bySize[size];
+        }
+        double[] medicaid = IncomeKernels.regionSizeLimits(thresholds, FPLThresholdTable.MEDICAID_LEVEL);
+        medicaidEligible += IncomeKernels.countBelowByRegion(incomes, members, states, from, to, medicaid,
+                IncomeKernels.regionOffsets(otherStateCodes), medicaidByRegion);
+    }
+    //***************************************************************
+    //
+    //  Method:       merge
+    //
+    //  Description:  Adds the totals of another aggregate to this one.
+    //
+    //  Parameters:   HouseholdAggregate other - partial totals
+    //
+    //  Returns:      HouseholdAggregate - this aggregate
+    //
+    //***************************************************************
+    public HouseholdAggregate merge(HouseholdAggregate other) {
+        count += other.count;
+        incomeCents += other.incomeCents;
+        addOther(other.otherIncome);
+        addOther(-other.otherCompensation);
+        belowPoverty += other.belowPoverty;
+        medicaidEligible += other.medicaidEligible;
+        for (int i = 0; i < belowBySize.length; i++) {
+            belowBySize[i] += other.belowBySize[i];
+        }
+        for (int i = 0; i < medicaidByRegion.length; i++) {
+            medicaidByRegion[i] += other.medicaidByRegion[i];
+        }
+        return this;
+    }
+    //***************************************************************
+    //
+    //  Method:       copy
+    //
+    //  Description:  Returns an independent copy of the totals.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      HouseholdAggregate - the copy
+    //
+    //***************************************************************
+    public HouseholdAggregate copy() {
+        return new HouseholdAggregate(thresholds).merge(this);
+    }
+    //***************************************************************
+    //
+    //  Method:       writeTo
+    //
+    //  Description:  Writes the totals in binary form. The floating
+    //                point part of the income sum and its compensation
+    //                are written as raw bits so a reload continues
+    //                them exactly.
+    //
+    //  Parameters:   DataOutput out - destination
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeLong(count);
+        out.writeLong(incomeCents);
+        out.writeLong(Double.doubleToRawLongBits(otherIncome));
+        out.writeLong(Double.doubleToRawLongBits(otherCompensation));
+        out.writeLong(belowPoverty);
+        out.writeLong(medicaidEligible);
+        out.writeInt(belowBySize.length);
+        for (long value : belowBySize) {
+            out.writeLong(value);
+        }
+        out.writeInt(medicaidByRegion.length);
+        for (long value : medicaidByRegion) {
+            out.writeLong(value);
+        }
+    }
+    //***************************************************************
+    //
+    //  Method:       readFrom
+    //
+    //  Description:  Reads totals written by writeTo.
+    //
+    //  Parameters:   DataInput in                 - source
+    //                FPLThresholdTable thresholds - income limits the
+    //                                               totals were built
+    //                                               with
+    //
+    //  Returns:      HouseholdAggregate - the restored totals
+    //
+    //***************************************************************
+    public static HouseholdAggregate readFrom(DataInput in, FPLThresholdTable thresholds) throws IOException {
+        HouseholdAggregate aggregate = new HouseholdAggregate(thresholds);
+        aggregate.count = in.readLong();
+        aggregate.incomeCents = in.readLong();
+        aggregate.otherIncome = Double.longBitsToDouble(in.readLong());
+        aggregate.otherCompensation = Double.longBitsToDouble(in.readLong());
+        aggregate.belowPoverty = in.readLong();
+        aggregate.medicaidEligible = in.readLong();
+        readCounts(in, aggregate.belowBySize);
+        readCounts(in, aggregate.medicaidByRegion);
+        return aggregate;
+    }
+    //***************************************************************
+    //
+    //  Method:       getCount
+    //
+    //  Description:  Returns the number of households counted.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      long - household count
+    //
+    //***************************************************************
+    public long getCount() {
+        return count;
+    }
+    //***************************************************************
+    //
+    //  Method:       getTotalIncome
+    //
+    //  Description:  Returns the sum of every income counted: the
+    //                exact whole-cent total plus the compensated sum
+    //                of the rest.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      double - total income
+    //
+    //***************************************************************
+    public double getTotalIncome() {
+        return incomeCents / 100.0 + (otherIncome - otherCompensation);
+    }
+    //***************************************************************
+    //
+    //  Method:       getAverageIncome
+    //
+    //  Description:  Returns the mean income of the households
+    //                counted.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      double - average income
+    //
+    //***************************************************************
+    public double getAverageIncome() {
+        return getTotalIncome() / count;
+    }
+    //***************************************************************
+    //
+    //  Method:       getBelowPovertyCount
+    //
+    //  Description:  Returns the number of households below the
+    //                poverty level.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      long - households below poverty
+    //
+    //***************************************************************
+    public long getBelowPovertyCount() {
+        return belowPoverty;
+    }
+    //***************************************************************
+    //
+    //  Method:       getPercentBelowPoverty
+    //
+    //  Description:  Returns the share of households below the
+    //                poverty level.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      double - percent below poverty
+    //
+    //***************************************************************
+    public double getPercentBelowPoverty() {
+        return (belowPoverty * 100.0) / count;
+    }
+    //***************************************************************
+    //
+    //  Method:       getMedicaidEligibleCount
+    //
+    //  Description:  Returns the number of households eligible for
+    //                Medicaid.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      long - Medicaid-eligible households
+    //
+    //***************************************************************
+    public long getMedicaidEligibleCount() {
+        return medicaidEligible;
+    }
+    //***************************************************************
+    //
+    //  Method:       getBelowPovertyCount
+    //
+    //  Description:  Returns the number of households of one size
+    //                below the poverty level. Sizes past the last
+    //                bucket share it.
+    //
+    //  Parameters:   int members - household size
+    //
+    //  Returns:      long - households below poverty
+    //
+    //***************************************************************
+    public long getBelowPovertyCount(int members) {
+        return belowBySize[sizeBucket(members)];
+    }
+    //***************************************************************
+    //
+    //  Method:       getMedicaidEligibleCount
+    //
+    //  Description:  Returns the number of households in one
+    //                guideline region eligible for Medicaid.
+    //
+    //  Parameters:   int region - index into StateTable.REGION_CODES
+    //
+    //  Returns:      long - Medicaid-eligible households
+    //
+    //***************************************************************
+    public long getMedicaidEligibleCount(int region) {
+        return medicaidByRegion[region];
+    }
+    //***************************************************************
+    //
+    //  Method:       getPercentMedicaidEligible
+    //
+    //  Description:  Returns the share of households eligible for
+    //                Medicaid.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      double - percent eligible for Medicaid
+    //
+    //***************************************************************
+    public double getPercentMedicaidEligible() {
+        return (medicaidEligible * 100.0) / count;
+    }
+    //***************************************************************
+    //
+    //  Method:       getThresholds
+    //
+    //  Description:  Returns the guideline table the counts were
+    //                taken with.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      FPLThresholdTable - poverty thresholds
+    //
+    //***************************************************************
+    public FPLThresholdTable getThresholds() {
+        return thresholds;
+    }
+    //***************************************************************
+    //
+    //  Method:       addIncome
+    //
+    //  Description:  Adds one income to the exact whole-cent total,
+    //                or to the compensated sum when it is not a whole
+    //                number of cents.
+    //
+    //  Parameters:   double income - annual income
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    private void addIncome(double income) {
+        long cents = wholeCents(income);
+        if (cents != NOT_WHOLE_CENTS) {
+            incomeCents += cents;
+        } else {
+            addOther(income);
+        }
+    }
+    //***************************************************************
+    //
+    //  Method:       addOther
+    //
+    //  Description:  Adds a value to the sum of incomes that are not
+    //                whole cents with Kahan compensation, keeping the
+    //                rounding error lost so far so the sum does not
+    //                drift. A compensation that is not finite is
+    //                dropped.
+    //
+    //  Parameters:   double value - amount to add
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    private void addOther(double value) {
+        double corrected = value - otherCompensation;
+        double sum = otherIncome + corrected;
+        double compensation = (sum - otherIncome) - corrected;
+        otherCompensation = Double.isFinite(compensation) ? compensation : 0;
+        otherIncome = sum;
+    }
+    //***************************************************************
+    //
+    //  Method:       sizeBucket
+    //
+    //  Description:  Returns the count bucket of a household size.
+    //                Sizes below zero share the first bucket and
+    //                sizes past the guideline table share the last.
+    //
+    //  Parameters:   int members - household size
+    //
+    //  Returns:      int - bucket index
+    //
+    //***************************************************************
+    static int sizeBucket(int members) {
+        return Math.max(0, Math.min(members, SIZE_BUCKETS - 1));
+    }
+    //***************************************************************
+    //
+    //  Method:       wholeCents
+    //
+    //  Description:  Returns an income in cents when it is an exact
+    //                number of cents under MAX_CENTS_INCOME, so it
+    //                can be added without rounding error.
+    //
+    //  Parameters:   double income - annual income
+    //
+    //  Returns:      long - cents, or NOT_WHOLE_CENTS
+    //
+    //***************************************************************
+    static long wholeCents(double income) {
+        long cents = Math.round(income * 100);
+        return Math.abs(income) < MAX_CENTS_INCOME && cents / 100.0 == income ? cents : NOT_WHOLE_CENTS;
+    }
+    //***************************************************************
+    //
+    //  Method:       readCounts
+    //
+    //  Description:  Reads one saved count array into the given
+    //                array, checking that its length matches.
+    //
+    //  Parameters:   DataInput in  - stream to read from
+    //                long[] counts - array to fill
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    private static void readCounts(DataInput in, long[] counts) throws IOException {
+        int length = in.readInt();
+        if (length != counts.length) {
+            throw new IOException("Aggregate layout mismatch: expected " + counts.length + " counts, found " + length);
+        }
+        for (int i = 0; i < length; i++) {
+            counts[i] = in.readLong();
+        }
+    }
+}
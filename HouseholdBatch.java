@@ -0,0 +1,287 @@
+//********************************************************************
+//
+//  Developer:     Mauricio Rivas
+//
+//  Program #:     Three
+//
+//  File Name:     HouseholdBatch.java
+//
+//  Course:        COSC 4301 Modern Programming
+//
+//  Due Date:      4/14/2025
+//
+//  Instructor:    Prof. Fred Kumi
+//
+//  Java Version:  11
+//
+//  Description:   This class is the unit of work passed between the
+//                 stages of a HouseholdPipeline: up to a fixed number
+//                 of parsed households in primitive columns, plus the
+//                 poverty line and eligibility flags the enrich stage
+//                 adds. Passing batches instead of single records keeps
+//                 the hand-off cost between threads small. A batch is
+//                 not changed after it is enriched, so every sink can
+//                 read it at the same time.
+//
+//********************************************************************
+
+public class HouseholdBatch implements HouseholdTable, HouseholdParser.RecordHandler {
+    private final int[] ids;
+    private final double[] incomes;
+    private final int[] members;
+    private final int[] stateCodes;
+    private final String[] states;
+    private final int[] years;
+    private final double[] povertyLevels;
+    private final boolean[] belowPoverty;
+    private final boolean[] medicaidEligible;
+    private int size;
+    //***************************************************************
+    //
+    //  Method:       HouseholdBatch (Constructor)
+    //
+    //  Description:  Creates an empty batch.
+    //
+    //  Parameters:   int capacity - most households the batch holds
+    //
+    //  Returns:      None
+    //
+    //***************************************************************
+    public HouseholdBatch(int capacity) {
+        ids = new int[capacity];
+        incomes = new double[capacity];
+        members = new int[capacity];
+        stateCodes = new int[capacity];
+        states = new String[capacity];
+        years = new int[capacity];
+        povertyLevels = new double[capacity];
+        belowPoverty = new boolean[capacity];
+        medicaidEligible = new boolean[capacity];
+    }
+    //***************************************************************
+    //
+    //  Method:       onRecord
+    //
+    //  Description:  Appends one parsed household.
+    //
+    //  Parameters:   record fields - as in HouseholdParser
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    @Override
+    public void onRecord(int id, double income, int members, int stateCode, String state) {
+        onRecord(id, income, members, stateCode, state, 0);
+    }
+    //***************************************************************
+    //
+    //  Method:       onRecord
+    //
+    //  Description:  Appends one parsed household and its reference
+    //                year.
+    //
+    //  Parameters:   record fields - as in HouseholdParser
+    //                int year      - reference year, or 0 for none
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    @Override
+    public void onRecord(int id, double income, int members, int stateCode, String state, int year) {
+        ids[size] = id;
+        incomes[size] = income;
+        this.members[size] = members;
+        stateCodes[size] = stateCode;
+        states[size] = state;
+        years[size] = year;
+        size++;
+    }
+    //***************************************************************
+    //
+    //  Method:       enrich
+    //
+    //  Description:  Fills in the poverty line and the below-FPL and
+    //                Medicaid flags of every household.
+    //
+    //  Parameters:   FPLThresholdTable thresholds - income limits
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    public void enrich(FPLThresholdTable thresholds) {
+        for (int i = 0; i < size; i++) {
+            double poverty = thresholds.povertyLevel(members[i]);
+            povertyLevels[i] = poverty;
+            belowPoverty[i] = incomes[i] < poverty;
+            medicaidEligible[i] = incomes[i]
+                    < thresholds.medicaidLevel(StateTable.regionOf(stateCodes[i]), members[i]);
+        }
+    }
+    //***************************************************************
+    //
+    //  Method:       isFull
+    //
+    //  Description:  Tells whether the batch has no room for another
+    //                household.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      boolean - true if full
+    //
+    //***************************************************************
+    public boolean isFull() {
+        return size == ids.length;
+    }
+    //***************************************************************
+    //
+    //  Method:       size
+    //
+    //  Description:  Returns the number of households in the batch.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      int - household count
+    //
+    //***************************************************************
+    @Override
+    public int size() {
+        return size;
+    }
+    //***************************************************************
+    //
+    //  Method:       getId
+    //
+    //  Description:  Returns the ID of one household.
+    //
+    //  Parameters:   int index - position in the batch
+    //
+    //  Returns:      int - Household ID
+    //
+    //***************************************************************
+    @Override
+    public int getId(int index) {
+        return ids[index];
+    }
+    //***************************************************************
+    //
+    //  Method:       getIncome
+    //
+    //  Description:  Returns the annual income of one household.
+    //
+    //  Parameters:   int index - position in the batch
+    //
+    //  Returns:      double - Annual income
+    //
+    //***************************************************************
+    @Override
+    public double getIncome(int index) {
+        return incomes[index];
+    }
+    //***************************************************************
+    //
+    //  Method:       getMembers
+    //
+    //  Description:  Returns the number of people in one household.
+    //
+    //  Parameters:   int index - position in the batch
+    //
+    //  Returns:      int - Number of household members
+    //
+    //***************************************************************
+    @Override
+    public int getMembers(int index) {
+        return members[index];
+    }
+    //***************************************************************
+    //
+    //  Method:       getStateCode
+    //
+    //  Description:  Returns the StateTable code of the state one
+    //                household lives in.
+    //
+    //  Parameters:   int index - position in the batch
+    //
+    //  Returns:      int - StateTable code or UNKNOWN
+    //
+    //***************************************************************
+    @Override
+    public int getStateCode(int index) {
+        return stateCodes[index];
+    }
+    //***************************************************************
+    //
+    //  Method:       getState
+    //
+    //  Description:  Returns the state of one household as it was
+    //                written.
+    //
+    //  Parameters:   int index - position in the batch
+    //
+    //  Returns:      String - State name
+    //
+    //***************************************************************
+    @Override
+    public String getState(int index) {
+        return states[index];
+    }
+    //***************************************************************
+    //
+    //  Method:       getReferenceYear
+    //
+    //  Description:  Returns the guideline year of one household.
+    //
+    //  Parameters:   int index - position in the batch
+    //
+    //  Returns:      int - reference year, or 0 for none
+    //
+    //***************************************************************
+    @Override
+    public int getReferenceYear(int index) {
+        return years[index];
+    }
+    //***************************************************************
+    //
+    //  Method:       getPovertyLevel
+    //
+    //  Description:  Returns the poverty line enrich set for one
+    //                household.
+    //
+    //  Parameters:   int index - position in the batch
+    //
+    //  Returns:      double - poverty line
+    //
+    //***************************************************************
+    public double getPovertyLevel(int index) {
+        return povertyLevels[index];
+    }
+    //***************************************************************
+    //
+    //  Method:       isBelowPoverty
+    //
+    //  Description:  Tells whether enrich found one household below
+    //                the poverty line.
+    //
+    //  Parameters:   int index - position in the batch
+    //
+    //  Returns:      boolean - true if below poverty
+    //
+    //***************************************************************
+    public boolean isBelowPoverty(int index) {
+        return belowPoverty[index];
+    }
+    //***************************************************************
+    //
+    //  Method:       isMedicaidEligible
+    //
+    //  Description:  Tells whether enrich found one household
+    //                eligible for Medicaid.
+    //
+    //  Parameters:   int index - position in the batch
+    //
+    //  Returns:      boolean - true if eligible
+    //
+    //***************************************************************
+    public boolean isMedicaidEligible(int index) {
+        return medicaidEligible[index];
+    }
+}
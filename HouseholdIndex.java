@@ -0,0 +1,519 @@
+//********************************************************************
+//
+//  Developer:     Mauricio Rivas
+//
+//  Program #:     Three
+//
+//  File Name:     HouseholdIndex.java
+//
+//  Course:        COSC 4301 Modern Programming
+//
+//  Due Date:      4/14/2025
+//
+//  Instructor:    Prof. Fred Kumi
+//
+//  Java Version:  11
+//
+//  Description:   This class holds secondary indexes over a loaded
+//                 household table so filtered counts and listings do
+//                 not scan every row:
+//
+//                   - a RowBitmap of the rows in each state
+//                   - a posting list (ascending rows) per household size
+//                   - the incomes in ascending order with their rows,
+//                     searched by binary search for income ranges
+//                   - RowBitmaps of the rows below the poverty line and
+//                     below the Medicaid limit
+//
+//                 Conditions are combined with RowBitmap AND, OR, and
+//                 AND NOT. The index is built once from a table that
+//                 no longer changes; building it costs two passes over
+//                 the rows and a radix sort of the incomes, and the
+//                 time and memory taken are reported by
+//                 getBuildNanos and getSizeInBytes.
+//
+//********************************************************************
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class HouseholdIndex {
+    private static final int RADIX_BITS = 16;
+    private static final int RADIX = 1 << RADIX_BITS;
+
+    private final HouseholdTable table;
+    private final RowBitmap all;
+    private final RowBitmap[] states = new RowBitmap[StateTable.COUNT];
+    private final Map<String, RowBitmap> otherStates = new HashMap<>();
+    private final int[][] sizes;
+    private final double[] incomes;
+    private final int[] incomeRows;
+    private final RowBitmap belowPoverty;
+    private final RowBitmap medicaidEligible;
+    private final long buildNanos;
+    //***************************************************************
+    //
+    //  Method:       HouseholdIndex (Constructor)
+    //
+    //  Description:  Builds every index over a table. The table must
+    //                not change while the index is in use.
+    //
+    //  Parameters:   HouseholdTable table         - households to index
+    //                FPLThresholdTable thresholds - income limits for
+    //                                               the eligibility
+    //                                               bitmaps
+    //
+    //  Returns:      None
+    //
+    //***************************************************************
+    public HouseholdIndex(HouseholdTable table, FPLThresholdTable thresholds) {
+        long start = System.nanoTime();
+        int count = table.size();
+        this.table = table;
+        this.all = RowBitmap.range(0, count);
+
+        int[] stateCounts = new int[StateTable.COUNT];
+        int[] sizeCounts = new int[16];
+        Map<String, Integer> otherCodes = new HashMap<>();
+        List<String> otherNames = new ArrayList<>();
+        int poorCount = 0;
+        int medicaidCount = 0;
+        for (int i = 0; i < count; i++) {
+            int code = table.getStateCode(i);
+            int region = StateTable.regionOf(code);
+            int members = table.getMembers(i);
+            double income = table.getIncome(i);
+            if (code == StateTable.UNKNOWN) {
+                String name = table.getState(i);
+                Integer other = otherCodes.get(name);
+                if (other == null) {
+                    other = StateTable.COUNT + otherNames.size();
+                    otherCodes.put(name, other);
+                    otherNames.add(name);
+                    stateCounts = Arrays.copyOf(stateCounts, other + 1);
+                }
+                code = other;
+            }
+            stateCounts[code]++;
+            if (members >= sizeCounts.length) {
+                sizeCounts = Arrays.copyOf(sizeCounts, Math.max(members + 1, sizeCounts.length * 2));
+            }
+            sizeCounts[Math.max(members, 0)]++;
+            if (income < thresholds.povertyLevel(members)) {
+                poorCount++;
+            }
+            if (income < thresholds.medicaidLevel(region, members)) {
+                medicaidCount++;
+            }
+        }
+
+        int[] stateStarts = new int[stateCounts.length + 1];
+        for (int code = 0; code < stateCounts.length; code++) {
+            stateStarts[code + 1] = stateStarts[code] + stateCounts[code];
+        }
+        int[] byState = new int[count];
+        int[] stateFill = Arrays.copyOf(stateStarts, stateCounts.length);
+        this.sizes = new int[sizeCounts.length][];
+        for (int members = 0; members < sizeCounts.length; members++) {
+            sizes[members] = new int[sizeCounts[members]];
+        }
+        int[] sizeFill = new int[sizeCounts.length];
+        int[] poor = new int[poorCount];
+        int[] eligible = new int[medicaidCount];
+        poorCount = 0;
+        medicaidCount = 0;
+        for (int i = 0; i < count; i++) {
+            int code = table.getStateCode(i);
+            int region = StateTable.regionOf(code);
+            if (code == StateTable.UNKNOWN) {
+                code = otherCodes.get(table.getState(i));
+            }
+            byState[stateFill[code]++] = i;
+            int members = table.getMembers(i);
+            int size = Math.max(members, 0);
+            sizes[size][sizeFill[size]++] = i;
+            double income = table.getIncome(i);
+            if (income < thresholds.povertyLevel(members)) {
+                poor[poorCount++] = i;
+            }
+            if (income < thresholds.medicaidLevel(region, members)) {
+                eligible[medicaidCount++] = i;
+            }
+        }
+        for (int code = 0; code < stateCounts.length; code++) {
+            RowBitmap rows = RowBitmap.of(byState, stateStarts[code], stateStarts[code + 1]);
+            if (code < StateTable.COUNT) {
+                states[code] = rows;
+            } else {
+                otherStates.put(otherNames.get(code - StateTable.COUNT), rows);
+            }
+        }
+        this.belowPoverty = RowBitmap.of(poor, 0, poorCount);
+        this.medicaidEligible = RowBitmap.of(eligible, 0, medicaidCount);
+
+        this.incomeRows = sortByIncome(table);
+        this.incomes = new double[count];
+        for (int i = 0; i < count; i++) {
+            incomes[i] = table.getIncome(incomeRows[i]);
+        }
+        this.buildNanos = System.nanoTime() - start;
+    }
+    //***************************************************************
+    //
+    //  Method:       state
+    //
+    //  Description:  Returns the rows of one state. Names in the state
+    //                table match in any case; other names must match
+    //                exactly, as the listing filter does.
+    //
+    //  Parameters:   String name - state name
+    //
+    //  Returns:      RowBitmap - rows in the state
+    //
+    //***************************************************************
+    public RowBitmap state(String name) {
+        int code = StateTable.lookup(name);
+        RowBitmap rows = code != StateTable.UNKNOWN ? states[code] : otherStates.get(name);
+        return rows != null ? rows : RowBitmap.empty();
+    }
+    //***************************************************************
+    //
+    //  Method:       members
+    //
+    //  Description:  Returns the rows whose household size is in a
+    //                range, the OR of the size posting lists.
+    //
+    //  Parameters:   int min - smallest size
+    //                int max - largest size
+    //
+    //  Returns:      RowBitmap - rows in the range
+    //
+    //***************************************************************
+    public RowBitmap members(int min, int max) {
+        if (min <= 0 && max >= sizes.length - 1) {
+            return all;
+        }
+        RowBitmap rows = RowBitmap.empty();
+        for (int size = Math.max(min, 0); size <= Math.min(max, sizes.length - 1); size++) {
+            rows = rows.or(RowBitmap.of(sizes[size], 0, sizes[size].length));
+        }
+        return rows;
+    }
+    //***************************************************************
+    //
+    //  Method:       countMembers
+    //
+    //  Description:  Counts the rows whose household size is in a
+    //                range from the posting list lengths alone.
+    //
+    //  Parameters:   int min - smallest size
+    //                int max - largest size
+    //
+    //  Returns:      long - matching rows
+    //
+    //***************************************************************
+    public long countMembers(int min, int max) {
+        long count = 0;
+        for (int size = Math.max(min, 0); size <= Math.min(max, sizes.length - 1); size++) {
+            count += sizes[size].length;
+        }
+        return count;
+    }
+    //***************************************************************
+    //
+    //  Method:       filterMembers
+    //
+    //  Description:  Keeps the rows of a bitmap whose household size
+    //                is in a range. If the posting lists hold fewer
+    //                rows than the bitmap they are merged and
+    //                intersected; otherwise the bitmap's own rows are
+    //                checked against the size column.
+    //
+    //  Parameters:   RowBitmap rows - rows to filter
+    //                int min        - smallest size
+    //                int max        - largest size
+    //
+    //  Returns:      RowBitmap - rows in the range
+    //
+    //***************************************************************
+    public RowBitmap filterMembers(RowBitmap rows, int min, int max) {
+        if (min <= 0 && max >= sizes.length - 1) {
+            return rows;
+        }
+        if (countMembers(min, max) < rows.cardinality()) {
+            return rows.and(members(min, max));
+        }
+        return rows.filter(i -> {
+            int members = table.getMembers(i);
+            return members >= min && members <= max;
+        });
+    }
+    //***************************************************************
+    //
+    //  Method:       income
+    //
+    //  Description:  Returns the rows with income from min to max,
+    //                both included. The range is found by binary
+    //                search; only the rows inside it are touched, and
+    //                they are turned into a bitmap without sorting.
+    //
+    //  Parameters:   double min - lowest income
+    //                double max - highest income
+    //
+    //  Returns:      RowBitmap - rows in the range
+    //
+    //***************************************************************
+    public RowBitmap income(double min, double max) {
+        int from = lowerBound(min);
+        int to = upperBound(max);
+        return from < to ? RowBitmap.ofUnsorted(incomeRows, from, to) : RowBitmap.empty();
+    }
+    //***************************************************************
+    //
+    //  Method:       countIncome
+    //
+    //  Description:  Counts the rows with income from min to max, both
+    //                included, in two binary searches.
+    //
+    //  Parameters:   double min - lowest income
+    //                double max - highest income
+    //
+    //  Returns:      long - matching rows
+    //
+    //***************************************************************
+    public long countIncome(double min, double max) {
+        return Math.max(0, upperBound(max) - lowerBound(min));
+    }
+    //***************************************************************
+    //
+    //  Method:       filterIncome
+    //
+    //  Description:  Keeps the rows of a bitmap with income from min
+    //                to max. If the income range holds fewer rows than
+    //                the bitmap, the range is read from the sorted
+    //                column and intersected; otherwise the bitmap's own
+    //                rows are checked against the income column.
+    //
+    //  Parameters:   RowBitmap rows - rows to filter
+    //                double min     - lowest income
+    //                double max     - highest income
+    //
+    //  Returns:      RowBitmap - rows in the range
+    //
+    //***************************************************************
+    public RowBitmap filterIncome(RowBitmap rows, double min, double max) {
+        if (min == Double.NEGATIVE_INFINITY && max == Double.POSITIVE_INFINITY) {
+            return rows;
+        }
+        if (countIncome(min, max) < rows.cardinality()) {
+            return rows.and(income(min, max));
+        }
+        return rows.filter(i -> {
+            double income = table.getIncome(i);
+            return income >= min && income <= max;
+        });
+    }
+    //***************************************************************
+    //
+    //  Method:       all
+    //
+    //  Description:  Returns every row of the table.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      RowBitmap - all rows
+    //
+    //***************************************************************
+    public RowBitmap all() {
+        return all;
+    }
+    //***************************************************************
+    //
+    //  Method:       belowPoverty
+    //
+    //  Description:  Returns the rows of households below the poverty
+    //                level.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      RowBitmap - rows below poverty
+    //
+    //***************************************************************
+    public RowBitmap belowPoverty() {
+        return belowPoverty;
+    }
+    //***************************************************************
+    //
+    //  Method:       medicaidEligible
+    //
+    //  Description:  Returns the rows of households eligible for
+    //                Medicaid.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      RowBitmap - Medicaid-eligible rows
+    //
+    //***************************************************************
+    public RowBitmap medicaidEligible() {
+        return medicaidEligible;
+    }
+    //***************************************************************
+    //
+    //  Method:       size
+    //
+    //  Description:  Returns the number of rows indexed.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      int - row count
+    //
+    //***************************************************************
+    public int size() {
+        return incomes.length;
+    }
+    //***************************************************************
+    //
+    //  Method:       getBuildNanos
+    //
+    //  Description:  Returns the time the index took to build.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      long - nanoseconds
+    //
+    //***************************************************************
+    public long getBuildNanos() {
+        return buildNanos;
+    }
+    //***************************************************************
+    //
+    //  Method:       getSizeInBytes
+    //
+    //  Description:  Estimates the heap used by all of the indexes.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      long - approximate bytes
+    //
+    //***************************************************************
+    public long getSizeInBytes() {
+        long bytes = all.getSizeInBytes() + belowPoverty.getSizeInBytes() + medicaidEligible.getSizeInBytes();
+        for (RowBitmap rows : states) {
+            bytes += rows.getSizeInBytes();
+        }
+        for (RowBitmap rows : otherStates.values()) {
+            bytes += rows.getSizeInBytes();
+        }
+        for (int[] rows : sizes) {
+            bytes += 16 + rows.length * (long) Integer.BYTES;
+        }
+        return bytes + 32 + incomes.length * (long) (Double.BYTES + Integer.BYTES);
+    }
+    //***************************************************************
+    //
+    //  Method:       lowerBound
+    //
+    //  Description:  Finds the first position in income order whose
+    //                income is at least the minimum.
+    //
+    //  Parameters:   double min - lowest income
+    //
+    //  Returns:      int - position in income order
+    //
+    //***************************************************************
+    private int lowerBound(double min) {
+        int low = 0;
+        int high = incomes.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (incomes[mid] < min) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+    //***************************************************************
+    //
+    //  Method:       upperBound
+    //
+    //  Description:  Finds the first position in income order whose
+    //                income is over the maximum.
+    //
+    //  Parameters:   double max - highest income
+    //
+    //  Returns:      int - position in income order
+    //
+    //***************************************************************
+    private int upperBound(double max) {
+        int low = 0;
+        int high = incomes.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (incomes[mid] <= max) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+    //***************************************************************
+    //
+    //  Method:       sortByIncome
+    //
+    //  Description:  Orders the rows by income with a stable radix
+    //                sort on the income bits, 16 bits a pass, so equal
+    //                incomes keep their row order. Passes where every
+    //                income has the same digit are skipped.
+    //
+    //  Parameters:   HouseholdTable table - households to sort
+    //
+    //  Returns:      int[] - rows in ascending income order
+    //
+    //***************************************************************
+    private static int[] sortByIncome(HouseholdTable table) {
+        int count = table.size();
+        long[] keys = new long[count];
+        int[] rows = new int[count];
+        for (int i = 0; i < count; i++) {
+            long bits = Double.doubleToLongBits(table.getIncome(i));
+            keys[i] = bits ^ ((bits >> 63) | Long.MIN_VALUE);
+            rows[i] = i;
+        }
+        long[] keyBuffer = new long[count];
+        int[] rowBuffer = new int[count];
+        int[] starts = new int[RADIX + 1];
+        for (int shift = 0; shift < Long.SIZE; shift += RADIX_BITS) {
+            Arrays.fill(starts, 0);
+            for (long key : keys) {
+                starts[(int) (key >>> shift) & (RADIX - 1)]++;
+            }
+            if (count == 0 || starts[(int) (keys[0] >>> shift) & (RADIX - 1)] == count) {
+                continue;
+            }
+            int total = 0;
+            for (int digit = 0; digit < RADIX; digit++) {
+                int digitCount = starts[digit];
+                starts[digit] = total;
+                total += digitCount;
+            }
+            for (int i = 0; i < count; i++) {
+                int at = starts[(int) (keys[i] >>> shift) & (RADIX - 1)]++;
+                keyBuffer[at] = keys[i];
+                rowBuffer[at] = rows[i];
+            }
+            long[] sortedKeys = keyBuffer;
+            keyBuffer = keys;
+            keys = sortedKeys;
+            int[] sortedRows = rowBuffer;
+            rowBuffer = rows;
+            rows = sortedRows;
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,485 @@
+//********************************************************************
+//
+//  Developer:     Mauricio Rivas
+//
+//  Program #:     Three
+//
+//  File Name:     HouseholdParser.java
+//
+//  Course:        COSC 4301 Modern Programming
+//
+//  Due Date:      4/14/2025
+//
+//  Instructor:    Prof. Fred Kumi
+//
+//  Java Version:  11
+//
+//  Description:   This class parses whitespace-delimited household
+//                 records (ID, income, members, state, and an
+//                 optional 4-digit reference year) straight from
+//                 bytes. Numbers are parsed without building Strings,
+//                 state names are interned through StateTable, and
+//                 each record is handed to a callback so records
+//                 never have to be collected in a list. Files may be
+//                 gzip or block gzip compressed.
+//
+//********************************************************************
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+
+public class HouseholdParser {
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final long MAP_REGION_SIZE = 1L << 30;
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+        1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    //***************************************************************
+    //
+    //  Interface:    RecordHandler
+    //
+    //  Description:  Receives each parsed household record. Handlers
+    //                that keep the reference year override the six
+    //                argument form; the year is 0 when a record has
+    //                none.
+    //
+    //***************************************************************
+    public interface RecordHandler {
+        //***************************************************************
+        //
+        //  Method:       onRecord
+        //
+        //  Description:  Receives one parsed record.
+        //
+        //  Parameters:   int id        - Household ID
+        //                double income - annual income
+        //                int members   - household size
+        //                int stateCode - StateTable code or UNKNOWN
+        //                String state  - name as written
+        //
+        //  Returns:      void
+        //
+        //***************************************************************
+        void onRecord(int id, double income, int members, int stateCode, String state);
+        //***************************************************************
+        //
+        //  Method:       onRecord
+        //
+        //  Description:  Receives one record with its reference year. By
+        //                default the year is dropped and the five
+        //                argument form is called.
+        //
+        //  Parameters:   int id        - Household ID
+        //                double income - annual income
+        //                int members   - household size
+        //                int stateCode - StateTable code or UNKNOWN
+        //                String state  - name as written
+        //                int year      - reference year, or 0
+        //
+        //  Returns:      void
+        //
+        //***************************************************************
+        default void onRecord(int id, double income, int members, int stateCode, String state, int year) {
+            onRecord(id, income, members, stateCode, state);
+        }
+    }
+
+    private byte[] stateBytes = new byte[64];
+    private int position;
+    private long lineNumber;
+    //***************************************************************
+    //
+    //  Method:       parse
+    //
+    //  Description:  Reads records from a stream in large blocks.
+    //                A line split across two blocks is carried over
+    //                to the next read.
+    //
+    //  Parameters:   InputStream in         - household data
+    //                RecordHandler handler  - receives each record
+    //
+    //  Returns:      long - number of records parsed
+    //
+    //***************************************************************
+    public long parse(InputStream in, RecordHandler handler) throws IOException {
+        byte[] block = new byte[BUFFER_SIZE];
+        ByteBuffer buffer = ByteBuffer.wrap(block);
+        int filled = 0;
+        long records = 0;
+        int read;
+
+        while ((read = in.read(block, filled, block.length - filled)) != -1) {
+            filled += read;
+            int consumed = lastLineEnd(buffer, 0, filled);
+            if (consumed == 0) {
+                if (filled == block.length) {
+                    block = Arrays.copyOf(block, block.length * 2);
+                    buffer = ByteBuffer.wrap(block);
+                }
+                continue;
+            }
+            records += parse(buffer, 0, consumed, handler);
+            System.arraycopy(block, consumed, block, 0, filled - consumed);
+            filled -= consumed;
+        }
+        if (filled > 0) {
+            records += parse(buffer, 0, filled, handler);
+        }
+        return records;
+    }
+    //***************************************************************
+    //
+    //  Method:       open
+    //
+    //  Description:  Opens a household file for the stream parser. A
+    //                gzip file is decompressed as it is read, so it
+    //                never has to be unpacked to disk; a block gzip
+    //                file is decoded ahead of the parser on one thread
+    //                per processor.
+    //
+    //  Parameters:   Path file - text, gzip, or block gzip file
+    //
+    //  Returns:      InputStream - the household text
+    //
+    //***************************************************************
+    public static InputStream open(Path file) throws IOException {
+        if (!BlockGzip.isGzip(file)) {
+            return Files.newInputStream(file);
+        }
+        if (BlockGzip.isBlockGzip(file)) {
+            return BlockGzip.newInputStream(file, Runtime.getRuntime().availableProcessors());
+        }
+        return new GZIPInputStream(Files.newInputStream(file), BUFFER_SIZE);
+    }
+    //***************************************************************
+    //
+    //  Method:       parseMapped
+    //
+    //  Description:  Memory-maps a household file and parses every
+    //                record. The file is mapped in regions of up to
+    //                1 GB, each cut back to the last complete line so
+    //                no record is split. A gzip file cannot be mapped
+    //                and is streamed through open instead.
+    //
+    //  Parameters:   Path file             - household data file
+    //                RecordHandler handler - receives each record
+    //
+    //  Returns:      long - number of records parsed
+    //
+    //***************************************************************
+    public long parseMapped(Path file, RecordHandler handler) throws IOException {
+        if (BlockGzip.isGzip(file)) {
+            try (InputStream in = open(file)) {
+                return parse(in, handler);
+            }
+        }
+        long records = 0;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long length = channel.size();
+            long offset = 0;
+            while (offset < length) {
+                long regionSize = Math.min(MAP_REGION_SIZE, length - offset);
+                MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, offset, regionSize);
+                int end = (int) regionSize;
+                if (offset + regionSize < length) {
+                    end = lastLineEnd(region, 0, end);
+                    if (end == 0) {
+                        throw new IOException("Line longer than " + MAP_REGION_SIZE + " bytes at offset " + offset);
+                    }
+                }
+                records += parse(region, 0, end, handler);
+                offset += end;
+            }
+        }
+        return records;
+    }
+    //***************************************************************
+    //
+    //  Method:       parse
+    //
+    //  Description:  Parses every record in a byte range of a buffer.
+    //                The range should end on a line boundary; the
+    //                buffer's own position and limit are not changed.
+    //
+    //  Parameters:   ByteBuffer buffer      - heap or mapped buffer
+    //                int start              - first byte to parse
+    //                int end                - one past the last byte
+    //                RecordHandler handler  - receives each record
+    //
+    //  Returns:      long - number of records parsed
+    //
+    //***************************************************************
+    public long parse(ByteBuffer buffer, int start, int end, RecordHandler handler) {
+        long records = 0;
+        position = start;
+        while (position < end) {
+            int lineEnd = position;
+            while (lineEnd < end && buffer.get(lineEnd) != '\n') {
+                lineEnd++;
+            }
+            lineNumber++;
+            if (parseLine(buffer, lineEnd, handler)) {
+                records++;
+            }
+            position = lineEnd + 1;
+        }
+        return records;
+    }
+    //***************************************************************
+    //
+    //  Method:       lastLineEnd
+    //
+    //  Description:  Finds the end of the last complete line in a
+    //                byte range.
+    //
+    //  Parameters:   ByteBuffer buffer - data to search
+    //                int start         - first byte of the range
+    //                int end           - one past the last byte
+    //
+    //  Returns:      int - index just after the last newline, or
+    //                start if the range holds no newline
+    //
+    //***************************************************************
+    public static int lastLineEnd(ByteBuffer buffer, int start, int end) {
+        for (int i = end - 1; i >= start; i--) {
+            if (buffer.get(i) == '\n') {
+                return i + 1;
+            }
+        }
+        return start;
+    }
+    //***************************************************************
+    //
+    //  Method:       parseLine
+    //
+    //  Description:  Parses the line starting at the current position.
+    //                Blank lines are skipped. A last token of exactly
+    //                four digits after the state name is the household's
+    //                reference year.
+    //
+    //  Parameters:   ByteBuffer buffer      - data being parsed
+    //                int end                - end of the line
+    //                RecordHandler handler  - receives the record
+    //
+    //  Returns:      boolean - true if a record was produced
+    //
+    //***************************************************************
+    private boolean parseLine(ByteBuffer buffer, int end, RecordHandler handler) {
+        skipSpace(buffer, end);
+        if (position >= end) {
+            return false;
+        }
+
+        int id = (int) parseLong(buffer, end, Integer.MIN_VALUE, Integer.MAX_VALUE);
+        skipSpace(buffer, end);
+        double income = parseDecimal(buffer, end);
+        skipSpace(buffer, end);
+        int members = (int) parseLong(buffer, end, Integer.MIN_VALUE, Integer.MAX_VALUE);
+        skipSpace(buffer, end);
+
+        int length = 0;
+        int lastToken = 0;
+        boolean pendingSpace = false;
+        while (position < end) {
+            byte b = buffer.get(position++);
+            if (isSpace(b)) {
+                pendingSpace = length > 0;
+                continue;
+            }
+            if (length + 2 > stateBytes.length) {
+                stateBytes = Arrays.copyOf(stateBytes, stateBytes.length * 2);
+            }
+            if (pendingSpace) {
+                stateBytes[length++] = ' ';
+                lastToken = length;
+                pendingSpace = false;
+            }
+            stateBytes[length++] = b;
+        }
+
+        int year = 0;
+        if (lastToken > 0 && length - lastToken == 4) {
+            for (int i = lastToken; i < length && year >= 0; i++) {
+                int digit = stateBytes[i] - '0';
+                year = digit >= 0 && digit <= 9 ? year * 10 + digit : -1;
+            }
+            if (year > 0) {
+                length = lastToken - 1;
+            } else {
+                year = 0;
+            }
+        }
+
+        int stateCode = StateTable.lookup(stateBytes, 0, length);
+        String state = stateCode != StateTable.UNKNOWN
+                && StateTable.isCanonical(stateCode, stateBytes, 0, length)
+                ? StateTable.name(stateCode)
+                : new String(stateBytes, 0, length, StandardCharsets.UTF_8);
+        handler.onRecord(id, income, members, stateCode, state, year);
+        return true;
+    }
+    //***************************************************************
+    //
+    //  Method:       parseLong
+    //
+    //  Description:  Parses a signed whole number token.
+    //
+    //  Parameters:   ByteBuffer buffer - data being parsed
+    //                int end           - end of the line
+    //                long min, max     - allowed range
+    //
+    //  Returns:      long - parsed value
+    //
+    //***************************************************************
+    private long parseLong(ByteBuffer buffer, int end, long min, long max) {
+        boolean negative = position < end && buffer.get(position) == '-';
+        if (negative) {
+            position++;
+        }
+        int digitsStart = position;
+        long value = 0;
+        while (position < end && !isSpace(buffer.get(position))) {
+            int digit = buffer.get(position) - '0';
+            if (digit < 0 || digit > 9 || value > (Long.MAX_VALUE - digit) / 10) {
+                throw malformed();
+            }
+            value = value * 10 + digit;
+            position++;
+        }
+        if (position == digitsStart) {
+            throw malformed();
+        }
+        value = negative ? -value : value;
+        if (value < min || value > max) {
+            throw malformed();
+        }
+        return value;
+    }
+    //***************************************************************
+    //
+    //  Method:       parseDecimal
+    //
+    //  Description:  Parses a decimal token such as 12180.06. When the
+    //                digits fit in 53 bits and there are at most 22
+    //                decimal places, one division of two exact doubles
+    //                gives the same correctly rounded result as
+    //                Double.parseDouble. Anything else falls back to it.
+    //
+    //  Parameters:   ByteBuffer buffer - data being parsed
+    //                int end           - end of the line
+    //
+    //  Returns:      double - parsed value
+    //
+    //***************************************************************
+    private double parseDecimal(ByteBuffer buffer, int end) {
+        int tokenStart = position;
+        boolean negative = position < end && buffer.get(position) == '-';
+        if (negative) {
+            position++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int scale = -1;
+        boolean exact = true;
+
+        while (position < end && !isSpace(buffer.get(position))) {
+            byte b = buffer.get(position++);
+            if (b == '.' && scale < 0) {
+                scale = 0;
+            } else if (b >= '0' && b <= '9') {
+                if (mantissa < MAX_EXACT_MANTISSA / 10) {
+                    mantissa = mantissa * 10 + (b - '0');
+                } else {
+                    exact = false;
+                }
+                digits++;
+                if (scale >= 0) {
+                    scale++;
+                }
+            } else {
+                exact = false;
+            }
+        }
+
+        if (digits == 0 && exact) {
+            throw malformed();
+        }
+        scale = Math.max(scale, 0);
+        if (exact && scale < POWERS_OF_TEN.length) {
+            double value = mantissa / POWERS_OF_TEN[scale];
+            return negative ? -value : value;
+        }
+
+        byte[] token = new byte[position - tokenStart];
+        for (int i = 0; i < token.length; i++) {
+            token[i] = buffer.get(tokenStart + i);
+        }
+        try {
+            return Double.parseDouble(new String(token, StandardCharsets.US_ASCII));
+        } catch (NumberFormatException e) {
+            throw malformed();
+        }
+    }
+    //***************************************************************
+    //
+    //  Method:       skipSpace
+    //
+    //  Description:  Moves the parse position past spaces and tabs,
+    //                stopping at the end of the line.
+    //
+    //  Parameters:   ByteBuffer buffer - data being parsed
+    //                int end           - index after the last byte of
+    //                                    the line
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    private void skipSpace(ByteBuffer buffer, int end) {
+        while (position < end && isSpace(buffer.get(position))) {
+            position++;
+        }
+    }
+    //***************************************************************
+    //
+    //  Method:       isSpace
+    //
+    //  Description:  Tells whether a byte is whitespace between
+    //                fields: a space, tab, carriage return, form feed,
+    //                or vertical tab.
+    //
+    //  Parameters:   byte b - byte to check
+    //
+    //  Returns:      boolean - true for a separator
+    //
+    //***************************************************************
+    private static boolean isSpace(byte b) {
+        return b == ' ' || b == '\t' || b == '\r' || b == '\f' || b == 0x0B;
+    }
+    //***************************************************************
+    //
+    //  Method:       malformed
+    //
+    //  Description:  Builds the error for a record that cannot be
+    //                parsed.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      NumberFormatException - error naming the line
+    //
+    //***************************************************************
+    private NumberFormatException malformed() {
+        return new NumberFormatException("Malformed household record on line " + lineNumber);
+    }
+}
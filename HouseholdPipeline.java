@@ -0,0 +1,823 @@
+//********************************************************************
+//
+//  Developer:     Mauricio Rivas
+//
+//  Program #:     Three
+//
+//  File Name:     HouseholdPipeline.java
+//
+//  Course:        COSC 4301 Modern Programming
+//
+//  Due Date:      4/14/2025
+//
+//  Instructor:    Prof. Fred Kumi
+//
+//  Java Version:  11
+//
+//  Description:   This class streams households through a chain of
+//                 java.util.concurrent.Flow stages:
+//
+//                     source -> parse -> enrich -> sink, sink, ...
+//
+//                 The source (a file, a memory-mapped file, or stdin)
+//                 is parsed into batches on the calling thread; the
+//                 enrich stage adds the poverty line and eligibility
+//                 flags on its own thread; and every sink consumes the
+//                 enriched batches on its own thread. Each hand-off is
+//                 a SubmissionPublisher with a bounded buffer, and a
+//                 full buffer blocks the stage feeding it, so at most
+//                 a fixed number of batches are in memory however
+//                 large the input is.
+//
+//********************************************************************
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class HouseholdPipeline {
+    public static final int DEFAULT_BATCH_SIZE = 4096;
+    public static final int DEFAULT_BUFFER_BATCHES = 8;
+
+    //***************************************************************
+    //
+    //  Interface:    Source
+    //
+    //  Description:  Produces parsed household records.
+    //
+    //***************************************************************
+    public interface Source {
+        //***************************************************************
+        //
+        //  Method:       emit
+        //
+        //  Description:  Passes every household record to the handler.
+        //
+        //  Parameters:   HouseholdParser.RecordHandler handler -
+        //                    receives each record
+        //
+        //  Returns:      long - records emitted
+        //
+        //***************************************************************
+        long emit(HouseholdParser.RecordHandler handler) throws IOException;
+    }
+
+    //***************************************************************
+    //
+    //  Interface:    RowFilter
+    //
+    //  Description:  Selects households of an enriched batch.
+    //
+    //***************************************************************
+    public interface RowFilter {
+        //***************************************************************
+        //
+        //  Method:       test
+        //
+        //  Description:  Tells whether a sink takes one household.
+        //
+        //  Parameters:   HouseholdBatch batch - enriched batch
+        //                int index            - position in the batch
+        //
+        //  Returns:      boolean - true to take it
+        //
+        //***************************************************************
+        boolean test(HouseholdBatch batch, int index);
+    }
+
+    private final FPLThresholdTable thresholds;
+    private final int batchSize;
+    private final int bufferBatches;
+    private final List<BatchSink> sinks = new ArrayList<>();
+    //***************************************************************
+    //
+    //  Method:       HouseholdPipeline (Constructor)
+    //
+    //  Description:  Creates a pipeline with the default batch size
+    //                and buffers.
+    //
+    //  Parameters:   FPLThresholdTable thresholds - income limits
+    //
+    //  Returns:      None
+    //
+    //***************************************************************
+    public HouseholdPipeline(FPLThresholdTable thresholds) {
+        this(thresholds, DEFAULT_BATCH_SIZE, DEFAULT_BUFFER_BATCHES);
+    }
+    //***************************************************************
+    //
+    //  Method:       HouseholdPipeline (Constructor)
+    //
+    //  Description:  Creates a pipeline. At most about
+    //                (2 + sinks) x bufferBatches batches are in memory
+    //                at once.
+    //
+    //  Parameters:   FPLThresholdTable thresholds - income limits
+    //                int batchSize                - households per batch
+    //                int bufferBatches            - batches each stage
+    //                                               may queue
+    //
+    //  Returns:      None
+    //
+    //***************************************************************
+    public HouseholdPipeline(FPLThresholdTable thresholds, int batchSize, int bufferBatches) {
+        this.thresholds = thresholds;
+        this.batchSize = Math.max(1, batchSize);
+        this.bufferBatches = Math.max(1, bufferBatches);
+    }
+    //***************************************************************
+    //
+    //  Method:       addSink
+    //
+    //  Description:  Adds a consumer of the enriched batches. Sinks
+    //                must be added before run is called.
+    //
+    //  Parameters:   BatchSink sink - consumer
+    //
+    //  Returns:      HouseholdPipeline - this pipeline
+    //
+    //***************************************************************
+    public HouseholdPipeline addSink(BatchSink sink) {
+        sinks.add(sink);
+        return this;
+    }
+    //***************************************************************
+    //
+    //  Method:       run
+    //
+    //  Description:  Streams a source through the pipeline and waits
+    //                until every sink has finished. A failure in the
+    //                source is passed to every sink; a failure in a sink
+    //                stops only that sink and is thrown once the run
+    //                ends.
+    //
+    //  Parameters:   Source source - household records
+    //
+    //  Returns:      long - number of records parsed
+    //
+    //***************************************************************
+    public long run(Source source) throws IOException {
+        AtomicInteger threads = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(1 + sinks.size(), task -> {
+            Thread thread = new Thread(task, "household-pipeline-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            SubmissionPublisher<HouseholdBatch> parsed = new SubmissionPublisher<>(executor, bufferBatches);
+            EnrichStage enrich = new EnrichStage(thresholds, executor, bufferBatches);
+            parsed.subscribe(enrich);
+            for (BatchSink sink : sinks) {
+                enrich.subscribe(sink);
+            }
+
+            Batcher batcher = new Batcher(parsed);
+            try {
+                source.emit(batcher);
+                batcher.flush();
+                parsed.close();
+            } catch (IOException | RuntimeException e) {
+                parsed.closeExceptionally(e);
+                throw e;
+            }
+            for (BatchSink sink : sinks) {
+                sink.await();
+            }
+            return batcher.records;
+        } finally {
+            executor.shutdown();
+        }
+    }
+    //***************************************************************
+    //
+    //  Method:       file
+    //
+    //  Description:  Returns a source that streams a text file.
+    //
+    //  Parameters:   Path file - household data
+    //
+    //  Returns:      Source - the source
+    //
+    //***************************************************************
+    public static Source file(Path file) {
+        return handler -> {
+            try (InputStream in = HouseholdParser.open(file)) {
+                return new HouseholdParser().parse(in, handler);
+            }
+        };
+    }
+    //***************************************************************
+    //
+    //  Method:       mappedFile
+    //
+    //  Description:  Returns a source that memory-maps a text file in
+    //                regions of up to 1 GB cut back to line ends. A
+    //                gzip file is streamed instead.
+    //
+    //  Parameters:   Path file - household data
+    //
+    //  Returns:      Source - the source
+    //
+    //***************************************************************
+    public static Source mappedFile(Path file) {
+        return handler -> new HouseholdParser().parseMapped(file, handler);
+    }
+    //***************************************************************
+    //
+    //  Method:       stdin
+    //
+    //  Description:  Returns a source that streams standard input.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      Source - the source
+    //
+    //***************************************************************
+    public static Source stdin() {
+        return handler -> new HouseholdParser().parse(System.in, handler);
+    }
+
+    //***************************************************************
+    //
+    //  Class:        Batcher
+    //
+    //  Description:  Collects parsed records into batches and submits
+    //                each full batch, blocking while the enrich stage's
+    //                buffer is full.
+    //
+    //***************************************************************
+    private class Batcher implements HouseholdParser.RecordHandler {
+        private final SubmissionPublisher<HouseholdBatch> publisher;
+        private HouseholdBatch batch = new HouseholdBatch(batchSize);
+        private long records;
+        //***************************************************************
+        //
+        //  Method:       Batcher (Constructor)
+        //
+        //  Description:  Creates a batcher that submits full batches to
+        //                the enrich stage.
+        //
+        //  Parameters:   SubmissionPublisher<HouseholdBatch> publisher -
+        //                    the enrich stage
+        //
+        //  Returns:      None
+        //
+        //***************************************************************
+        Batcher(SubmissionPublisher<HouseholdBatch> publisher) {
+            this.publisher = publisher;
+        }
+        //***************************************************************
+        //
+        //  Method:       onRecord
+        //
+        //  Description:  Adds one record without a reference year.
+        //
+        //  Parameters:   int id        - Household ID
+        //                double income - annual income
+        //                int members   - household size
+        //                int stateCode - StateTable code or UNKNOWN
+        //                String state  - name as written
+        //
+        //  Returns:      void
+        //
+        //***************************************************************
+        @Override
+        public void onRecord(int id, double income, int members, int stateCode, String state) {
+            onRecord(id, income, members, stateCode, state, 0);
+        }
+        //***************************************************************
+        //
+        //  Method:       onRecord
+        //
+        //  Description:  Adds one record to the current batch and submits
+        //                the batch when it is full.
+        //
+        //  Parameters:   int id        - Household ID
+        //                double income - annual income
+        //                int members   - household size
+        //                int stateCode - StateTable code or UNKNOWN
+        //                String state  - name as written
+        //                int year      - reference year, or 0
+        //
+        //  Returns:      void
+        //
+        //***************************************************************
+        @Override
+        public void onRecord(int id, double income, int members, int stateCode, String state, int year) {
+            batch.onRecord(id, income, members, stateCode, state, year);
+            records++;
+            if (batch.isFull()) {
+                flush();
+            }
+        }
+        //***************************************************************
+        //
+        //  Method:       flush
+        //
+        //  Description:  Submits the current batch if it holds any
+        //                records and starts a new one.
+        //
+        //  Parameters:   None
+        //
+        //  Returns:      void
+        //
+        //***************************************************************
+        void flush() {
+            if (batch.size() > 0) {
+                publisher.submit(batch);
+                batch = new HouseholdBatch(batchSize);
+            }
+        }
+    }
+
+    //***************************************************************
+    //
+    //  Class:        EnrichStage
+    //
+    //  Description:  Adds the poverty line and eligibility flags to
+    //                each batch and publishes it to the sinks.
+    //
+    //***************************************************************
+    private static class EnrichStage extends SubmissionPublisher<HouseholdBatch>
+            implements Flow.Processor<HouseholdBatch, HouseholdBatch> {
+        private final FPLThresholdTable thresholds;
+        private Flow.Subscription subscription;
+        //***************************************************************
+        //
+        //  Method:       EnrichStage (Constructor)
+        //
+        //  Description:  Creates the enrich stage with its own bounded
+        //                buffer.
+        //
+        //  Parameters:   FPLThresholdTable thresholds - income limits
+        //                ExecutorService executor     - delivery threads
+        //                int bufferBatches            - batches buffered
+        //                                               per sink
+        //
+        //  Returns:      None
+        //
+        //***************************************************************
+        EnrichStage(FPLThresholdTable thresholds, ExecutorService executor, int bufferBatches) {
+            super(executor, bufferBatches);
+            this.thresholds = thresholds;
+        }
+        //***************************************************************
+        //
+        //  Method:       onSubscribe
+        //
+        //  Description:  Keeps the subscription and asks for the first
+        //                batch.
+        //
+        //  Parameters:   Flow.Subscription subscription - link to the
+        //                                                 batcher
+        //
+        //  Returns:      void
+        //
+        //***************************************************************
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(1);
+        }
+        //***************************************************************
+        //
+        //  Method:       onNext
+        //
+        //  Description:  Enriches one batch, passes it on, and asks for
+        //                the next.
+        //
+        //  Parameters:   HouseholdBatch batch - batch of households
+        //
+        //  Returns:      void
+        //
+        //***************************************************************
+        @Override
+        public void onNext(HouseholdBatch batch) {
+            batch.enrich(thresholds);
+            submit(batch);
+            subscription.request(1);
+        }
+        //***************************************************************
+        //
+        //  Method:       onError
+        //
+        //  Description:  Passes a failure on to the sinks.
+        //
+        //  Parameters:   Throwable error - the failure
+        //
+        //  Returns:      void
+        //
+        //***************************************************************
+        @Override
+        public void onError(Throwable error) {
+            closeExceptionally(error);
+        }
+        //***************************************************************
+        //
+        //  Method:       onComplete
+        //
+        //  Description:  Tells the sinks there are no more batches.
+        //
+        //  Parameters:   None
+        //
+        //  Returns:      void
+        //
+        //***************************************************************
+        @Override
+        public void onComplete() {
+            close();
+        }
+    }
+
+    //***************************************************************
+    //
+    //  Class:        BatchSink
+    //
+    //  Description:  Base class of the pipeline's consumers. Batches
+    //                are requested one at a time, so a slow sink holds
+    //                back the stages before it instead of letting them
+    //                queue without limit.
+    //
+    //***************************************************************
+    public abstract static class BatchSink implements Flow.Subscriber<HouseholdBatch> {
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+        private Flow.Subscription subscription;
+        //***************************************************************
+        //
+        //  Method:       accept
+        //
+        //  Description:  Handles one enriched batch.
+        //
+        //  Parameters:   HouseholdBatch batch - batch of households
+        //
+        //  Returns:      void
+        //
+        //***************************************************************
+        protected abstract void accept(HouseholdBatch batch) throws IOException;
+        //***************************************************************
+        //
+        //  Method:       finish
+        //
+        //  Description:  Runs after the last batch. Does nothing unless a
+        //                sink overrides it.
+        //
+        //  Parameters:   None
+        //
+        //  Returns:      void
+        //
+        //***************************************************************
+        protected void finish() throws IOException {
+        }
+        //***************************************************************
+        //
+        //  Method:       onSubscribe
+        //
+        //  Description:  Keeps the subscription and asks for the first
+        //                batch.
+        //
+        //  Parameters:   Flow.Subscription subscription - link to the
+        //                                                 enrich stage
+        //
+        //  Returns:      void
+        //
+        //***************************************************************
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(1);
+        }
+        //***************************************************************
+        //
+        //  Method:       onNext
+        //
+        //  Description:  Hands one batch to accept and asks for the next.
+        //                A failure cancels the subscription and fails the
+        //                sink.
+        //
+        //  Parameters:   HouseholdBatch batch - batch of households
+        //
+        //  Returns:      void
+        //
+        //***************************************************************
+        @Override
+        public void onNext(HouseholdBatch batch) {
+            try {
+                accept(batch);
+                subscription.request(1);
+            } catch (IOException | RuntimeException e) {
+                subscription.cancel();
+                done.completeExceptionally(e);
+            }
+        }
+        //***************************************************************
+        //
+        //  Method:       onError
+        //
+        //  Description:  Fails the sink with an upstream failure.
+        //
+        //  Parameters:   Throwable error - the failure
+        //
+        //  Returns:      void
+        //
+        //***************************************************************
+        @Override
+        public void onError(Throwable error) {
+            done.completeExceptionally(error);
+        }
+        //***************************************************************
+        //
+        //  Method:       onComplete
+        //
+        //  Description:  Runs finish and marks the sink done, or failed
+        //                if finish throws.
+        //
+        //  Parameters:   None
+        //
+        //  Returns:      void
+        //
+        //***************************************************************
+        @Override
+        public void onComplete() {
+            try {
+                finish();
+                done.complete(null);
+            } catch (IOException | RuntimeException e) {
+                done.completeExceptionally(e);
+            }
+        }
+        //***************************************************************
+        //
+        //  Method:       await
+        //
+        //  Description:  Waits until the sink is done and rethrows its
+        //                failure, if any.
+        //
+        //  Parameters:   None
+        //
+        //  Returns:      void
+        //
+        //***************************************************************
+        void await() throws IOException {
+            try {
+                done.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted waiting for a pipeline sink");
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof IOException) {
+                    throw (IOException) cause;
+                }
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                throw new IOException("Pipeline sink failed", cause);
+            }
+        }
+    }
+
+    //***************************************************************
+    //
+    //  Class:        AggregateSink
+    //
+    //  Description:  Accumulates the report totals of every batch.
+    //
+    //***************************************************************
+    public static class AggregateSink extends BatchSink {
+        private final HouseholdAggregate totals;
+        //***************************************************************
+        //
+        //  Method:       AggregateSink (Constructor)
+        //
+        //  Description:  Creates a sink with empty totals.
+        //
+        //  Parameters:   FPLThresholdTable thresholds - income limits
+        //
+        //  Returns:      None
+        //
+        //***************************************************************
+        public AggregateSink(FPLThresholdTable thresholds) {
+            this.totals = new HouseholdAggregate(thresholds);
+        }
+        //***************************************************************
+        //
+        //  Method:       accept
+        //
+        //  Description:  Adds one batch to the totals.
+        //
+        //  Parameters:   HouseholdBatch batch - batch of households
+        //
+        //  Returns:      void
+        //
+        //***************************************************************
+        @Override
+        protected void accept(HouseholdBatch batch) {
+            totals.add(batch);
+        }
+        //***************************************************************
+        //
+        //  Method:       getTotals
+        //
+        //  Description:  Returns the totals of every batch received.
+        //
+        //  Parameters:   None
+        //
+        //  Returns:      HouseholdAggregate - report totals
+        //
+        //***************************************************************
+        public HouseholdAggregate getTotals() {
+            return totals;
+        }
+    }
+
+    //***************************************************************
+    //
+    //  Class:        ReportSink
+    //
+    //  Description:  Writes the selected households as a fixed-width
+    //                listing with their poverty line. The stream is
+    //                flushed, not closed, at the end.
+    //
+    //***************************************************************
+    public static class ReportSink extends BatchSink {
+        private final ReportWriter writer;
+        private final RowFilter filter;
+        //***************************************************************
+        //
+        //  Method:       ReportSink (Constructor)
+        //
+        //  Description:  Creates a sink and writes the listing header.
+        //
+        //  Parameters:   OutputStream out - stream to write to
+        //                RowFilter filter - households to list
+        //
+        //  Returns:      None
+        //
+        //***************************************************************
+        public ReportSink(OutputStream out, RowFilter filter) {
+            this.writer = new ReportWriter(out);
+            this.filter = filter;
+            writer.column("ID", 6).text(" ").column("Income", 12).text(" ").column("FPL", 14).text(" ")
+                    .column("Members", 8).text(" ").text("State").newLine();
+            writer.line("-------------------------------------------------------------------");
+        }
+        //***************************************************************
+        //
+        //  Method:       accept
+        //
+        //  Description:  Writes a listing line for each selected
+        //                household.
+        //
+        //  Parameters:   HouseholdBatch batch - batch of households
+        //
+        //  Returns:      void
+        //
+        //***************************************************************
+        @Override
+        protected void accept(HouseholdBatch batch) {
+            for (int i = 0; i < batch.size(); i++) {
+                if (filter.test(batch, i)) {
+                    writer.column(batch.getId(i), 6).text(" ").decimalColumn(batch.getIncome(i), 12).text(" ")
+                            .decimalColumn(batch.getPovertyLevel(i), 14).text(" ")
+                            .column(batch.getMembers(i), 8).text(" ").text(batch.getState(i)).newLine();
+                }
+            }
+        }
+        //***************************************************************
+        //
+        //  Method:       finish
+        //
+        //  Description:  Reports a failed write. The stream is left open.
+        //
+        //  Parameters:   None
+        //
+        //  Returns:      void
+        //
+        //***************************************************************
+        @Override
+        protected void finish() throws IOException {
+            if (writer.checkError()) {
+                throw new IOException("Error writing the pipeline report");
+            }
+        }
+    }
+
+    //***************************************************************
+    //
+    //  Class:        ExportSink
+    //
+    //  Description:  Writes the selected households to a file in the
+    //                input format, so the export can be read back by
+    //                any loader. Incomes are written with
+    //                Double.toString and parse back to the same value.
+    //
+    //***************************************************************
+    public static class ExportSink extends BatchSink {
+        private final ReportWriter writer;
+        private final RowFilter filter;
+        private long exported;
+        //***************************************************************
+        //
+        //  Method:       ExportSink (Constructor)
+        //
+        //  Description:  Creates a sink that replaces the given file.
+        //
+        //  Parameters:   Path file        - export file
+        //                RowFilter filter - households to export
+        //
+        //  Returns:      None
+        //
+        //***************************************************************
+        public ExportSink(Path file, RowFilter filter) throws IOException {
+            this.writer = new ReportWriter(new FileOutputStream(file.toFile()));
+            this.filter = filter;
+        }
+        //***************************************************************
+        //
+        //  Method:       accept
+        //
+        //  Description:  Writes a data line for each selected household.
+        //
+        //  Parameters:   HouseholdBatch batch - batch of households
+        //
+        //  Returns:      void
+        //
+        //***************************************************************
+        @Override
+        protected void accept(HouseholdBatch batch) {
+            for (int i = 0; i < batch.size(); i++) {
+                if (filter.test(batch, i)) {
+                    writer.column(batch.getId(i), 0).text(" ").text(Double.toString(batch.getIncome(i))).text(" ")
+                            .column(batch.getMembers(i), 0).text(" ").text(batch.getState(i));
+                    if (batch.getReferenceYear(i) != 0) {
+                        writer.text(" ").column(batch.getReferenceYear(i), 0);
+                    }
+                    writer.newLine();
+                    exported++;
+                }
+            }
+        }
+        //***************************************************************
+        //
+        //  Method:       finish
+        //
+        //  Description:  Closes the export file and reports a failed
+        //                write.
+        //
+        //  Parameters:   None
+        //
+        //  Returns:      void
+        //
+        //***************************************************************
+        @Override
+        protected void finish() throws IOException {
+            boolean failed = writer.checkError();
+            writer.close();
+            if (failed || writer.checkError()) {
+                throw new IOException("Error writing the pipeline export");
+            }
+        }
+        //***************************************************************
+        //
+        //  Method:       onError
+        //
+        //  Description:  Closes the export file, then fails the sink.
+        //
+        //  Parameters:   Throwable error - the failure
+        //
+        //  Returns:      void
+        //
+        //***************************************************************
+        @Override
+        public void onError(Throwable error) {
+            writer.close();
+            super.onError(error);
+        }
+        //***************************************************************
+        //
+        //  Method:       getExported
+        //
+        //  Description:  Returns the number of households written.
+        //
+        //  Parameters:   None
+        //
+        //  Returns:      long - households exported
+        //
+        //***************************************************************
+        public long getExported() {
+            return exported;
+        }
+    }
+}
@@ -19,21 +19,61 @@
 //                 average income, poverty levels, and Medicaid eligibility.
 //
 //********************************************************************
-import java.io.File;
-import java.io.FileNotFoundException;
-import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
-import java.util.*;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
-public class HouseholdProcessor {
-    private ArrayList<Household> households = new ArrayList<>();
+public class HouseholdProcessor implements AutoCloseable {
+    private ColumnarHouseholdStore store = new ColumnarHouseholdStore();
+    private OffHeapHouseholdStore offHeap;
+    private HouseholdTable households = store;
+    private FPLGuidelineCache fplCache = FPLGuidelineCache.getShared();
+    private final Map<Integer, FPLThresholdTable> thresholds = new HashMap<>();
+    private HouseholdAggregate summary;
+    private final RunMetrics metrics = RunMetrics.getShared();
+    //***************************************************************
+    //
+    //  Method:       HouseholdProcessor (Constructor)
+    // 
+    //  Description:  Creates a processor with an empty columnar store
+    //                that loadData and loadMapped append to.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      None
+    //
+    //***************************************************************
+    public HouseholdProcessor() {
+    }
+    //***************************************************************
+    //
+    //  Method:       HouseholdProcessor (Constructor)
+    // 
+    //  Description:  Creates a processor that analyzes an existing
+    //                household table directly.
+    //
+    //  Parameters:   HouseholdTable households - data to analyze
+    //
+    //  Returns:      None
+    //
+    //***************************************************************
+    public HouseholdProcessor(HouseholdTable households) {
+        this.households = households;
+    }
     //***************************************************************
     //
     //  Method:       loadData
     // 
-    //  Description:  Loads household data from a file into the list.
+    //  Description:  Loads household data from a file into the
+    //                columnar store. A file that fails to load is
+    //                rejected whole: the store is emptied, so no
+    //                report runs on part of it.
     //
     //  Parameters:   String filename - Name of the input file
     //
@@ -41,29 +81,129 @@ public class HouseholdProcessor {
     //
     //***************************************************************
     public void loadData(String filename) {
-        try (Scanner scanner = new Scanner(new File(filename))) {
-            while (scanner.hasNextLine()) {
-                String line = scanner.nextLine().trim();
-                if (!line.isEmpty()) {
-                    String[] parts = line.split("\\s+");
-                    int id = Integer.parseInt(parts[0]);
-                    double income = Double.parseDouble(parts[1]);
-                    int members = Integer.parseInt(parts[2]);
-
-                    StringBuilder stateBuilder = new StringBuilder();
-                    for (int i = 3; i < parts.length; i++) {
-                        stateBuilder.append(parts[i]);
-                        if (i < parts.length - 1) {
-                            stateBuilder.append(" ");
-                        }
-                    }
-
-                    String state = stateBuilder.toString();
-                    households.add(new Household(id, income, members, state));
-                }
+        long start = metrics.start();
+        long reading = metrics.getStageNanos(RunMetrics.STAGE_READ);
+        try (InputStream in = metrics.meter(HouseholdParser.open(Paths.get(filename)))) {
+            metrics.count(RunMetrics.RECORDS, new HouseholdParser().parse(in, store));
+            metrics.stopExcluding(RunMetrics.STAGE_PARSE, start, RunMetrics.STAGE_READ, reading);
+            households = store;
+            summary = null;
+        } catch (IOException | RuntimeException e) {
+            discard();
+            printLoadError(e);
+        }
+    }
+    //***************************************************************
+    //
+    //  Method:       loadMapped
+    // 
+    //  Description:  Memory-maps a household file and loads it into
+    //                the columnar store. Meant for very large inputs.
+    //                A file that fails to load is rejected whole, as
+    //                in loadData.
+    //
+    //  Parameters:   String filename - Name of the input file
+    //
+    //  Returns:      None
+    //
+    //***************************************************************
+    public void loadMapped(String filename) {
+        try {
+            store.loadMapped(Paths.get(filename));
+            store.trimToSize();
+            households = store;
+            summary = null;
+        } catch (IOException | RuntimeException e) {
+            discard();
+            printLoadError(e);
+        }
+    }
+    //***************************************************************
+    //
+    //  Method:       loadOffHeap
+    // 
+    //  Description:  Memory-maps a household file and loads it into an
+    //                off-heap store, replacing any loaded data. Meant
+    //                for inputs too large for the heap; see
+    //                OffHeapHouseholdStore for the direct memory limit.
+    //
+    //  Parameters:   String filename - Name of the input file
+    //
+    //  Returns:      None
+    //
+    //***************************************************************
+    public void loadOffHeap(String filename) {
+        close();
+        offHeap = new OffHeapHouseholdStore();
+        try {
+            metrics.count(RunMetrics.RECORDS, offHeap.load(Paths.get(filename)));
+            households = offHeap;
+            summary = null;
+        } catch (IOException | RuntimeException e) {
+            close();
+            printLoadError(e);
+        }
+    }
+    //***************************************************************
+    //
+    //  Method:       close
+    // 
+    //  Description:  Frees the off-heap store, if one is loaded, and
+    //                goes back to the empty columnar store.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      None
+    //
+    //***************************************************************
+    @Override
+    public void close() {
+        if (offHeap != null) {
+            if (households == offHeap) {
+                households = store;
+                summary = null;
             }
-        } catch (FileNotFoundException e) {
-            System.out.println("Error: File not found.");
+            offHeap.close();
+            offHeap = null;
+        }
+    }
+    //***************************************************************
+    //
+    //  Method:       loadSnapshot
+    // 
+    //  Description:  Maps a snapshot written by HouseholdSnapshot and
+    //                analyzes it in place, replacing any loaded data.
+    //
+    //  Parameters:   String filename - Name of the snapshot file
+    //
+    //  Returns:      None
+    //
+    //***************************************************************
+    public void loadSnapshot(String filename) {
+        try {
+            households = HouseholdSnapshot.open(Paths.get(filename));
+            summary = null;
+        } catch (IOException e) {
+            printLoadError(e);
+        }
+    }
+    //***************************************************************
+    //
+    //  Method:       streamData
+    // 
+    //  Description:  Parses a household file and hands each record to
+    //                a callback without storing it in the list.
+    //
+    //  Parameters:   String filename                      - input file
+    //                HouseholdParser.RecordHandler handler - receives
+    //                                                        each record
+    //
+    //  Returns:      long - number of records parsed
+    //
+    //***************************************************************
+    public long streamData(String filename, HouseholdParser.RecordHandler handler) throws IOException {
+        try (InputStream in = HouseholdParser.open(Paths.get(filename))) {
+            return new HouseholdParser().parse(in, handler);
         }
     }
     //***************************************************************
@@ -80,8 +220,8 @@ public class HouseholdProcessor {
     public void displayHouseholds() {
         System.out.printf("%-6s %-12s %-8s %s%n", "ID", "Income", "Members", "State");
         System.out.println("-------------------------------------------------------");
-        for (Household h : households) {
-            System.out.println(h);
+        for (int i = 0; i < households.size(); i++) {
+            printHousehold(i);
         }
     }
     //***************************************************************
@@ -96,12 +236,8 @@ public class HouseholdProcessor {
     //
     //***************************************************************
     public void displayAverageIncome() {
-        if (!households.isEmpty()) {
-            double totalIncome = 0;
-            for (Household h : households) {
-                totalIncome += h.getIncome();
-            }
-            double average = totalIncome / households.size();
+        if (households.size() > 0) {
+            double average = summary().getAverageIncome();
             System.out.printf("%nAverage Household Income: $%.2f%n", average);
         }
     }
@@ -117,21 +253,60 @@ public class HouseholdProcessor {
     //
     //***************************************************************
     public void displayAboveAverageHouseholds() {
-        if (!households.isEmpty()) {
-            double totalIncome = 0;
-            for (Household h : households) {
-                totalIncome += h.getIncome();
-            }
-            double average = totalIncome / households.size();
+        if (households.size() > 0) {
+            double average = summary().getAverageIncome();
 
             System.out.printf("%nHouseholds with Income Exceeding the Average ($%.2f):%n", average);
             System.out.printf("%-6s %-12s %-8s %s%n", "ID", "Income", "Members", "State");
             System.out.println("-------------------------------------------------------");
 
-            for (Household h : households) {
-                if (h.getIncome() > average) {
-                    System.out.println(h);
-                }
+            new FusedAnalyticsEngine(thresholds()).forEachAboveAverage(households, average, this::printHousehold);
+        }
+    }
+    //***************************************************************
+    //
+    //  Method:       printHousehold
+    // 
+    //  Description:  Prints one household in the same layout as
+    //                Household.toString().
+    //
+    //  Parameters:   int index - position in the household table
+    //
+    //  Returns:      None
+    //
+    //***************************************************************
+    private void printHousehold(int index) {
+        System.out.printf("%-6d %-12.2f %-8d %s%n", households.getId(index),
+                households.getIncome(index), households.getMembers(index), households.getState(index));
+    }
+    //***************************************************************
+    //
+    //  Method:       displayAboveAverageHouseholds
+    // 
+    //  Description:  Displays one page of the households with income
+    //                above the average, scanning only as far as the
+    //                page needs.
+    //
+    //  Parameters:   int page     - page number, starting at 1
+    //                int pageSize - households per page
+    //
+    //  Returns:      None
+    //
+    //***************************************************************
+    public void displayAboveAverageHouseholds(int page, int pageSize) {
+        if (households.size() > 0) {
+            double average = summary().getAverageIncome();
+            long skip = (long) (Math.max(page, 1) - 1) * pageSize;
+
+            System.out.printf("%nHouseholds with Income Exceeding the Average ($%.2f), page %d:%n",
+                    average, Math.max(page, 1));
+            System.out.printf("%-6s %-12s %-8s %s%n", "ID", "Income", "Members", "State");
+            System.out.println("-------------------------------------------------------");
+
+            boolean more = new FusedAnalyticsEngine(thresholds())
+                    .forEachAboveAverage(households, average, skip, pageSize, this::printHousehold);
+            if (more) {
+                System.out.printf("More households on page %d.%n", Math.max(page, 1) + 1);
             }
         }
     }
@@ -140,7 +315,13 @@ public class HouseholdProcessor {
     //  Method:       displayHouseholdsBelowPovertyLevel
     // 
     //  Description:  Displays households that fall below the 2025
-    //                poverty level using API data.
+    //                poverty level using the cached guideline tables.
+    //                A household that carries a reference year is
+    //                checked against that year's level instead, shown
+    //                in the Poverty Level column. This listing, its
+    //                paged form, and the per-year report are the only
+    //                ones that use reference years; the other reports
+    //                use 2025.
     //
     //  Parameters:   None
     //
@@ -148,138 +329,769 @@ public class HouseholdProcessor {
     //
     //***************************************************************
     public void displayHouseholdsBelowPovertyLevel() {
-        if (!households.isEmpty()) {
-            Map<Integer, Double> povertyLevels = new HashMap<>();
-            HttpClient client = HttpClient.newHttpClient();
-
-            for (Household h : households) {
-                int size = h.getMembers();
-                if (!povertyLevels.containsKey(size)) {
-                    try {
-                        String uri = "https://aspe.hhs.gov/topics/poverty-economic-mobility/poverty-guidelines/api/2025/us/" + size;
-                        HttpRequest request = HttpRequest.newBuilder()
-                                .uri(URI.create(uri))
-                                .GET()
-                                .build();
-
-                        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
-
-                        if (response.statusCode() == 200) {
-                            String body = response.body();
-                            double level = extractPovertyLevelFromResponse(body);
-                            povertyLevels.put(size, level);
-                        } else {
-                            System.out.println("Failed to fetch poverty level for size: " + size);
-                        }
+        if (households.size() > 0) {
+            System.out.printf("%nHouseholds Below 2025 Poverty Level:%n");
+            System.out.printf("%-6s %-12s %-14s %-8s %s%n", "ID", "Income", "Poverty Level", "Members", "State");
+            System.out.println("-------------------------------------------------------------------");
 
-                    } catch (Exception e) {
-                        System.out.println("Error fetching poverty level for household size: " + size);
-                        e.printStackTrace();
-                    }
+            for (int i = 0; i < households.size(); i++) {
+                double poverty = povertyLevel(i);
+                if (households.getIncome(i) < poverty) {
+                    System.out.printf("%-6d %-12.2f %-14.2f %-8d %s%n", households.getId(i),
+                            households.getIncome(i), poverty, households.getMembers(i), households.getState(i));
                 }
             }
+        }
+    }
+    //***************************************************************
+    //
+    //  Method:       displayHouseholdsBelowPovertyLevel
+    // 
+    //  Description:  Displays one page of the households below the
+    //                2025 poverty level. Like the full listing, a
+    //                household with a reference year is checked
+    //                against that year's level, and the total counts
+    //                households the same way.
+    //
+    //  Parameters:   int page     - page number, starting at 1
+    //                int pageSize - households per page
+    //
+    //  Returns:      None
+    //
+    //***************************************************************
+    public void displayHouseholdsBelowPovertyLevel(int page, int pageSize) {
+        if (households.size() > 0) {
+            long total = 0;
+            for (int i = 0; i < households.size(); i++) {
+                if (households.getIncome(i) < povertyLevel(i)) {
+                    total++;
+                }
+            }
+            long skip = (long) (Math.max(page, 1) - 1) * pageSize;
 
-            System.out.printf("%nHouseholds Below 2025 Poverty Level:%n");
+            System.out.printf("%nHouseholds Below 2025 Poverty Level, %d-%d of %d:%n",
+                    Math.min(skip + 1, total), Math.min(skip + pageSize, total), total);
             System.out.printf("%-6s %-12s %-14s %-8s %s%n", "ID", "Income", "Poverty Level", "Members", "State");
             System.out.println("-------------------------------------------------------------------");
 
-            for (Household h : households) {
-                int size = h.getMembers();
-                double poverty = povertyLevels.getOrDefault(size, Double.MAX_VALUE);
-                if (h.getIncome() < poverty) {
-                    System.out.printf("%-6d %-12.2f %-14.2f %-8d %s%n",
-                            h.getId(), h.getIncome(), poverty, h.getMembers(), h.getState());
+            long seen = 0;
+            for (int i = 0; i < households.size() && seen < skip + pageSize; i++) {
+                double poverty = povertyLevel(i);
+                if (households.getIncome(i) < poverty && seen++ >= skip) {
+                    System.out.printf("%-6d %-12.2f %-14.2f %-8d %s%n", households.getId(i),
+                            households.getIncome(i), poverty, households.getMembers(i), households.getState(i));
                 }
             }
         }
     }
     //***************************************************************
     //
-    //  Method:       extractPovertyLevelFromResponse
+    //  Method:       displayPercentageBelowPovertyLevel
     // 
-    //  Description:  Extracts the income value from a JSON response.
+    //  Description:  Calculates and prints the percentage of households
+    //                below the federal poverty level.
     //
-    //  Parameters:   String json - JSON string from API
+    //  Parameters:   None
     //
-    //  Returns:      double - extracted income value
+    //  Returns:      None
     //
     //***************************************************************
-    private double extractPovertyLevelFromResponse(String json) {
-        String key = "\"income\":";
-        int index = json.indexOf(key);
-        if (index == -1) return 0.0;
+    public void displayPercentageBelowPovertyLevel() {
+        if (households.size() == 0) {
+            System.out.println("No household data available.");
+            return;
+        }
 
-        int start = index + key.length();
-        int end = json.indexOf(",", start);
-        if (end == -1) {
-            end = json.indexOf("}", start); // fallback: income is last item
+        double percentage = summary().getPercentBelowPoverty();
+        System.out.printf("%nPercentage of households below the 2025 Federal Poverty Level: %.2f%%%n", percentage);
+    }
+    //***************************************************************
+    //
+    //  Method:       displayEligibilityByMultiplier
+    // 
+    //  Description:  Prints the share of households under each income
+    //                limit in the threshold table (100%, 138%, and any
+    //                set in fpl.multipliers, e.g. 1.33,2), checking
+    //                each household against its own region and size.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      None
+    //
+    //***************************************************************
+    public void displayEligibilityByMultiplier() {
+        if (households.size() == 0) {
+            System.out.println("No household data available.");
+            return;
         }
 
-        if (end == -1) {
-            return 0.0; // no valid end found
+        FPLThresholdTable levels = thresholds();
+        double[] multipliers = levels.getMultipliers();
+        long[] below = new long[multipliers.length];
+        for (int i = 0; i < households.size(); i++) {
+            int region = StateTable.regionOf(households.getStateCode(i));
+            int members = households.getMembers(i);
+            double income = households.getIncome(i);
+            for (int level = 0; level < multipliers.length; level++) {
+                if (income < levels.limit(level, region, members)) {
+                    below[level]++;
+                }
+            }
         }
 
-        String value = json.substring(start, end).replaceAll("[^0-9.]", "").trim();
-        try {
-            return Double.parseDouble(value);
-        } catch (NumberFormatException e) {
-            System.out.println("Error parsing poverty income value: " + value);
-            return 0.0;
+        System.out.printf("%nHouseholds Under Each %d Income Limit%s:%n", levels.getYear(),
+                levels.isDegraded() ? " (degraded: fallback guidelines)" : "");
+        System.out.printf("%-10s %10s %10s%n", "% of FPL", "Households", "Percent");
+        System.out.println("--------------------------------");
+        for (int level = 0; level < multipliers.length; level++) {
+            System.out.printf("%-10s %10d %10.2f%n", Math.round(multipliers[level] * 100) + "%", below[level],
+                    below[level] * 100.0 / households.size());
         }
     }
     //***************************************************************
     //
-    //  Method:       displayPercentageBelowPovertyLevel
+    //  Method:       displayReferenceYearAnalysis
     // 
-    //  Description:  Calculates and prints the percentage of households
-    //                below the federal poverty level.
+    //  Description:  Groups the households by reference year and
+    //                prints, for each year, the count and the shares
+    //                below the poverty level and eligible for Medicaid
+    //                under that year's guidelines. Households without a
+    //                year are counted under 2025.
     //
     //  Parameters:   None
     //
     //  Returns:      None
     //
     //***************************************************************
-    public void displayPercentageBelowPovertyLevel() {
-        if (households.isEmpty()) {
+    public void displayReferenceYearAnalysis() {
+        if (households.size() == 0) {
             System.out.println("No household data available.");
             return;
         }
 
-        Map<Integer, Double> povertyLevels = new HashMap<>();
-        HttpClient client = HttpClient.newHttpClient();
+        Map<Integer, HouseholdAggregate> byYear = new TreeMap<>();
+        for (int i = 0; i < households.size(); i++) {
+            FPLThresholdTable levels = thresholds(households.getReferenceYear(i));
+            byYear.computeIfAbsent(levels.getYear(), year -> new HouseholdAggregate(levels))
+                    .add(households.getIncome(i), households.getMembers(i), households.getStateCode(i));
+        }
 
-        for (Household h : households) {
-            int size = h.getMembers();
-            if (!povertyLevels.containsKey(size)) {
-                try {
-                    String uri = "https://aspe.hhs.gov/topics/poverty-economic-mobility/poverty-guidelines/api/2025/us/" + size;
-                    HttpRequest request = HttpRequest.newBuilder()
-                            .uri(URI.create(uri))
-                            .GET()
-                            .build();
+        System.out.printf("%nHouseholds by Guideline Year:%n");
+        System.out.printf("%-6s %10s %14s %14s%n", "Year", "Households", "Below FPL %", "Medicaid %");
+        System.out.println("-----------------------------------------------");
+        for (Map.Entry<Integer, HouseholdAggregate> entry : byYear.entrySet()) {
+            HouseholdAggregate totals = entry.getValue();
+            System.out.printf("%-6d %10d %14.2f %14.2f%n", entry.getKey(), totals.getCount(),
+                    totals.getPercentBelowPoverty(), totals.getPercentMedicaidEligible());
+        }
+    }
+    //***************************************************************
+    //
+    //  Method:       displayParallelAnalysis
+    // 
+    //  Description:  Analyzes a household file in line-aligned chunks
+    //                on a ForkJoinPool and prints the average income,
+    //                the percentage below the poverty level, and the
+    //                percentage eligible for Medicaid. A parallelism
+    //                of 1 runs on the calling thread with identical
+    //                results.
+    //
+    //  Parameters:   String filename - Name of the input file
+    //                int parallelism - worker threads to use
+    //
+    //  Returns:      None
+    //
+    //***************************************************************
+    public void displayParallelAnalysis(String filename, int parallelism) {
+        try {
+            HouseholdAggregate totals = new ParallelHouseholdAnalyzer(parallelism)
+                    .analyze(Paths.get(filename), thresholds());
+            if (totals.getCount() == 0) {
+                System.out.println("No household data available.");
+                return;
+            }
+            printTotals(totals);
+        } catch (IOException e) {
+            printLoadError(e);
+        }
+    }
+    //***************************************************************
+    //
+    //  Method:       displayGroupedAnalysis
+    // 
+    //  Description:  Prints the household count, average income, and
+    //                poverty and Medicaid percentages by state, by
+    //                household size, and by state and size. Every
+    //                group is computed in one parallel pass over the
+    //                file; empty groups are left out.
+    //
+    //  Parameters:   String filename - Name of the input file
+    //                int parallelism - worker threads to use
+    //
+    //  Returns:      None
+    //
+    //***************************************************************
+    public void displayGroupedAnalysis(String filename, int parallelism) {
+        try {
+            FPLThresholdTable levels = thresholds();
+            GroupedAggregate groups = new ParallelHouseholdAnalyzer(parallelism)
+                    .analyze(Paths.get(filename), () -> new GroupedAggregate(levels), GroupedAggregate::merge);
+            if (groups.getCount(GroupedAggregate.ALL, GroupedAggregate.ALL) == 0) {
+                System.out.println("No household data available.");
+                return;
+            }
+            printGroups(groups);
+        } catch (IOException e) {
+            printLoadError(e);
+        }
+    }
+    //***************************************************************
+    //
+    //  Method:       displayIncomeDistribution
+    // 
+    //  Description:  Prints estimated income percentiles overall and
+    //                by state, the same percentiles of income as a
+    //                percentage of the poverty line, and histograms of
+    //                both, from one parallel pass over the file.
+    //
+    //  Parameters:   String filename - Name of the input file
+    //                int parallelism - worker threads to use
+    //
+    //  Returns:      None
+    //
+    //***************************************************************
+    public void displayIncomeDistribution(String filename, int parallelism) {
+        try {
+            FPLThresholdTable levels = thresholds();
+            IncomeDistribution distribution = new ParallelHouseholdAnalyzer(parallelism)
+                    .analyze(Paths.get(filename), () -> new IncomeDistribution(levels), IncomeDistribution::merge);
+            if (distribution.getCount(GroupedAggregate.ALL) == 0) {
+                System.out.println("No household data available.");
+                return;
+            }
+            printDistribution(distribution);
+        } catch (IOException e) {
+            printLoadError(e);
+        }
+    }
+    //***************************************************************
+    //
+    //  Method:       displayTopHouseholds
+    // 
+    //  Description:  Displays the K households with the highest income
+    //                or the highest income relative to their poverty
+    //                line, found in one parallel pass with O(K) memory.
+    //
+    //  Parameters:   String filename - Name of the input file
+    //                int k           - households to list
+    //                int order       - TopKHouseholds.BY_INCOME or
+    //                                  TopKHouseholds.BY_FPL_RATIO
+    //                int parallelism - worker threads to use
+    //
+    //  Returns:      None
+    //
+    //***************************************************************
+    public void displayTopHouseholds(String filename, int k, int order, int parallelism) {
+        try {
+            FPLThresholdTable levels = thresholds();
+            TopKHouseholds top = new ParallelHouseholdAnalyzer(parallelism)
+                    .analyze(Paths.get(filename), () -> new TopKHouseholds(k, order, levels), TopKHouseholds::merge);
 
-                    HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
-                    if (response.statusCode() == 200) {
-                        String body = response.body();
-                        double level = extractPovertyLevelFromResponse(body);
-                        povertyLevels.put(size, level);
-                    }
-                } catch (Exception e) {
-                    System.out.println("Error retrieving poverty level for size " + size);
-                    e.printStackTrace();
-                }
+            System.out.printf("%nTop %d Households by %s:%n", k,
+                    order == TopKHouseholds.BY_INCOME ? "Income" : "Income Relative to FPL");
+            System.out.printf("%-6s %-12s %-10s %-8s %s%n", "ID", "Income", "% of FPL", "Members", "State");
+            System.out.println("-------------------------------------------------------");
+            top.forEachRanked((id, income, members, stateCode, state) ->
+                    System.out.printf("%-6d %-12.2f %-10.1f %-8d %s%n", id, income,
+                            income / levels.povertyLevel(members) * 100, members, state));
+        } catch (IOException e) {
+            printLoadError(e);
+        }
+    }
+    //***************************************************************
+    //
+    //  Method:       displayPipelineAnalysis
+    // 
+    //  Description:  Streams a household file through a Flow pipeline
+    //                that totals every batch and, on a second sink
+    //                thread, exports the households below the poverty
+    //                level. Memory use does not grow with the file.
+    //
+    //  Parameters:   String filename   - Name of the input file
+    //                String exportFile - file for the below-FPL export
+    //
+    //  Returns:      None
+    //
+    //***************************************************************
+    public void displayPipelineAnalysis(String filename, String exportFile) {
+        try {
+            FPLThresholdTable levels = thresholds();
+            HouseholdPipeline.AggregateSink totals = new HouseholdPipeline.AggregateSink(levels);
+            HouseholdPipeline.ExportSink export = new HouseholdPipeline.ExportSink(Paths.get(exportFile),
+                    HouseholdBatch::isBelowPoverty);
+            long records = new HouseholdPipeline(levels).addSink(totals).addSink(export)
+                    .run(HouseholdPipeline.mappedFile(Paths.get(filename)));
+            if (records == 0) {
+                System.out.println("No household data available.");
+                return;
             }
+
+            System.out.printf("%nPipeline analysis of %d households:%n", records);
+            printTotals(totals.getTotals());
+            System.out.printf("%nExported %d households below FPL to %s%n", export.getExported(), exportFile);
+        } catch (IOException e) {
+            printLoadError(e);
+        }
+    }
+    //***************************************************************
+    //
+    //  Method:       displayStreamingReport
+    // 
+    //  Description:  Reports on a household file without loading it.
+    //                The text is parsed once; above-average households
+    //                are listed from a compact spill file written
+    //                during that pass.
+    //
+    //  Parameters:   String filename - Name of the input file
+    //
+    //  Returns:      None
+    //
+    //***************************************************************
+    public void displayStreamingReport(String filename) {
+        try (FusedAnalyticsEngine.FileScan scan =
+                new FusedAnalyticsEngine(thresholds()).scanFile(Paths.get(filename))) {
+            HouseholdAggregate totals = scan.getTotals();
+            if (totals.getCount() == 0) {
+                System.out.println("No household data available.");
+                return;
+            }
+            System.out.printf("%nAverage Household Income: $%.2f%n", totals.getAverageIncome());
+            System.out.printf("%nHouseholds with Income Exceeding the Average ($%.2f):%n", totals.getAverageIncome());
+            System.out.printf("%-6s %-12s %-8s %s%n", "ID", "Income", "Members", "State");
+            System.out.println("-------------------------------------------------------");
+            scan.forEachAboveAverage((id, income, members, stateCode, state) ->
+                    System.out.printf("%-6d %-12.2f %-8d %s%n", id, income, members, state));
+            printPercentages(totals);
+        } catch (IOException e) {
+            printLoadError(e);
+        }
+    }
+    //***************************************************************
+    //
+    //  Method:       displayIncrementalAnalysis
+    // 
+    //  Description:  Prints the average income and the poverty and
+    //                Medicaid percentages for an append-only file,
+    //                parsing only the lines added since the checkpoint
+    //                was last saved.
+    //
+    //  Parameters:   String filename   - Name of the input file
+    //                String checkpoint - Name of the checkpoint file
+    //
+    //  Returns:      None
+    //
+    //***************************************************************
+    public void displayIncrementalAnalysis(String filename, String checkpoint) {
+        try {
+            HouseholdAggregate totals = new IncrementalAnalyzer(Paths.get(checkpoint), thresholds())
+                    .analyze(Paths.get(filename));
+            if (totals.getCount() == 0) {
+                System.out.println("No household data available.");
+                return;
+            }
+            printTotals(totals);
+        } catch (IOException e) {
+            printLoadError(e);
+        }
+    }
+    //***************************************************************
+    //
+    //  Method:       displayShardedAnalysis
+    // 
+    //  Description:  Analyzes household data split across many files,
+    //                several files at a time, saves each file's partial
+    //                results in a directory, and prints the full report
+    //                for all of them: the totals, the grouped tables,
+    //                and the income distribution.
+    //
+    //  Parameters:   String inputs     - directory or file name glob
+    //                                    of the input files
+    //                String partialDir - directory for partial results
+    //                int parallelism   - files to analyze at once
+    //
+    //  Returns:      None
+    //
+    //***************************************************************
+    public void displayShardedAnalysis(String inputs, String partialDir, int parallelism) {
+        try {
+            PartialAggregate results = new ShardedAnalyzer(thresholds(), parallelism)
+                    .analyze(ShardedAnalyzer.resolve(inputs), Paths.get(partialDir));
+            printShardReport(results);
+        } catch (IOException e) {
+            printLoadError(e);
+        }
+    }
+    //***************************************************************
+    //
+    //  Method:       displayMergedAnalysis
+    // 
+    //  Description:  Merges partial result files, which may come from
+    //                other JVMs or machines, and prints the full report
+    //                for them. Files built with different FPL limits
+    //                than this run's are rejected.
+    //
+    //  Parameters:   String partials - directory of .partial files,
+    //                                  file name glob, or one file
+    //
+    //  Returns:      None
+    //
+    //***************************************************************
+    public void displayMergedAnalysis(String partials) {
+        try {
+            List<Path> files = ShardedAnalyzer.resolve(partials, ShardedAnalyzer.PARTIAL_SUFFIX);
+            printShardReport(ShardedAnalyzer.merge(files, this::thresholds));
+        } catch (IOException e) {
+            printLoadError(e, "merging partial results");
+        }
+    }
+    //***************************************************************
+    //
+    //  Method:       printShardReport
+    // 
+    //  Description:  Prints the totals, grouped tables, and income
+    //                distribution of merged partial results.
+    //
+    //  Parameters:   PartialAggregate results - merged results
+    //
+    //  Returns:      None
+    //
+    //***************************************************************
+    private void printShardReport(PartialAggregate results) {
+        HouseholdAggregate totals = results.getTotals();
+        if (totals.getCount() == 0) {
+            System.out.println("No household data available.");
+            return;
+        }
+        System.out.printf("%nHouseholds: %d from %d shards%n", totals.getCount(), results.getShardCount());
+        printTotals(totals);
+        printGroups(results.getGroups());
+        printDistribution(results.getDistribution());
+    }
+    //***************************************************************
+    //
+    //  Method:       printTotals
+    // 
+    //  Description:  Prints the average income and the poverty and
+    //                Medicaid percentages of a set of totals.
+    //
+    //  Parameters:   HouseholdAggregate totals - report totals
+    //
+    //  Returns:      None
+    //
+    //***************************************************************
+    private void printTotals(HouseholdAggregate totals) {
+        System.out.printf("%nAverage Household Income: $%.2f%n", totals.getAverageIncome());
+        printPercentages(totals);
+    }
+    //***************************************************************
+    //
+    //  Method:       printPercentages
+    // 
+    //  Description:  Prints the percentages below the poverty level,
+    //                for the guideline year of the totals, and
+    //                eligible for Medicaid.
+    //
+    //  Parameters:   HouseholdAggregate totals - report totals
+    //
+    //  Returns:      None
+    //
+    //***************************************************************
+    private void printPercentages(HouseholdAggregate totals) {
+        System.out.printf("%nPercentage of households below the %d Federal Poverty Level: %.2f%%%n",
+                totals.getThresholds().getYear(), totals.getPercentBelowPoverty());
+        System.out.printf("%nPercentage of households eligible for Medicaid: %.2f%%%n",
+                totals.getPercentMedicaidEligible());
+    }
+    //***************************************************************
+    //
+    //  Method:       printLoadError
+    // 
+    //  Description:  Reports a file that could not be read.
+    //
+    //  Parameters:   Exception e - the failure
+    //
+    //  Returns:      None
+    //
+    //***************************************************************
+    private void printLoadError(Exception e) {
+        printLoadError(e, "reading file");
+    }
+    //***************************************************************
+    //
+    //  Method:       printLoadError
+    // 
+    //  Description:  Reports a file that could not be used, saying
+    //                which step failed unless the file is missing.
+    //
+    //  Parameters:   Exception e   - the failure
+    //                String action - what was being done, e.g.
+    //                                "reading file"
+    //
+    //  Returns:      None
+    //
+    //***************************************************************
+    private void printLoadError(Exception e, String action) {
+        if (e instanceof NoSuchFileException) {
+            System.out.println("Error: File not found.");
+        } else {
+            System.out.println("Error " + action + ": " + e.getMessage());
+        }
+    }
+    //***************************************************************
+    //
+    //  Method:       discard
+    // 
+    //  Description:  Replaces the columnar store with an empty one,
+    //                dropping the rows of a file that failed to load.
+    //                Data held elsewhere, such as a snapshot, stays
+    //                loaded.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      None
+    //
+    //***************************************************************
+    private void discard() {
+        ColumnarHouseholdStore failed = store;
+        store = new ColumnarHouseholdStore();
+        if (households == failed) {
+            households = store;
+            summary = null;
+        }
+    }
+    //***************************************************************
+    //
+    //  Method:       printGroups
+    // 
+    //  Description:  Prints the grouped tables by state, by household
+    //                size, and by state and size.
+    //
+    //  Parameters:   GroupedAggregate groups - grouped totals
+    //
+    //  Returns:      None
+    //
+    //***************************************************************
+    private void printGroups(GroupedAggregate groups) {
+        System.out.printf("%nHouseholds by State:%n");
+        printGroupHeader("State", null);
+        for (int state = 0; state < GroupedAggregate.STATE_GROUPS; state++) {
+            printGroup(groups, state, GroupedAggregate.ALL);
+        }
+
+        System.out.printf("%nHouseholds by Size:%n");
+        printGroupHeader("Members", null);
+        for (int size = 0; size < GroupedAggregate.SIZE_GROUPS; size++) {
+            printGroup(groups, GroupedAggregate.ALL, size);
         }
 
-        int countBelow = 0;
-        for (Household h : households) {
-            double povertyLevel = povertyLevels.getOrDefault(h.getMembers(), Double.MAX_VALUE);
-            if (h.getIncome() < povertyLevel) {
-                countBelow++;
+        System.out.printf("%nHouseholds by State and Size:%n");
+        printGroupHeader("State", "Members");
+        for (int state = 0; state < GroupedAggregate.STATE_GROUPS; state++) {
+            for (int size = 0; size < GroupedAggregate.SIZE_GROUPS; size++) {
+                printGroup(groups, state, size);
             }
         }
+    }
+    //***************************************************************
+    //
+    //  Method:       printDistribution
+    // 
+    //  Description:  Prints the income percentiles overall and by
+    //                state and the income and FPL ratio histograms.
+    //
+    //  Parameters:   IncomeDistribution distribution - sketches and
+    //                                                  histograms
+    //
+    //  Returns:      None
+    //
+    //***************************************************************
+    private void printDistribution(IncomeDistribution distribution) {
+        System.out.printf("%nIncome Percentiles (estimated; KLL sketch, k = %d):%n", distribution.getK());
+        System.out.printf("%-12s %-14s %s%n", "Percentile", "Income", "% of FPL");
+        System.out.println("----------------------------------------");
+        for (double fraction : IncomeDistribution.PERCENTILES) {
+            System.out.printf("%-12s %-14.2f %.1f%%%n", Math.round(fraction * 100) + "th",
+                    distribution.getIncomeQuantile(GroupedAggregate.ALL, fraction),
+                    distribution.getRatioQuantile(GroupedAggregate.ALL, fraction) * 100);
+        }
 
-        double percentage = ((double) countBelow / households.size()) * 100;
-        System.out.printf("%nPercentage of households below the 2025 Federal Poverty Level: %.2f%%%n", percentage);
+        System.out.printf("%nMedian Income by State:%n");
+        System.out.printf("%-22s %-11s %-14s %s%n", "State", "Households", "Median Income", "% of FPL");
+        System.out.println("---------------------------------------------------------------");
+        for (int state = 0; state < GroupedAggregate.STATE_GROUPS; state++) {
+            if (distribution.getCount(state) > 0) {
+                System.out.printf("%-22s %-11d %-14.2f %.1f%%%n",
+                        state == GroupedAggregate.OTHER_STATE ? "Other" : StateTable.name(state),
+                        distribution.getCount(state), distribution.getIncomeQuantile(state, 0.5),
+                        distribution.getRatioQuantile(state, 0.5) * 100);
+            }
+        }
+
+        System.out.printf("%nIncome Histogram:%n");
+        printHistogram(distribution.getIncomeHistogram(), "$", 1, "");
+        System.out.printf("%nIncome as a Percentage of FPL:%n");
+        printHistogram(distribution.getRatioHistogram(), "", 100, "%");
+    }
+    //***************************************************************
+    //
+    //  Method:       printGroupHeader
+    // 
+    //  Description:  Prints the column headings of a grouped table.
+    //
+    //  Parameters:   String first  - heading of the first key column
+    //                String second - heading of the second key column,
+    //                                or null for a one-key table
+    //
+    //  Returns:      None
+    //
+    //***************************************************************
+    private void printGroupHeader(String first, String second) {
+        System.out.printf("%-22s %s%-11s %-12s %-12s %s%n",
+                first, second == null ? "" : String.format("%-8s ", second),
+                "Households", "Avg Income", "% Below FPL", "% Medicaid");
+        System.out.println(second == null
+                ? "------------------------------------------------------------------------"
+                : "---------------------------------------------------------------------------------");
+    }
+    //***************************************************************
+    //
+    //  Method:       printGroup
+    // 
+    //  Description:  Prints one row of a grouped table if the group
+    //                has any households.
+    //
+    //  Parameters:   GroupedAggregate groups - grouped totals
+    //                int state               - state group or ALL
+    //                int size                - size group or ALL
+    //
+    //  Returns:      None
+    //
+    //***************************************************************
+    private void printGroup(GroupedAggregate groups, int state, int size) {
+        long count = groups.getCount(state, size);
+        if (count == 0) {
+            return;
+        }
+        String stateLabel = state == GroupedAggregate.ALL ? ""
+                : state == GroupedAggregate.OTHER_STATE ? "Other" : StateTable.name(state);
+        String sizeLabel = size == GroupedAggregate.ALL ? ""
+                : size == GroupedAggregate.SIZE_GROUPS - 1 ? size + "+" : Integer.toString(size);
+        String first = state == GroupedAggregate.ALL ? sizeLabel : stateLabel;
+        String second = state == GroupedAggregate.ALL || size == GroupedAggregate.ALL
+                ? "" : String.format("%-8s ", sizeLabel);
+        System.out.printf("%-22s %s%-11d %-12.2f %-12.2f %.2f%n", first, second, count,
+                groups.getAverageIncome(state, size), groups.getPercentBelowPoverty(state, size),
+                groups.getPercentMedicaidEligible(state, size));
+    }
+    //***************************************************************
+    //
+    //  Method:       printHistogram
+    // 
+    //  Description:  Prints the count and share of each histogram
+    //                bucket. An empty lowest bucket is left out.
+    //
+    //  Parameters:   Histogram histogram - counts to print
+    //                String prefix       - printed before each bound
+    //                double scale        - multiplies each bound
+    //                String suffix       - printed after each bound
+    //
+    //  Returns:      None
+    //
+    //***************************************************************
+    private void printHistogram(Histogram histogram, String prefix, double scale, String suffix) {
+        long total = histogram.getTotal();
+        System.out.printf("%-22s %-11s %s%n", "Range", "Households", "Percent");
+        System.out.println("------------------------------------------");
+        for (int bucket = 0; bucket < histogram.getBucketCount(); bucket++) {
+            long count = histogram.getCount(bucket);
+            if (bucket == 0 && count == 0) {
+                continue;
+            }
+            String low = prefix + Math.round(histogram.getLowerBound(bucket) * scale) + suffix;
+            String high = prefix + Math.round(histogram.getUpperBound(bucket) * scale) + suffix;
+            String range = bucket == 0 ? "Under " + high
+                    : bucket == histogram.getBucketCount() - 1 ? low + " and over" : low + " - " + high;
+            System.out.printf("%-22s %-11d %.2f%%%n", range, count, total == 0 ? 0.0 : count * 100.0 / total);
+        }
+    }
+    //***************************************************************
+    //
+    //  Method:       summary
+    // 
+    //  Description:  Computes every report total in one fused pass
+    //                the first time it is needed after a load.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      HouseholdAggregate - report totals
+    //
+    //***************************************************************
+    private HouseholdAggregate summary() {
+        if (summary == null) {
+            summary = new FusedAnalyticsEngine(thresholds()).scan(households, null);
+        }
+        return summary;
+    }
+    //***************************************************************
+    //
+    //  Method:       thresholds
+    // 
+    //  Description:  Loads the 2025 income limits from the shared FPL
+    //                cache the first time they are needed.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      FPLThresholdTable - income limits
+    //
+    //***************************************************************
+    private FPLThresholdTable thresholds() {
+        return thresholds(FPLGuidelineCache.DEFAULT_YEAR);
+    }
+    //***************************************************************
+    //
+    //  Method:       thresholds
+    // 
+    //  Description:  Loads the income limits of one guideline year
+    //                the first time they are needed. A year of 0 means
+    //                the default year.
+    //
+    //  Parameters:   int year - reference year, or 0
+    //
+    //  Returns:      FPLThresholdTable - income limits
+    //
+    //***************************************************************
+    private FPLThresholdTable thresholds(int year) {
+        int key = year == 0 ? FPLGuidelineCache.DEFAULT_YEAR : year;
+        FPLThresholdTable table = thresholds.get(key);
+        if (table == null) {
+            table = FPLThresholdTable.load(fplCache, key);
+            thresholds.put(key, table);
+        }
+        return table;
+    }
+    //***************************************************************
+    //
+    //  Method:       povertyLevel
+    // 
+    //  Description:  Returns the poverty level of one household, from
+    //                its reference year's guidelines or 2025's.
+    //
+    //  Parameters:   int index - row of the household
+    //
+    //  Returns:      double - poverty level for its size
+    //
+    //***************************************************************
+    private double povertyLevel(int index) {
+        return thresholds(households.getReferenceYear(index)).povertyLevel(households.getMembers(index));
     }
 }
@@ -0,0 +1,547 @@
+//********************************************************************
+//
+//  Developer:     Mauricio Rivas
+//
+//  Program #:     Three
+//
+//  File Name:     HouseholdSnapshot.java
+//
+//  Course:        COSC 4301 Modern Programming
+//
+//  Due Date:      4/14/2025
+//
+//  Instructor:    Prof. Fred Kumi
+//
+//  Java Version:  11
+//
+//  Description:   This class reads and writes household snapshots, a
+//                 binary copy of a household file that reloads without
+//                 parsing. Each column is memory-mapped and read in
+//                 place, so opening a snapshot costs little more than
+//                 checking its checksum. Run it as a program to convert
+//                 a text file:
+//
+//                     java HouseholdSnapshot Program3Data.txt out.snap
+//
+//                 Layout (little-endian):
+//                     header     magic, version, count, dictionary
+//                                size, flags, CRC32 of the rest of
+//                                the file
+//                     incomes    double[count]
+//                     ids        int[count]
+//                     members    byte[count], unsigned, or int[count]
+//                                when the WIDE_MEMBERS flag is set
+//                     states     byte[count] dictionary codes, or
+//                                int[count] when the WIDE_STATES flag
+//                                is set
+//                     years      short[count] reference years, only
+//                                when the YEARS flag is set
+//                     dictionary state names for codes 51 and up, each
+//                                a StateTable code (or -1) and a
+//                                length-prefixed UTF-8 name
+//
+//                 Dictionary codes below StateTable.COUNT are the
+//                 StateTable states and are not stored. A column is
+//                 written wide only when some value does not fit in
+//                 a byte, so most snapshots keep one-byte columns.
+//
+//********************************************************************
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+public class HouseholdSnapshot implements HouseholdTable {
+    private static final int MAGIC = 0x48485350;
+    private static final int VERSION = 2;
+    private static final int YEARS = 1;
+    private static final int WIDE_MEMBERS = 2;
+    private static final int WIDE_STATES = 4;
+    private static final int KNOWN_FLAGS = YEARS | WIDE_MEMBERS | WIDE_STATES;
+    private static final int BYTE_VALUES = 256;
+    private static final int HEADER_BYTES = 32;
+    private static final int CHECKSUM_OFFSET = 24;
+    private static final int WRITE_BUFFER_BYTES = 1 << 20;
+
+    private final int size;
+    private final DoubleBuffer incomes;
+    private final IntBuffer ids;
+    private final ByteBuffer members;
+    private final IntBuffer wideMembers;
+    private final ByteBuffer states;
+    private final IntBuffer wideStates;
+    private final ShortBuffer years;
+    private final StateDictionary dictionary;
+    //***************************************************************
+    //
+    //  Method:       HouseholdSnapshot (Constructor)
+    //
+    //  Description:  Wraps the mapped columns of an opened snapshot.
+    //                Exactly one of each byte and int column pair is
+    //                set, as the header flags say.
+    //
+    //  Parameters:   int size                   - household count
+    //                DoubleBuffer incomes       - incomes
+    //                IntBuffer ids              - household IDs
+    //                ByteBuffer members         - byte sizes or null
+    //                IntBuffer wideMembers      - int sizes or null
+    //                ByteBuffer states          - byte states or null
+    //                IntBuffer wideStates       - int states or null
+    //                ShortBuffer years          - years or null
+    //                StateDictionary dictionary - state spellings
+    //
+    //  Returns:      None
+    //
+    //***************************************************************
+    private HouseholdSnapshot(int size, DoubleBuffer incomes, IntBuffer ids, ByteBuffer members,
+                              IntBuffer wideMembers, ByteBuffer states, IntBuffer wideStates, ShortBuffer years,
+                              StateDictionary dictionary) {
+        this.size = size;
+        this.incomes = incomes;
+        this.ids = ids;
+        this.members = members;
+        this.wideMembers = wideMembers;
+        this.states = states;
+        this.wideStates = wideStates;
+        this.years = years;
+        this.dictionary = dictionary;
+    }
+    //***************************************************************
+    //
+    //  Method:       main
+    //
+    //  Description:  Converts a household text file to a snapshot.
+    //
+    //  Parameters:   String[] args - input text file, output snapshot
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            System.out.println("Usage: java HouseholdSnapshot <households.txt> <households.snap>");
+            return;
+        }
+        try {
+            long start = System.nanoTime();
+            ColumnarHouseholdStore store = new ColumnarHouseholdStore();
+            store.loadMapped(Paths.get(args[0]));
+            write(store, Paths.get(args[1]));
+            System.out.printf("Wrote %d households to %s in %d ms%n", store.size(), args[1],
+                    (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException | RuntimeException e) {
+            System.out.println("Error converting " + args[0] + ": " + e.getMessage());
+        }
+    }
+    //***************************************************************
+    //
+    //  Method:       isSnapshot
+    //
+    //  Description:  Tells whether a file starts with the snapshot
+    //                magic number.
+    //
+    //  Parameters:   Path file - file to check
+    //
+    //  Returns:      boolean - true for a snapshot file
+    //
+    //***************************************************************
+    public static boolean isSnapshot(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer magic = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+            int read = 0;
+            while (magic.hasRemaining() && read >= 0) {
+                read = channel.read(magic);
+            }
+            return !magic.hasRemaining() && magic.getInt(0) == MAGIC;
+        }
+    }
+    //***************************************************************
+    //
+    //  Method:       write
+    //
+    //  Description:  Writes a household table as a snapshot. The
+    //                years column is written only when some household
+    //                has a reference year, and the members and states
+    //                columns are written as ints only when a size or
+    //                a dictionary code does not fit in a byte. The
+    //                file is written beside the target and moved into
+    //                place, so readers never see a partial snapshot.
+    //
+    //  Parameters:   HouseholdTable households - data to save
+    //                Path file                 - snapshot file
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    public static void write(HouseholdTable households, Path file) throws IOException {
+        int count = households.size();
+        StateDictionary dictionary = new StateDictionary();
+        int flags = 0;
+        for (int i = 0; i < count; i++) {
+            int members = households.getMembers(i);
+            if (households.getReferenceYear(i) != 0) {
+                flags |= YEARS;
+            }
+            if (members < 0 || members >= BYTE_VALUES) {
+                flags |= WIDE_MEMBERS;
+            }
+            dictionary.encode(households.getStateCode(i), households.getState(i));
+        }
+        if (StateTable.COUNT + dictionary.size() > BYTE_VALUES) {
+            flags |= WIDE_STATES;
+        }
+        boolean wideMembers = (flags & WIDE_MEMBERS) != 0;
+        boolean wideStates = (flags & WIDE_STATES) != 0;
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        CRC32 crc = new CRC32();
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(MAGIC).putInt(VERSION).putLong(count).putInt(dictionary.size()).putInt(flags).putLong(0);
+            for (int i = 0; i < count; i++) {
+                ensureRoom(channel, buffer, crc, Double.BYTES);
+                buffer.putDouble(households.getIncome(i));
+            }
+            for (int i = 0; i < count; i++) {
+                ensureRoom(channel, buffer, crc, Integer.BYTES);
+                buffer.putInt(households.getId(i));
+            }
+            for (int i = 0; i < count; i++) {
+                ensureRoom(channel, buffer, crc, Integer.BYTES);
+                if (wideMembers) {
+                    buffer.putInt(households.getMembers(i));
+                } else {
+                    buffer.put((byte) households.getMembers(i));
+                }
+            }
+            for (int i = 0; i < count; i++) {
+                ensureRoom(channel, buffer, crc, Integer.BYTES);
+                int code = dictionary.encode(households.getStateCode(i), households.getState(i));
+                if (wideStates) {
+                    buffer.putInt(code);
+                } else {
+                    buffer.put((byte) code);
+                }
+            }
+            for (int i = 0; (flags & YEARS) != 0 && i < count; i++) {
+                ensureRoom(channel, buffer, crc, Short.BYTES);
+                buffer.putShort((short) households.getReferenceYear(i));
+            }
+            for (int i = 0; i < dictionary.size(); i++) {
+                int code = StateTable.COUNT + i;
+                byte[] name = dictionary.name(code).getBytes(StandardCharsets.UTF_8);
+                if (name.length > 0xFFFF) {
+                    throw new IllegalArgumentException("State name too long to store: " + dictionary.name(code));
+                }
+                ensureRoom(channel, buffer, crc, 1 + Short.BYTES + name.length);
+                buffer.put((byte) dictionary.stateCode(code)).putShort((short) name.length).put(name);
+            }
+            drain(channel, buffer, crc);
+
+            ByteBuffer checksum = ByteBuffer.allocate(Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            checksum.putLong(0, crc.getValue());
+            channel.write(checksum, CHECKSUM_OFFSET);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+    }
+    //***************************************************************
+    //
+    //  Method:       open
+    //
+    //  Description:  Opens a snapshot and checks its checksum.
+    //
+    //  Parameters:   Path file - snapshot file
+    //
+    //  Returns:      HouseholdSnapshot - the mapped households
+    //
+    //***************************************************************
+    public static HouseholdSnapshot open(Path file) throws IOException {
+        return open(file, true);
+    }
+    //***************************************************************
+    //
+    //  Method:       open
+    //
+    //  Description:  Maps each column of a snapshot. The mappings stay
+    //                valid after the file is closed. Version 1 files,
+    //                written before the years column existed, are read
+    //                as households without a reference year. Flags
+    //                this version does not know are rejected.
+    //
+    //  Parameters:   Path file       - snapshot file
+    //                boolean verify  - check the CRC32 of the file
+    //
+    //  Returns:      HouseholdSnapshot - the mapped households
+    //
+    //***************************************************************
+    public static HouseholdSnapshot open(Path file, boolean verify) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long length = channel.size();
+            if (length < HEADER_BYTES) {
+                throw new IOException("Not a household snapshot: " + file);
+            }
+            ByteBuffer header = map(channel, 0, HEADER_BYTES);
+            if (header.getInt(0) != MAGIC) {
+                throw new IOException("Not a household snapshot: " + file);
+            }
+            int version = header.getInt(4);
+            if (version != 1 && version != VERSION) {
+                throw new IOException("Unsupported snapshot version " + version + ": " + file);
+            }
+            long count = header.getLong(8);
+            int otherCount = header.getInt(16);
+            int flags = version > 1 ? header.getInt(20) : 0;
+            boolean hasYears = (flags & YEARS) != 0;
+            int memberBytes = (flags & WIDE_MEMBERS) != 0 ? Integer.BYTES : 1;
+            int stateBytes = (flags & WIDE_STATES) != 0 ? Integer.BYTES : 1;
+            long incomesAt = HEADER_BYTES;
+            long idsAt = incomesAt + count * Double.BYTES;
+            long membersAt = idsAt + count * Integer.BYTES;
+            long statesAt = membersAt + count * memberBytes;
+            long yearsAt = statesAt + count * stateBytes;
+            long dictionaryAt = yearsAt + (hasYears ? count * Short.BYTES : 0);
+            if (count < 0 || count > Integer.MAX_VALUE / Double.BYTES || otherCount < 0
+                    || (stateBytes == 1 && otherCount > BYTE_VALUES - StateTable.COUNT)
+                    || (flags & ~KNOWN_FLAGS) != 0 || dictionaryAt > length) {
+                throw new IOException("Damaged household snapshot header: " + file);
+            }
+
+            int size = (int) count;
+            ByteBuffer incomes = map(channel, incomesAt, (long) size * Double.BYTES);
+            ByteBuffer ids = map(channel, idsAt, (long) size * Integer.BYTES);
+            ByteBuffer members = map(channel, membersAt, (long) size * memberBytes);
+            ByteBuffer states = map(channel, statesAt, (long) size * stateBytes);
+            ByteBuffer years = map(channel, yearsAt, hasYears ? (long) size * Short.BYTES : 0);
+            ByteBuffer dictionary = map(channel, dictionaryAt, length - dictionaryAt);
+
+            if (verify) {
+                CRC32 crc = new CRC32();
+                crc.update(header.duplicate().limit(CHECKSUM_OFFSET));
+                for (ByteBuffer part : new ByteBuffer[] {incomes, ids, members, states, years, dictionary}) {
+                    crc.update(part.duplicate());
+                }
+                if (crc.getValue() != header.getLong(CHECKSUM_OFFSET)) {
+                    throw new IOException("Household snapshot checksum mismatch: " + file);
+                }
+            }
+
+            StateDictionary names = new StateDictionary();
+            try {
+                for (int i = 0; i < otherCount; i++) {
+                    int stateCode = dictionary.get();
+                    byte[] name = new byte[dictionary.getShort() & 0xFFFF];
+                    dictionary.get(name);
+                    names.add(stateCode, new String(name, StandardCharsets.UTF_8));
+                }
+            } catch (RuntimeException e) {
+                throw new IOException("Damaged household snapshot dictionary: " + file, e);
+            }
+            return new HouseholdSnapshot(size, incomes.asDoubleBuffer(), ids.asIntBuffer(),
+                    memberBytes == 1 ? members : null, memberBytes == 1 ? null : members.asIntBuffer(),
+                    stateBytes == 1 ? states : null, stateBytes == 1 ? null : states.asIntBuffer(),
+                    hasYears ? years.asShortBuffer() : null, names);
+        }
+    }
+    //***************************************************************
+    //
+    //  Method:       size
+    //
+    //  Description:  Returns the number of households in the
+    //                snapshot.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      int - household count
+    //
+    //***************************************************************
+    @Override
+    public int size() {
+        return size;
+    }
+    //***************************************************************
+    //
+    //  Method:       getId
+    //
+    //  Description:  Returns the ID of one household.
+    //
+    //  Parameters:   int index - position in the table
+    //
+    //  Returns:      int - Household ID
+    //
+    //***************************************************************
+    @Override
+    public int getId(int index) {
+        return ids.get(index);
+    }
+    //***************************************************************
+    //
+    //  Method:       getIncome
+    //
+    //  Description:  Returns the annual income of one household.
+    //
+    //  Parameters:   int index - position in the table
+    //
+    //  Returns:      double - Annual income
+    //
+    //***************************************************************
+    @Override
+    public double getIncome(int index) {
+        return incomes.get(index);
+    }
+    //***************************************************************
+    //
+    //  Method:       getMembers
+    //
+    //  Description:  Returns the number of people in one household
+    //                from the byte or int member column.
+    //
+    //  Parameters:   int index - position in the table
+    //
+    //  Returns:      int - Number of household members
+    //
+    //***************************************************************
+    @Override
+    public int getMembers(int index) {
+        return wideMembers != null ? wideMembers.get(index) : members.get(index) & 0xFF;
+    }
+    //***************************************************************
+    //
+    //  Method:       getStateCode
+    //
+    //  Description:  Returns the StateTable code of the state one
+    //                household lives in.
+    //
+    //  Parameters:   int index - position in the table
+    //
+    //  Returns:      int - StateTable code or UNKNOWN
+    //
+    //***************************************************************
+    @Override
+    public int getStateCode(int index) {
+        return dictionary.stateCode(code(index));
+    }
+    //***************************************************************
+    //
+    //  Method:       getState
+    //
+    //  Description:  Returns the state of one household as it was
+    //                written.
+    //
+    //  Parameters:   int index - position in the table
+    //
+    //  Returns:      String - State name
+    //
+    //***************************************************************
+    @Override
+    public String getState(int index) {
+        return dictionary.name(code(index));
+    }
+    //***************************************************************
+    //
+    //  Method:       getReferenceYear
+    //
+    //  Description:  Returns the guideline year of one household.
+    //
+    //  Parameters:   int index - position in the table
+    //
+    //  Returns:      int - reference year, or 0 for none
+    //
+    //***************************************************************
+    @Override
+    public int getReferenceYear(int index) {
+        return years == null ? 0 : years.get(index);
+    }
+    //***************************************************************
+    //
+    //  Method:       code
+    //
+    //  Description:  Returns the stored state code of one household
+    //                from the byte or int state column.
+    //
+    //  Parameters:   int index - position in the table
+    //
+    //  Returns:      int - StateTable or dictionary code
+    //
+    //***************************************************************
+    private int code(int index) {
+        return wideStates != null ? wideStates.get(index) : states.get(index) & 0xFF;
+    }
+    //***************************************************************
+    //
+    //  Method:       map
+    //
+    //  Description:  Maps one read-only section of the snapshot file
+    //                in little-endian order.
+    //
+    //  Parameters:   FileChannel channel - open snapshot file
+    //                long offset         - first byte of the section
+    //                long length         - section length in bytes
+    //
+    //  Returns:      ByteBuffer - the mapped section
+    //
+    //***************************************************************
+    private static ByteBuffer map(FileChannel channel, long offset, long length) throws IOException {
+        return channel.map(FileChannel.MapMode.READ_ONLY, offset, length).order(ByteOrder.LITTLE_ENDIAN);
+    }
+    //***************************************************************
+    //
+    //  Method:       ensureRoom
+    //
+    //  Description:  Drains the write buffer to the file when it
+    //                cannot take the next value.
+    //
+    //  Parameters:   FileChannel channel - file being written
+    //                ByteBuffer buffer   - write buffer
+    //                CRC32 crc           - running checksum
+    //                int bytes           - size of the next value
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    private static void ensureRoom(FileChannel channel, ByteBuffer buffer, CRC32 crc, int bytes)
+            throws IOException {
+        if (buffer.remaining() < bytes) {
+            drain(channel, buffer, crc);
+        }
+    }
+    //***************************************************************
+    //
+    //  Method:       drain
+    //
+    //  Description:  Adds the buffered bytes to the checksum and
+    //                writes them to the file. The header's checksum
+    //                field is left out of the checksum.
+    //
+    //  Parameters:   FileChannel channel - file being written
+    //                ByteBuffer buffer   - write buffer
+    //                CRC32 crc           - running checksum
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    private static void drain(FileChannel channel, ByteBuffer buffer, CRC32 crc) throws IOException {
+        buffer.flip();
+        ByteBuffer checked = buffer.duplicate();
+        if (channel.position() == 0) {
+            crc.update(checked.limit(CHECKSUM_OFFSET));
+            checked.limit(buffer.limit()).position(HEADER_BYTES);
+        }
+        crc.update(checked);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,116 @@
+//********************************************************************
+//
+//  Developer:     Mauricio Rivas
+//
+//  Program #:     Three
+//
+//  File Name:     HouseholdTable.java
+//
+//  Course:        COSC 4301 Modern Programming
+//
+//  Due Date:      4/14/2025
+//
+//  Instructor:    Prof. Fred Kumi
+//
+//  Java Version:  11
+//
+//  Description:   This interface gives indexed, primitive access to a
+//                 set of household records so the analysis code can
+//                 run against any storage layout without creating a
+//                 Household object per record.
+//
+//********************************************************************
+
+public interface HouseholdTable {
+    //***************************************************************
+    //
+    //  Method:       size
+    //
+    //  Description:  Returns the number of households in the table.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      int - number of households
+    //
+    //***************************************************************
+    int size();
+    //***************************************************************
+    //
+    //  Method:       getId
+    //
+    //  Description:  Returns the ID of one household.
+    //
+    //  Parameters:   int index - position in the table
+    //
+    //  Returns:      int - Household ID
+    //
+    //***************************************************************
+    int getId(int index);
+    //***************************************************************
+    //
+    //  Method:       getIncome
+    //
+    //  Description:  Returns the income of one household.
+    //
+    //  Parameters:   int index - position in the table
+    //
+    //  Returns:      double - Income amount
+    //
+    //***************************************************************
+    double getIncome(int index);
+    //***************************************************************
+    //
+    //  Method:       getMembers
+    //
+    //  Description:  Returns the number of people in one household.
+    //
+    //  Parameters:   int index - position in the table
+    //
+    //  Returns:      int - Number of household members
+    //
+    //***************************************************************
+    int getMembers(int index);
+    //***************************************************************
+    //
+    //  Method:       getStateCode
+    //
+    //  Description:  Returns the StateTable code of the household's
+    //                state, or StateTable.UNKNOWN if it is not one of
+    //                the 50 states or DC.
+    //
+    //  Parameters:   int index - position in the table
+    //
+    //  Returns:      int - state code
+    //
+    //***************************************************************
+    int getStateCode(int index);
+    //***************************************************************
+    //
+    //  Method:       getState
+    //
+    //  Description:  Returns the state name of one household.
+    //
+    //  Parameters:   int index - position in the table
+    //
+    //  Returns:      String - State name
+    //
+    //***************************************************************
+    String getState(int index);
+    //***************************************************************
+    //
+    //  Method:       getReferenceYear
+    //
+    //  Description:  Returns the guideline year one household should
+    //                be checked against by the below-poverty listings
+    //                and the per-year report. Tables without a year
+    //                column return 0, meaning the default year.
+    //
+    //  Parameters:   int index - position in the table
+    //
+    //  Returns:      int - reference year, or 0 for none
+    //
+    //***************************************************************
+    default int getReferenceYear(int index) {
+        return 0;
+    }
+}
@@ -0,0 +1,344 @@
+//********************************************************************
+//
+//  Developer:     Mauricio Rivas
+//
+//  Program #:     Three
+//
+//  File Name:     IncomeDistribution.java
+//
+//  Course:        COSC 4301 Modern Programming
+//
+//  Due Date:      4/14/2025
+//
+//  Instructor:    Prof. Fred Kumi
+//
+//  Java Version:  11
+//
+//  Description:   This class summarizes how income is distributed,
+//                 overall and for each state group: KLL sketches for
+//                 the percentiles of income and of income as a ratio
+//                 to the household's poverty line, and fixed-bucket
+//                 histograms of both. Memory does not depend on the
+//                 number of households, and partial results from
+//                 separate chunks can be merged. Percentiles carry the
+//                 KllSketch error bound; histogram counts are exact.
+//
+//********************************************************************
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+public class IncomeDistribution implements HouseholdParser.RecordHandler {
+    public static final double[] PERCENTILES = {0.10, 0.25, 0.50, 0.75, 0.90};
+    public static final double[] RATIO_BOUNDS = {0.5, 1.0, FPLThresholdTable.MEDICAID_MULTIPLIER, 2.0, 3.0, 4.0};
+    public static final double INCOME_BUCKET_WIDTH = 10_000;
+    public static final int INCOME_BUCKETS = 20;
+    private static final int OVERALL = GroupedAggregate.STATE_GROUPS;
+
+    private final FPLThresholdTable thresholds;
+    private final int k;
+    private final KllSketch[] income = new KllSketch[GroupedAggregate.STATE_GROUPS + 1];
+    private final KllSketch[] ratio = new KllSketch[GroupedAggregate.STATE_GROUPS + 1];
+    private final Histogram incomeHistogram =
+            Histogram.linear(0, INCOME_BUCKET_WIDTH, INCOME_BUCKETS);
+    private final Histogram ratioHistogram = new Histogram(RATIO_BOUNDS);
+    //***************************************************************
+    //
+    //  Method:       IncomeDistribution (Constructor)
+    //
+    //  Description:  Creates an empty distribution with the default
+    //                sketch accuracy.
+    //
+    //  Parameters:   FPLThresholdTable thresholds - income limits
+    //
+    //  Returns:      None
+    //
+    //***************************************************************
+    public IncomeDistribution(FPLThresholdTable thresholds) {
+        this(thresholds, KllSketch.DEFAULT_K);
+    }
+    //***************************************************************
+    //
+    //  Method:       IncomeDistribution (Constructor)
+    //
+    //  Description:  Creates an empty distribution. Sketches for a
+    //                state are created when its first household is
+    //                added.
+    //
+    //  Parameters:   FPLThresholdTable thresholds - income limits
+    //                int k                        - KllSketch accuracy
+    //
+    //  Returns:      None
+    //
+    //***************************************************************
+    public IncomeDistribution(FPLThresholdTable thresholds, int k) {
+        this.thresholds = thresholds;
+        this.k = k;
+        income[OVERALL] = new KllSketch(k);
+        ratio[OVERALL] = new KllSketch(k);
+    }
+    //***************************************************************
+    //
+    //  Method:       onRecord
+    //
+    //  Description:  Adds one parsed household.
+    //
+    //  Parameters:   int id         - Household ID
+    //                double income  - Annual income
+    //                int members    - Number of household members
+    //                int stateCode  - StateTable code or UNKNOWN
+    //                String state   - State of residence
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    @Override
+    public void onRecord(int id, double income, int members, int stateCode, String state) {
+        add(income, members, stateCode);
+    }
+    //***************************************************************
+    //
+    //  Method:       add
+    //
+    //  Description:  Adds one household to the overall and state
+    //                sketches and to the histograms.
+    //
+    //  Parameters:   double income  - Annual income
+    //                int members    - Number of household members
+    //                int stateCode  - StateTable code or UNKNOWN
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    public void add(double income, int members, int stateCode) {
+        double toPoverty = income / thresholds.povertyLevel(members);
+        int group = GroupedAggregate.stateGroup(stateCode);
+        if (this.income[group] == null) {
+            this.income[group] = new KllSketch(k);
+            ratio[group] = new KllSketch(k);
+        }
+        this.income[OVERALL].update(income);
+        this.income[group].update(income);
+        ratio[OVERALL].update(toPoverty);
+        ratio[group].update(toPoverty);
+        incomeHistogram.add(income);
+        ratioHistogram.add(toPoverty);
+    }
+    //***************************************************************
+    //
+    //  Method:       add
+    //
+    //  Description:  Adds every household in a table.
+    //
+    //  Parameters:   HouseholdTable households - data to add
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    public void add(HouseholdTable households) {
+        for (int i = 0; i < households.size(); i++) {
+            add(households.getIncome(i), households.getMembers(i), households.getStateCode(i));
+        }
+    }
+    //***************************************************************
+    //
+    //  Method:       merge
+    //
+    //  Description:  Adds the households summarized by another
+    //                distribution.
+    //
+    //  Parameters:   IncomeDistribution other - partial results
+    //
+    //  Returns:      IncomeDistribution - this distribution
+    //
+    //***************************************************************
+    public IncomeDistribution merge(IncomeDistribution other) {
+        for (int group = 0; group < income.length; group++) {
+            if (other.income[group] == null) {
+                continue;
+            }
+            if (income[group] == null) {
+                income[group] = new KllSketch(k);
+                ratio[group] = new KllSketch(k);
+            }
+            income[group].merge(other.income[group]);
+            ratio[group].merge(other.ratio[group]);
+        }
+        incomeHistogram.merge(other.incomeHistogram);
+        ratioHistogram.merge(other.ratioHistogram);
+        return this;
+    }
+    //***************************************************************
+    //
+    //  Method:       writeTo
+    //
+    //  Description:  Writes the sketches of every state group that has
+    //                households, and both histograms, in binary form.
+    //
+    //  Parameters:   DataOutput out - destination
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(k);
+        out.writeInt(income.length);
+        for (int group = 0; group < income.length; group++) {
+            out.writeBoolean(income[group] != null);
+            if (income[group] != null) {
+                income[group].writeTo(out);
+                ratio[group].writeTo(out);
+            }
+        }
+        incomeHistogram.writeTo(out);
+        ratioHistogram.writeTo(out);
+    }
+    //***************************************************************
+    //
+    //  Method:       readFrom
+    //
+    //  Description:  Reads a distribution written by writeTo.
+    //
+    //  Parameters:   DataInput in                 - source
+    //                FPLThresholdTable thresholds - income limits the
+    //                                               distribution was
+    //                                               built with
+    //
+    //  Returns:      IncomeDistribution - the restored distribution
+    //
+    //***************************************************************
+    public static IncomeDistribution readFrom(DataInput in, FPLThresholdTable thresholds) throws IOException {
+        int k = in.readInt();
+        if (k < 8) {
+            throw new IOException("Distribution data is damaged: k = " + k);
+        }
+        IncomeDistribution distribution = new IncomeDistribution(thresholds, k);
+        int groups = in.readInt();
+        if (groups != distribution.income.length) {
+            throw new IOException("Distribution layout mismatch: expected " + distribution.income.length
+                    + " state groups, found " + groups);
+        }
+        for (int group = 0; group < groups; group++) {
+            if (in.readBoolean()) {
+                distribution.income[group] = KllSketch.readFrom(in);
+                distribution.ratio[group] = KllSketch.readFrom(in);
+            }
+        }
+        try {
+            distribution.incomeHistogram.merge(Histogram.readFrom(in));
+            distribution.ratioHistogram.merge(Histogram.readFrom(in));
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Distribution layout mismatch: " + e.getMessage(), e);
+        }
+        return distribution;
+    }
+    //***************************************************************
+    //
+    //  Method:       getCount
+    //
+    //  Description:  Returns the households added for a state group.
+    //
+    //  Parameters:   int stateGroup - GroupedAggregate state group, or
+    //                                 GroupedAggregate.ALL
+    //
+    //  Returns:      long - number of households
+    //
+    //***************************************************************
+    public long getCount(int stateGroup) {
+        KllSketch sketch = income[index(stateGroup)];
+        return sketch == null ? 0 : sketch.getCount();
+    }
+    //***************************************************************
+    //
+    //  Method:       getIncomeQuantile
+    //
+    //  Description:  Estimates an income percentile.
+    //
+    //  Parameters:   int stateGroup  - state group or ALL
+    //                double fraction - e.g. 0.5 for the median
+    //
+    //  Returns:      double - estimated income, NaN if no households
+    //
+    //***************************************************************
+    public double getIncomeQuantile(int stateGroup, double fraction) {
+        KllSketch sketch = income[index(stateGroup)];
+        return sketch == null ? Double.NaN : sketch.getQuantile(fraction);
+    }
+    //***************************************************************
+    //
+    //  Method:       getRatioQuantile
+    //
+    //  Description:  Estimates a percentile of income divided by the
+    //                household's poverty line (1.0 = 100% of FPL).
+    //
+    //  Parameters:   int stateGroup  - state group or ALL
+    //                double fraction - e.g. 0.5 for the median
+    //
+    //  Returns:      double - estimated ratio, NaN if no households
+    //
+    //***************************************************************
+    public double getRatioQuantile(int stateGroup, double fraction) {
+        KllSketch sketch = ratio[index(stateGroup)];
+        return sketch == null ? Double.NaN : sketch.getQuantile(fraction);
+    }
+    //***************************************************************
+    //
+    //  Method:       getIncomeHistogram
+    //
+    //  Description:  Returns the exact counts of households by
+    //                income.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      Histogram - income histogram
+    //
+    //***************************************************************
+    public Histogram getIncomeHistogram() {
+        return incomeHistogram;
+    }
+    //***************************************************************
+    //
+    //  Method:       getRatioHistogram
+    //
+    //  Description:  Returns the exact counts of households by income
+    //                as a share of their poverty line.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      Histogram - income-to-poverty histogram
+    //
+    //***************************************************************
+    public Histogram getRatioHistogram() {
+        return ratioHistogram;
+    }
+    //***************************************************************
+    //
+    //  Method:       getK
+    //
+    //  Description:  Returns the accuracy parameter of the sketches.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      int - sketch k
+    //
+    //***************************************************************
+    public int getK() {
+        return k;
+    }
+    //***************************************************************
+    //
+    //  Method:       index
+    //
+    //  Description:  Returns the sketch slot of a state group, with
+    //                ALL in the last slot.
+    //
+    //  Parameters:   int stateGroup - state group or ALL
+    //
+    //  Returns:      int - sketch index
+    //
+    //***************************************************************
+    private static int index(int stateGroup) {
+        return stateGroup == GroupedAggregate.ALL ? OVERALL : stateGroup;
+    }
+}
@@ -0,0 +1,222 @@
+//********************************************************************
+//
+//  Developer:     Mauricio Rivas
+//
+//  Program #:     Three
+//
+//  File Name:     IncomeKernels.java
+//
+//  Course:        COSC 4301 Modern Programming
+//
+//  Due Date:      4/14/2025
+//
+//  Instructor:    Prof. Fred Kumi
+//
+//  Java Version:  11
+//
+//  Description:   This class holds the inner loops of the report
+//                 totals as kernels over primitive columns: the income
+//                 sum, the below-poverty count, and the Medicaid count.
+//                 Income limits are looked up in flat tables indexed by
+//                 the household size byte (and region) and compares
+//                 add 0 or 1 instead of branching, so random data costs
+//                 no branch mispredictions. The loops are kept simple
+//                 on purpose: the JIT unrolls them better than hand
+//                 unrolling does. The tables hold the exact values of
+//                 FPLThresholdTable.limit, so every count matches the
+//                 row-at-a-time loops bit for bit.
+//
+//********************************************************************
+
+public final class IncomeKernels {
+    public static final int SIZE_BITS = 8;
+    public static final int SIZE_CODES = 1 << SIZE_BITS;
+    public static final int BLOCK_SIZE = 4096;
+    //***************************************************************
+    //
+    //  Method:       IncomeKernels (Constructor)
+    //
+    //  Description:  Not used; the class has only static members.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      None
+    //
+    //***************************************************************
+    private IncomeKernels() {
+    }
+    //***************************************************************
+    //
+    //  Method:       sizeLimits
+    //
+    //  Description:  Builds the lookup table of one limit for every
+    //                household size a size byte can hold.
+    //
+    //  Parameters:   FPLThresholdTable thresholds - income limits
+    //                int level                    - threshold level
+    //                int region                   - StateTable region
+    //
+    //  Returns:      double[] - limit indexed by size, 0 to 255
+    //
+    //***************************************************************
+    public static double[] sizeLimits(FPLThresholdTable thresholds, int level, int region) {
+        double[] table = new double[SIZE_CODES];
+        for (int size = 0; size < SIZE_CODES; size++) {
+            table[size] = thresholds.limit(level, region, size);
+        }
+        return table;
+    }
+    //***************************************************************
+    //
+    //  Method:       regionSizeLimits
+    //
+    //  Description:  Builds the lookup table of one limit for every
+    //                region and size, region-major, so the index is
+    //                region * 256 + size.
+    //
+    //  Parameters:   FPLThresholdTable thresholds - income limits
+    //                int level                    - threshold level
+    //
+    //  Returns:      double[] - limits by region and size
+    //
+    //***************************************************************
+    public static double[] regionSizeLimits(FPLThresholdTable thresholds, int level) {
+        double[] table = new double[StateTable.REGION_CODES.length * SIZE_CODES];
+        for (int region = 0; region < StateTable.REGION_CODES.length; region++) {
+            System.arraycopy(sizeLimits(thresholds, level, region), 0, table, region * SIZE_CODES, SIZE_CODES);
+        }
+        return table;
+    }
+    //***************************************************************
+    //
+    //  Method:       regionOffsets
+    //
+    //  Description:  Builds the table from a stored state byte to the
+    //                start of its region in a regionSizeLimits table.
+    //                Codes past the known states are unknown states.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      int[] - region offset indexed by state byte
+    //
+    //***************************************************************
+    public static int[] regionOffsets() {
+        return regionOffsets(new int[0]);
+    }
+    //***************************************************************
+    //
+    //  Method:       regionOffsets
+    //
+    //  Description:  Builds the table from a stored state byte to the
+    //                start of its region, for a store whose codes past
+    //                the known states are dictionary entries that may
+    //                still resolve to a state.
+    //
+    //  Parameters:   int[] otherStateCodes - StateTable code (or
+    //                                        UNKNOWN) of each dictionary
+    //                                        entry, in code order
+    //
+    //  Returns:      int[] - region offset indexed by state byte
+    //
+    //***************************************************************
+    public static int[] regionOffsets(int[] otherStateCodes) {
+        int[] offsets = new int[SIZE_CODES];
+        for (int code = 0; code < SIZE_CODES; code++) {
+            int other = code - StateTable.COUNT;
+            int state = other < 0 ? code : other < otherStateCodes.length ? otherStateCodes[other] : StateTable.UNKNOWN;
+            offsets[code] = StateTable.regionOf(state) * SIZE_CODES;
+        }
+        return offsets;
+    }
+    //***************************************************************
+    //
+    //  Method:       sumWholeCents
+    //
+    //  Description:  Sums a range of incomes as whole cents. The sum
+    //                is exact, so it does not depend on the order or
+    //                grouping of the additions. Math.rint takes the
+    //                place of Math.round: a whole-cent income is never
+    //                a half-cent tie, so both find the same cents, and
+    //                rint is a single instruction.
+    //
+    //  Parameters:   double[] incomes - income column
+    //                int from         - first index
+    //                int to           - index after the last
+    //
+    //  Returns:      long - total in cents, or
+    //                HouseholdAggregate.NOT_WHOLE_CENTS if any income
+    //                has a fraction of a cent or is too large
+    //
+    //***************************************************************
+    public static long sumWholeCents(double[] incomes, int from, int to) {
+        long cents = 0;
+        boolean whole = true;
+        for (int i = from; i < to; i++) {
+            double income = incomes[i];
+            double scaled = Math.rint(income * 100);
+            whole &= Math.abs(income) < HouseholdAggregate.MAX_CENTS_INCOME & scaled / 100.0 == income;
+            cents += (long) scaled;
+        }
+        return whole ? cents : HouseholdAggregate.NOT_WHOLE_CENTS;
+    }
+    //***************************************************************
+    //
+    //  Method:       countBelow
+    //
+    //  Description:  Counts incomes below a limit that depends on the
+    //                household size, by household size.
+    //
+    //  Parameters:   double[] incomes - income column
+    //                byte[] members   - household size column
+    //                int from         - first index
+    //                int to           - index after the last
+    //                double[] limits  - table from sizeLimits
+    //                long[] bySize    - counts by size, 256 entries,
+    //                                   added to
+    //
+    //  Returns:      long - households below their limit
+    //
+    //***************************************************************
+    public static long countBelow(double[] incomes, byte[] members, int from, int to, double[] limits,
+                                  long[] bySize) {
+        long count = 0;
+        for (int i = from; i < to; i++) {
+            int size = members[i] & 0xFF;
+            int below = incomes[i] < limits[size] ? 1 : 0;
+            bySize[size] += below;
+            count += below;
+        }
+        return count;
+    }
+    //***************************************************************
+    //
+    //  Method:       countBelowByRegion
+    //
+    //  Description:  Counts incomes below a limit that depends on the
+    //                region of the state and the household size, by
+    //                region.
+    //
+    //  Parameters:   double[] incomes      - income column
+    //                byte[] members        - household size column
+    //                byte[] states         - state code column
+    //                int from              - first index
+    //                int to                - index after the last
+    //                double[] limits       - table from regionSizeLimits
+    //                int[] regionOffsets   - table from regionOffsets
+    //                long[] byRegion       - counts by region, added to
+    //
+    //  Returns:      long - households below their limit
+    //
+    //***************************************************************
+    public static long countBelowByRegion(double[] incomes, byte[] members, byte[] states, int from, int to,
+                                          double[] limits, int[] regionOffsets, long[] byRegion) {
+        long count = 0;
+        for (int i = from; i < to; i++) {
+            int offset = regionOffsets[states[i] & 0xFF];
+            int below = incomes[i] < limits[offset + (members[i] & 0xFF)] ? 1 : 0;
+            byRegion[offset >> SIZE_BITS] += below;
+            count += below;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,270 @@
+//********************************************************************
+//
+//  Developer:     Mauricio Rivas
+//
+//  Program #:     Three
+//
+//  File Name:     IncrementalAnalyzer.java
+//
+//  Course:        COSC 4301 Modern Programming
+//
+//  Due Date:      4/14/2025
+//
+//  Instructor:    Prof. Fred Kumi
+//
+//  Java Version:  11
+//
+//  Description:   This class analyzes an append-only household file
+//                 incrementally. It saves the byte offset processed so
+//                 far and the running totals to a small checkpoint
+//                 file, and on the next run parses only the new tail.
+//                 The checkpoint is discarded, and the file rescanned,
+//                 when the guideline year or thresholds change or the
+//                 start of the file no longer matches.
+//
+//********************************************************************
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+public class IncrementalAnalyzer {
+    private static final int MAGIC = 0x48484350;
+    private static final int VERSION = 2;
+    private static final int PREFIX_BYTES = 4096;
+    private static final long MAP_REGION_SIZE = 1L << 30;
+
+    private final Path checkpoint;
+    private final FPLThresholdTable thresholds;
+    private boolean rescanned;
+    private long savedOffset;
+    //***************************************************************
+    //
+    //  Method:       IncrementalAnalyzer (Constructor)
+    //
+    //  Description:  Creates an analyzer that keeps its state in the
+    //                given checkpoint file.
+    //
+    //  Parameters:   Path checkpoint              - checkpoint file
+    //                FPLThresholdTable thresholds - income limits
+    //
+    //  Returns:      None
+    //
+    //***************************************************************
+    public IncrementalAnalyzer(Path checkpoint, FPLThresholdTable thresholds) {
+        this.checkpoint = checkpoint;
+        this.thresholds = thresholds;
+    }
+    //***************************************************************
+    //
+    //  Method:       analyze
+    //
+    //  Description:  Brings the totals up to date with the file. A
+    //                final line without a newline is treated as still
+    //                being written and is left for the next run, so the
+    //                result equals a full rescan of every complete line.
+    //
+    //  Parameters:   Path file - append-only household data
+    //
+    //  Returns:      HouseholdAggregate - totals for the whole file
+    //
+    //***************************************************************
+    public HouseholdAggregate analyze(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long length = channel.size();
+            long offset = 0;
+            HouseholdAggregate totals = readCheckpoint(channel, length);
+            rescanned = totals == null;
+            if (totals == null) {
+                totals = new HouseholdAggregate(thresholds);
+            } else {
+                offset = savedOffset;
+            }
+
+            long complete = lastLineEnd(channel, offset, length);
+            parseRange(channel, offset, complete, totals);
+            writeCheckpoint(channel, complete, totals);
+            return totals;
+        }
+    }
+    //***************************************************************
+    //
+    //  Method:       wasRescanned
+    //
+    //  Description:  Tells whether the last analyze call had to parse
+    //                the whole file instead of only the new tail.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      boolean - true after a full rescan
+    //
+    //***************************************************************
+    public boolean wasRescanned() {
+        return rescanned;
+    }
+    //***************************************************************
+    //
+    //  Method:       readCheckpoint
+    //
+    //  Description:  Loads the saved totals if the checkpoint matches
+    //                the current thresholds and file.
+    //
+    //  Parameters:   FileChannel channel - open household file
+    //                long length         - current file size
+    //
+    //  Returns:      HouseholdAggregate - saved totals, or null if the
+    //                file must be rescanned
+    //
+    //***************************************************************
+    private HouseholdAggregate readCheckpoint(FileChannel channel, long length) throws IOException {
+        if (!Files.exists(checkpoint)) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(checkpoint)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                return null;
+            }
+            int year = in.readInt();
+            long fingerprint = in.readLong();
+            long offset = in.readLong();
+            long prefixCrc = in.readLong();
+            if (year != thresholds.getYear() || fingerprint != thresholds.fingerprint()) {
+                System.out.println("FPL guidelines changed since the last checkpoint; rescanning.");
+                return null;
+            }
+            if (offset > length || prefixCrc != prefixCrc(channel, offset)) {
+                System.out.println("Input file no longer matches the checkpoint; rescanning.");
+                return null;
+            }
+            savedOffset = offset;
+            return HouseholdAggregate.readFrom(in, thresholds);
+        } catch (IOException e) {
+            System.out.println("Checkpoint file is unreadable; rescanning: " + checkpoint);
+            return null;
+        }
+    }
+    //***************************************************************
+    //
+    //  Method:       writeCheckpoint
+    //
+    //  Description:  Saves the offset and totals. The file is written
+    //                beside the checkpoint and moved into place so a
+    //                crash never leaves a half-written checkpoint.
+    //
+    //  Parameters:   FileChannel channel       - open household file
+    //                long offset               - bytes processed
+    //                HouseholdAggregate totals - totals up to offset
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    private void writeCheckpoint(FileChannel channel, long offset, HouseholdAggregate totals) throws IOException {
+        Path temp = checkpoint.resolveSibling(checkpoint.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(thresholds.getYear());
+            out.writeLong(thresholds.fingerprint());
+            out.writeLong(offset);
+            out.writeLong(prefixCrc(channel, offset));
+            totals.writeTo(out);
+        }
+        Files.move(temp, checkpoint, StandardCopyOption.REPLACE_EXISTING);
+    }
+    //***************************************************************
+    //
+    //  Method:       parseRange
+    //
+    //  Description:  Parses a byte range of the file into the totals,
+    //                mapping it in regions that end on line breaks.
+    //
+    //  Parameters:   FileChannel channel       - open household file
+    //                long start                - first byte
+    //                long end                  - one past the last byte
+    //                HouseholdAggregate totals - totals to add to
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    private static void parseRange(FileChannel channel, long start, long end, HouseholdAggregate totals)
+            throws IOException {
+        HouseholdParser parser = new HouseholdParser();
+        while (start < end) {
+            long regionSize = Math.min(MAP_REGION_SIZE, end - start);
+            MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, start, regionSize);
+            int regionEnd = (int) regionSize;
+            if (start + regionSize < end) {
+                regionEnd = HouseholdParser.lastLineEnd(region, 0, regionEnd);
+                if (regionEnd == 0) {
+                    throw new IOException("Line longer than " + MAP_REGION_SIZE + " bytes at offset " + start);
+                }
+            }
+            parser.parse(region, 0, regionEnd, totals);
+            start += regionEnd;
+        }
+    }
+    //***************************************************************
+    //
+    //  Method:       lastLineEnd
+    //
+    //  Description:  Finds the end of the last complete line at or
+    //                after the given offset.
+    //
+    //  Parameters:   FileChannel channel - open household file
+    //                long offset         - bytes already processed
+    //                long length         - file size
+    //
+    //  Returns:      long - offset just past the last newline, or the
+    //                given offset if there is none
+    //
+    //***************************************************************
+    private static long lastLineEnd(FileChannel channel, long offset, long length) throws IOException {
+        ByteBuffer block = ByteBuffer.allocate(PREFIX_BYTES);
+        long end = length;
+        while (end > offset) {
+            long start = Math.max(offset, end - block.capacity());
+            block.clear().limit((int) (end - start));
+            channel.read(block, start);
+            int found = HouseholdParser.lastLineEnd(block, 0, block.position());
+            if (found > 0) {
+                return start + found;
+            }
+            end = start;
+        }
+        return offset;
+    }
+    //***************************************************************
+    //
+    //  Method:       prefixCrc
+    //
+    //  Description:  Checksums the first bytes of the processed part
+    //                of the file to detect a rewritten input.
+    //
+    //  Parameters:   FileChannel channel - open household file
+    //                long offset         - bytes processed
+    //
+    //  Returns:      long - CRC32 of up to the first 4 KB
+    //
+    //***************************************************************
+    private static long prefixCrc(FileChannel channel, long offset) throws IOException {
+        ByteBuffer prefix = ByteBuffer.allocate((int) Math.min(PREFIX_BYTES, offset));
+        int read = 0;
+        while (prefix.hasRemaining() && read >= 0) {
+            read = channel.read(prefix, prefix.position());
+        }
+        CRC32 crc = new CRC32();
+        prefix.flip();
+        crc.update(prefix);
+        return crc.getValue();
+    }
+}
@@ -0,0 +1,503 @@
+//********************************************************************
+//
+//  Developer:     Mauricio Rivas
+//
+//  Program #:     Three
+//
+//  File Name:     KllSketch.java
+//
+//  Course:        COSC 4301 Modern Programming
+//
+//  Due Date:      4/14/2025
+//
+//  Instructor:    Prof. Fred Kumi
+//
+//  Java Version:  11
+//
+//  Description:   This class is a KLL quantile sketch (Karnin, Lang,
+//                 and Liberty, 2016). It estimates quantiles of a
+//                 stream of values while keeping only a small sample:
+//                 values are kept in levels, and when the sketch is
+//                 full a level is sorted and every other value moves
+//                 up one level with double the weight.
+//
+//                 Error: with the default k = 200 an estimated
+//                 quantile's true rank is within about 1.7% of the
+//                 requested rank with 99% confidence (the bound
+//                 published for the DataSketches KLL sketch). The
+//                 error does not grow with the number of values.
+//
+//                 Memory: about 3k values plus two per level, and the
+//                 number of levels grows with log2(n / k); one billion
+//                 values need under 700 retained doubles.
+//
+//                 Sketches can be merged; the merged sketch has the
+//                 same error bound. The compaction coin is a fixed
+//                 pseudo-random sequence, so the same input in the
+//                 same order always gives the same estimates.
+//
+//********************************************************************
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+public class KllSketch {
+    public static final int DEFAULT_K = 200;
+    private static final double DECAY = 2.0 / 3.0;
+    private static final int MIN_LEVEL_CAPACITY = 2;
+    private static final int MAX_LEVELS = 64;
+
+    private final int k;
+    private double[][] levels = new double[1][];
+    private int[] sizes = new int[1];
+    private int[] capacities = new int[1];
+    private int retained;
+    private int maxRetained;
+    private long count;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+    private long coin = 0x9E3779B97F4A7C15L;
+    //***************************************************************
+    //
+    //  Method:       KllSketch (Constructor)
+    //
+    //  Description:  Creates a sketch with the default accuracy.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      None
+    //
+    //***************************************************************
+    public KllSketch() {
+        this(DEFAULT_K);
+    }
+    //***************************************************************
+    //
+    //  Method:       KllSketch (Constructor)
+    //
+    //  Description:  Creates a sketch. The rank error shrinks roughly
+    //                in proportion to 1/k and memory grows with k.
+    //
+    //  Parameters:   int k - accuracy parameter, at least 8
+    //
+    //  Returns:      None
+    //
+    //***************************************************************
+    public KllSketch(int k) {
+        if (k < 8) {
+            throw new IllegalArgumentException("KLL k must be at least 8: " + k);
+        }
+        this.k = k;
+        levels[0] = new double[k];
+        capacities[0] = k + 1;
+        maxRetained = capacities[0];
+    }
+    //***************************************************************
+    //
+    //  Method:       update
+    //
+    //  Description:  Adds one value. NaN values are ignored.
+    //
+    //  Parameters:   double value - value to add
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    public void update(double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        count++;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+        append(0, value);
+        retained++;
+        if (retained >= maxRetained) {
+            compress();
+        }
+    }
+    //***************************************************************
+    //
+    //  Method:       merge
+    //
+    //  Description:  Adds every value summarized by another sketch.
+    //                Both sketches should use the same k.
+    //
+    //  Parameters:   KllSketch other - sketch to add
+    //
+    //  Returns:      KllSketch - this sketch
+    //
+    //***************************************************************
+    public KllSketch merge(KllSketch other) {
+        if (other.count == 0) {
+            return this;
+        }
+        while (levels.length < other.levels.length) {
+            grow();
+        }
+        for (int level = 0; level < other.levels.length; level++) {
+            for (int i = 0; i < other.sizes[level]; i++) {
+                append(level, other.levels[level][i]);
+            }
+            retained += other.sizes[level];
+        }
+        count += other.count;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        while (retained >= maxRetained) {
+            compress();
+        }
+        return this;
+    }
+    //***************************************************************
+    //
+    //  Method:       getQuantile
+    //
+    //  Description:  Estimates the value at a fraction of the sorted
+    //                input, e.g. 0.5 for the median.
+    //
+    //  Parameters:   double fraction - quantile from 0 to 1
+    //
+    //  Returns:      double - estimated quantile, or NaN if empty
+    //
+    //***************************************************************
+    public double getQuantile(double fraction) {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        if (fraction <= 0) {
+            return min;
+        }
+        if (fraction >= 1) {
+            return max;
+        }
+        double[] values = new double[retained];
+        long[] weights = new long[retained];
+        sortedView(values, weights);
+        double target = fraction * count;
+        long cumulative = 0;
+        for (int i = 0; i < values.length; i++) {
+            cumulative += weights[i];
+            if (cumulative >= target) {
+                return values[i];
+            }
+        }
+        return max;
+    }
+    //***************************************************************
+    //
+    //  Method:       getRank
+    //
+    //  Description:  Estimates the fraction of the input below a value.
+    //
+    //  Parameters:   double value - value to rank
+    //
+    //  Returns:      double - estimated fraction from 0 to 1, or NaN
+    //                if empty
+    //
+    //***************************************************************
+    public double getRank(double value) {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        long below = 0;
+        for (int level = 0; level < levels.length; level++) {
+            for (int i = 0; i < sizes[level]; i++) {
+                if (levels[level][i] < value) {
+                    below += 1L << level;
+                }
+            }
+        }
+        return (double) below / count;
+    }
+    //***************************************************************
+    //
+    //  Method:       writeTo
+    //
+    //  Description:  Writes the sketch in binary form: the retained
+    //                values of each level, the count, the extremes,
+    //                and the compaction coin, so a reloaded sketch
+    //                gives the same estimates and merges the same way.
+    //
+    //  Parameters:   DataOutput out - destination
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(k);
+        out.writeLong(count);
+        out.writeDouble(min);
+        out.writeDouble(max);
+        out.writeLong(coin);
+        out.writeInt(levels.length);
+        for (int level = 0; level < levels.length; level++) {
+            out.writeInt(sizes[level]);
+            for (int i = 0; i < sizes[level]; i++) {
+                out.writeDouble(levels[level][i]);
+            }
+        }
+    }
+    //***************************************************************
+    //
+    //  Method:       readFrom
+    //
+    //  Description:  Reads a sketch written by writeTo.
+    //
+    //  Parameters:   DataInput in - source
+    //
+    //  Returns:      KllSketch - the restored sketch
+    //
+    //***************************************************************
+    public static KllSketch readFrom(DataInput in) throws IOException {
+        int k = in.readInt();
+        if (k < 8) {
+            throw new IOException("Sketch data is damaged: k = " + k);
+        }
+        KllSketch sketch = new KllSketch(k);
+        sketch.count = in.readLong();
+        sketch.min = in.readDouble();
+        sketch.max = in.readDouble();
+        sketch.coin = in.readLong();
+        int height = in.readInt();
+        if (height < 1 || height > MAX_LEVELS) {
+            throw new IOException("Sketch data is damaged: " + height + " levels");
+        }
+        while (sketch.levels.length < height) {
+            sketch.grow();
+        }
+        for (int level = 0; level < height; level++) {
+            int size = in.readInt();
+            if (size < 0 || size > sketch.maxRetained - sketch.retained) {
+                throw new IOException("Sketch data is damaged: " + size + " values in level " + level);
+            }
+            if (size > sketch.levels[level].length) {
+                sketch.levels[level] = new double[size];
+            }
+            for (int i = 0; i < size; i++) {
+                sketch.levels[level][i] = in.readDouble();
+            }
+            sketch.sizes[level] = size;
+            sketch.retained += size;
+        }
+        return sketch;
+    }
+    //***************************************************************
+    //
+    //  Method:       getCount
+    //
+    //  Description:  Returns the number of values added.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      long - values seen
+    //
+    //***************************************************************
+    public long getCount() {
+        return count;
+    }
+    //***************************************************************
+    //
+    //  Method:       getMin
+    //
+    //  Description:  Returns the smallest value added.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      double - exact minimum, NaN if empty
+    //
+    //***************************************************************
+    public double getMin() {
+        return count == 0 ? Double.NaN : min;
+    }
+    //***************************************************************
+    //
+    //  Method:       getMax
+    //
+    //  Description:  Returns the largest value added.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      double - exact maximum, NaN if empty
+    //
+    //***************************************************************
+    public double getMax() {
+        return count == 0 ? Double.NaN : max;
+    }
+    //***************************************************************
+    //
+    //  Method:       getK
+    //
+    //  Description:  Returns the accuracy parameter.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      int - k
+    //
+    //***************************************************************
+    public int getK() {
+        return k;
+    }
+    //***************************************************************
+    //
+    //  Method:       getRetained
+    //
+    //  Description:  Returns the number of values the sketch keeps.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      int - retained values
+    //
+    //***************************************************************
+    public int getRetained() {
+        return retained;
+    }
+    //***************************************************************
+    //
+    //  Method:       compress
+    //
+    //  Description:  Compacts the lowest level that is at or over its
+    //                capacity, adding a level first if it is the top.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    private void compress() {
+        for (int level = 0; level < levels.length; level++) {
+            if (sizes[level] >= capacities[level]) {
+                if (level + 1 == levels.length) {
+                    grow();
+                }
+                compact(level);
+                return;
+            }
+        }
+    }
+    //***************************************************************
+    //
+    //  Method:       compact
+    //
+    //  Description:  Sorts a level and moves every other value, from a
+    //                randomly chosen start, to the level above. With an
+    //                odd count the smallest value stays behind.
+    //
+    //  Parameters:   int level - level to compact
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    private void compact(int level) {
+        double[] values = levels[level];
+        int size = sizes[level];
+        Arrays.sort(values, 0, size);
+        int start = (size & 1) + (nextCoin() ? 1 : 0);
+        for (int i = start; i < size; i += 2) {
+            append(level + 1, values[i]);
+        }
+        int kept = size & 1;
+        int moved = (size - kept) / 2;
+        sizes[level] = kept;
+        retained -= size - kept - moved;
+    }
+    //***************************************************************
+    //
+    //  Method:       grow
+    //
+    //  Description:  Adds a level on top and recomputes every level's
+    //                capacity, which shrinks toward the bottom.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    private void grow() {
+        int height = levels.length + 1;
+        levels = Arrays.copyOf(levels, height);
+        sizes = Arrays.copyOf(sizes, height);
+        capacities = new int[height];
+        levels[height - 1] = new double[MIN_LEVEL_CAPACITY * 4];
+        maxRetained = 0;
+        for (int level = 0; level < height; level++) {
+            int depth = height - level - 1;
+            capacities[level] = Math.max(MIN_LEVEL_CAPACITY, (int) Math.ceil(k * Math.pow(DECAY, depth)) + 1);
+            maxRetained += capacities[level];
+        }
+    }
+    //***************************************************************
+    //
+    //  Method:       append
+    //
+    //  Description:  Adds one value to a level, doubling the level's
+    //                array when it is full.
+    //
+    //  Parameters:   int level    - level to add to
+    //                double value - value to add
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    private void append(int level, double value) {
+        if (sizes[level] == levels[level].length) {
+            levels[level] = Arrays.copyOf(levels[level], levels[level].length * 2);
+        }
+        levels[level][sizes[level]++] = value;
+    }
+    //***************************************************************
+    //
+    //  Method:       nextCoin
+    //
+    //  Description:  Flips the compaction coin, a xorshift sequence
+    //                with a fixed seed.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      boolean - the next coin
+    //
+    //***************************************************************
+    private boolean nextCoin() {
+        coin ^= coin << 13;
+        coin ^= coin >>> 7;
+        coin ^= coin << 17;
+        return (coin & 1) != 0;
+    }
+    //***************************************************************
+    //
+    //  Method:       sortedView
+    //
+    //  Description:  Fills the arrays with every retained value in
+    //                ascending order and its weight (2 to the power of
+    //                its level).
+    //
+    //  Parameters:   double[] values - receives the values
+    //                long[] weights  - receives the weights
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    private void sortedView(double[] values, long[] weights) {
+        int filled = 0;
+        for (int level = 0; level < levels.length; level++) {
+            int size = sizes[level];
+            double[] run = Arrays.copyOf(levels[level], size);
+            Arrays.sort(run);
+            int i = filled - 1;
+            int j = size - 1;
+            int out = filled + size - 1;
+            while (j >= 0) {
+                if (i >= 0 && values[i] > run[j]) {
+                    values[out] = values[i];
+                    weights[out--] = weights[i--];
+                } else {
+                    values[out] = run[j--];
+                    weights[out--] = 1L << level;
+                }
+            }
+            filled += size;
+        }
+    }
+}
@@ -0,0 +1,460 @@
+//********************************************************************
+//
+//  Developer:     Mauricio Rivas
+//
+//  Program #:     Three
+//
+//  File Name:     OffHeapHouseholdStore.java
+//
+//  Course:        COSC 4301 Modern Programming
+//
+//  Due Date:      4/14/2025
+//
+//  Instructor:    Prof. Fred Kumi
+//
+//  Java Version:  11
+//
+//  Description:   This class stores households outside the Java heap,
+//                 in direct ByteBuffer chunks of 65536 households
+//                 (1 MB each). Each chunk holds the income, ID, size,
+//                 state, and reference year columns side by side, so
+//                 a household costs 16 bytes of native memory and the
+//                 heap holds only the chunk list. Sizes and state
+//                 codes that do not fit a byte are kept aside on the
+//                 heap by a ByteOverflow. Appends never copy earlier
+//                 data, and reads by index are two shifts and a
+//                 buffer read, so the collector has nothing to trace
+//                 or move however many households are loaded. Closing
+//                 the store frees the chunks at once instead of
+//                 waiting for the collector. Direct memory is capped
+//                 by -XX:MaxDirectMemorySize, which defaults to the
+//                 heap size, so large runs should set it, e.g.
+//
+//                     java -Xmx256m -XX:MaxDirectMemorySize=4g ...
+//
+//********************************************************************
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Objects;
+
+public class OffHeapHouseholdStore implements HouseholdTable, HouseholdParser.RecordHandler, AutoCloseable {
+    public static final int CHUNK_SHIFT = 16;
+    public static final int CHUNK_ROWS = 1 << CHUNK_SHIFT;
+
+    private static final int CHUNK_MASK = CHUNK_ROWS - 1;
+    private static final int INCOME_OFFSET = 0;
+    private static final int ID_OFFSET = CHUNK_ROWS * Double.BYTES;
+    private static final int YEAR_OFFSET = ID_OFFSET + CHUNK_ROWS * Integer.BYTES;
+    private static final int MEMBERS_OFFSET = YEAR_OFFSET + CHUNK_ROWS * Short.BYTES;
+    private static final int STATE_OFFSET = MEMBERS_OFFSET + CHUNK_ROWS;
+    private static final int CHUNK_BYTES = STATE_OFFSET + CHUNK_ROWS;
+    private static final Cleaner CLEANER = new Cleaner();
+
+    private ByteBuffer[] chunks = new ByteBuffer[16];
+    private int chunkCount;
+    private int size;
+    private boolean closed;
+
+    private final StateDictionary dictionary = new StateDictionary();
+    private final ByteOverflow wideMembers = new ByteOverflow();
+    private final ByteOverflow wideStates = new ByteOverflow();
+    //***************************************************************
+    //
+    //  Method:       load
+    //
+    //  Description:  Memory-maps a household file and appends every
+    //                record to the store.
+    //
+    //  Parameters:   Path file - household data file
+    //
+    //  Returns:      long - number of records added
+    //
+    //***************************************************************
+    public long load(Path file) throws IOException {
+        return new HouseholdParser().parseMapped(file, this);
+    }
+    //***************************************************************
+    //
+    //  Method:       onRecord
+    //
+    //  Description:  Adds one parsed record without a reference year.
+    //
+    //  Parameters:   int id        - Household ID
+    //                double income - annual income
+    //                int members   - household size
+    //                int stateCode - StateTable code or UNKNOWN
+    //                String state  - name as written
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    @Override
+    public void onRecord(int id, double income, int members, int stateCode, String state) {
+        add(id, income, members, stateCode, state, 0);
+    }
+    //***************************************************************
+    //
+    //  Method:       onRecord
+    //
+    //  Description:  Adds one parsed record with its reference year.
+    //
+    //  Parameters:   int id        - Household ID
+    //                double income - annual income
+    //                int members   - household size
+    //                int stateCode - StateTable code or UNKNOWN
+    //                String state  - name as written
+    //                int year      - reference year, or 0
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    @Override
+    public void onRecord(int id, double income, int members, int stateCode, String state, int year) {
+        add(id, income, members, stateCode, state, year);
+    }
+    //***************************************************************
+    //
+    //  Method:       add
+    //
+    //  Description:  Appends one household, starting a new chunk when
+    //                the last one is full. A state spelled other than
+    //                exactly as in the state table is kept in the
+    //                dictionary with the code it resolves to.
+    //
+    //  Parameters:   int id         - Household ID
+    //                double income  - Annual income
+    //                int members    - Number of household members
+    //                int stateCode  - StateTable code or UNKNOWN
+    //                String state   - State of residence
+    //                int year       - reference year, or 0 for none
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    public void add(int id, double income, int members, int stateCode, String state, int year) {
+        if (closed) {
+            throw new IllegalStateException("Off-heap household store is closed");
+        }
+        if (year < 0 || year > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Reference year out of range for ID " + id + ": " + year);
+        }
+        if (size == Integer.MAX_VALUE) {
+            throw new IllegalStateException("Off-heap household store is full");
+        }
+        int row = size & CHUNK_MASK;
+        if (row == 0) {
+            addChunk();
+        }
+        ByteBuffer chunk = chunks[chunkCount - 1];
+        chunk.putDouble(INCOME_OFFSET + row * Double.BYTES, income);
+        chunk.putInt(ID_OFFSET + row * Integer.BYTES, id);
+        chunk.putShort(YEAR_OFFSET + row * Short.BYTES, (short) year);
+        chunk.put(MEMBERS_OFFSET + row, wideMembers.encode(size, members));
+        chunk.put(STATE_OFFSET + row, wideStates.encode(size, dictionary.encode(stateCode, state)));
+        size++;
+    }
+    //***************************************************************
+    //
+    //  Method:       close
+    //
+    //  Description:  Frees every chunk now. The store is empty
+    //                afterwards and any read by index throws
+    //                IndexOutOfBoundsException, so freed memory is
+    //                never touched. Must not run while another thread
+    //                is reading the store.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        ByteBuffer[] freed = Arrays.copyOf(chunks, chunkCount);
+        closed = true;
+        size = 0;
+        chunkCount = 0;
+        chunks = new ByteBuffer[0];
+        wideMembers.clear();
+        wideStates.clear();
+        for (ByteBuffer chunk : freed) {
+            CLEANER.free(chunk);
+        }
+    }
+
+    //***************************************************************
+    //
+    //  Method:       addTo
+    //
+    //  Description:  Adds every household to an aggregate a chunk at a
+    //                time: each chunk's columns are copied in bulk into
+    //                one set of scratch arrays and run through the
+    //                IncomeKernels loops, so nothing is allocated per
+    //                household. When some size or state code did not
+    //                fit its byte the households are added one by one.
+    //
+    //  Parameters:   HouseholdAggregate totals - aggregate to add to
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    public void addTo(HouseholdAggregate totals) {
+        if (!wideMembers.isEmpty() || !wideStates.isEmpty()) {
+            for (int i = 0; i < size; i++) {
+                totals.add(getIncome(i), getMembers(i), getStateCode(i));
+            }
+            return;
+        }
+        int rows = Math.min(size, CHUNK_ROWS);
+        double[] incomes = new double[rows];
+        byte[] members = new byte[rows];
+        byte[] states = new byte[rows];
+        int[] stateCodes = dictionary.getStateCodes();
+        for (int c = 0; c < chunkCount; c++) {
+            int count = Math.min(CHUNK_ROWS, size - c * CHUNK_ROWS);
+            ByteBuffer chunk = chunks[c].duplicate().order(ByteOrder.nativeOrder());
+            chunk.position(INCOME_OFFSET);
+            chunk.asDoubleBuffer().get(incomes, 0, count);
+            chunk.position(MEMBERS_OFFSET);
+            chunk.get(members, 0, count);
+            chunk.position(STATE_OFFSET);
+            chunk.get(states, 0, count);
+            totals.addColumns(incomes, members, states, stateCodes, 0, count);
+        }
+    }
+    //***************************************************************
+    //
+    //  Method:       getOffHeapBytes
+    //
+    //  Description:  Returns the direct memory held by the chunks.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      long - bytes allocated off the heap
+    //
+    //***************************************************************
+    public long getOffHeapBytes() {
+        return (long) chunkCount * CHUNK_BYTES;
+    }
+    //***************************************************************
+    //
+    //  Method:       size
+    //
+    //  Description:  Returns the number of households in the store.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      int - household count
+    //
+    //***************************************************************
+    @Override
+    public int size() {
+        return size;
+    }
+    //***************************************************************
+    //
+    //  Method:       getId
+    //
+    //  Description:  Returns the ID of one household.
+    //
+    //  Parameters:   int index - position in the table
+    //
+    //  Returns:      int - Household ID
+    //
+    //***************************************************************
+    @Override
+    public int getId(int index) {
+        return chunk(index).getInt(ID_OFFSET + (index & CHUNK_MASK) * Integer.BYTES);
+    }
+    //***************************************************************
+    //
+    //  Method:       getIncome
+    //
+    //  Description:  Returns the annual income of one household.
+    //
+    //  Parameters:   int index - position in the table
+    //
+    //  Returns:      double - Annual income
+    //
+    //***************************************************************
+    @Override
+    public double getIncome(int index) {
+        return chunk(index).getDouble(INCOME_OFFSET + (index & CHUNK_MASK) * Double.BYTES);
+    }
+    //***************************************************************
+    //
+    //  Method:       getMembers
+    //
+    //  Description:  Returns the number of people in one household.
+    //
+    //  Parameters:   int index - position in the table
+    //
+    //  Returns:      int - Number of household members
+    //
+    //***************************************************************
+    @Override
+    public int getMembers(int index) {
+        return wideMembers.decode(index, chunk(index).get(MEMBERS_OFFSET + (index & CHUNK_MASK)));
+    }
+    //***************************************************************
+    //
+    //  Method:       getStateCode
+    //
+    //  Description:  Returns the StateTable code of the state one
+    //                household lives in.
+    //
+    //  Parameters:   int index - position in the table
+    //
+    //  Returns:      int - StateTable code or UNKNOWN
+    //
+    //***************************************************************
+    @Override
+    public int getStateCode(int index) {
+        return dictionary.stateCode(wideStates.decode(index, chunk(index).get(STATE_OFFSET + (index & CHUNK_MASK))));
+    }
+    //***************************************************************
+    //
+    //  Method:       getState
+    //
+    //  Description:  Returns the state of one household as it was
+    //                written.
+    //
+    //  Parameters:   int index - position in the table
+    //
+    //  Returns:      String - State name
+    //
+    //***************************************************************
+    @Override
+    public String getState(int index) {
+        return dictionary.name(wideStates.decode(index, chunk(index).get(STATE_OFFSET + (index & CHUNK_MASK))));
+    }
+    //***************************************************************
+    //
+    //  Method:       getReferenceYear
+    //
+    //  Description:  Returns the guideline year of one household.
+    //
+    //  Parameters:   int index - position in the table
+    //
+    //  Returns:      int - reference year, or 0 for none
+    //
+    //***************************************************************
+    @Override
+    public int getReferenceYear(int index) {
+        return chunk(index).getShort(YEAR_OFFSET + (index & CHUNK_MASK) * Short.BYTES);
+    }
+    //***************************************************************
+    //
+    //  Method:       chunk
+    //
+    //  Description:  Returns the chunk that holds one household,
+    //                checking the index against the size.
+    //
+    //  Parameters:   int index - position in the table
+    //
+    //  Returns:      ByteBuffer - the chunk
+    //
+    //***************************************************************
+    private ByteBuffer chunk(int index) {
+        return chunks[Objects.checkIndex(index, size) >>> CHUNK_SHIFT];
+    }
+    //***************************************************************
+    //
+    //  Method:       addChunk
+    //
+    //  Description:  Allocates the next chunk. Running out of direct
+    //                memory is reported with the setting to raise.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    private void addChunk() {
+        if (chunkCount == chunks.length) {
+            chunks = Arrays.copyOf(chunks, chunkCount * 2);
+        }
+        try {
+            chunks[chunkCount++] = ByteBuffer.allocateDirect(CHUNK_BYTES).order(ByteOrder.nativeOrder());
+        } catch (OutOfMemoryError e) {
+            chunkCount--;
+            throw new IllegalStateException("Out of direct memory after " + size
+                    + " households; raise -XX:MaxDirectMemorySize", e);
+        }
+    }
+
+    //***************************************************************
+    //
+    //  Class:        Cleaner
+    //
+    //  Description:  Frees a direct buffer's memory right away through
+    //                sun.misc.Unsafe.invokeCleaner, which Java 9 and
+    //                later provide in the jdk.unsupported module. If it
+    //                is not available the buffer is left for the
+    //                collector to free, as before.
+    //
+    //***************************************************************
+    private static final class Cleaner {
+        private final Object unsafe;
+        private final Method invokeCleaner;
+        //***************************************************************
+        //
+        //  Method:       Cleaner (Constructor)
+        //
+        //  Description:  Looks up Unsafe.invokeCleaner, leaving it unset
+        //                if it is not available.
+        //
+        //  Parameters:   None
+        //
+        //  Returns:      None
+        //
+        //***************************************************************
+        Cleaner() {
+            Object instance = null;
+            Method method = null;
+            try {
+                Class<?> type = Class.forName("sun.misc.Unsafe");
+                Field field = type.getDeclaredField("theUnsafe");
+                field.setAccessible(true);
+                instance = field.get(null);
+                method = type.getMethod("invokeCleaner", ByteBuffer.class);
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                instance = null;
+                method = null;
+            }
+            this.unsafe = instance;
+            this.invokeCleaner = method;
+        }
+        //***************************************************************
+        //
+        //  Method:       free
+        //
+        //  Description:  Frees a direct buffer's memory now, if the
+        //                cleaner is available.
+        //
+        //  Parameters:   ByteBuffer buffer - direct buffer no longer used
+        //
+        //  Returns:      void
+        //
+        //***************************************************************
+        void free(ByteBuffer buffer) {
+            if (invokeCleaner == null) {
+                return;
+            }
+            try {
+                invokeCleaner.invoke(unsafe, buffer);
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                // The collector frees the buffer instead.
+            }
+        }
+    }
+}
@@ -0,0 +1,325 @@
+//********************************************************************
+//
+//  Developer:     Mauricio Rivas
+//
+//  Program #:     Three
+//
+//  File Name:     ParallelHouseholdAnalyzer.java
+//
+//  Course:        COSC 4301 Modern Programming
+//
+//  Due Date:      4/14/2025
+//
+//  Instructor:    Prof. Fred Kumi
+//
+//  Java Version:  11
+//
+//  Description:   This class analyzes a household file in parallel.
+//                 The file is cut into byte ranges that end on line
+//                 boundaries, each range is memory-mapped, parsed,
+//                 and aggregated on a ForkJoinPool worker, and the
+//                 partial results are merged. Any mergeable record
+//                 handler can be used as the partial result. With a
+//                 parallelism of 1 the same ranges are processed and
+//                 merged in the same order on the calling thread, so
+//                 both modes give identical results. A block gzip
+//                 file is split into runs of blocks instead, each
+//                 decoded and parsed on its worker; a plain gzip file
+//                 can only be read from the start and is parsed on
+//                 the calling thread.
+//
+//********************************************************************
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+import java.util.function.Supplier;
+
+public class ParallelHouseholdAnalyzer {
+    public static final int DEFAULT_CHUNK_BYTES = 8 << 20;
+    private static final int SCAN_BYTES = 4096;
+
+    private final int parallelism;
+    private final int chunkBytes;
+    //***************************************************************
+    //
+    //  Method:       ParallelHouseholdAnalyzer (Constructor)
+    //
+    //  Description:  Creates an analyzer. The chunk size does not
+    //                depend on the parallelism, so every parallelism
+    //                level splits and merges a file the same way.
+    //
+    //  Parameters:   int parallelism - worker threads, 1 for a single
+    //                                  threaded run
+    //                int chunkBytes  - target bytes per chunk
+    //
+    //  Returns:      None
+    //
+    //***************************************************************
+    public ParallelHouseholdAnalyzer(int parallelism, int chunkBytes) {
+        this.parallelism = Math.max(1, parallelism);
+        this.chunkBytes = Math.max(SCAN_BYTES, chunkBytes);
+    }
+    //***************************************************************
+    //
+    //  Method:       ParallelHouseholdAnalyzer (Constructor)
+    //
+    //  Description:  Creates an analyzer with the default chunk size.
+    //
+    //  Parameters:   int parallelism - worker threads
+    //
+    //  Returns:      None
+    //
+    //***************************************************************
+    public ParallelHouseholdAnalyzer(int parallelism) {
+        this(parallelism, DEFAULT_CHUNK_BYTES);
+    }
+    //***************************************************************
+    //
+    //  Method:       analyze
+    //
+    //  Description:  Parses and aggregates a whole household file.
+    //
+    //  Parameters:   Path file                    - household data
+    //                FPLThresholdTable thresholds - income limits
+    //
+    //  Returns:      HouseholdAggregate - merged totals
+    //
+    //***************************************************************
+    public HouseholdAggregate analyze(Path file, FPLThresholdTable thresholds) throws IOException {
+        return analyze(file, () -> new HouseholdAggregate(thresholds), HouseholdAggregate::merge);
+    }
+    //***************************************************************
+    //
+    //  Method:       analyze
+    //
+    //  Description:  Parses a whole household file into mergeable
+    //                partial results, one per chunk, and merges them
+    //                left to right.
+    //
+    //  Parameters:   Path file                - household data
+    //                Supplier<T> factory      - creates an empty result
+    //                BinaryOperator<T> merger - adds the second result
+    //                                           to the first
+    //
+    //  Returns:      T - merged result
+    //
+    //***************************************************************
+    public <T extends HouseholdParser.RecordHandler> T analyze(Path file, Supplier<T> factory,
+                                                               BinaryOperator<T> merger) throws IOException {
+        boolean gzip = BlockGzip.isGzip(file);
+        if (gzip && !BlockGzip.isBlockGzip(file)) {
+            T result = factory.get();
+            try (InputStream in = HouseholdParser.open(file)) {
+                new HouseholdParser().parse(in, result);
+            }
+            return result;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ChunkTask<T> task;
+            if (gzip) {
+                long[] blocks = BlockGzip.blockOffsets(channel);
+                int perChunk = Math.max(1, chunkBytes / BlockGzip.BLOCK_DATA_BYTES);
+                int chunks = (blocks.length - 1 + perChunk - 1) / perChunk;
+                task = new ChunkTask<>(chunk -> {
+                    T aggregate = factory.get();
+                    BlockGzip.parseBlocks(channel, blocks, chunk * perChunk,
+                            Math.min(blocks.length - 1, (chunk + 1) * perChunk), aggregate);
+                    return aggregate;
+                }, 0, Math.max(1, chunks), merger);
+            } else {
+                long[] bounds = splitOnLines(channel);
+                task = new ChunkTask<>(chunk -> parseChunk(channel, bounds, chunk, factory.get()),
+                        0, bounds.length - 1, merger);
+            }
+            if (parallelism == 1) {
+                return task.compute();
+            }
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                return pool.invoke(task);
+            } finally {
+                pool.shutdown();
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+    //***************************************************************
+    //
+    //  Method:       parseChunk
+    //
+    //  Description:  Maps one line-aligned chunk of a text file and
+    //                parses it.
+    //
+    //  Parameters:   FileChannel channel - open household file
+    //                long[] bounds       - from splitOnLines
+    //                int chunk           - chunk to parse
+    //                T aggregate         - receives the records
+    //
+    //  Returns:      T - the aggregate
+    //
+    //***************************************************************
+    private static <T extends HouseholdParser.RecordHandler> T parseChunk(FileChannel channel, long[] bounds,
+                                                                          int chunk, T aggregate)
+            throws IOException {
+        long start = bounds[chunk];
+        long size = bounds[chunk + 1] - start;
+        if (size > 0) {
+            MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, start, size);
+            new HouseholdParser().parse(region, 0, (int) size, aggregate);
+        }
+        return aggregate;
+    }
+    //***************************************************************
+    //
+    //  Method:       splitOnLines
+    //
+    //  Description:  Finds chunk boundaries about chunkBytes apart,
+    //                moving each one forward to just past a newline.
+    //
+    //  Parameters:   FileChannel channel - open household file
+    //
+    //  Returns:      long[] - boundaries, starting at 0 and ending at
+    //                the file size
+    //
+    //***************************************************************
+    private long[] splitOnLines(FileChannel channel) throws IOException {
+        long length = channel.size();
+        List<Long> bounds = new ArrayList<>();
+        bounds.add(0L);
+        ByteBuffer scan = ByteBuffer.allocate(SCAN_BYTES);
+
+        long next = chunkBytes;
+        while (next < length) {
+            long boundary = -1;
+            long position = next;
+            while (boundary < 0 && position < length) {
+                scan.clear();
+                int read = channel.read(scan, position);
+                for (int i = 0; i < read; i++) {
+                    if (scan.get(i) == '\n') {
+                        boundary = position + i + 1;
+                        break;
+                    }
+                }
+                position += Math.max(read, 0);
+            }
+            if (boundary < 0 || boundary >= length) {
+                break;
+            }
+            bounds.add(boundary);
+            next = boundary + chunkBytes;
+        }
+        bounds.add(length);
+
+        long[] result = new long[bounds.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = bounds.get(i);
+        }
+        return result;
+    }
+
+    //***************************************************************
+    //
+    //  Class:        ChunkTask
+    //
+    //  Description:  Parses a run of chunks by splitting it in half
+    //                until one chunk is left, then merging the halves
+    //                left to right.
+    //
+    //***************************************************************
+    private static class ChunkTask<T extends HouseholdParser.RecordHandler> extends RecursiveTask<T> {
+        private static final long serialVersionUID = 1L;
+
+        private final ChunkParser<T> parser;
+        private final int first;
+        private final int last;
+        private final BinaryOperator<T> merger;
+        //***************************************************************
+        //
+        //  Method:       ChunkTask (Constructor)
+        //
+        //  Description:  Creates a task for a run of chunks.
+        //
+        //  Parameters:   ChunkParser<T> parser    - parses one chunk
+        //                int first                - first chunk
+        //                int last                 - chunk after the run
+        //                BinaryOperator<T> merger - combines two results
+        //
+        //  Returns:      None
+        //
+        //***************************************************************
+        ChunkTask(ChunkParser<T> parser, int first, int last, BinaryOperator<T> merger) {
+            this.parser = parser;
+            this.first = first;
+            this.last = last;
+            this.merger = merger;
+        }
+        //***************************************************************
+        //
+        //  Method:       compute
+        //
+        //  Description:  Parses a single chunk, or splits the run in
+        //                half, parses the halves in parallel, and merges
+        //                them.
+        //
+        //  Parameters:   None
+        //
+        //  Returns:      T - handler holding the run's results
+        //
+        //***************************************************************
+        @Override
+        protected T compute() {
+            if (last - first <= 1) {
+                try {
+                    return parser.parse(first);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            int middle = (first + last) >>> 1;
+            ChunkTask<T> left = new ChunkTask<>(parser, first, middle, merger);
+            ChunkTask<T> right = new ChunkTask<>(parser, middle, last, merger);
+            if (getPool() == null) {
+                return merger.apply(left.compute(), right.compute());
+            }
+            right.fork();
+            T result = left.compute();
+            return merger.apply(result, right.join());
+        }
+    }
+
+    //***************************************************************
+    //
+    //  Interface:    ChunkParser
+    //
+    //  Description:  Reads one chunk of the file: a run of lines, or a
+    //                run of compressed blocks.
+    //
+    //***************************************************************
+    private interface ChunkParser<T> {
+        //***************************************************************
+        //
+        //  Method:       parse
+        //
+        //  Description:  Parses one chunk into a fresh handler.
+        //
+        //  Parameters:   int chunk - chunk index
+        //
+        //  Returns:      T - totals for the chunk
+        //
+        //***************************************************************
+        T parse(int chunk) throws IOException;
+    }
+}
@@ -0,0 +1,288 @@
+//********************************************************************
+//
+//  Developer:     Mauricio Rivas
+//
+//  Program #:     Three
+//
+//  File Name:     PartialAggregate.java
+//
+//  Course:        COSC 4301 Modern Programming
+//
+//  Due Date:      4/14/2025
+//
+//  Instructor:    Prof. Fred Kumi
+//
+//  Java Version:  11
+//
+//  Description:   This class holds every report total for one shard
+//                 of the household data: the overall totals, the state
+//                 and size groups, and the income distribution
+//                 sketches. It can be written to a small binary file
+//                 and read back on another JVM or machine, and partial
+//                 results are merged into the totals of all shards.
+//
+//                 File layout (big-endian):
+//                     int   magic 0x48485041 ("HHPA"), int version
+//                     int   guideline year, long thresholds fingerprint
+//                     int   shards merged into the file
+//                     HouseholdAggregate, GroupedAggregate, and
+//                     IncomeDistribution, each in its writeTo form
+//                     long  CRC32 of everything before it
+//
+//********************************************************************
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.function.IntFunction;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+public class PartialAggregate implements HouseholdParser.RecordHandler {
+    private static final int MAGIC = 0x48485041;
+    private static final int VERSION = 2;
+
+    private final FPLThresholdTable thresholds;
+    private final HouseholdAggregate totals;
+    private final GroupedAggregate groups;
+    private final IncomeDistribution distribution;
+    private int shards;
+    //***************************************************************
+    //
+    //  Method:       PartialAggregate (Constructor)
+    //
+    //  Description:  Creates empty results for one shard.
+    //
+    //  Parameters:   FPLThresholdTable thresholds - income limits
+    //
+    //  Returns:      None
+    //
+    //***************************************************************
+    public PartialAggregate(FPLThresholdTable thresholds) {
+        this(thresholds, new HouseholdAggregate(thresholds), new GroupedAggregate(thresholds),
+                new IncomeDistribution(thresholds), 1);
+    }
+    //***************************************************************
+    //
+    //  Method:       PartialAggregate (Constructor)
+    //
+    //  Description:  Wraps totals that were read from a file or
+    //                merged.
+    //
+    //  Parameters:   FPLThresholdTable thresholds    - income limits
+    //                HouseholdAggregate totals       - report totals
+    //                GroupedAggregate groups         - grouped totals
+    //                IncomeDistribution distribution - histograms
+    //                int shards                      - shard count
+    //
+    //  Returns:      None
+    //
+    //***************************************************************
+    private PartialAggregate(FPLThresholdTable thresholds, HouseholdAggregate totals, GroupedAggregate groups,
+                             IncomeDistribution distribution, int shards) {
+        this.thresholds = thresholds;
+        this.totals = totals;
+        this.groups = groups;
+        this.distribution = distribution;
+        this.shards = shards;
+    }
+    //***************************************************************
+    //
+    //  Method:       onRecord
+    //
+    //  Description:  Adds one parsed household to every total.
+    //
+    //  Parameters:   int id         - Household ID
+    //                double income  - Annual income
+    //                int members    - Number of household members
+    //                int stateCode  - StateTable code or UNKNOWN
+    //                String state   - State of residence
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    @Override
+    public void onRecord(int id, double income, int members, int stateCode, String state) {
+        totals.add(income, members, stateCode);
+        groups.add(income, members, stateCode);
+        distribution.add(income, members, stateCode);
+    }
+    //***************************************************************
+    //
+    //  Method:       merge
+    //
+    //  Description:  Adds the results of another shard. Both must be
+    //                built with the same guideline year and limits.
+    //
+    //  Parameters:   PartialAggregate other - results to add
+    //
+    //  Returns:      PartialAggregate - these results
+    //
+    //***************************************************************
+    public PartialAggregate merge(PartialAggregate other) {
+        if (other.thresholds.getYear() != thresholds.getYear()
+                || other.thresholds.fingerprint() != thresholds.fingerprint()) {
+            throw new IllegalArgumentException("Cannot merge results built with different FPL guidelines");
+        }
+        totals.merge(other.totals);
+        groups.merge(other.groups);
+        distribution.merge(other.distribution);
+        shards += other.shards;
+        return this;
+    }
+    //***************************************************************
+    //
+    //  Method:       write
+    //
+    //  Description:  Saves the results. The file is written beside the
+    //                target and moved into place, so a reader never
+    //                sees a partial file.
+    //
+    //  Parameters:   Path file - partial result file
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    public void write(Path file) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        CRC32 crc = new CRC32();
+        try (DataOutputStream out = new DataOutputStream(
+                new CheckedOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)), crc))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(thresholds.getYear());
+            out.writeLong(thresholds.fingerprint());
+            out.writeInt(shards);
+            totals.writeTo(out);
+            groups.writeTo(out);
+            distribution.writeTo(out);
+            out.writeLong(crc.getValue());
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+    }
+    //***************************************************************
+    //
+    //  Method:       read
+    //
+    //  Description:  Loads results saved by write. The file is
+    //                rejected if it is damaged or was built with
+    //                different limits than this run has for its year.
+    //
+    //  Parameters:   Path file - partial result file
+    //                IntFunction<FPLThresholdTable> thresholds -
+    //                    income limits for a guideline year
+    //
+    //  Returns:      PartialAggregate - the saved results
+    //
+    //***************************************************************
+    public static PartialAggregate read(Path file, IntFunction<FPLThresholdTable> thresholds) throws IOException {
+        CRC32 crc = new CRC32();
+        try (DataInputStream in = new DataInputStream(
+                new CheckedInputStream(new BufferedInputStream(Files.newInputStream(file)), crc))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a partial result file: " + file);
+            }
+            int version = in.readInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported partial result version " + version + ": " + file);
+            }
+            int year = in.readInt();
+            long fingerprint = in.readLong();
+            FPLThresholdTable levels = thresholds.apply(year);
+            if (fingerprint != levels.fingerprint()) {
+                throw new IOException("Partial result was built with different " + year
+                        + " FPL guidelines: " + file);
+            }
+            int shards = in.readInt();
+            HouseholdAggregate totals = HouseholdAggregate.readFrom(in, levels);
+            GroupedAggregate groups = GroupedAggregate.readFrom(in, levels);
+            IncomeDistribution distribution = IncomeDistribution.readFrom(in, levels);
+            long expected = crc.getValue();
+            if (in.readLong() != expected || in.read() != -1) {
+                throw new IOException("Partial result file is damaged: " + file);
+            }
+            return new PartialAggregate(levels, totals, groups, distribution, shards);
+        } catch (EOFException e) {
+            throw new IOException("Partial result file is truncated: " + file, e);
+        }
+    }
+    //***************************************************************
+    //
+    //  Method:       getTotals
+    //
+    //  Description:  Returns the report totals.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      HouseholdAggregate - report totals
+    //
+    //***************************************************************
+    public HouseholdAggregate getTotals() {
+        return totals;
+    }
+    //***************************************************************
+    //
+    //  Method:       getGroups
+    //
+    //  Description:  Returns the totals by state and household size.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      GroupedAggregate - grouped totals
+    //
+    //***************************************************************
+    public GroupedAggregate getGroups() {
+        return groups;
+    }
+    //***************************************************************
+    //
+    //  Method:       getDistribution
+    //
+    //  Description:  Returns the income histograms and sketches.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      IncomeDistribution - income distribution
+    //
+    //***************************************************************
+    public IncomeDistribution getDistribution() {
+        return distribution;
+    }
+    //***************************************************************
+    //
+    //  Method:       getThresholds
+    //
+    //  Description:  Returns the guideline table the results were
+    //                counted with.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      FPLThresholdTable - poverty thresholds
+    //
+    //***************************************************************
+    public FPLThresholdTable getThresholds() {
+        return thresholds;
+    }
+    //***************************************************************
+    //
+    //  Method:       getShardCount
+    //
+    //  Description:  Returns the number of shards these results
+    //                include.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      int - shards merged
+    //
+    //***************************************************************
+    public int getShardCount() {
+        return shards;
+    }
+}
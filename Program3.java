@@ -20,19 +20,52 @@
 //
 //********************************************************************
 
-import java.io.File;
 import java.io.FileNotFoundException;
-import java.io.PrintWriter;
-import java.net.URI;
-import java.net.http.*;
-import java.util.*;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
 
 public class Program3 {
-    private ArrayList<Household> households = new ArrayList<>();
-    private double contigBase, contigPer;
-    private double alaskaBase, alaskaPer;
-    private double hawaiiBase, hawaiiPer;
-    private PrintWriter writer;
+    private ColumnarHouseholdStore store = new ColumnarHouseholdStore();
+    private OffHeapHouseholdStore offHeap;
+    private HouseholdTable households = store;
+    private FPLThresholdTable thresholds;
+    private HouseholdAggregate totals;
+    private int[] belowFPLRows = new int[16];
+    private int belowFPLCount;
+    private ReportWriter writer;
+    private FPLGuidelineCache fplCache;
+    private final RunMetrics metrics = RunMetrics.getShared();
+    //***************************************************************
+    //
+    //  Method:       Program3 (Constructor)
+    // 
+    //  Description:  Creates a program that uses the shared FPL cache.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      None
+    //
+    //***************************************************************
+    public Program3() {
+        this(FPLGuidelineCache.getShared());
+    }
+    //***************************************************************
+    //
+    //  Method:       Program3 (Constructor)
+    // 
+    //  Description:  Creates a program that reads guidelines from the
+    //                given cache, such as a preloaded or stubbed one.
+    //
+    //  Parameters:   FPLGuidelineCache fplCache - guideline source
+    //
+    //  Returns:      None
+    //
+    //***************************************************************
+    public Program3(FPLGuidelineCache fplCache) {
+        this.fplCache = fplCache;
+    }
     //***************************************************************
     //
     //  Method:       main
@@ -60,30 +93,65 @@ public class Program3 {
     //
     //***************************************************************
     public void run() {
+        run("Program3Data.txt", "Program3-Output.txt");
+    }
+    //***************************************************************
+    //
+    //  Method:       run
+    // 
+    //  Description:  Runs every report for the given input and output
+    //                files, timing each stage. With -Dmetrics.file set
+    //                the stage times and counters are written there as
+    //                JSON. An off-heap store is freed when the run ends.
+    //
+    //  Parameters:   String dataFile   - file containing household data
+    //                String outputFile - file the reports are written to
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    public void run(String dataFile, String outputFile) {
         try {
-            writer = new PrintWriter("Program3-Output.txt");
+            writer = new ReportWriter(outputFile);
+
+            readHouseholds(dataFile);
+            long start = metrics.start();
+            thresholds = FPLThresholdTable.load(fplCache, FPLGuidelineCache.DEFAULT_YEAR);
+            metrics.stop(RunMetrics.STAGE_FETCH, start);
 
-            readHouseholds("Program3Data.txt");
+            start = metrics.start();
+            long writing = metrics.getStageNanos(RunMetrics.STAGE_WRITE);
             printHouseholds();
             printAverageIncome();
             printAboveAverage();
             printBelowFPL();
             printPercentBelowFPL();
-            fetchFPLFormulas();
             printPercentEligibleMedicaid();
 
             writer.close();
-            System.out.println("Output successfully written to Program3-Output.txt");
+            metrics.stopExcluding(RunMetrics.STAGE_AGGREGATE, start, RunMetrics.STAGE_WRITE, writing);
+            System.out.println("Output successfully written to " + outputFile);
 
         } catch (FileNotFoundException e) {
-            System.out.println("Error: Unable to write to Program3-Output.txt");
+            metrics.error("Error: Unable to write to " + outputFile);
+        } finally {
+            if (offHeap != null) {
+                offHeap.close();
+            }
         }
+        metrics.writeSummary();
     }
     //***************************************************************
     //
     //  Method:       readHouseholds
     // 
-    //  Description:  Loads household data from file into ArrayList.
+    //  Description:  Loads household data from file into the columnar
+    //                household store. A snapshot file written by
+    //                HouseholdSnapshot is mapped instead of parsed, and
+    //                with -Dhouseholds.offHeap=true the households are
+    //                kept in an OffHeapHouseholdStore. A file that
+    //                cannot be read to the end is rejected whole, so
+    //                the reports never cover only part of it.
     //
     //  Parameters:   String fileName - file containing household data
     //
@@ -91,21 +159,34 @@ public class Program3 {
     //
     //***************************************************************
     public void readHouseholds(String fileName) {
-        try (Scanner scanner = new Scanner(new File(fileName))) {
-            while (scanner.hasNextLine()) {
-                String[] parts = scanner.nextLine().trim().split("\\s+");
-                int id = Integer.parseInt(parts[0]);
-                double income = Double.parseDouble(parts[1]);
-                int members = Integer.parseInt(parts[2]);
-                StringBuilder state = new StringBuilder();
-                for (int i = 3; i < parts.length; i++) {
-                    state.append(parts[i]);
-                    if (i < parts.length - 1) state.append(" ");
-                }
-                households.add(new Household(id, income, members, state.toString()));
+        Path file = Paths.get(fileName);
+        long start = metrics.start();
+        try {
+            if (HouseholdSnapshot.isSnapshot(file)) {
+                households = HouseholdSnapshot.open(file);
+                metrics.stop(RunMetrics.STAGE_READ, start);
+                metrics.count(RunMetrics.RECORDS, households.size());
+                return;
+            }
+            long reading = metrics.getStageNanos(RunMetrics.STAGE_READ);
+            HouseholdParser.RecordHandler target = store;
+            if (Boolean.getBoolean("households.offHeap")) {
+                offHeap = new OffHeapHouseholdStore();
+                target = offHeap;
+            }
+            try (InputStream in = metrics.meter(HouseholdParser.open(file))) {
+                metrics.count(RunMetrics.RECORDS, new HouseholdParser().parse(in, target));
             }
+            metrics.stopExcluding(RunMetrics.STAGE_PARSE, start, RunMetrics.STAGE_READ, reading);
+            households = offHeap != null ? offHeap : store;
         } catch (Exception e) {
-            System.out.println("Error reading file: " + e.getMessage());
+            metrics.error("Error reading file: " + e.getMessage());
+            if (offHeap != null) {
+                offHeap.close();
+                offHeap = null;
+            }
+            store = new ColumnarHouseholdStore();
+            households = store;
         }
     }
     //***************************************************************
@@ -113,6 +194,9 @@ public class Program3 {
     //  Method:       printHouseholds
     // 
     //  Description:  Outputs the list of households with their data.
+    //                The same pass computes every report total and
+    //                remembers the rows below the poverty line, so the
+    //                later reports do not scan the data again.
     //
     //  Parameters:   None
     //
@@ -120,17 +204,24 @@ public class Program3 {
     //
     //***************************************************************
     public void printHouseholds() {
-        writer.printf("%-6s %-12s %-8s %s%n", "ID", "Income", "Members", "State");
-        writer.println("-------------------------------------------------------");
-        for (Household h : households) {
-            writer.println(h);
-        }
+        printListingHeader();
+
+        belowFPLCount = 0;
+        totals = new FusedAnalyticsEngine(thresholds).scan(households, (i, belowPoverty) -> {
+            printHousehold(i);
+            if (belowPoverty) {
+                if (belowFPLCount == belowFPLRows.length) {
+                    belowFPLRows = Arrays.copyOf(belowFPLRows, belowFPLCount * 2);
+                }
+                belowFPLRows[belowFPLCount++] = i;
+            }
+        });
     }
     //***************************************************************
     //
     //  Method:       printAverageIncome
     // 
-    //  Description:  Calculates and prints the average income.
+    //  Description:  Prints the average income.
     //
     //  Parameters:   None
     //
@@ -138,18 +229,15 @@ public class Program3 {
     //
     //***************************************************************
     public void printAverageIncome() {
-        double total = 0;
-        for (Household h : households) {
-            total += h.getIncome();
-        }
-        double average = total / households.size();
-        writer.printf("%nAverage Household Income: $%.2f%n", average);
+        writer.newLine().text("Average Household Income: $").decimal(totals.getAverageIncome()).newLine();
     }
     //***************************************************************
     //
     //  Method:       printAboveAverage
     // 
     //  Description:  Prints households with income above the average.
+    //                This is the only report that scans the data a
+    //                second time, since it needs the finished average.
     //
     //  Parameters:   None
     //
@@ -157,21 +245,12 @@ public class Program3 {
     //
     //***************************************************************
     public void printAboveAverage() {
-        double total = 0;
-        for (Household h : households) {
-            total += h.getIncome();
-        }
-        double average = total / households.size();
+        double average = totals.getAverageIncome();
 
-        writer.printf("%nHouseholds with Income Above Average ($%.2f):%n", average);
-        writer.printf("%-6s %-12s %-8s %s%n", "ID", "Income", "Members", "State");
-        writer.println("-------------------------------------------------------");
+        writer.newLine().text("Households with Income Above Average ($").decimal(average).text("):").newLine();
+        printListingHeader();
 
-        for (Household h : households) {
-            if (h.getIncome() > average) {
-                writer.println(h);
-            }
-        }
+        new FusedAnalyticsEngine(thresholds).forEachAboveAverage(households, average, this::printHousehold);
     }
     //***************************************************************
     //
@@ -185,25 +264,24 @@ public class Program3 {
     //
     //***************************************************************
     public void printBelowFPL() {
-        Map<Integer, Double> fplMap = fetchFPLBySize("us");
+        writer.newLine().line("Households Below 2025 Poverty Level:");
+        writer.column("ID", 6).text(" ").column("Income", 12).text(" ").column("FPL", 14).text(" ")
+                .column("Members", 8).text(" ").text("State").newLine();
+        writer.line("-------------------------------------------------------------------");
 
-        writer.printf("%nHouseholds Below 2025 Poverty Level:%n");
-        writer.printf("%-6s %-12s %-14s %-8s %s%n", "ID", "Income", "FPL", "Members", "State");
-        writer.println("-------------------------------------------------------------------");
-
-        for (Household h : households) {
-            double fpl = fplMap.getOrDefault(h.getMembers(), Double.MAX_VALUE);
-            if (h.getIncome() < fpl) {
-                writer.printf("%-6d %-12.2f %-14.2f %-8d %s%n",
-                        h.getId(), h.getIncome(), fpl, h.getMembers(), h.getState());
-            }
+        for (int row = 0; row < belowFPLCount; row++) {
+            int i = belowFPLRows[row];
+            int members = households.getMembers(i);
+            writer.column(households.getId(i), 6).text(" ").decimalColumn(households.getIncome(i), 12).text(" ")
+                    .decimalColumn(thresholds.povertyLevel(members), 14).text(" ")
+                    .column(members, 8).text(" ").text(households.getState(i)).newLine();
         }
     }
     //***************************************************************
     //
     //  Method:       printPercentBelowFPL
     // 
-    //  Description:  Calculates percentage of households below FPL.
+    //  Description:  Prints the percentage of households below FPL.
     //
     //  Parameters:   None
     //
@@ -211,22 +289,14 @@ public class Program3 {
     //
     //***************************************************************
     public void printPercentBelowFPL() {
-        Map<Integer, Double> fplMap = fetchFPLBySize("us");
-        int below = 0;
-
-        for (Household h : households) {
-            double fpl = fplMap.getOrDefault(h.getMembers(), Double.MAX_VALUE);
-            if (h.getIncome() < fpl) below++;
-        }
-
-        double percent = (below * 100.0) / households.size();
-        writer.printf("%nPercentage of households below FPL: %.2f%%%n", percent);
+        writer.newLine().text("Percentage of households below FPL: ").decimal(totals.getPercentBelowPoverty())
+                .text("%").newLine();
     }
     //***************************************************************
     //
     //  Method:       printPercentEligibleMedicaid
     // 
-    //  Description:  Calculates percentage eligible under 138% FPL.
+    //  Description:  Prints the percentage eligible under 138% FPL.
     //
     //  Parameters:   None
     //
@@ -234,122 +304,39 @@ public class Program3 {
     //
     //***************************************************************
     public void printPercentEligibleMedicaid() {
-        int eligible = 0;
-        for (Household h : households) {
-            double base, per;
-            String state = h.getState().toLowerCase();
-            if (state.equals("alaska")) {
-                base = alaskaBase;
-                per = alaskaPer;
-            } else if (state.equals("hawaii")) {
-                base = hawaiiBase;
-                per = hawaiiPer;
-            } else {
-                base = contigBase;
-                per = contigPer;
-            }
-
-            double fpl = base + per * (h.getMembers() - 2);
-            double threshold = fpl * 1.38;
-
-            if (h.getIncome() < threshold) {
-                eligible++;
-            }
-        }
-
-        double percent = (eligible * 100.0) / households.size();
-        writer.printf("%nPercentage of households eligible for Medicaid: %.2f%%%n", percent);
+        writer.newLine().text("Percentage of households eligible for Medicaid: ")
+                .decimal(totals.getPercentMedicaidEligible()).text("%").newLine();
     }
     //***************************************************************
     //
-    //  Method:       fetchFPLBySize
+    //  Method:       printHousehold
     // 
-    //  Description:  Queries the API for multiple household sizes.
+    //  Description:  Prints one household in the same layout as
+    //                Household.toString().
     //
-    //  Parameters:   String regionCode - region identifier (us/ak/hi)
+    //  Parameters:   int index - position in the household store
     //
-    //  Returns:      Map<Integer, Double> - mapping of size to income
+    //  Returns:      void
     //
     //***************************************************************
-    private Map<Integer, Double> fetchFPLBySize(String regionCode) {
-        Map<Integer, Double> map = new HashMap<>();
-        HttpClient client = HttpClient.newHttpClient();
-
-        for (int size = 1; size <= 12; size++) {
-            try {
-                String uri = "https://aspe.hhs.gov/topics/poverty-economic-mobility/poverty-guidelines/api/2025/" + regionCode + "/" + size;
-                HttpRequest request = HttpRequest.newBuilder().uri(URI.create(uri)).GET().build();
-                HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
-                String body = response.body();
-                double income = extractIncomeFromJson(body);
-                map.put(size, income);
-            } catch (Exception e) {
-                System.out.println("API Error for size " + size);
-            }
-        }
-        return map;
+    private void printHousehold(int index) {
+        writer.column(households.getId(index), 6).text(" ").decimalColumn(households.getIncome(index), 12).text(" ")
+                .column(households.getMembers(index), 8).text(" ").text(households.getState(index)).newLine();
     }
     //***************************************************************
     //
-    //  Method:       fetchFPLFormulas
+    //  Method:       printListingHeader
     // 
-    //  Description:  Retrieves FPL base and rate for each region.
+    //  Description:  Prints the column headings of a household listing.
     //
     //  Parameters:   None
     //
     //  Returns:      void
     //
     //***************************************************************
-    private void fetchFPLFormulas() {
-        contigBase = getFPL("us", 2);
-        contigPer = (getFPL("us", 4) - contigBase) / 2;
-
-        alaskaBase = getFPL("ak", 2);
-        alaskaPer = (getFPL("ak", 4) - alaskaBase) / 2;
-
-        hawaiiBase = getFPL("hi", 2);
-        hawaiiPer = (getFPL("hi", 4) - hawaiiBase) / 2;
-    }
-    //***************************************************************
-    //
-    //  Method:       getFPL
-    // 
-    //  Description:  Retrieves FPL income for a single household size.
-    //
-    //  Parameters:   String region, int size
-    //
-    //  Returns:      double - FPL income
-    //
-    //***************************************************************
-    private double getFPL(String region, int size) {
-        try {
-            String uri = "https://aspe.hhs.gov/topics/poverty-economic-mobility/poverty-guidelines/api/2025/" + region + "/" + size;
-            HttpRequest request = HttpRequest.newBuilder().uri(URI.create(uri)).GET().build();
-            HttpResponse<String> response = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofString());
-            return extractIncomeFromJson(response.body());
-        } catch (Exception e) {
-            System.out.println("Error fetching FPL for " + region + " size " + size);
-            return 0;
-        }
-    }
-    //***************************************************************
-    //
-    //  Method:       extractIncomeFromJson
-    // 
-    //  Description:  Parses a JSON string to extract income value.
-    //
-    //  Parameters:   String json - JSON response body
-    //
-    //  Returns:      double - extracted income value
-    //
-    //***************************************************************
-    private double extractIncomeFromJson(String json) {
-        int index = json.indexOf("\"income\":");
-        if (index == -1) return 0;
-        int start = index + 9;
-        int end = json.indexOf(",", start);
-        if (end == -1) end = json.indexOf("}", start);
-        String value = json.substring(start, end).replaceAll("[^0-9.]", "").trim();
-        return Double.parseDouble(value);
+    private void printListingHeader() {
+        writer.column("ID", 6).text(" ").column("Income", 12).text(" ").column("Members", 8).text(" ")
+                .text("State").newLine();
+        writer.line("-------------------------------------------------------");
     }
 }
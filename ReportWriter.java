@@ -0,0 +1,415 @@
+//********************************************************************
+//
+//  Developer:     Mauricio Rivas
+//
+//  Program #:     Three
+//
+//  File Name:     ReportWriter.java
+//
+//  Course:        COSC 4301 Modern Programming
+//
+//  Due Date:      4/14/2025
+//
+//  Instructor:    Prof. Fred Kumi
+//
+//  Java Version:  11
+//
+//  Description:   This class writes the text reports. Rows are built
+//                 from fixed-width columns directly into a reusable
+//                 byte buffer that is written out in 64 KB blocks, so
+//                 no format string is parsed and no value is boxed per
+//                 row. Numbers are formatted by hand to give exactly
+//                 what printf gives for %d and %.2f; the rare values
+//                 where that is not clear-cut (near a rounding tie,
+//                 very large, negative, or a locale that does not use
+//                 ASCII digits and '.') are handed to String.format.
+//
+//********************************************************************
+
+import java.io.Closeable;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.Locale;
+
+public class ReportWriter implements Closeable {
+    private static final int BUFFER_BYTES = 1 << 16;
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+    private static final double MAX_FAST_DECIMAL = 1e9;
+    private static final double TIE_MARGIN = 1e-4;
+
+    private final OutputStream out;
+    private final Charset charset = Charset.defaultCharset();
+    private final Locale locale = Locale.getDefault(Locale.Category.FORMAT);
+    private final boolean plainNumbers;
+    private final byte[] buffer = new byte[BUFFER_BYTES];
+    private final char[] digits = new char[20];
+    private final RunMetrics metrics = RunMetrics.getShared();
+    private int position;
+    private boolean error;
+    //***************************************************************
+    //
+    //  Method:       ReportWriter (Constructor)
+    //
+    //  Description:  Creates a writer that replaces the given file.
+    //
+    //  Parameters:   String fileName - output file
+    //
+    //  Returns:      None
+    //
+    //***************************************************************
+    public ReportWriter(String fileName) throws FileNotFoundException {
+        this(new FileOutputStream(fileName));
+    }
+    //***************************************************************
+    //
+    //  Method:       ReportWriter (Constructor)
+    //
+    //  Description:  Creates a writer over a stream. Hand-formatted
+    //                numbers are used only if the default locale
+    //                formats them as plain ASCII.
+    //
+    //  Parameters:   OutputStream out - destination
+    //
+    //  Returns:      None
+    //
+    //***************************************************************
+    public ReportWriter(OutputStream out) {
+        this.out = out;
+        this.plainNumbers = String.format(locale, "%d %.2f", -1234567890L, 1.5).equals("-1234567890 1.50");
+    }
+    //***************************************************************
+    //
+    //  Method:       text
+    //
+    //  Description:  Writes a string as is (printf "%s").
+    //
+    //  Parameters:   String value - text to write
+    //
+    //  Returns:      ReportWriter - this writer
+    //
+    //***************************************************************
+    public ReportWriter text(String value) {
+        String text = String.valueOf(value);
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            if (text.charAt(i) >= 0x80) {
+                writeBytes(text.getBytes(charset));
+                return this;
+            }
+        }
+        for (int i = 0; i < length; i++) {
+            if (position == buffer.length) {
+                flushBuffer();
+            }
+            buffer[position++] = (byte) text.charAt(i);
+        }
+        return this;
+    }
+    //***************************************************************
+    //
+    //  Method:       column
+    //
+    //  Description:  Writes a left-aligned text column (printf "%-Ns").
+    //
+    //  Parameters:   String value - text to write
+    //                int width    - minimum width in characters
+    //
+    //  Returns:      ReportWriter - this writer
+    //
+    //***************************************************************
+    public ReportWriter column(String value, int width) {
+        String text = String.valueOf(value);
+        text(text);
+        return pad(width - text.length());
+    }
+    //***************************************************************
+    //
+    //  Method:       column
+    //
+    //  Description:  Writes a left-aligned integer column (printf
+    //                "%-Nd").
+    //
+    //  Parameters:   long value - number to write
+    //                int width  - minimum width in characters
+    //
+    //  Returns:      ReportWriter - this writer
+    //
+    //***************************************************************
+    public ReportWriter column(long value, int width) {
+        if (!plainNumbers) {
+            return column(String.format(locale, "%d", value), width);
+        }
+        int start = integerDigits(value);
+        writeDigits(start);
+        return pad(width - (digits.length - start));
+    }
+    //***************************************************************
+    //
+    //  Method:       decimal
+    //
+    //  Description:  Writes a number with two decimals (printf "%.2f").
+    //
+    //  Parameters:   double value - number to write
+    //
+    //  Returns:      ReportWriter - this writer
+    //
+    //***************************************************************
+    public ReportWriter decimal(double value) {
+        return decimalColumn(value, 0);
+    }
+    //***************************************************************
+    //
+    //  Method:       decimalColumn
+    //
+    //  Description:  Writes a left-aligned column with two decimals
+    //                (printf "%-N.2f"). Non-negative values below one
+    //                billion that are not within a hair of a rounding
+    //                tie are rounded by hand, which matches Formatter's
+    //                half-up rounding; anything else uses Formatter.
+    //
+    //  Parameters:   double value - number to write
+    //                int width    - minimum width in characters
+    //
+    //  Returns:      ReportWriter - this writer
+    //
+    //***************************************************************
+    public ReportWriter decimalColumn(double value, int width) {
+        long cents = plainNumbers ? roundedCents(value) : -1;
+        if (cents < 0) {
+            return column(String.format(locale, "%.2f", value), width);
+        }
+        int start = integerDigits(cents / 100);
+        writeDigits(start);
+        int fraction = (int) (cents % 100);
+        write('.');
+        write((char) ('0' + fraction / 10));
+        write((char) ('0' + fraction % 10));
+        return pad(width - (digits.length - start) - 3);
+    }
+    //***************************************************************
+    //
+    //  Method:       newLine
+    //
+    //  Description:  Ends the current line (printf "%n").
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      ReportWriter - this writer
+    //
+    //***************************************************************
+    public ReportWriter newLine() {
+        return text(LINE_SEPARATOR);
+    }
+    //***************************************************************
+    //
+    //  Method:       line
+    //
+    //  Description:  Writes a string and ends the line (println).
+    //
+    //  Parameters:   String value - text to write
+    //
+    //  Returns:      ReportWriter - this writer
+    //
+    //***************************************************************
+    public ReportWriter line(String value) {
+        return text(value).newLine();
+    }
+    //***************************************************************
+    //
+    //  Method:       checkError
+    //
+    //  Description:  Flushes the writer and tells whether any write
+    //                has failed. Like PrintWriter, the writing methods
+    //                do not throw.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      boolean - true if an I/O error occurred
+    //
+    //***************************************************************
+    public boolean checkError() {
+        flushBuffer();
+        return error;
+    }
+    //***************************************************************
+    //
+    //  Method:       close
+    //
+    //  Description:  Writes out anything buffered and closes the
+    //                stream.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    @Override
+    public void close() {
+        flushBuffer();
+        long start = metrics.start();
+        try {
+            out.close();
+        } catch (IOException e) {
+            error = true;
+        }
+        metrics.stop(RunMetrics.STAGE_WRITE, start);
+    }
+    //***************************************************************
+    //
+    //  Method:       roundedCents
+    //
+    //  Description:  Rounds a value to whole cents, half up.
+    //
+    //  Parameters:   double value - number to round
+    //
+    //  Returns:      long - cents, or -1 if the value must be left to
+    //                Formatter
+    //
+    //***************************************************************
+    static long roundedCents(double value) {
+        if (!(value < MAX_FAST_DECIMAL) || Double.doubleToRawLongBits(value) < 0) {
+            return -1;
+        }
+        double scaled = value * 100;
+        long whole = (long) scaled;
+        double fraction = scaled - whole;
+        if (Math.abs(fraction - 0.5) < TIE_MARGIN) {
+            return -1;
+        }
+        return fraction > 0.5 ? whole + 1 : whole;
+    }
+    //***************************************************************
+    //
+    //  Method:       integerDigits
+    //
+    //  Description:  Puts the decimal digits of a whole number, with
+    //                its sign, at the end of the digit array.
+    //
+    //  Parameters:   long value - number to write
+    //
+    //  Returns:      int - index of the first digit
+    //
+    //***************************************************************
+    private int integerDigits(long value) {
+        int start = digits.length;
+        long remaining = Math.abs(value);
+        do {
+            digits[--start] = (char) ('0' + Math.abs(remaining % 10));
+            remaining /= 10;
+        } while (remaining != 0);
+        if (value < 0) {
+            digits[--start] = '-';
+        }
+        return start;
+    }
+    //***************************************************************
+    //
+    //  Method:       writeDigits
+    //
+    //  Description:  Writes the digit array from the given index to
+    //                its end.
+    //
+    //  Parameters:   int start - index of the first digit
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    private void writeDigits(int start) {
+        for (int i = start; i < digits.length; i++) {
+            write(digits[i]);
+        }
+    }
+    //***************************************************************
+    //
+    //  Method:       pad
+    //
+    //  Description:  Writes the given number of spaces.
+    //
+    //  Parameters:   int count - spaces to write
+    //
+    //  Returns:      ReportWriter - this writer
+    //
+    //***************************************************************
+    private ReportWriter pad(int count) {
+        for (int i = 0; i < count; i++) {
+            write(' ');
+        }
+        return this;
+    }
+    //***************************************************************
+    //
+    //  Method:       write
+    //
+    //  Description:  Writes one ASCII character, flushing the buffer
+    //                first when it is full.
+    //
+    //  Parameters:   char c - character to write
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    private void write(char c) {
+        if (position == buffer.length) {
+            flushBuffer();
+        }
+        buffer[position++] = (byte) c;
+    }
+    //***************************************************************
+    //
+    //  Method:       writeBytes
+    //
+    //  Description:  Writes encoded text, copying it into the buffer
+    //                or, when it is larger than the buffer, straight
+    //                to the stream.
+    //
+    //  Parameters:   byte[] bytes - encoded text
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    private void writeBytes(byte[] bytes) {
+        if (bytes.length > buffer.length - position) {
+            flushBuffer();
+        }
+        if (bytes.length > buffer.length) {
+            long start = metrics.start();
+            try {
+                out.write(bytes);
+            } catch (IOException e) {
+                error = true;
+            }
+            metrics.stop(RunMetrics.STAGE_WRITE, start);
+            return;
+        }
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+    }
+    //***************************************************************
+    //
+    //  Method:       flushBuffer
+    //
+    //  Description:  Writes the buffered bytes to the stream and
+    //                empties the buffer. A failed write is remembered
+    //                for checkError.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    private void flushBuffer() {
+        if (position > 0) {
+            long start = metrics.start();
+            try {
+                out.write(buffer, 0, position);
+            } catch (IOException e) {
+                error = true;
+            }
+            metrics.stop(RunMetrics.STAGE_WRITE, start);
+            position = 0;
+        }
+    }
+}
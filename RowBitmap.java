@@ -0,0 +1,769 @@
+//********************************************************************
+//
+//  Developer:     Mauricio Rivas
+//
+//  Program #:     Three
+//
+//  File Name:     RowBitmap.java
+//
+//  Course:        COSC 4301 Modern Programming
+//
+//  Due Date:      4/14/2025
+//
+//  Instructor:    Prof. Fred Kumi
+//
+//  Java Version:  11
+//
+//  Description:   This class is a compressed, immutable set of row
+//                 numbers laid out the way Roaring bitmaps are: rows
+//                 are split by their high 16 bits into containers of
+//                 up to 65536 rows. A container with at most 4096 rows
+//                 is a sorted char array (2 bytes a row); a fuller one
+//                 is a 1024-word bitmap (8 KB, 1 bit a row). AND, OR,
+//                 and AND NOT work container by container, so their
+//                 cost follows the number of stored rows, not the
+//                 size of the table they came from.
+//
+//********************************************************************
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+
+public final class RowBitmap {
+    private static final int ARRAY_MAX = 4096;
+    private static final int WORDS = 1024;
+    private static final int CONTAINER_ROWS = 1 << 16;
+    private static final int LOW_MASK = CONTAINER_ROWS - 1;
+    private static final RowBitmap EMPTY = new Appender(0).build();
+
+    private final char[] keys;
+    private final char[][] arrays;
+    private final long[][] bitmaps;
+    private final int[] sizes;
+    private final long cardinality;
+    //***************************************************************
+    //
+    //  Method:       RowBitmap (Constructor)
+    //
+    //  Description:  Wraps built containers and counts their rows.
+    //                Each container has either an array or a bitmap.
+    //
+    //  Parameters:   char[] keys      - high 16 bits per container
+    //                char[][] arrays  - sorted low bits, or null
+    //                long[][] bitmaps - 1024-word bitmaps, or null
+    //                int[] sizes      - rows in each container
+    //
+    //  Returns:      None
+    //
+    //***************************************************************
+    private RowBitmap(char[] keys, char[][] arrays, long[][] bitmaps, int[] sizes) {
+        this.keys = keys;
+        this.arrays = arrays;
+        this.bitmaps = bitmaps;
+        this.sizes = sizes;
+        long total = 0;
+        for (int size : sizes) {
+            total += size;
+        }
+        this.cardinality = total;
+    }
+    //***************************************************************
+    //
+    //  Method:       empty
+    //
+    //  Description:  Returns the bitmap with no rows.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      RowBitmap - empty bitmap
+    //
+    //***************************************************************
+    public static RowBitmap empty() {
+        return EMPTY;
+    }
+    //***************************************************************
+    //
+    //  Method:       of
+    //
+    //  Description:  Builds a bitmap from rows in ascending order.
+    //
+    //  Parameters:   int[] rows - row numbers, ascending, no repeats
+    //                int from   - first entry to use
+    //                int to     - end of the entries, exclusive
+    //
+    //  Returns:      RowBitmap - the rows
+    //
+    //***************************************************************
+    public static RowBitmap of(int[] rows, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (rows[i] < 0 || (i > from && rows[i] <= rows[i - 1])) {
+                throw new IllegalArgumentException("Rows must be non-negative and ascending at entry " + i);
+            }
+        }
+        Appender out = new Appender(to > from ? ((rows[to - 1] >>> 16) - (rows[from] >>> 16) + 1) : 0);
+        int start = from;
+        while (start < to) {
+            int key = rows[start] >>> 16;
+            int end = start + 1;
+            while (end < to && rows[end] >>> 16 == key) {
+                end++;
+            }
+            int count = end - start;
+            if (count <= ARRAY_MAX) {
+                char[] array = new char[count];
+                for (int i = 0; i < count; i++) {
+                    array[i] = (char) rows[start + i];
+                }
+                out.add(key, array, null, count);
+            } else {
+                long[] words = new long[WORDS];
+                for (int i = start; i < end; i++) {
+                    int low = rows[i] & LOW_MASK;
+                    words[low >>> 6] |= 1L << low;
+                }
+                out.add(key, null, words, count);
+            }
+            start = end;
+        }
+        return out.build();
+    }
+    //***************************************************************
+    //
+    //  Method:       ofUnsorted
+    //
+    //  Description:  Builds a bitmap from rows in any order, repeats
+    //                allowed. Rows are grouped by container with a
+    //                counting pass and set in a bitmap per container,
+    //                so no sort is needed.
+    //
+    //  Parameters:   int[] rows - row numbers
+    //                int from   - first entry to use
+    //                int to     - end of the entries, exclusive
+    //
+    //  Returns:      RowBitmap - the rows
+    //
+    //***************************************************************
+    public static RowBitmap ofUnsorted(int[] rows, int from, int to) {
+        int maxKey = 0;
+        for (int i = from; i < to; i++) {
+            if (rows[i] < 0) {
+                throw new IllegalArgumentException("Rows must be non-negative at entry " + i);
+            }
+            maxKey = Math.max(maxKey, rows[i] >>> 16);
+        }
+        int[] starts = new int[maxKey + 2];
+        for (int i = from; i < to; i++) {
+            starts[(rows[i] >>> 16) + 1]++;
+        }
+        for (int key = 0; key <= maxKey; key++) {
+            starts[key + 1] += starts[key];
+        }
+        int[] grouped = new int[to - from];
+        int[] fill = Arrays.copyOf(starts, maxKey + 1);
+        for (int i = from; i < to; i++) {
+            grouped[fill[rows[i] >>> 16]++] = rows[i];
+        }
+        Appender out = new Appender(0);
+        for (int key = 0; key <= maxKey; key++) {
+            if (starts[key] == starts[key + 1]) {
+                continue;
+            }
+            long[] words = new long[WORDS];
+            for (int i = starts[key]; i < starts[key + 1]; i++) {
+                int low = grouped[i] & LOW_MASK;
+                words[low >>> 6] |= 1L << low;
+            }
+            out.addWords(key, words);
+        }
+        return out.build();
+    }
+    //***************************************************************
+    //
+    //  Method:       range
+    //
+    //  Description:  Builds a bitmap of every row from one number up
+    //                to another, such as all the rows of a table.
+    //
+    //  Parameters:   int from - first row
+    //                int to   - end of the rows, exclusive
+    //
+    //  Returns:      RowBitmap - the rows
+    //
+    //***************************************************************
+    public static RowBitmap range(int from, int to) {
+        if (from < 0 || to < from) {
+            throw new IllegalArgumentException("Bad row range " + from + " to " + to);
+        }
+        Appender out = new Appender(to > from ? ((to - 1) >>> 16) - (from >>> 16) + 1 : 0);
+        int start = from;
+        while (start < to) {
+            int key = start >>> 16;
+            int end = (int) Math.min(to, ((long) key + 1) << 16);
+            int count = end - start;
+            if (count <= ARRAY_MAX) {
+                char[] array = new char[count];
+                for (int i = 0; i < count; i++) {
+                    array[i] = (char) (start + i);
+                }
+                out.add(key, array, null, count);
+            } else {
+                long[] words = new long[WORDS];
+                for (int low = start & LOW_MASK; low <= ((end - 1) & LOW_MASK); low++) {
+                    words[low >>> 6] |= 1L << low;
+                }
+                out.add(key, null, words, count);
+            }
+            start = end;
+        }
+        return out.build();
+    }
+    //***************************************************************
+    //
+    //  Method:       and
+    //
+    //  Description:  Returns the rows in both bitmaps.
+    //
+    //  Parameters:   RowBitmap other - rows to intersect with
+    //
+    //  Returns:      RowBitmap - the common rows
+    //
+    //***************************************************************
+    public RowBitmap and(RowBitmap other) {
+        Appender out = new Appender(Math.min(keys.length, other.keys.length));
+        int i = 0;
+        int j = 0;
+        while (i < keys.length && j < other.keys.length) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                char[] a = arrays[i];
+                char[] b = other.arrays[j];
+                if (a != null && b != null) {
+                    out.add(keys[i], intersect(a, b));
+                } else if (a != null) {
+                    out.add(keys[i], select(a, other.bitmaps[j], true));
+                } else if (b != null) {
+                    out.add(keys[i], select(b, bitmaps[i], true));
+                } else {
+                    long[] words = new long[WORDS];
+                    for (int w = 0; w < WORDS; w++) {
+                        words[w] = bitmaps[i][w] & other.bitmaps[j][w];
+                    }
+                    out.addWords(keys[i], words);
+                }
+                i++;
+                j++;
+            }
+        }
+        return out.build();
+    }
+    //***************************************************************
+    //
+    //  Method:       or
+    //
+    //  Description:  Returns the rows in either bitmap. Containers
+    //                found in only one bitmap are shared, not copied.
+    //
+    //  Parameters:   RowBitmap other - rows to add
+    //
+    //  Returns:      RowBitmap - all rows of both
+    //
+    //***************************************************************
+    public RowBitmap or(RowBitmap other) {
+        Appender out = new Appender(keys.length + other.keys.length);
+        int i = 0;
+        int j = 0;
+        while (i < keys.length || j < other.keys.length) {
+            if (j == other.keys.length || (i < keys.length && keys[i] < other.keys[j])) {
+                out.add(keys[i], arrays[i], bitmaps[i], sizes[i]);
+                i++;
+            } else if (i == keys.length || keys[i] > other.keys[j]) {
+                out.add(other.keys[j], other.arrays[j], other.bitmaps[j], other.sizes[j]);
+                j++;
+            } else {
+                char[] a = arrays[i];
+                char[] b = other.arrays[j];
+                long[] words;
+                if (a != null && b != null) {
+                    char[] union = union(a, b);
+                    if (union.length <= ARRAY_MAX) {
+                        out.add(keys[i], union);
+                        i++;
+                        j++;
+                        continue;
+                    }
+                    words = toWords(union);
+                } else if (a != null || b != null) {
+                    words = (a != null ? other.bitmaps[j] : bitmaps[i]).clone();
+                    for (char low : a != null ? a : b) {
+                        words[low >>> 6] |= 1L << low;
+                    }
+                } else {
+                    words = new long[WORDS];
+                    for (int w = 0; w < WORDS; w++) {
+                        words[w] = bitmaps[i][w] | other.bitmaps[j][w];
+                    }
+                }
+                out.addWords(keys[i], words);
+                i++;
+                j++;
+            }
+        }
+        return out.build();
+    }
+    //***************************************************************
+    //
+    //  Method:       andNot
+    //
+    //  Description:  Returns the rows of this bitmap that are not in
+    //                the other one.
+    //
+    //  Parameters:   RowBitmap other - rows to remove
+    //
+    //  Returns:      RowBitmap - the remaining rows
+    //
+    //***************************************************************
+    public RowBitmap andNot(RowBitmap other) {
+        Appender out = new Appender(keys.length);
+        int j = 0;
+        for (int i = 0; i < keys.length; i++) {
+            while (j < other.keys.length && other.keys[j] < keys[i]) {
+                j++;
+            }
+            if (j == other.keys.length || other.keys[j] != keys[i]) {
+                out.add(keys[i], arrays[i], bitmaps[i], sizes[i]);
+                continue;
+            }
+            char[] a = arrays[i];
+            char[] b = other.arrays[j];
+            if (a != null && b != null) {
+                out.add(keys[i], difference(a, b));
+            } else if (a != null) {
+                out.add(keys[i], select(a, other.bitmaps[j], false));
+            } else {
+                long[] words = bitmaps[i].clone();
+                if (b != null) {
+                    for (char low : b) {
+                        words[low >>> 6] &= ~(1L << low);
+                    }
+                } else {
+                    for (int w = 0; w < WORDS; w++) {
+                        words[w] &= ~other.bitmaps[j][w];
+                    }
+                }
+                out.addWords(keys[i], words);
+            }
+        }
+        return out.build();
+    }
+    //***************************************************************
+    //
+    //  Method:       filter
+    //
+    //  Description:  Returns the rows that pass a test, checking only
+    //                the rows in this bitmap.
+    //
+    //  Parameters:   IntPredicate keep - test of one row
+    //
+    //  Returns:      RowBitmap - the rows that passed
+    //
+    //***************************************************************
+    public RowBitmap filter(IntPredicate keep) {
+        Appender out = new Appender(keys.length);
+        char[] kept = new char[CONTAINER_ROWS];
+        for (int c = 0; c < keys.length; c++) {
+            int high = keys[c] << 16;
+            int count = 0;
+            if (arrays[c] != null) {
+                for (char low : arrays[c]) {
+                    if (keep.test(high | low)) {
+                        kept[count++] = low;
+                    }
+                }
+            } else {
+                long[] words = bitmaps[c];
+                for (int w = 0; w < WORDS; w++) {
+                    for (long word = words[w]; word != 0; word &= word - 1) {
+                        int low = w << 6 | Long.numberOfTrailingZeros(word);
+                        if (keep.test(high | low)) {
+                            kept[count++] = (char) low;
+                        }
+                    }
+                }
+            }
+            if (count <= ARRAY_MAX) {
+                out.add(keys[c], Arrays.copyOf(kept, count));
+            } else {
+                out.add(keys[c], null, toWords(Arrays.copyOf(kept, count)), count);
+            }
+        }
+        return out.build();
+    }
+    //***************************************************************
+    //
+    //  Method:       forEach
+    //
+    //  Description:  Passes one page of the rows, in ascending order,
+    //                to an action. Whole containers before the page
+    //                are skipped by their stored counts.
+    //
+    //  Parameters:   long skip          - rows to pass over first
+    //                long limit         - most rows to pass on
+    //                IntConsumer action - receives each row
+    //
+    //  Returns:      boolean - true if rows remain after the page
+    //
+    //***************************************************************
+    public boolean forEach(long skip, long limit, IntConsumer action) {
+        long remaining = limit;
+        for (int c = 0; c < keys.length; c++) {
+            if (skip >= sizes[c]) {
+                skip -= sizes[c];
+                continue;
+            }
+            int high = keys[c] << 16;
+            if (arrays[c] != null) {
+                char[] array = arrays[c];
+                for (int i = (int) skip; i < array.length; i++) {
+                    if (remaining-- == 0) {
+                        return true;
+                    }
+                    action.accept(high | array[i]);
+                }
+            } else {
+                long[] words = bitmaps[c];
+                for (int w = 0; w < WORDS; w++) {
+                    long word = words[w];
+                    if (skip >= Long.bitCount(word)) {
+                        skip -= Long.bitCount(word);
+                        continue;
+                    }
+                    for (; word != 0; word &= word - 1) {
+                        if (skip > 0) {
+                            skip--;
+                        } else if (remaining-- == 0) {
+                            return true;
+                        } else {
+                            action.accept(high | w << 6 | Long.numberOfTrailingZeros(word));
+                        }
+                    }
+                }
+            }
+            skip = 0;
+        }
+        return false;
+    }
+    //***************************************************************
+    //
+    //  Method:       cardinality
+    //
+    //  Description:  Returns the number of rows in the bitmap.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      long - row count
+    //
+    //***************************************************************
+    public long cardinality() {
+        return cardinality;
+    }
+    //***************************************************************
+    //
+    //  Method:       isEmpty
+    //
+    //  Description:  Tells whether the bitmap has no rows.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      boolean - true if empty
+    //
+    //***************************************************************
+    public boolean isEmpty() {
+        return cardinality == 0;
+    }
+    //***************************************************************
+    //
+    //  Method:       getSizeInBytes
+    //
+    //  Description:  Estimates the heap used by the bitmap, counting
+    //                16 bytes per array header and 4-byte references.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      long - approximate bytes
+    //
+    //***************************************************************
+    public long getSizeInBytes() {
+        long bytes = 24 + 4 * 16 + keys.length * (Character.BYTES + Integer.BYTES + 2L * 4);
+        for (int c = 0; c < keys.length; c++) {
+            bytes += 16 + (arrays[c] != null ? arrays[c].length * (long) Character.BYTES : WORDS * (long) Long.BYTES);
+        }
+        return bytes;
+    }
+    //***************************************************************
+    //
+    //  Method:       intersect
+    //
+    //  Description:  Returns the values in both sorted arrays.
+    //
+    //  Parameters:   char[] a - sorted rows
+    //                char[] b - sorted rows
+    //
+    //  Returns:      char[] - sorted values in both
+    //
+    //***************************************************************
+    private static char[] intersect(char[] a, char[] b) {
+        char[] out = new char[Math.min(a.length, b.length)];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                out[count++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(out, count);
+    }
+    //***************************************************************
+    //
+    //  Method:       union
+    //
+    //  Description:  Returns the values in either sorted array.
+    //
+    //  Parameters:   char[] a - sorted rows
+    //                char[] b - sorted rows
+    //
+    //  Returns:      char[] - sorted values in either
+    //
+    //***************************************************************
+    private static char[] union(char[] a, char[] b) {
+        char[] out = new char[a.length + b.length];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.length || j < b.length) {
+            if (j == b.length || (i < a.length && a[i] < b[j])) {
+                out[count++] = a[i++];
+            } else if (i == a.length || a[i] > b[j]) {
+                out[count++] = b[j++];
+            } else {
+                out[count++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(out, count);
+    }
+    //***************************************************************
+    //
+    //  Method:       difference
+    //
+    //  Description:  Returns the values of the first sorted array
+    //                that are not in the second.
+    //
+    //  Parameters:   char[] a - sorted rows
+    //                char[] b - sorted rows
+    //
+    //  Returns:      char[] - sorted values only in a
+    //
+    //***************************************************************
+    private static char[] difference(char[] a, char[] b) {
+        char[] out = new char[a.length];
+        int count = 0;
+        int j = 0;
+        for (char value : a) {
+            while (j < b.length && b[j] < value) {
+                j++;
+            }
+            if (j == b.length || b[j] != value) {
+                out[count++] = value;
+            }
+        }
+        return Arrays.copyOf(out, count);
+    }
+    //***************************************************************
+    //
+    //  Method:       select
+    //
+    //  Description:  Returns the values of a sorted array whose bit
+    //                in a bitmap container is set, or clear.
+    //
+    //  Parameters:   char[] values - sorted rows
+    //                long[] words  - bitmap container
+    //                boolean set   - true to keep set bits
+    //
+    //  Returns:      char[] - sorted values kept
+    //
+    //***************************************************************
+    private static char[] select(char[] values, long[] words, boolean set) {
+        char[] out = new char[values.length];
+        int count = 0;
+        for (char value : values) {
+            if (((words[value >>> 6] & (1L << value)) != 0) == set) {
+                out[count++] = value;
+            }
+        }
+        return Arrays.copyOf(out, count);
+    }
+    //***************************************************************
+    //
+    //  Method:       toWords
+    //
+    //  Description:  Converts an array container to a bitmap
+    //                container.
+    //
+    //  Parameters:   char[] values - sorted rows
+    //
+    //  Returns:      long[] - the 1024-word bitmap
+    //
+    //***************************************************************
+    private static long[] toWords(char[] values) {
+        long[] words = new long[WORDS];
+        for (char value : values) {
+            words[value >>> 6] |= 1L << value;
+        }
+        return words;
+    }
+
+    //***************************************************************
+    //
+    //  Class:        Appender
+    //
+    //  Description:  Collects containers in key order while a bitmap
+    //                is built. Empty containers are dropped, and bitmap
+    //                containers that have thinned out are turned back
+    //                into arrays.
+    //
+    //***************************************************************
+    private static final class Appender {
+        private char[] keys;
+        private char[][] arrays;
+        private long[][] bitmaps;
+        private int[] sizes;
+        private int count;
+        //***************************************************************
+        //
+        //  Method:       Appender (Constructor)
+        //
+        //  Description:  Creates an appender with room for the given
+        //                number of containers.
+        //
+        //  Parameters:   int capacity - expected containers
+        //
+        //  Returns:      None
+        //
+        //***************************************************************
+        Appender(int capacity) {
+            keys = new char[capacity];
+            arrays = new char[capacity][];
+            bitmaps = new long[capacity][];
+            sizes = new int[capacity];
+        }
+        //***************************************************************
+        //
+        //  Method:       add
+        //
+        //  Description:  Appends an array container.
+        //
+        //  Parameters:   int key      - high 16 bits
+        //                char[] array - sorted low bits
+        //
+        //  Returns:      void
+        //
+        //***************************************************************
+        void add(int key, char[] array) {
+            add(key, array, null, array.length);
+        }
+        //***************************************************************
+        //
+        //  Method:       add
+        //
+        //  Description:  Appends a container, skipping it if it is empty.
+        //
+        //  Parameters:   int key      - high 16 bits
+        //                char[] array - sorted low bits, or null
+        //                long[] words - bitmap, or null
+        //                int size     - rows in the container
+        //
+        //  Returns:      void
+        //
+        //***************************************************************
+        void add(int key, char[] array, long[] words, int size) {
+            if (size == 0) {
+                return;
+            }
+            if (count == keys.length) {
+                int capacity = Math.max(4, count * 2);
+                keys = Arrays.copyOf(keys, capacity);
+                arrays = Arrays.copyOf(arrays, capacity);
+                bitmaps = Arrays.copyOf(bitmaps, capacity);
+                sizes = Arrays.copyOf(sizes, capacity);
+            }
+            keys[count] = (char) key;
+            arrays[count] = array;
+            bitmaps[count] = words;
+            sizes[count++] = size;
+        }
+        //***************************************************************
+        //
+        //  Method:       addWords
+        //
+        //  Description:  Appends a bitmap container, turning it into an
+        //                array if it holds 4096 rows or fewer.
+        //
+        //  Parameters:   int key      - high 16 bits
+        //                long[] words - bitmap container
+        //
+        //  Returns:      void
+        //
+        //***************************************************************
+        void addWords(int key, long[] words) {
+            int size = 0;
+            for (long word : words) {
+                size += Long.bitCount(word);
+            }
+            if (size > ARRAY_MAX) {
+                add(key, null, words, size);
+                return;
+            }
+            char[] array = new char[size];
+            int i = 0;
+            for (int w = 0; w < WORDS; w++) {
+                for (long word = words[w]; word != 0; word &= word - 1) {
+                    array[i++] = (char) (w << 6 | Long.numberOfTrailingZeros(word));
+                }
+            }
+            add(key, array, null, size);
+        }
+        //***************************************************************
+        //
+        //  Method:       build
+        //
+        //  Description:  Trims the arrays to the containers added and
+        //                makes the bitmap.
+        //
+        //  Parameters:   None
+        //
+        //  Returns:      RowBitmap - the bitmap
+        //
+        //***************************************************************
+        RowBitmap build() {
+            if (count < keys.length) {
+                keys = Arrays.copyOf(keys, count);
+                arrays = Arrays.copyOf(arrays, count);
+                bitmaps = Arrays.copyOf(bitmaps, count);
+                sizes = Arrays.copyOf(sizes, count);
+            }
+            return new RowBitmap(keys, arrays, bitmaps, sizes);
+        }
+    }
+}
@@ -0,0 +1,627 @@
+//********************************************************************
+//
+//  Developer:     Mauricio Rivas
+//
+//  Program #:     Three
+//
+//  File Name:     RunMetrics.java
+//
+//  Course:        COSC 4301 Modern Programming
+//
+//  Due Date:      4/14/2025
+//
+//  Instructor:    Prof. Fred Kumi
+//
+//  Java Version:  11
+//
+//  Description:   This class records where a run spends its time:
+//                 the read, parse, fetch, aggregate, and write stages,
+//                 record and byte counts, FPL cache hits and misses,
+//                 HTTP latencies, retries, and errors. Metrics are on
+//                 when the metrics.file or metrics.jmx system property
+//                 is set; otherwise every hook is one branch on a
+//                 constant. Stages are timed per block or per call,
+//                 never per record, so the cost when enabled is a few
+//                 clock reads per 64 KB of input.
+//
+//********************************************************************
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLongArray;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+public class RunMetrics implements RunMetricsMBean {
+    public static final int STAGE_READ = 0;
+    public static final int STAGE_PARSE = 1;
+    public static final int STAGE_FETCH = 2;
+    public static final int STAGE_AGGREGATE = 3;
+    public static final int STAGE_WRITE = 4;
+
+    public static final int RECORDS = 0;
+    public static final int BYTES = 1;
+    public static final int CACHE_HITS = 2;
+    public static final int CACHE_MISSES = 3;
+    public static final int HTTP_REQUESTS = 4;
+    public static final int HTTP_ERRORS = 5;
+    public static final int RETRIES = 6;
+    public static final int ERRORS = 7;
+
+    public static final boolean ENABLED =
+            System.getProperty("metrics.file") != null || Boolean.getBoolean("metrics.jmx");
+
+    private static final String[] STAGE_NAMES = {"read", "parse", "fetch", "aggregate", "write"};
+    private static final String[] COUNTER_NAMES = {
+        "records", "bytes", "cacheHits", "cacheMisses", "httpRequests", "httpErrors", "retries", "errors"
+    };
+    private static final double[] LATENCY_BOUNDS_MILLIS = {
+        1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000, 5000, 10000
+    };
+    private static final String OBJECT_NAME = "household.analyzer:type=RunMetrics";
+    private static RunMetrics shared;
+
+    private final AtomicLongArray stageNanos = new AtomicLongArray(STAGE_NAMES.length);
+    private final AtomicLongArray counters = new AtomicLongArray(COUNTER_NAMES.length);
+    private final Histogram httpLatency = new Histogram(LATENCY_BOUNDS_MILLIS);
+    //***************************************************************
+    //
+    //  Method:       getShared
+    //
+    //  Description:  Returns the metrics of the whole program. The
+    //                first call registers the JMX MBean when
+    //                -Dmetrics.jmx=true is set.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      RunMetrics - the shared metrics
+    //
+    //***************************************************************
+    public static synchronized RunMetrics getShared() {
+        if (shared == null) {
+            shared = new RunMetrics();
+            if (Boolean.getBoolean("metrics.jmx")) {
+                try {
+                    ManagementFactory.getPlatformMBeanServer().registerMBean(shared, new ObjectName(OBJECT_NAME));
+                } catch (JMException e) {
+                    System.out.println("Error registering metrics MBean: " + e.getMessage());
+                }
+            }
+        }
+        return shared;
+    }
+    //***************************************************************
+    //
+    //  Method:       start
+    //
+    //  Description:  Reads the clock for a stage that stop will end.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      long - start time, or 0 when metrics are off
+    //
+    //***************************************************************
+    public long start() {
+        return ENABLED ? System.nanoTime() : 0;
+    }
+    //***************************************************************
+    //
+    //  Method:       stop
+    //
+    //  Description:  Adds the time since start to a stage.
+    //
+    //  Parameters:   int stage  - STAGE_ constant
+    //                long start - value returned by start
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    public void stop(int stage, long start) {
+        if (ENABLED) {
+            stageNanos.addAndGet(stage, System.nanoTime() - start);
+        }
+    }
+    //***************************************************************
+    //
+    //  Method:       stopExcluding
+    //
+    //  Description:  Ends a stage that contains time already charged
+    //                to another stage, so that time is not counted
+    //                twice. Parsing, for example, contains the reads of
+    //                the file it parses.
+    //
+    //  Parameters:   int stage          - STAGE_ constant to charge
+    //                long start         - value returned by start
+    //                int inner          - stage timed inside this one
+    //                long innerAtStart  - getStageNanos(inner) read when
+    //                                     the stage began
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    public void stopExcluding(int stage, long start, int inner, long innerAtStart) {
+        if (ENABLED) {
+            long innerTime = stageNanos.get(inner) - innerAtStart;
+            stageNanos.addAndGet(stage, System.nanoTime() - start - innerTime);
+        }
+    }
+    //***************************************************************
+    //
+    //  Method:       count
+    //
+    //  Description:  Adds to a counter.
+    //
+    //  Parameters:   int counter - counter constant, e.g. RECORDS
+    //                long amount - amount to add
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    public void count(int counter, long amount) {
+        if (ENABLED) {
+            counters.addAndGet(counter, amount);
+        }
+    }
+    //***************************************************************
+    //
+    //  Method:       httpRequest
+    //
+    //  Description:  Records one finished HTTP request.
+    //
+    //  Parameters:   long start     - value returned by start when the
+    //                                 request was sent
+    //                boolean failed - true if it gave no usable answer
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    public void httpRequest(long start, boolean failed) {
+        if (ENABLED) {
+            double millis = (System.nanoTime() - start) / 1e6;
+            counters.incrementAndGet(HTTP_REQUESTS);
+            if (failed) {
+                counters.incrementAndGet(HTTP_ERRORS);
+            }
+            synchronized (httpLatency) {
+                httpLatency.add(millis);
+            }
+        }
+    }
+    //***************************************************************
+    //
+    //  Method:       error
+    //
+    //  Description:  Counts an error and prints its message as the
+    //                program always has.
+    //
+    //  Parameters:   String message - error description
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    public void error(String message) {
+        count(ERRORS, 1);
+        System.out.println(message);
+    }
+    //***************************************************************
+    //
+    //  Method:       meter
+    //
+    //  Description:  Wraps an input stream so the time spent in its
+    //                reads is charged to the read stage and the bytes
+    //                are counted. Returns the stream itself when
+    //                metrics are off.
+    //
+    //  Parameters:   InputStream in - stream to measure
+    //
+    //  Returns:      InputStream - measured stream
+    //
+    //***************************************************************
+    public InputStream meter(InputStream in) {
+        if (!ENABLED) {
+            return in;
+        }
+        return new FilterInputStream(in) {
+            //***************************************************************
+            //
+            //  Method:       read
+            //
+            //  Description:  Reads from the wrapped stream, charging the time
+            //                to the read stage and counting the bytes.
+            //
+            //  Parameters:   byte[] bytes - buffer to fill
+            //                int offset   - first index to fill
+            //                int length   - most bytes to read
+            //
+            //  Returns:      int - bytes read, or -1 at the end
+            //
+            //***************************************************************
+            @Override
+            public int read(byte[] bytes, int offset, int length) throws IOException {
+                long begin = System.nanoTime();
+                int read = super.read(bytes, offset, length);
+                stageNanos.addAndGet(STAGE_READ, System.nanoTime() - begin);
+                if (read > 0) {
+                    counters.addAndGet(BYTES, read);
+                }
+                return read;
+            }
+        };
+    }
+    //***************************************************************
+    //
+    //  Method:       writeSummary
+    //
+    //  Description:  Writes the JSON summary to the file named by the
+    //                metrics.file property, if it is set.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    public void writeSummary() {
+        String fileName = System.getProperty("metrics.file");
+        if (fileName == null) {
+            return;
+        }
+        Path file = Paths.get(fileName);
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8))) {
+            out.println(getSummaryJson());
+        } catch (IOException e) {
+            System.out.println("Error writing metrics file: " + file);
+        }
+    }
+    //***************************************************************
+    //
+    //  Method:       getSummaryJson
+    //
+    //  Description:  Builds the JSON summary: stage times in
+    //                milliseconds, counters, throughput over the read
+    //                and parse stages, and the HTTP latency histogram.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      String - JSON object
+    //
+    //***************************************************************
+    @Override
+    public String getSummaryJson() {
+        StringBuilder json = new StringBuilder("{\n  \"stagesMillis\": {");
+        for (int stage = 0; stage < STAGE_NAMES.length; stage++) {
+            json.append(stage == 0 ? "" : ",").append("\n    \"").append(STAGE_NAMES[stage]).append("\": ")
+                    .append(number(getStageMillis(stage)));
+        }
+        json.append("\n  },\n  \"counters\": {");
+        for (int counter = 0; counter < COUNTER_NAMES.length; counter++) {
+            json.append(counter == 0 ? "" : ",").append("\n    \"").append(COUNTER_NAMES[counter]).append("\": ")
+                    .append(counters.get(counter));
+        }
+        json.append("\n  },\n  \"recordsPerSecond\": ").append(number(getRecordsPerSecond()))
+                .append(",\n  \"bytesPerSecond\": ").append(number(getBytesPerSecond()))
+                .append(",\n  \"httpLatencyMillis\": [");
+        synchronized (httpLatency) {
+            for (int bucket = 0; bucket < httpLatency.getBucketCount(); bucket++) {
+                double upper = httpLatency.getUpperBound(bucket);
+                json.append(bucket == 0 ? "" : ",").append("\n    {\"lessThan\": ")
+                        .append(Double.isInfinite(upper) ? "null" : number(upper))
+                        .append(", \"count\": ").append(httpLatency.getCount(bucket)).append("}");
+            }
+        }
+        return json.append("\n  ]\n}").toString();
+    }
+    //***************************************************************
+    //
+    //  Method:       getStageMillis
+    //
+    //  Description:  Returns the time spent in one stage.
+    //
+    //  Parameters:   int stage - a STAGE_ constant
+    //
+    //  Returns:      double - milliseconds
+    //
+    //***************************************************************
+    public double getStageMillis(int stage) {
+        return stageNanos.get(stage) / 1e6;
+    }
+    //***************************************************************
+    //
+    //  Method:       getStageNanos
+    //
+    //  Description:  Returns the time spent in one stage.
+    //
+    //  Parameters:   int stage - a STAGE_ constant
+    //
+    //  Returns:      long - nanoseconds
+    //
+    //***************************************************************
+    public long getStageNanos(int stage) {
+        return stageNanos.get(stage);
+    }
+    //***************************************************************
+    //
+    //  Method:       getCount
+    //
+    //  Description:  Returns the value of one counter.
+    //
+    //  Parameters:   int counter - a counter constant, e.g. RECORDS
+    //
+    //  Returns:      long - count
+    //
+    //***************************************************************
+    public long getCount(int counter) {
+        return counters.get(counter);
+    }
+    //***************************************************************
+    //
+    //  Method:       getReadMillis
+    //
+    //  Description:  Returns the time spent in the read stage.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      double - milliseconds
+    //
+    //***************************************************************
+    @Override
+    public double getReadMillis() {
+        return getStageMillis(STAGE_READ);
+    }
+    //***************************************************************
+    //
+    //  Method:       getParseMillis
+    //
+    //  Description:  Returns the time spent in the parse stage.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      double - milliseconds
+    //
+    //***************************************************************
+    @Override
+    public double getParseMillis() {
+        return getStageMillis(STAGE_PARSE);
+    }
+    //***************************************************************
+    //
+    //  Method:       getFetchMillis
+    //
+    //  Description:  Returns the time spent in the fetch stage.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      double - milliseconds
+    //
+    //***************************************************************
+    @Override
+    public double getFetchMillis() {
+        return getStageMillis(STAGE_FETCH);
+    }
+    //***************************************************************
+    //
+    //  Method:       getAggregateMillis
+    //
+    //  Description:  Returns the time spent in the aggregate stage.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      double - milliseconds
+    //
+    //***************************************************************
+    @Override
+    public double getAggregateMillis() {
+        return getStageMillis(STAGE_AGGREGATE);
+    }
+    //***************************************************************
+    //
+    //  Method:       getWriteMillis
+    //
+    //  Description:  Returns the time spent in the write stage.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      double - milliseconds
+    //
+    //***************************************************************
+    @Override
+    public double getWriteMillis() {
+        return getStageMillis(STAGE_WRITE);
+    }
+    //***************************************************************
+    //
+    //  Method:       getRecords
+    //
+    //  Description:  Returns the number of household records parsed.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      long - records
+    //
+    //***************************************************************
+    @Override
+    public long getRecords() {
+        return counters.get(RECORDS);
+    }
+    //***************************************************************
+    //
+    //  Method:       getBytes
+    //
+    //  Description:  Returns the number of bytes read from data
+    //                files.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      long - bytes
+    //
+    //***************************************************************
+    @Override
+    public long getBytes() {
+        return counters.get(BYTES);
+    }
+    //***************************************************************
+    //
+    //  Method:       getRecordsPerSecond
+    //
+    //  Description:  Returns the records parsed per second of reading
+    //                and parsing.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      double - records per second
+    //
+    //***************************************************************
+    @Override
+    public double getRecordsPerSecond() {
+        return perSecond(counters.get(RECORDS));
+    }
+    //***************************************************************
+    //
+    //  Method:       getBytesPerSecond
+    //
+    //  Description:  Returns the bytes read per second of reading and
+    //                parsing.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      double - bytes per second
+    //
+    //***************************************************************
+    @Override
+    public double getBytesPerSecond() {
+        return perSecond(counters.get(BYTES));
+    }
+    //***************************************************************
+    //
+    //  Method:       getCacheHits
+    //
+    //  Description:  Returns the number of guideline lookups the
+    //                cache answered.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      long - cache hits
+    //
+    //***************************************************************
+    @Override
+    public long getCacheHits() {
+        return counters.get(CACHE_HITS);
+    }
+    //***************************************************************
+    //
+    //  Method:       getCacheMisses
+    //
+    //  Description:  Returns the number of guideline lookups the
+    //                cache could not answer.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      long - cache misses
+    //
+    //***************************************************************
+    @Override
+    public long getCacheMisses() {
+        return counters.get(CACHE_MISSES);
+    }
+    //***************************************************************
+    //
+    //  Method:       getHttpRequests
+    //
+    //  Description:  Returns the number of requests sent to the FPL
+    //                API.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      long - HTTP requests
+    //
+    //***************************************************************
+    @Override
+    public long getHttpRequests() {
+        return counters.get(HTTP_REQUESTS);
+    }
+    //***************************************************************
+    //
+    //  Method:       getHttpErrors
+    //
+    //  Description:  Returns the number of FPL API requests that
+    //                failed.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      long - HTTP errors
+    //
+    //***************************************************************
+    @Override
+    public long getHttpErrors() {
+        return counters.get(HTTP_ERRORS);
+    }
+    //***************************************************************
+    //
+    //  Method:       getRetries
+    //
+    //  Description:  Returns the number of FPL API requests that were
+    //                retried.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      long - retries
+    //
+    //***************************************************************
+    @Override
+    public long getRetries() {
+        return counters.get(RETRIES);
+    }
+    //***************************************************************
+    //
+    //  Method:       getErrors
+    //
+    //  Description:  Returns the number of errors reported.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      long - errors
+    //
+    //***************************************************************
+    @Override
+    public long getErrors() {
+        return counters.get(ERRORS);
+    }
+    //***************************************************************
+    //
+    //  Method:       perSecond
+    //
+    //  Description:  Divides an amount by the time spent reading and
+    //                parsing.
+    //
+    //  Parameters:   long amount - records or bytes
+    //
+    //  Returns:      double - amount per second, 0 before any timing
+    //
+    //***************************************************************
+    private double perSecond(long amount) {
+        long nanos = stageNanos.get(STAGE_READ) + stageNanos.get(STAGE_PARSE);
+        return nanos == 0 ? 0 : amount * 1e9 / nanos;
+    }
+    //***************************************************************
+    //
+    //  Method:       number
+    //
+    //  Description:  Formats a number for the JSON summary with three
+    //                decimals.
+    //
+    //  Parameters:   double value - number to format
+    //
+    //  Returns:      String - number as text
+    //
+    //***************************************************************
+    private static String number(double value) {
+        return String.format(Locale.ROOT, "%.3f", value);
+    }
+}
@@ -0,0 +1,225 @@
+//********************************************************************
+//
+//  Developer:     Mauricio Rivas
+//
+//  Program #:     Three
+//
+//  File Name:     RunMetricsMBean.java
+//
+//  Course:        COSC 4301 Modern Programming
+//
+//  Due Date:      4/14/2025
+//
+//  Instructor:    Prof. Fred Kumi
+//
+//  Java Version:  11
+//
+//  Description:   This interface is the JMX view of RunMetrics,
+//                 registered as household.analyzer:type=RunMetrics
+//                 when the program runs with -Dmetrics.jmx=true.
+//
+//********************************************************************
+
+public interface RunMetricsMBean {
+    //***************************************************************
+    //
+    //  Method:       getReadMillis
+    //
+    //  Description:  Returns the time spent in the read stage.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      double - milliseconds
+    //
+    //***************************************************************
+    double getReadMillis();
+    //***************************************************************
+    //
+    //  Method:       getParseMillis
+    //
+    //  Description:  Returns the time spent in the parse stage.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      double - milliseconds
+    //
+    //***************************************************************
+    double getParseMillis();
+    //***************************************************************
+    //
+    //  Method:       getFetchMillis
+    //
+    //  Description:  Returns the time spent in the fetch stage.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      double - milliseconds
+    //
+    //***************************************************************
+    double getFetchMillis();
+    //***************************************************************
+    //
+    //  Method:       getAggregateMillis
+    //
+    //  Description:  Returns the time spent in the aggregate stage.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      double - milliseconds
+    //
+    //***************************************************************
+    double getAggregateMillis();
+    //***************************************************************
+    //
+    //  Method:       getWriteMillis
+    //
+    //  Description:  Returns the time spent in the write stage.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      double - milliseconds
+    //
+    //***************************************************************
+    double getWriteMillis();
+    //***************************************************************
+    //
+    //  Method:       getRecords
+    //
+    //  Description:  Returns the number of household records parsed.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      long - records
+    //
+    //***************************************************************
+    long getRecords();
+    //***************************************************************
+    //
+    //  Method:       getBytes
+    //
+    //  Description:  Returns the number of bytes read from data
+    //                files.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      long - bytes
+    //
+    //***************************************************************
+    long getBytes();
+    //***************************************************************
+    //
+    //  Method:       getRecordsPerSecond
+    //
+    //  Description:  Returns the records parsed per second of reading
+    //                and parsing.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      double - records per second
+    //
+    //***************************************************************
+    double getRecordsPerSecond();
+    //***************************************************************
+    //
+    //  Method:       getBytesPerSecond
+    //
+    //  Description:  Returns the bytes read per second of reading and
+    //                parsing.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      double - bytes per second
+    //
+    //***************************************************************
+    double getBytesPerSecond();
+    //***************************************************************
+    //
+    //  Method:       getCacheHits
+    //
+    //  Description:  Returns the number of guideline lookups the
+    //                cache answered.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      long - cache hits
+    //
+    //***************************************************************
+    long getCacheHits();
+    //***************************************************************
+    //
+    //  Method:       getCacheMisses
+    //
+    //  Description:  Returns the number of guideline lookups the
+    //                cache could not answer.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      long - cache misses
+    //
+    //***************************************************************
+    long getCacheMisses();
+    //***************************************************************
+    //
+    //  Method:       getHttpRequests
+    //
+    //  Description:  Returns the number of requests sent to the FPL
+    //                API.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      long - HTTP requests
+    //
+    //***************************************************************
+    long getHttpRequests();
+    //***************************************************************
+    //
+    //  Method:       getHttpErrors
+    //
+    //  Description:  Returns the number of FPL API requests that
+    //                failed.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      long - HTTP errors
+    //
+    //***************************************************************
+    long getHttpErrors();
+    //***************************************************************
+    //
+    //  Method:       getRetries
+    //
+    //  Description:  Returns the number of FPL API requests that were
+    //                retried.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      long - retries
+    //
+    //***************************************************************
+    long getRetries();
+    //***************************************************************
+    //
+    //  Method:       getErrors
+    //
+    //  Description:  Returns the number of errors reported.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      long - errors
+    //
+    //***************************************************************
+    long getErrors();
+    //***************************************************************
+    //
+    //  Method:       getSummaryJson
+    //
+    //  Description:  Returns every metric as one JSON object, as
+    //                written to the metrics file.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      String - JSON object
+    //
+    //***************************************************************
+    String getSummaryJson();
+}
@@ -0,0 +1,305 @@
+//********************************************************************
+//
+//  Developer:     Mauricio Rivas
+//
+//  Program #:     Three
+//
+//  File Name:     ShardedAnalyzer.java
+//
+//  Course:        COSC 4301 Modern Programming
+//
+//  Due Date:      4/14/2025
+//
+//  Instructor:    Prof. Fred Kumi
+//
+//  Java Version:  11
+//
+//  Description:   This class analyzes household data that arrives as
+//                 many files, e.g. one per state. Each file is a shard:
+//                 shards are parsed concurrently, and each one's totals
+//                 are saved as a PartialAggregate file. Partial files
+//                 can be copied from other JVMs or machines and merged
+//                 into one report. Counts and whole-cent income totals
+//                 match a run over the concatenated file exactly, as
+//                 do the histograms; percentiles carry the KllSketch
+//                 error bound. From the command line:
+//
+//                     java ShardedAnalyzer analyze <dir|glob> <partialDir> [threads]
+//                     java ShardedAnalyzer merge <partialDir|glob>
+//
+//                 A glob may only appear in the file name, e.g.
+//                 data/households-*.txt; quote it so the shell leaves
+//                 it alone.
+//
+//********************************************************************
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+
+public class ShardedAnalyzer {
+    public static final String PARTIAL_SUFFIX = ".partial";
+    private static final String GLOB_CHARACTERS = "*?[{";
+
+    private final FPLThresholdTable thresholds;
+    private final int parallelism;
+    //***************************************************************
+    //
+    //  Method:       ShardedAnalyzer (Constructor)
+    //
+    //  Description:  Creates an analyzer.
+    //
+    //  Parameters:   FPLThresholdTable thresholds - income limits
+    //                int parallelism              - shards parsed at
+    //                                               once
+    //
+    //  Returns:      None
+    //
+    //***************************************************************
+    public ShardedAnalyzer(FPLThresholdTable thresholds, int parallelism) {
+        this.thresholds = thresholds;
+        this.parallelism = Math.max(1, parallelism);
+    }
+    //***************************************************************
+    //
+    //  Method:       main
+    //
+    //  Description:  Writes partial results for a set of shards, or
+    //                merges partial results and prints the report.
+    //
+    //  Parameters:   String[] args - analyze or merge, then its
+    //                                arguments
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    public static void main(String[] args) {
+        if (args.length >= 3 && args.length <= 4 && args[0].equals("analyze")) {
+            try {
+                long start = System.nanoTime();
+                int threads = args.length == 4 ? Integer.parseInt(args[3])
+                        : Runtime.getRuntime().availableProcessors();
+                FPLThresholdTable levels = FPLThresholdTable.load(FPLGuidelineCache.getShared(),
+                        FPLGuidelineCache.DEFAULT_YEAR);
+                PartialAggregate merged = new ShardedAnalyzer(levels, threads)
+                        .analyze(resolve(args[1]), Paths.get(args[2]));
+                System.out.printf("Wrote %d partial results (%d households) to %s in %d ms%n",
+                        merged.getShardCount(), merged.getTotals().getCount(), args[2],
+                        (System.nanoTime() - start) / 1_000_000);
+            } catch (IOException | RuntimeException e) {
+                System.out.println("Error analyzing " + args[1] + ": " + e.getMessage());
+            }
+        } else if (args.length == 2 && args[0].equals("merge")) {
+            try (HouseholdProcessor processor = new HouseholdProcessor()) {
+                processor.displayMergedAnalysis(args[1]);
+            }
+        } else {
+            System.out.println("Usage: java ShardedAnalyzer analyze <dir|glob> <partialDir> [threads]");
+            System.out.println("       java ShardedAnalyzer merge <partialDir|glob>");
+        }
+    }
+    //***************************************************************
+    //
+    //  Method:       analyze
+    //
+    //  Description:  Parses every shard, up to parallelism at a time,
+    //                and saves each one's results in the partial
+    //                directory as <shard file name>.partial. The
+    //                results are merged in the order of the list, so a
+    //                run gives the same answer at any parallelism.
+    //
+    //  Parameters:   List<Path> shards - household data files
+    //                Path partialDir   - directory for partial results
+    //
+    //  Returns:      PartialAggregate - results of all shards
+    //
+    //***************************************************************
+    public PartialAggregate analyze(List<Path> shards, Path partialDir) throws IOException {
+        Files.createDirectories(partialDir);
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, Math.min(parallelism, shards.size())));
+        try {
+            List<Future<PartialAggregate>> pending = new ArrayList<>();
+            for (Path shard : shards) {
+                Path partial = partialDir.resolve(shard.getFileName() + PARTIAL_SUFFIX);
+                pending.add(pool.submit(() -> analyzeShard(shard, partial)));
+            }
+            PartialAggregate merged = null;
+            for (Future<PartialAggregate> result : pending) {
+                PartialAggregate partial = result.get();
+                merged = merged == null ? partial : merged.merge(partial);
+            }
+            return merged == null ? new PartialAggregate(thresholds) : merged;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while analyzing shards", e);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+    //***************************************************************
+    //
+    //  Method:       analyzeShard
+    //
+    //  Description:  Parses one shard and saves its results.
+    //
+    //  Parameters:   Path shard   - household data file
+    //                Path partial - partial result file to write
+    //
+    //  Returns:      PartialAggregate - results of the shard
+    //
+    //***************************************************************
+    public PartialAggregate analyzeShard(Path shard, Path partial) throws IOException {
+        PartialAggregate results = new PartialAggregate(thresholds);
+        new HouseholdParser().parseMapped(shard, results);
+        results.write(partial);
+        return results;
+    }
+    //***************************************************************
+    //
+    //  Method:       merge
+    //
+    //  Description:  Reads partial result files and merges them in
+    //                the order of the list.
+    //
+    //  Parameters:   List<Path> partials - partial result files
+    //                IntFunction<FPLThresholdTable> thresholds -
+    //                    income limits for a guideline year
+    //
+    //  Returns:      PartialAggregate - merged results
+    //
+    //***************************************************************
+    public static PartialAggregate merge(List<Path> partials, IntFunction<FPLThresholdTable> thresholds)
+            throws IOException {
+        PartialAggregate merged = null;
+        for (Path file : partials) {
+            PartialAggregate partial = PartialAggregate.read(file, thresholds);
+            try {
+                merged = merged == null ? partial : merged.merge(partial);
+            } catch (IllegalArgumentException e) {
+                throw new IOException(e.getMessage() + ": " + file, e);
+            }
+        }
+        if (merged == null) {
+            throw new NoSuchFileException("No partial results to merge");
+        }
+        return merged;
+    }
+    //***************************************************************
+    //
+    //  Method:       resolve
+    //
+    //  Description:  Lists the files named by a directory, a glob in
+    //                the file name, or a single file, sorted by name.
+    //                Hidden files, partial results, and unfinished
+    //                .tmp files in a directory are skipped.
+    //
+    //  Parameters:   String pattern - directory, glob, or file
+    //
+    //  Returns:      List<Path> - matching regular files
+    //
+    //***************************************************************
+    public static List<Path> resolve(String pattern) throws IOException {
+        return resolve(pattern, "");
+    }
+    //***************************************************************
+    //
+    //  Method:       resolve
+    //
+    //  Description:  Lists the files named by a directory, a glob in
+    //                the file name, or a single file, sorted by name.
+    //                Only files with the given suffix are taken from a
+    //                directory, never hidden or unfinished .tmp files,
+    //                and partial results only when they are asked for,
+    //                so a partial directory inside the input directory
+    //                or left from an earlier run is not read as shards.
+    //
+    //  Parameters:   String pattern - directory, glob, or file
+    //                String suffix  - required suffix in a directory,
+    //                                 or "" for any
+    //
+    //  Returns:      List<Path> - matching regular files
+    //
+    //***************************************************************
+    public static List<Path> resolve(String pattern, String suffix) throws IOException {
+        int separator = Math.max(pattern.lastIndexOf('/'), pattern.lastIndexOf(File.separatorChar));
+        String name = pattern.substring(separator + 1);
+        List<Path> files = new ArrayList<>();
+        if (!isGlob(name)) {
+            Path path = Paths.get(pattern);
+            if (!Files.isDirectory(path)) {
+                if (!Files.isRegularFile(path)) {
+                    throw new NoSuchFileException(pattern);
+                }
+                return Collections.singletonList(path);
+            }
+            try (DirectoryStream<Path> entries = Files.newDirectoryStream(path)) {
+                for (Path entry : entries) {
+                    String entryName = entry.getFileName().toString();
+                    boolean output = entryName.endsWith(".tmp")
+                            || !suffix.equals(PARTIAL_SUFFIX) && entryName.endsWith(PARTIAL_SUFFIX);
+                    if (Files.isRegularFile(entry) && !entryName.startsWith(".") && !output
+                            && entryName.endsWith(suffix)) {
+                        files.add(entry);
+                    }
+                }
+            }
+        } else {
+            Path directory = Paths.get(separator < 0 ? "." : pattern.substring(0, separator + 1));
+            PathMatcher matcher = directory.getFileSystem().getPathMatcher("glob:" + name);
+            try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+                for (Path entry : entries) {
+                    if (Files.isRegularFile(entry) && matcher.matches(entry.getFileName())) {
+                        files.add(separator < 0 ? entry.getFileName() : entry);
+                    }
+                }
+            }
+        }
+        if (files.isEmpty()) {
+            throw new NoSuchFileException(pattern);
+        }
+        Collections.sort(files);
+        return files;
+    }
+    //***************************************************************
+    //
+    //  Method:       isGlob
+    //
+    //  Description:  Tells whether a file name has a glob character
+    //                in it.
+    //
+    //  Parameters:   String name - last part of a path pattern
+    //
+    //  Returns:      boolean - true if it is a glob
+    //
+    //***************************************************************
+    private static boolean isGlob(String name) {
+        for (int i = 0; i < name.length(); i++) {
+            if (GLOB_CHARACTERS.indexOf(name.charAt(i)) >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
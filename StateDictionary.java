@@ -0,0 +1,146 @@
+//********************************************************************
+//
+//  Developer:     Mauricio Rivas
+//
+//  Program #:     Three
+//
+//  File Name:     StateDictionary.java
+//
+//  Course:        COSC 4301 Modern Programming
+//
+//  Due Date:      4/14/2025
+//
+//  Instructor:    Prof. Fred Kumi
+//
+//  Java Version:  11
+//
+//  Description:   This class gives every state spelling a number for
+//                 the household stores and snapshots. A name spelled
+//                 exactly as in StateTable is stored as its StateTable
+//                 code. Any other spelling gets the next code from
+//                 StateTable.COUNT up and keeps the StateTable code it
+//                 resolves to, so "TEXAS" prints as written but still
+//                 counts as Texas. There is no limit on the number of
+//                 names; codes past a byte column's range are kept by
+//                 a ByteOverflow.
+//
+//********************************************************************
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class StateDictionary {
+    private final List<String> names = new ArrayList<>();
+    private final Map<String, Integer> codes = new HashMap<>();
+    private int[] stateCodes = new int[16];
+    //***************************************************************
+    //
+    //  Method:       encode
+    //
+    //  Description:  Returns the code of one spelling, adding it to
+    //                the dictionary the first time it is seen.
+    //
+    //  Parameters:   int stateCode - StateTable code or UNKNOWN
+    //                String state  - name as written
+    //
+    //  Returns:      int - StateTable code for an exact name, or a
+    //                dictionary code of StateTable.COUNT and up
+    //
+    //***************************************************************
+    public int encode(int stateCode, String state) {
+        if (stateCode != StateTable.UNKNOWN && StateTable.name(stateCode).equals(state)) {
+            return stateCode;
+        }
+        Integer code = codes.get(state);
+        if (code == null) {
+            code = add(stateCode, state);
+        }
+        return code;
+    }
+    //***************************************************************
+    //
+    //  Method:       add
+    //
+    //  Description:  Appends one spelling with the next code. Used to
+    //                rebuild a dictionary saved in code order.
+    //
+    //  Parameters:   int stateCode - StateTable code or UNKNOWN
+    //                String state  - name as written
+    //
+    //  Returns:      int - the new dictionary code
+    //
+    //***************************************************************
+    public int add(int stateCode, String state) {
+        int entry = names.size();
+        if (entry == stateCodes.length) {
+            stateCodes = Arrays.copyOf(stateCodes, entry * 2);
+        }
+        stateCodes[entry] = stateCode;
+        names.add(state);
+        codes.putIfAbsent(state, StateTable.COUNT + entry);
+        return StateTable.COUNT + entry;
+    }
+    //***************************************************************
+    //
+    //  Method:       stateCode
+    //
+    //  Description:  Returns the StateTable code a stored code stands
+    //                for.
+    //
+    //  Parameters:   int code - stored code
+    //
+    //  Returns:      int - StateTable code or UNKNOWN
+    //
+    //***************************************************************
+    public int stateCode(int code) {
+        return code < StateTable.COUNT ? code : stateCodes[code - StateTable.COUNT];
+    }
+    //***************************************************************
+    //
+    //  Method:       name
+    //
+    //  Description:  Returns the spelling a stored code stands for.
+    //
+    //  Parameters:   int code - stored code
+    //
+    //  Returns:      String - state name as written
+    //
+    //***************************************************************
+    public String name(int code) {
+        return code < StateTable.COUNT ? StateTable.name(code) : names.get(code - StateTable.COUNT);
+    }
+    //***************************************************************
+    //
+    //  Method:       size
+    //
+    //  Description:  Returns the number of spellings outside the
+    //                state table.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      int - dictionary entries
+    //
+    //***************************************************************
+    public int size() {
+        return names.size();
+    }
+    //***************************************************************
+    //
+    //  Method:       getStateCodes
+    //
+    //  Description:  Returns the StateTable code of every dictionary
+    //                entry in code order, as the column kernels take
+    //                them.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      int[] - StateTable code or UNKNOWN per entry
+    //
+    //***************************************************************
+    public int[] getStateCodes() {
+        return Arrays.copyOf(stateCodes, names.size());
+    }
+}
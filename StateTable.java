@@ -0,0 +1,235 @@
+//********************************************************************
+//
+//  Developer:     Mauricio Rivas
+//
+//  Program #:     Three
+//
+//  File Name:     StateTable.java
+//
+//  Course:        COSC 4301 Modern Programming
+//
+//  Due Date:      4/14/2025
+//
+//  Instructor:    Prof. Fred Kumi
+//
+//  Java Version:  11
+//
+//  Description:   This class holds the fixed table of the 50 states
+//                 plus the District of Columbia. Each name has a small
+//                 integer code so parsers can intern state names
+//                 straight from raw bytes without building a String.
+//
+//********************************************************************
+
+import java.nio.charset.StandardCharsets;
+
+public final class StateTable {
+    public static final int UNKNOWN = -1;
+    public static final int REGION_CONTIGUOUS = 0;
+    public static final int REGION_ALASKA = 1;
+    public static final int REGION_HAWAII = 2;
+    public static final String[] REGION_CODES = {"us", "ak", "hi"};
+
+    private static final String[] NAMES = {
+        "Alabama", "Alaska", "Arizona", "Arkansas", "California",
+        "Colorado", "Connecticut", "Delaware", "District of Columbia", "Florida",
+        "Georgia", "Hawaii", "Idaho", "Illinois", "Indiana",
+        "Iowa", "Kansas", "Kentucky", "Louisiana", "Maine",
+        "Maryland", "Massachusetts", "Michigan", "Minnesota", "Mississippi",
+        "Missouri", "Montana", "Nebraska", "Nevada", "New Hampshire",
+        "New Jersey", "New Mexico", "New York", "North Carolina", "North Dakota",
+        "Ohio", "Oklahoma", "Oregon", "Pennsylvania", "Rhode Island",
+        "South Carolina", "South Dakota", "Tennessee", "Texas", "Utah",
+        "Vermont", "Virginia", "Washington", "West Virginia", "Wisconsin",
+        "Wyoming"
+    };
+    public static final int COUNT = NAMES.length;
+    private static final int ALASKA = 1;
+    private static final int HAWAII = 11;
+
+    private static final byte[][] EXACT = new byte[COUNT][];
+    private static final byte[][] LOWER = new byte[COUNT][];
+    private static final int[] SLOTS = new int[256];
+
+    static {
+        java.util.Arrays.fill(SLOTS, UNKNOWN);
+        for (int code = 0; code < COUNT; code++) {
+            EXACT[code] = NAMES[code].getBytes(StandardCharsets.US_ASCII);
+            LOWER[code] = NAMES[code].toLowerCase().getBytes(StandardCharsets.US_ASCII);
+            int slot = hash(LOWER[code], 0, LOWER[code].length);
+            while (SLOTS[slot] != UNKNOWN) {
+                slot = (slot + 1) & (SLOTS.length - 1);
+            }
+            SLOTS[slot] = code;
+        }
+    }
+    //***************************************************************
+    //
+    //  Method:       StateTable (Constructor)
+    //
+    //  Description:  Not used; the table has only static members.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      None
+    //
+    //***************************************************************
+    private StateTable() {
+    }
+    //***************************************************************
+    //
+    //  Method:       lookup
+    //
+    //  Description:  Finds the code of a state name stored as ASCII
+    //                bytes. Matching ignores case, and words must be
+    //                separated by a single space.
+    //
+    //  Parameters:   byte[] bytes - buffer holding the name
+    //                int offset   - first byte of the name
+    //                int length   - number of bytes in the name
+    //
+    //  Returns:      int - state code, or UNKNOWN if not in the table
+    //
+    //***************************************************************
+    public static int lookup(byte[] bytes, int offset, int length) {
+        int slot = hash(bytes, offset, length);
+        int code;
+        while ((code = SLOTS[slot]) != UNKNOWN) {
+            if (matches(LOWER[code], bytes, offset, length)) {
+                return code;
+            }
+            slot = (slot + 1) & (SLOTS.length - 1);
+        }
+        return UNKNOWN;
+    }
+    //***************************************************************
+    //
+    //  Method:       lookup
+    //
+    //  Description:  Finds the code of a state name, ignoring case.
+    //
+    //  Parameters:   String name - state name
+    //
+    //  Returns:      int - state code, or UNKNOWN if not in the table
+    //
+    //***************************************************************
+    public static int lookup(String name) {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        return lookup(bytes, 0, bytes.length);
+    }
+    //***************************************************************
+    //
+    //  Method:       name
+    //
+    //  Description:  Returns the shared name String for a state code.
+    //
+    //  Parameters:   int code - state code
+    //
+    //  Returns:      String - state name
+    //
+    //***************************************************************
+    public static String name(int code) {
+        return NAMES[code];
+    }
+    //***************************************************************
+    //
+    //  Method:       regionOf
+    //
+    //  Description:  Returns the poverty guideline region of a state.
+    //                Alaska and Hawaii have their own guidelines; every
+    //                other state, DC, and unknown names use the
+    //                contiguous US guidelines.
+    //
+    //  Parameters:   int code - state code or UNKNOWN
+    //
+    //  Returns:      int - REGION_CONTIGUOUS, REGION_ALASKA, or
+    //                REGION_HAWAII
+    //
+    //***************************************************************
+    public static int regionOf(int code) {
+        if (code == ALASKA) {
+            return REGION_ALASKA;
+        }
+        return code == HAWAII ? REGION_HAWAII : REGION_CONTIGUOUS;
+    }
+    //***************************************************************
+    //
+    //  Method:       isCanonical
+    //
+    //  Description:  Tells whether raw bytes spell a state name with
+    //                exactly the table's capitalization, so the shared
+    //                name String can stand in for them.
+    //
+    //  Parameters:   int code     - state code found by lookup
+    //                byte[] bytes - buffer holding the name
+    //                int offset   - first byte of the name
+    //                int length   - number of bytes in the name
+    //
+    //  Returns:      boolean - true if the spelling is identical
+    //
+    //***************************************************************
+    public static boolean isCanonical(int code, byte[] bytes, int offset, int length) {
+        byte[] exact = EXACT[code];
+        if (exact.length != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (exact[i] != bytes[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+    //***************************************************************
+    //
+    //  Method:       hash
+    //
+    //  Description:  Hashes a state name without regard to case,
+    //                giving its first slot in the lookup table.
+    //
+    //  Parameters:   byte[] bytes - text holding the name
+    //                int offset   - index of the first byte
+    //                int length   - length of the name
+    //
+    //  Returns:      int - slot index
+    //
+    //***************************************************************
+    private static int hash(byte[] bytes, int offset, int length) {
+        int h = length;
+        for (int i = offset; i < offset + length; i++) {
+            h = 31 * h + (bytes[i] | 0x20);
+        }
+        h ^= h >>> 16;
+        return (h * 0x9E3779B9 >>> 24) & (SLOTS.length - 1);
+    }
+    //***************************************************************
+    //
+    //  Method:       matches
+    //
+    //  Description:  Compares a name with a lower-case state name,
+    //                ignoring the case of ASCII letters.
+    //
+    //  Parameters:   byte[] lower - lower-case state name
+    //                byte[] bytes - text holding the name
+    //                int offset   - index of the first byte
+    //                int length   - length of the name
+    //
+    //  Returns:      boolean - true if the names match
+    //
+    //***************************************************************
+    private static boolean matches(byte[] lower, byte[] bytes, int offset, int length) {
+        if (lower.length != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            int b = bytes[offset + i];
+            if (b >= 'A' && b <= 'Z') {
+                b |= 0x20;
+            }
+            if (lower[i] != b) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,336 @@
+//********************************************************************
+//
+//  Developer:     Mauricio Rivas
+//
+//  Program #:     Three
+//
+//  File Name:     TopKHouseholds.java
+//
+//  Course:        COSC 4301 Modern Programming
+//
+//  Due Date:      4/14/2025
+//
+//  Instructor:    Prof. Fred Kumi
+//
+//  Java Version:  11
+//
+//  Description:   This class keeps the K households with the highest
+//                 income, or the highest income relative to their
+//                 poverty line, in a bounded min-heap over primitive
+//                 arrays. Memory is O(K) however many households are
+//                 added. Ties are broken by household ID, then size
+//                 and state, so the same households come out in the
+//                 same order whatever order they were added or merged
+//                 in, and a parallel run matches a sequential one.
+//
+//********************************************************************
+
+import java.util.Arrays;
+
+public class TopKHouseholds implements HouseholdParser.RecordHandler {
+    public static final int BY_INCOME = 0;
+    public static final int BY_FPL_RATIO = 1;
+
+    private final int capacity;
+    private final int order;
+    private final FPLThresholdTable thresholds;
+    private final double[] keys;
+    private final int[] ids;
+    private final double[] incomes;
+    private final int[] members;
+    private final int[] stateCodes;
+    private final String[] states;
+    private final int[] heap;
+    private int size;
+    //***************************************************************
+    //
+    //  Method:       TopKHouseholds (Constructor)
+    //
+    //  Description:  Creates an empty top-K list.
+    //
+    //  Parameters:   int k                        - households to keep
+    //                int order                    - BY_INCOME or
+    //                                               BY_FPL_RATIO
+    //                FPLThresholdTable thresholds - poverty lines for
+    //                                               BY_FPL_RATIO
+    //
+    //  Returns:      None
+    //
+    //***************************************************************
+    public TopKHouseholds(int k, int order, FPLThresholdTable thresholds) {
+        if (k < 1) {
+            throw new IllegalArgumentException("K must be at least 1: " + k);
+        }
+        if (order != BY_INCOME && order != BY_FPL_RATIO) {
+            throw new IllegalArgumentException("Unknown top-K order: " + order);
+        }
+        this.capacity = k;
+        this.order = order;
+        this.thresholds = thresholds;
+        this.keys = new double[k];
+        this.ids = new int[k];
+        this.incomes = new double[k];
+        this.members = new int[k];
+        this.stateCodes = new int[k];
+        this.states = new String[k];
+        this.heap = new int[k];
+    }
+    //***************************************************************
+    //
+    //  Method:       onRecord
+    //
+    //  Description:  Offers one parsed household.
+    //
+    //  Parameters:   int id         - Household ID
+    //                double income  - Annual income
+    //                int members    - Number of household members
+    //                int stateCode  - StateTable code or UNKNOWN
+    //                String state   - State of residence
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    @Override
+    public void onRecord(int id, double income, int members, int stateCode, String state) {
+        double key = order == BY_INCOME ? income : income / thresholds.povertyLevel(members);
+        offer(key, id, income, members, stateCode, state);
+    }
+    //***************************************************************
+    //
+    //  Method:       add
+    //
+    //  Description:  Offers every household in a table.
+    //
+    //  Parameters:   HouseholdTable households - data to add
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    public void add(HouseholdTable households) {
+        for (int i = 0; i < households.size(); i++) {
+            onRecord(households.getId(i), households.getIncome(i), households.getMembers(i),
+                    households.getStateCode(i), households.getState(i));
+        }
+    }
+    //***************************************************************
+    //
+    //  Method:       merge
+    //
+    //  Description:  Offers every household kept by another list with
+    //                the same order.
+    //
+    //  Parameters:   TopKHouseholds other - partial results
+    //
+    //  Returns:      TopKHouseholds - this list
+    //
+    //***************************************************************
+    public TopKHouseholds merge(TopKHouseholds other) {
+        for (int slot = 0; slot < other.size; slot++) {
+            offer(other.keys[slot], other.ids[slot], other.incomes[slot], other.members[slot],
+                    other.stateCodes[slot], other.states[slot]);
+        }
+        return this;
+    }
+    //***************************************************************
+    //
+    //  Method:       forEachRanked
+    //
+    //  Description:  Hands the kept households to a handler, best
+    //                first.
+    //
+    //  Parameters:   HouseholdParser.RecordHandler handler - receives
+    //                                                        records
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    public void forEachRanked(HouseholdParser.RecordHandler handler) {
+        Integer[] ranked = new Integer[size];
+        for (int slot = 0; slot < size; slot++) {
+            ranked[slot] = slot;
+        }
+        Arrays.sort(ranked, (a, b) -> compare(b, a));
+        for (int slot : ranked) {
+            handler.onRecord(ids[slot], incomes[slot], members[slot], stateCodes[slot], states[slot]);
+        }
+    }
+    //***************************************************************
+    //
+    //  Method:       size
+    //
+    //  Description:  Returns the number of households kept so far.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      int - households kept
+    //
+    //***************************************************************
+    public int size() {
+        return size;
+    }
+    //***************************************************************
+    //
+    //  Method:       getOrder
+    //
+    //  Description:  Returns the value the households are ranked by.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      int - BY_INCOME or BY_FPL_RATIO
+    //
+    //***************************************************************
+    public int getOrder() {
+        return order;
+    }
+    //***************************************************************
+    //
+    //  Method:       offer
+    //
+    //  Description:  Keeps a household if the list is not full or it
+    //                ranks above the lowest kept household, which it
+    //                then replaces. NaN keys are ignored.
+    //
+    //  Parameters:   double key     - ranking value
+    //                record fields  - household to offer
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    private void offer(double key, int id, double income, int householdSize, int stateCode, String state) {
+        if (Double.isNaN(key)) {
+            return;
+        }
+        int slot;
+        if (size < capacity) {
+            slot = size;
+            heap[size++] = slot;
+            store(slot, key, id, income, householdSize, stateCode, state);
+            siftUp(size - 1);
+            return;
+        }
+        slot = heap[0];
+        if (compare(key, id, householdSize, state, slot) <= 0) {
+            return;
+        }
+        store(slot, key, id, income, householdSize, stateCode, state);
+        siftDown(0);
+    }
+    //***************************************************************
+    //
+    //  Method:       store
+    //
+    //  Description:  Writes a household and its key into a slot.
+    //
+    //  Parameters:   int slot       - slot to fill
+    //                double key     - ranking value
+    //                record fields  - household to keep
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    private void store(int slot, double key, int id, double income, int householdSize, int stateCode,
+                       String state) {
+        keys[slot] = key;
+        ids[slot] = id;
+        incomes[slot] = income;
+        members[slot] = householdSize;
+        stateCodes[slot] = stateCode;
+        states[slot] = state;
+    }
+    //***************************************************************
+    //
+    //  Method:       siftUp
+    //
+    //  Description:  Moves a kept household toward the top of the
+    //                heap until its parent ranks lower.
+    //
+    //  Parameters:   int position - heap position
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    private void siftUp(int position) {
+        int slot = heap[position];
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (compare(slot, heap[parent]) >= 0) {
+                break;
+            }
+            heap[position] = heap[parent];
+            position = parent;
+        }
+        heap[position] = slot;
+    }
+    //***************************************************************
+    //
+    //  Method:       siftDown
+    //
+    //  Description:  Moves a kept household down the heap until both
+    //                children rank higher.
+    //
+    //  Parameters:   int position - heap position
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    private void siftDown(int position) {
+        int slot = heap[position];
+        int half = size >>> 1;
+        while (position < half) {
+            int child = 2 * position + 1;
+            if (child + 1 < size && compare(heap[child + 1], heap[child]) < 0) {
+                child++;
+            }
+            if (compare(slot, heap[child]) <= 0) {
+                break;
+            }
+            heap[position] = heap[child];
+            position = child;
+        }
+        heap[position] = slot;
+    }
+    //***************************************************************
+    //
+    //  Method:       compare
+    //
+    //  Description:  Ranks one kept household against another.
+    //
+    //  Parameters:   int a - slot of the first household
+    //                int b - slot of the second household
+    //
+    //  Returns:      int - positive if a ranks higher, negative if
+    //                lower, 0 if the same
+    //
+    //***************************************************************
+    private int compare(int a, int b) {
+        return compare(keys[a], ids[a], members[a], states[a], b);
+    }
+    //***************************************************************
+    //
+    //  Method:       compare
+    //
+    //  Description:  Ranks a household against a kept one: a higher
+    //                key ranks higher, then a lower ID, then a smaller
+    //                household, then the state name alphabetically.
+    //
+    //  Parameters:   household fields - household to rank
+    //                int slot         - kept household
+    //
+    //  Returns:      int - positive if the household ranks higher,
+    //                negative if lower, 0 if the same
+    //
+    //***************************************************************
+    private int compare(double key, int id, int householdSize, String state, int slot) {
+        int result = Double.compare(key, keys[slot]);
+        if (result == 0) {
+            result = Integer.compare(ids[slot], id);
+        }
+        if (result == 0) {
+            result = Integer.compare(members[slot], householdSize);
+        }
+        if (result == 0) {
+            result = states[slot].compareTo(state);
+        }
+        return result;
+    }
+}
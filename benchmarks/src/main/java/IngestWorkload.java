@@ -0,0 +1,168 @@
+//********************************************************************
+//
+//  Developer:     Mauricio Rivas
+//
+//  Program #:     Three
+//
+//  File Name:     IngestWorkload.java
+//
+//  Course:        COSC 4301 Modern Programming
+//
+//  Due Date:      4/14/2025
+//
+//  Instructor:    Prof. Fred Kumi
+//
+//  Java Version:  11
+//
+//  Description:   The ingest paths measured by IngestBenchmark: the
+//                 original Scanner and split loop, the streaming
+//                 parser, the memory-mapped columnar store, and the
+//                 parallel analyzer. Each returns the records read.
+//                 The streaming parser and the parallel analyzer also
+//                 read gzip and block gzip copies made by compress.
+//
+//********************************************************************
+
+import benchmarks.Workloads;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Scanner;
+import java.util.zip.GZIPOutputStream;
+
+public class IngestWorkload implements Workloads.Ingest {
+    private final FPLThresholdTable thresholds = StubGuidelines.thresholds();
+    private Path file;
+    //***************************************************************
+    //
+    //  Method:       prepare
+    //
+    //  Description:  Remembers the household file the ingest passes
+    //                read.
+    //
+    //  Parameters:   Path file - household data file
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    @Override
+    public void prepare(Path file) {
+        this.file = file;
+    }
+    //***************************************************************
+    //
+    //  Method:       compress
+    //
+    //  Description:  Returns a gzip or block gzip copy of a text file,
+    //                writing it beside the file on first use.
+    //
+    //  Parameters:   Path file     - household text file
+    //                String format - "gzip" or "bgzf"
+    //
+    //  Returns:      Path - the compressed copy
+    //
+    //***************************************************************
+    @Override
+    public Path compress(Path file, String format) throws IOException {
+        boolean blocks = format.equals("bgzf");
+        if (!blocks && !format.equals("gzip")) {
+            throw new IllegalArgumentException("Unknown compression format: " + format);
+        }
+        Path target = file.resolveSibling(file.getFileName() + (blocks ? ".bgz" : ".gz"));
+        if (Files.exists(target)) {
+            return target;
+        }
+        if (blocks) {
+            BlockGzip.write(file, target);
+            return target;
+        }
+        Path temp = Files.createTempFile(target.getParent(), "households-", ".tmp");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(temp), 1 << 16)) {
+            Files.copy(file, out);
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        return target;
+    }
+    //***************************************************************
+    //
+    //  Method:       scannerSplit
+    //
+    //  Description:  Reads the file the way the original loadData did,
+    //                as a baseline for the other paths.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      long - records read
+    //
+    //***************************************************************
+    @Override
+    public long scannerSplit() throws IOException {
+        List<Household> households = new ArrayList<>();
+        try (Scanner scanner = new Scanner(file)) {
+            while (scanner.hasNextLine()) {
+                String[] parts = scanner.nextLine().trim().split("\\s+", 4);
+                if (parts.length == 4) {
+                    households.add(new Household(Integer.parseInt(parts[0]), Double.parseDouble(parts[1]),
+                            Integer.parseInt(parts[2]), parts[3]));
+                }
+            }
+        }
+        return households.size();
+    }
+    //***************************************************************
+    //
+    //  Method:       parseStream
+    //
+    //  Description:  Streams the file through HouseholdParser into an
+    //                aggregate, keeping nothing per record. Compressed
+    //                files are decompressed on the way.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      long - records read
+    //
+    //***************************************************************
+    @Override
+    public long parseStream() throws IOException {
+        HouseholdAggregate totals = new HouseholdAggregate(thresholds);
+        try (InputStream in = HouseholdParser.open(file)) {
+            new HouseholdParser().parse(in, totals);
+        }
+        return totals.getCount();
+    }
+    //***************************************************************
+    //
+    //  Method:       loadMapped
+    //
+    //  Description:  Loads the file into a new columnar store.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      long - records read
+    //
+    //***************************************************************
+    @Override
+    public long loadMapped() throws IOException {
+        return new ColumnarHouseholdStore().loadMapped(file);
+    }
+    //***************************************************************
+    //
+    //  Method:       analyzeParallel
+    //
+    //  Description:  Parses and aggregates the file in chunks.
+    //
+    //  Parameters:   int parallelism - worker threads
+    //
+    //  Returns:      long - records read
+    //
+    //***************************************************************
+    @Override
+    public long analyzeParallel(int parallelism) throws IOException {
+        return new ParallelHouseholdAnalyzer(parallelism).analyze(file, thresholds).getCount();
+    }
+}
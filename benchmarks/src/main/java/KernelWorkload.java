@@ -0,0 +1,183 @@
+//********************************************************************
+//
+//  Developer:     Mauricio Rivas
+//
+//  Program #:     Three
+//
+//  File Name:     KernelWorkload.java
+//
+//  Course:        COSC 4301 Modern Programming
+//
+//  Due Date:      4/14/2025
+//
+//  Instructor:    Prof. Fred Kumi
+//
+//  Java Version:  11
+//
+//  Description:   The loops measured by KernelBenchmark. The row
+//                 versions read a ColumnarHouseholdStore through its
+//                 getters and branch per household, keeping the same
+//                 counts by size and region as HouseholdAggregate.add;
+//                 the kernel versions run IncomeKernels over the same
+//                 columns. Each pair returns the same value.
+//
+//********************************************************************
+
+import benchmarks.Workloads;
+import java.util.SplittableRandom;
+
+public class KernelWorkload implements Workloads.Kernels {
+    private final FPLThresholdTable thresholds = StubGuidelines.thresholds();
+    private final ColumnarHouseholdStore store = new ColumnarHouseholdStore();
+    private final double[] povertyLimits =
+            IncomeKernels.sizeLimits(thresholds, FPLThresholdTable.POVERTY_LEVEL, StateTable.REGION_CONTIGUOUS);
+    private final double[] medicaidLimits =
+            IncomeKernels.regionSizeLimits(thresholds, FPLThresholdTable.MEDICAID_LEVEL);
+    private final int[] regionOffsets = IncomeKernels.regionOffsets();
+    private double[] incomes;
+    private byte[] members;
+    private byte[] states;
+    //***************************************************************
+    //
+    //  Method:       prepare
+    //
+    //  Description:  Generates random households in whole cents, both
+    //                in a store and as bare columns for the kernels.
+    //
+    //  Parameters:   int households - households per pass
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    @Override
+    public void prepare(int households) {
+        SplittableRandom random = new SplittableRandom(4301);
+        incomes = new double[households];
+        members = new byte[households];
+        states = new byte[households];
+        for (int i = 0; i < households; i++) {
+            incomes[i] = random.nextLong(15_000_000L) / 100.0;
+            members[i] = (byte) (1 + random.nextInt(12));
+            states[i] = (byte) random.nextInt(StateTable.COUNT);
+            store.add(i, incomes[i], members[i], states[i], StateTable.name(states[i]));
+        }
+    }
+    //***************************************************************
+    //
+    //  Method:       sumRows
+    //
+    //  Description:  Sums incomes as whole cents a row at a time.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      long - total in cents
+    //
+    //***************************************************************
+    @Override
+    public long sumRows() {
+        long cents = 0;
+        for (int i = 0; i < store.size(); i++) {
+            cents += HouseholdAggregate.wholeCents(store.getIncome(i));
+        }
+        return cents;
+    }
+    //***************************************************************
+    //
+    //  Method:       sumKernel
+    //
+    //  Description:  Sums incomes with IncomeKernels.sumWholeCents.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      long - total in cents
+    //
+    //***************************************************************
+    @Override
+    public long sumKernel() {
+        return IncomeKernels.sumWholeCents(incomes, 0, incomes.length);
+    }
+    //***************************************************************
+    //
+    //  Method:       belowPovertyRows
+    //
+    //  Description:  Counts households below the poverty line a row
+    //                at a time.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      long - households below the line
+    //
+    //***************************************************************
+    @Override
+    public long belowPovertyRows() {
+        long[] bySize = new long[HouseholdAggregate.SIZE_BUCKETS];
+        long count = 0;
+        for (int i = 0; i < store.size(); i++) {
+            int size = store.getMembers(i);
+            if (store.getIncome(i) < thresholds.povertyLevel(size)) {
+                count++;
+                bySize[HouseholdAggregate.sizeBucket(size)]++;
+            }
+        }
+        return count;
+    }
+    //***************************************************************
+    //
+    //  Method:       belowPovertyKernel
+    //
+    //  Description:  Counts households below the poverty line with
+    //                IncomeKernels.countBelow.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      long - households below the line
+    //
+    //***************************************************************
+    @Override
+    public long belowPovertyKernel() {
+        return IncomeKernels.countBelow(incomes, members, 0, incomes.length, povertyLimits,
+                new long[IncomeKernels.SIZE_CODES]);
+    }
+    //***************************************************************
+    //
+    //  Method:       medicaidRows
+    //
+    //  Description:  Counts households under the Medicaid limit a row
+    //                at a time.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      long - households under the limit
+    //
+    //***************************************************************
+    @Override
+    public long medicaidRows() {
+        long[] byRegion = new long[StateTable.REGION_CODES.length];
+        long count = 0;
+        for (int i = 0; i < store.size(); i++) {
+            int region = StateTable.regionOf(store.getStateCode(i));
+            if (store.getIncome(i) < thresholds.medicaidLevel(region, store.getMembers(i))) {
+                count++;
+                byRegion[region]++;
+            }
+        }
+        return count;
+    }
+    //***************************************************************
+    //
+    //  Method:       medicaidKernel
+    //
+    //  Description:  Counts households under the Medicaid limit with
+    //                IncomeKernels.countBelowByRegion.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      long - households under the limit
+    //
+    //***************************************************************
+    @Override
+    public long medicaidKernel() {
+        return IncomeKernels.countBelowByRegion(incomes, members, states, 0, incomes.length, medicaidLimits,
+                regionOffsets, new long[StateTable.REGION_CODES.length]);
+    }
+}
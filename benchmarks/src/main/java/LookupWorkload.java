@@ -0,0 +1,152 @@
+//********************************************************************
+//
+//  Developer:     Mauricio Rivas
+//
+//  Program #:     Three
+//
+//  File Name:     LookupWorkload.java
+//
+//  Course:        COSC 4301 Modern Programming
+//
+//  Due Date:      4/14/2025
+//
+//  Instructor:    Prof. Fred Kumi
+//
+//  Java Version:  11
+//
+//  Description:   The threshold checks measured by FPLLookupBenchmark.
+//                 Each pass checks every prepared household against
+//                 the poverty line and the Medicaid limit and returns
+//                 how many passed either check, so the JIT cannot drop
+//                 the work.
+//
+//********************************************************************
+
+import benchmarks.Workloads;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+public class LookupWorkload implements Workloads.Lookup {
+    private static final String SAMPLE_RESPONSE =
+            "{\"data\":{\"year\":2025,\"state\":\"us\",\"household_size\":4,\"income\":32150}}";
+
+    private final FPLThresholdTable thresholds = StubGuidelines.thresholds();
+    private final Map<Integer, Double> fplMap = new HashMap<>();
+    private double[] incomes;
+    private int[] members;
+    private String[] states;
+    private int[] stateCodes;
+    //***************************************************************
+    //
+    //  Method:       prepare
+    //
+    //  Description:  Generates random households and the HashMap the
+    //                original Program3 used for the poverty line.
+    //
+    //  Parameters:   int households - households per pass
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    @Override
+    public void prepare(int households) {
+        for (int size = 1; size <= FPLThresholdTable.MAX_TABLE_SIZE; size++) {
+            fplMap.put(size, StubGuidelines.level(StateTable.REGION_CONTIGUOUS, size));
+        }
+        SplittableRandom random = new SplittableRandom(4301);
+        incomes = new double[households];
+        members = new int[households];
+        states = new String[households];
+        stateCodes = new int[households];
+        for (int i = 0; i < households; i++) {
+            incomes[i] = random.nextInt(150_000);
+            members[i] = 1 + random.nextInt(12);
+            stateCodes[i] = random.nextInt(StateTable.COUNT);
+            states[i] = StateTable.name(stateCodes[i]);
+        }
+    }
+    //***************************************************************
+    //
+    //  Method:       hashMapLookup
+    //
+    //  Description:  Checks households as the original Program3 did:
+    //                a boxed map lookup for the poverty line and
+    //                lowercased state names to pick the Medicaid region.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      long - households below either limit
+    //
+    //***************************************************************
+    @Override
+    public long hashMapLookup() {
+        double contigBase = StubGuidelines.level(StateTable.REGION_CONTIGUOUS, 2);
+        double contigPer = StubGuidelines.level(StateTable.REGION_CONTIGUOUS, 3) - contigBase;
+        double alaskaBase = StubGuidelines.level(StateTable.REGION_ALASKA, 2);
+        double alaskaPer = StubGuidelines.level(StateTable.REGION_ALASKA, 3) - alaskaBase;
+        double hawaiiBase = StubGuidelines.level(StateTable.REGION_HAWAII, 2);
+        double hawaiiPer = StubGuidelines.level(StateTable.REGION_HAWAII, 3) - hawaiiBase;
+
+        long count = 0;
+        for (int i = 0; i < incomes.length; i++) {
+            boolean below = incomes[i] < fplMap.getOrDefault(members[i], Double.MAX_VALUE);
+            String state = states[i].toLowerCase();
+            double base;
+            double per;
+            if (state.equals("alaska")) {
+                base = alaskaBase;
+                per = alaskaPer;
+            } else if (state.equals("hawaii")) {
+                base = hawaiiBase;
+                per = hawaiiPer;
+            } else {
+                base = contigBase;
+                per = contigPer;
+            }
+            if (below || incomes[i] < (base + per * (members[i] - 2)) * 1.38) {
+                count++;
+            }
+        }
+        return count;
+    }
+    //***************************************************************
+    //
+    //  Method:       thresholdTable
+    //
+    //  Description:  Checks households with FPLThresholdTable and
+    //                StateTable codes.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      long - households below either limit
+    //
+    //***************************************************************
+    @Override
+    public long thresholdTable() {
+        long count = 0;
+        for (int i = 0; i < incomes.length; i++) {
+            int size = members[i];
+            if (incomes[i] < thresholds.povertyLevel(size)
+                    || incomes[i] < thresholds.medicaidLevel(StateTable.regionOf(stateCodes[i]), size)) {
+                count++;
+            }
+        }
+        return count;
+    }
+    //***************************************************************
+    //
+    //  Method:       extractIncomeFromJson
+    //
+    //  Description:  Parses one guideline API response.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      double - the guideline income
+    //
+    //***************************************************************
+    @Override
+    public double extractIncomeFromJson() {
+        return FPLGuidelineCache.extractIncomeFromJson(SAMPLE_RESPONSE);
+    }
+}
@@ -0,0 +1,94 @@
+//********************************************************************
+//
+//  Developer:     Mauricio Rivas
+//
+//  Program #:     Three
+//
+//  File Name:     QueryWorkload.java
+//
+//  Course:        COSC 4301 Modern Programming
+//
+//  Due Date:      4/14/2025
+//
+//  Instructor:    Prof. Fred Kumi
+//
+//  Java Version:  11
+//
+//  Description:   The filtered counts measured by IndexBenchmark. A
+//                 query string is parsed into the AnalysisService
+//                 listing filter, which is either checked against
+//                 every row or evaluated on a HouseholdIndex. Both
+//                 return the same count.
+//
+//********************************************************************
+
+import benchmarks.Workloads;
+import java.io.IOException;
+import java.nio.file.Path;
+
+public class QueryWorkload implements Workloads.Query {
+    private final FPLThresholdTable thresholds = StubGuidelines.thresholds();
+    private final ColumnarHouseholdStore store = new ColumnarHouseholdStore();
+    private HouseholdIndex index;
+    private AnalysisService.Filter filter;
+    //***************************************************************
+    //
+    //  Method:       prepare
+    //
+    //  Description:  Loads the file, indexes it, and parses the query.
+    //
+    //  Parameters:   Path file    - household data file
+    //                String query - listing parameters, e.g.
+    //                               state=Alaska&medicaid=true
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    @Override
+    public void prepare(Path file, String query) throws IOException {
+        store.loadMapped(file);
+        store.trimToSize();
+        index = new HouseholdIndex(store, thresholds);
+        filter = AnalysisService.Filter.parse(AnalysisService.parseQuery(query));
+        System.out.printf("%nIndexed %d households in %d ms (%.1f MB)%n", index.size(),
+                index.getBuildNanos() / 1_000_000, index.getSizeInBytes() / 1e6);
+    }
+    //***************************************************************
+    //
+    //  Method:       scan
+    //
+    //  Description:  Counts the matching households by checking each
+    //                row.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      long - matching households
+    //
+    //***************************************************************
+    @Override
+    public long scan() {
+        long count = 0;
+        for (int i = 0; i < store.size(); i++) {
+            if (filter.matches(store, i, thresholds)) {
+                count++;
+            }
+        }
+        return count;
+    }
+    //***************************************************************
+    //
+    //  Method:       indexed
+    //
+    //  Description:  Counts the matching households through the
+    //                index.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      long - matching households
+    //
+    //***************************************************************
+    @Override
+    public long indexed() {
+        return filter.select(index).cardinality();
+    }
+}
@@ -0,0 +1,67 @@
+//********************************************************************
+//
+//  Developer:     Mauricio Rivas
+//
+//  Program #:     Three
+//
+//  File Name:     ReportWorkload.java
+//
+//  Course:        COSC 4301 Modern Programming
+//
+//  Due Date:      4/14/2025
+//
+//  Instructor:    Prof. Fred Kumi
+//
+//  Java Version:  11
+//
+//  Description:   Runs Program3 from start to finish, as measured by
+//                 ReportBenchmark, with guidelines served from
+//                 StubGuidelines instead of the HHS API.
+//
+//********************************************************************
+
+import benchmarks.Workloads;
+import java.io.IOException;
+import java.nio.file.Path;
+
+public class ReportWorkload implements Workloads.Report {
+    private FPLGuidelineCache cache;
+    private String dataFile;
+    private String outputFile;
+    //***************************************************************
+    //
+    //  Method:       prepare
+    //
+    //  Description:  Sets up a guideline cache that never goes to the
+    //                network and picks the report's output file.
+    //
+    //  Parameters:   Path dataFile - household data file
+    //                Path workDir  - directory for the cache and the
+    //                                report
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    @Override
+    public void prepare(Path dataFile, Path workDir) throws IOException {
+        this.cache = StubGuidelines.cache(workDir);
+        this.dataFile = dataFile.toString();
+        this.outputFile = workDir.resolve("Program3-Output.txt").toString();
+    }
+    //***************************************************************
+    //
+    //  Method:       generateReport
+    //
+    //  Description:  Runs the whole program once, writing the report
+    //                file.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    @Override
+    public void generateReport() {
+        new Program3(cache).run(dataFile, outputFile);
+    }
+}
@@ -0,0 +1,111 @@
+//********************************************************************
+//
+//  Developer:     Mauricio Rivas
+//
+//  Program #:     Three
+//
+//  File Name:     StubGuidelines.java
+//
+//  Course:        COSC 4301 Modern Programming
+//
+//  Due Date:      4/14/2025
+//
+//  Instructor:    Prof. Fred Kumi
+//
+//  Java Version:  11
+//
+//  Description:   This class stands in for the HHS guideline API in
+//                 the benchmarks. It writes a complete FPL cache file
+//                 with the published 2025 guidelines and opens it with
+//                 a fetcher aimed at an unused local port, so nothing
+//                 measured ever waits on the network.
+//
+//********************************************************************
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+public final class StubGuidelines {
+    private static final double[] BASE = {15650, 19550, 17990};
+    private static final double[] PER_PERSON = {5500, 6880, 6330};
+    private static final String UNREACHABLE_API = "http://127.0.0.1:9/";
+    //***************************************************************
+    //
+    //  Method:       StubGuidelines (Constructor)
+    //
+    //  Description:  Not used; the class has only static members.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      None
+    //
+    //***************************************************************
+    private StubGuidelines() {
+    }
+    //***************************************************************
+    //
+    //  Method:       level
+    //
+    //  Description:  Returns the 2025 guideline for a region and size.
+    //
+    //  Parameters:   int region - StateTable region constant
+    //                int size   - household size
+    //
+    //  Returns:      double - guideline income
+    //
+    //***************************************************************
+    public static double level(int region, int size) {
+        return BASE[region] + PER_PERSON[region] * (size - 1);
+    }
+    //***************************************************************
+    //
+    //  Method:       cache
+    //
+    //  Description:  Writes a cache file holding every guideline the
+    //                program needs and opens a cache over it.
+    //
+    //  Parameters:   Path dir - directory for the cache file
+    //
+    //  Returns:      FPLGuidelineCache - fully populated cache
+    //
+    //***************************************************************
+    public static FPLGuidelineCache cache(Path dir) throws IOException {
+        Path file = dir.resolve("FPLGuidelineCache.txt");
+        long now = System.currentTimeMillis();
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file))) {
+            out.println("# year region size income fetchedAtMillis");
+            for (int region = 0; region < StateTable.REGION_CODES.length; region++) {
+                for (int size = 1; size <= FPLThresholdTable.MAX_TABLE_SIZE; size++) {
+                    out.println(FPLGuidelineCache.DEFAULT_YEAR + " " + StateTable.REGION_CODES[region] + " "
+                            + size + " " + level(region, size) + " " + now);
+                }
+            }
+        }
+        FPLBatchFetcher fetcher = new FPLBatchFetcher(UNREACHABLE_API, 1, Duration.ofMillis(100));
+        return new FPLGuidelineCache(file.toString(), 24, fetcher);
+    }
+    //***************************************************************
+    //
+    //  Method:       thresholds
+    //
+    //  Description:  Builds the threshold table from the stubbed
+    //                guidelines without touching the disk.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      FPLThresholdTable - 2025 thresholds
+    //
+    //***************************************************************
+    public static FPLThresholdTable thresholds() {
+        double[][] guidelines = new double[BASE.length][FPLThresholdTable.MAX_TABLE_SIZE + 1];
+        for (int region = 0; region < BASE.length; region++) {
+            for (int size = 1; size <= FPLThresholdTable.MAX_TABLE_SIZE; size++) {
+                guidelines[region][size] = level(region, size);
+            }
+        }
+        return new FPLThresholdTable(FPLGuidelineCache.DEFAULT_YEAR, guidelines);
+    }
+}
@@ -0,0 +1,70 @@
+//********************************************************************
+//
+//  Developer:     Mauricio Rivas
+//
+//  Program #:     Three
+//
+//  File Name:     BenchmarkRunner.java
+//
+//  Course:        COSC 4301 Modern Programming
+//
+//  Due Date:      4/14/2025
+//
+//  Instructor:    Prof. Fred Kumi
+//
+//  Java Version:  11
+//
+//  Description:   Entry point of benchmarks.jar. Accepts the normal
+//                 JMH command-line options and, unless -rf/-rff are
+//                 given, writes results as JSON to jmh-results.json
+//                 so they can be tracked over time.
+//
+//********************************************************************
+package benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+public final class BenchmarkRunner {
+    private static final String DEFAULT_RESULT_FILE = "jmh-results.json";
+    //***************************************************************
+    //
+    //  Method:       BenchmarkRunner (Constructor)
+    //
+    //  Description:  Not used; the class has only static members.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      None
+    //
+    //***************************************************************
+    private BenchmarkRunner() {
+    }
+    //***************************************************************
+    //
+    //  Method:       main
+    //
+    //  Description:  Runs the selected benchmarks, writing JSON
+    //                results to jmh-results.json unless a result
+    //                format or file is given.
+    //
+    //  Parameters:   String[] args - JMH command-line options
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLine);
+        if (!commandLine.getResultFormat().hasValue()) {
+            options.resultFormat(ResultFormatType.JSON);
+        }
+        if (!commandLine.getResult().hasValue()) {
+            options.result(DEFAULT_RESULT_FILE);
+        }
+        new Runner(options.build()).run();
+    }
+}
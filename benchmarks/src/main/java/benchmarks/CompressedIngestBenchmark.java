@@ -0,0 +1,153 @@
+//********************************************************************
+//
+//  Developer:     Mauricio Rivas
+//
+//  Program #:     Three
+//
+//  File Name:     CompressedIngestBenchmark.java
+//
+//  Course:        COSC 4301 Modern Programming
+//
+//  Due Date:      4/14/2025
+//
+//  Instructor:    Prof. Fred Kumi
+//
+//  Java Version:  11
+//
+//  Description:   Measures ingest throughput over gzip and block gzip
+//                 copies of the 1M and 10M row synthetic files.
+//                 "megabytes" counts the uncompressed text, so it is
+//                 comparable with IngestBenchmark; "compressed" counts
+//                 the bytes read from disk.
+//
+//********************************************************************
+package benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class CompressedIngestBenchmark {
+    @Param({"1000000", "10000000"})
+    public int rows;
+
+    @Param({"gzip", "bgzf"})
+    public String format;
+
+    private Workloads.Ingest workload;
+    private double textMegabytes;
+    private double compressedMegabytes;
+
+    //***************************************************************
+    //
+    //  Class:        Throughput
+    //
+    //  Description:  Counts records, text megabytes, and compressed
+    //                megabytes so JMH reports them as rates.
+    //
+    //***************************************************************
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Throughput {
+        public long records;
+        public double megabytes;
+        public double compressed;
+        //***************************************************************
+        //
+        //  Method:       reset
+        //
+        //  Description:  Clears the counters before each iteration.
+        //
+        //  Parameters:   None
+        //
+        //  Returns:      void
+        //
+        //***************************************************************
+        @Setup(Level.Iteration)
+        public void reset() {
+            records = 0;
+            megabytes = 0;
+            compressed = 0;
+        }
+    }
+    //***************************************************************
+    //
+    //  Method:       setUp
+    //
+    //  Description:  Generates or reuses the data file for the row
+    //                count, compresses it in the chosen format, and
+    //                prepares the ingest workload.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Path text = SyntheticData.file(rows);
+        workload = Workloads.load("IngestWorkload", Workloads.Ingest.class);
+        Path file = workload.compress(text, format);
+        textMegabytes = Files.size(text) / 1e6;
+        compressedMegabytes = Files.size(file) / 1e6;
+        workload.prepare(file);
+    }
+    //***************************************************************
+    //
+    //  Method:       parseStream
+    //
+    //  Description:  Measures reading the compressed file with the
+    //                streaming byte parser.
+    //
+    //  Parameters:   Throughput counters - records and megabytes per
+    //                                      thread
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    @Benchmark
+    public void parseStream(Throughput counters) throws IOException {
+        counters.records += workload.parseStream();
+        counters.megabytes += textMegabytes;
+        counters.compressed += compressedMegabytes;
+    }
+    //***************************************************************
+    //
+    //  Method:       analyzeParallel
+    //
+    //  Description:  Measures analyzing the compressed file in
+    //                parallel chunks on every processor.
+    //
+    //  Parameters:   Throughput counters - records and megabytes per
+    //                                      thread
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    @Benchmark
+    public void analyzeParallel(Throughput counters) throws IOException {
+        counters.records += workload.analyzeParallel(Runtime.getRuntime().availableProcessors());
+        counters.megabytes += textMegabytes;
+        counters.compressed += compressedMegabytes;
+    }
+}
@@ -0,0 +1,114 @@
+//********************************************************************
+//
+//  Developer:     Mauricio Rivas
+//
+//  Program #:     Three
+//
+//  File Name:     FPLLookupBenchmark.java
+//
+//  Course:        COSC 4301 Modern Programming
+//
+//  Due Date:      4/14/2025
+//
+//  Instructor:    Prof. Fred Kumi
+//
+//  Java Version:  11
+//
+//  Description:   Measures the cost per household of the poverty and
+//                 Medicaid checks: the original HashMap and state
+//                 String comparisons against FPLThresholdTable. Also
+//                 measures parsing one guideline API response.
+//
+//********************************************************************
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class FPLLookupBenchmark {
+    private static final int HOUSEHOLDS = 100_000;
+
+    private Workloads.Lookup workload;
+    //***************************************************************
+    //
+    //  Method:       setUp
+    //
+    //  Description:  Prepares the lookup workload once per trial.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    @Setup
+    public void setUp() {
+        workload = Workloads.load("LookupWorkload", Workloads.Lookup.class);
+        workload.prepare(HOUSEHOLDS);
+    }
+    //***************************************************************
+    //
+    //  Method:       hashMapLookup
+    //
+    //  Description:  Measures the string-keyed map lookup per
+    //                household.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      long - households below either limit
+    //
+    //***************************************************************
+    @Benchmark
+    @OperationsPerInvocation(HOUSEHOLDS)
+    public long hashMapLookup() {
+        return workload.hashMapLookup();
+    }
+    //***************************************************************
+    //
+    //  Method:       thresholdTable
+    //
+    //  Description:  Measures the FPLThresholdTable lookup per
+    //                household.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      long - households below either limit
+    //
+    //***************************************************************
+    @Benchmark
+    @OperationsPerInvocation(HOUSEHOLDS)
+    public long thresholdTable() {
+        return workload.thresholdTable();
+    }
+    //***************************************************************
+    //
+    //  Method:       extractIncomeFromJson
+    //
+    //  Description:  Measures reading the income field out of a JSON
+    //                answer.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      double - the guideline income
+    //
+    //***************************************************************
+    @Benchmark
+    public double extractIncomeFromJson() {
+        return workload.extractIncomeFromJson();
+    }
+}
@@ -0,0 +1,106 @@
+//********************************************************************
+//
+//  Developer:     Mauricio Rivas
+//
+//  Program #:     Three
+//
+//  File Name:     IndexBenchmark.java
+//
+//  Course:        COSC 4301 Modern Programming
+//
+//  Due Date:      4/14/2025
+//
+//  Instructor:    Prof. Fred Kumi
+//
+//  Java Version:  11
+//
+//  Description:   Measures filtered household counts over the 1M and
+//                 10M row synthetic files, scanning every row against
+//                 combining HouseholdIndex bitmaps. The index build
+//                 time and size are printed once per trial.
+//
+//********************************************************************
+package benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class IndexBenchmark {
+    @Param({"1000000", "10000000"})
+    public int rows;
+
+    @Param({
+        "state=Alaska&medicaid=true",
+        "minIncome=15000&maxIncome=20000&minMembers=4",
+        "state=Alaska,Hawaii&belowFpl=false&maxMembers=2"
+    })
+    public String query;
+
+    private Workloads.Query workload;
+    //***************************************************************
+    //
+    //  Method:       setUp
+    //
+    //  Description:  Generates or reuses the data file for the row
+    //                count and prepares the query workload.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    @Setup
+    public void setUp() throws IOException {
+        workload = Workloads.load("QueryWorkload", Workloads.Query.class);
+        workload.prepare(SyntheticData.file(rows), query);
+    }
+    //***************************************************************
+    //
+    //  Method:       scan
+    //
+    //  Description:  Measures counting the matching households by
+    //                checking each row.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      long - matching households
+    //
+    //***************************************************************
+    @Benchmark
+    public long scan() {
+        return workload.scan();
+    }
+    //***************************************************************
+    //
+    //  Method:       indexed
+    //
+    //  Description:  Measures counting the matching households
+    //                through the index.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      long - matching households
+    //
+    //***************************************************************
+    @Benchmark
+    public long indexed() {
+        return workload.indexed();
+    }
+}
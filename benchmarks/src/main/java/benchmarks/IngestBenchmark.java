@@ -0,0 +1,177 @@
+//********************************************************************
+//
+//  Developer:     Mauricio Rivas
+//
+//  Program #:     Three
+//
+//  File Name:     IngestBenchmark.java
+//
+//  Course:        COSC 4301 Modern Programming
+//
+//  Due Date:      4/14/2025
+//
+//  Instructor:    Prof. Fred Kumi
+//
+//  Java Version:  11
+//
+//  Description:   Measures ingest throughput over synthetic files of
+//                 10K, 1M, and 10M rows. Besides operations per
+//                 second, each benchmark reports "records" (records/s)
+//                 and "megabytes" (MB/s) as secondary results.
+//
+//********************************************************************
+package benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class IngestBenchmark {
+    @Param({"10000", "1000000", "10000000"})
+    public int rows;
+
+    private Workloads.Ingest workload;
+    private double fileMegabytes;
+
+    //***************************************************************
+    //
+    //  Class:        Throughput
+    //
+    //  Description:  Counts records and megabytes so JMH reports them as
+    //                rates next to the operation rate.
+    //
+    //***************************************************************
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Throughput {
+        public long records;
+        public double megabytes;
+        //***************************************************************
+        //
+        //  Method:       reset
+        //
+        //  Description:  Clears the counters before each iteration.
+        //
+        //  Parameters:   None
+        //
+        //  Returns:      void
+        //
+        //***************************************************************
+        @Setup(Level.Iteration)
+        public void reset() {
+            records = 0;
+            megabytes = 0;
+        }
+    }
+    //***************************************************************
+    //
+    //  Method:       setUp
+    //
+    //  Description:  Generates or reuses the data file for the row
+    //                count and prepares the ingest workload.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Path file = SyntheticData.file(rows);
+        fileMegabytes = Files.size(file) / 1e6;
+        workload = Workloads.load("IngestWorkload", Workloads.Ingest.class);
+        workload.prepare(file);
+    }
+    //***************************************************************
+    //
+    //  Method:       scannerSplit
+    //
+    //  Description:  Measures reading the file with Scanner and
+    //                String.split.
+    //
+    //  Parameters:   Throughput counters - records and megabytes per
+    //                                      thread
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    @Benchmark
+    public void scannerSplit(Throughput counters) throws IOException {
+        counters.records += workload.scannerSplit();
+        counters.megabytes += fileMegabytes;
+    }
+    //***************************************************************
+    //
+    //  Method:       parseStream
+    //
+    //  Description:  Measures reading the file with the streaming
+    //                byte parser.
+    //
+    //  Parameters:   Throughput counters - records and megabytes per
+    //                                      thread
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    @Benchmark
+    public void parseStream(Throughput counters) throws IOException {
+        counters.records += workload.parseStream();
+        counters.megabytes += fileMegabytes;
+    }
+    //***************************************************************
+    //
+    //  Method:       loadMapped
+    //
+    //  Description:  Measures loading the file into the column store
+    //                through a memory map.
+    //
+    //  Parameters:   Throughput counters - records and megabytes per
+    //                                      thread
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    @Benchmark
+    public void loadMapped(Throughput counters) throws IOException {
+        counters.records += workload.loadMapped();
+        counters.megabytes += fileMegabytes;
+    }
+    //***************************************************************
+    //
+    //  Method:       analyzeParallel
+    //
+    //  Description:  Measures analyzing the file in parallel chunks
+    //                on every processor.
+    //
+    //  Parameters:   Throughput counters - records and megabytes per
+    //                                      thread
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    @Benchmark
+    public void analyzeParallel(Throughput counters) throws IOException {
+        counters.records += workload.analyzeParallel(Runtime.getRuntime().availableProcessors());
+        counters.megabytes += fileMegabytes;
+    }
+}
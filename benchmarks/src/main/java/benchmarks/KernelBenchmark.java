@@ -0,0 +1,163 @@
+//********************************************************************
+//
+//  Developer:     Mauricio Rivas
+//
+//  Program #:     Three
+//
+//  File Name:     KernelBenchmark.java
+//
+//  Course:        COSC 4301 Modern Programming
+//
+//  Due Date:      4/14/2025
+//
+//  Instructor:    Prof. Fred Kumi
+//
+//  Java Version:  11
+//
+//  Description:   Measures the cost per household of the income sum,
+//                 the below-poverty count, and the Medicaid count:
+//                 the row-at-a-time loops against the IncomeKernels
+//                 column kernels.
+//
+//********************************************************************
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class KernelBenchmark {
+    private static final int HOUSEHOLDS = 1_000_000;
+
+    private Workloads.Kernels workload;
+    //***************************************************************
+    //
+    //  Method:       setUp
+    //
+    //  Description:  Prepares the kernel workload once per trial.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    @Setup
+    public void setUp() {
+        workload = Workloads.load("KernelWorkload", Workloads.Kernels.class);
+        workload.prepare(HOUSEHOLDS);
+    }
+    //***************************************************************
+    //
+    //  Method:       sumRows
+    //
+    //  Description:  Measures the income sum a row at a time.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      long - total in cents
+    //
+    //***************************************************************
+    @Benchmark
+    @OperationsPerInvocation(HOUSEHOLDS)
+    public long sumRows() {
+        return workload.sumRows();
+    }
+    //***************************************************************
+    //
+    //  Method:       sumKernel
+    //
+    //  Description:  Measures the income sum with the column kernel.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      long - total in cents
+    //
+    //***************************************************************
+    @Benchmark
+    @OperationsPerInvocation(HOUSEHOLDS)
+    public long sumKernel() {
+        return workload.sumKernel();
+    }
+    //***************************************************************
+    //
+    //  Method:       belowPovertyRows
+    //
+    //  Description:  Measures the below-poverty count a row at a
+    //                time.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      long - households below the line
+    //
+    //***************************************************************
+    @Benchmark
+    @OperationsPerInvocation(HOUSEHOLDS)
+    public long belowPovertyRows() {
+        return workload.belowPovertyRows();
+    }
+    //***************************************************************
+    //
+    //  Method:       belowPovertyKernel
+    //
+    //  Description:  Measures the below-poverty count with the column
+    //                kernel.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      long - households below the line
+    //
+    //***************************************************************
+    @Benchmark
+    @OperationsPerInvocation(HOUSEHOLDS)
+    public long belowPovertyKernel() {
+        return workload.belowPovertyKernel();
+    }
+    //***************************************************************
+    //
+    //  Method:       medicaidRows
+    //
+    //  Description:  Measures the Medicaid count a row at a time.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      long - households under the limit
+    //
+    //***************************************************************
+    @Benchmark
+    @OperationsPerInvocation(HOUSEHOLDS)
+    public long medicaidRows() {
+        return workload.medicaidRows();
+    }
+    //***************************************************************
+    //
+    //  Method:       medicaidKernel
+    //
+    //  Description:  Measures the Medicaid count with the column
+    //                kernel.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      long - households under the limit
+    //
+    //***************************************************************
+    @Benchmark
+    @OperationsPerInvocation(HOUSEHOLDS)
+    public long medicaidKernel() {
+        return workload.medicaidKernel();
+    }
+}
@@ -0,0 +1,84 @@
+//********************************************************************
+//
+//  Developer:     Mauricio Rivas
+//
+//  Program #:     Three
+//
+//  File Name:     ReportBenchmark.java
+//
+//  Course:        COSC 4301 Modern Programming
+//
+//  Due Date:      4/14/2025
+//
+//  Instructor:    Prof. Fred Kumi
+//
+//  Java Version:  11
+//
+//  Description:   Measures a full Program3 run (read, analyze, and
+//                 write every report) against a stubbed guideline
+//                 source, so no network time is included.
+//
+//********************************************************************
+package benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ReportBenchmark {
+    @Param({"10000", "1000000"})
+    public int rows;
+
+    private Workloads.Report workload;
+    //***************************************************************
+    //
+    //  Method:       setUp
+    //
+    //  Description:  Prepares the report workload in a new temporary
+    //                directory.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    @Setup
+    public void setUp() throws IOException {
+        Path workDir = Files.createTempDirectory("household-report");
+        workload = Workloads.load("ReportWorkload", Workloads.Report.class);
+        workload.prepare(SyntheticData.file(rows), workDir);
+    }
+    //***************************************************************
+    //
+    //  Method:       generateReport
+    //
+    //  Description:  Measures one whole program run.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    @Benchmark
+    public void generateReport() throws IOException {
+        workload.generateReport();
+    }
+}
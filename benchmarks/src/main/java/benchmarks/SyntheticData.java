@@ -0,0 +1,92 @@
+//********************************************************************
+//
+//  Developer:     Mauricio Rivas
+//
+//  Program #:     Three
+//
+//  File Name:     SyntheticData.java
+//
+//  Course:        COSC 4301 Modern Programming
+//
+//  Due Date:      4/14/2025
+//
+//  Instructor:    Prof. Fred Kumi
+//
+//  Java Version:  11
+//
+//  Description:   This class writes synthetic household files in the
+//                 Program3Data.txt format. Files are generated from a
+//                 fixed seed and kept in the temp directory, so forks
+//                 and later runs reuse the same data.
+//
+//********************************************************************
+package benchmarks;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.SplittableRandom;
+
+public final class SyntheticData {
+    private static final String[] STATES = {
+        "Texas", "California", "New York", "Florida", "Alaska", "Hawaii",
+        "District of Columbia", "North Dakota", "Ohio", "West Virginia"
+    };
+    //***************************************************************
+    //
+    //  Method:       SyntheticData (Constructor)
+    //
+    //  Description:  Not used; the class has only static members.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      None
+    //
+    //***************************************************************
+    private SyntheticData() {
+    }
+    //***************************************************************
+    //
+    //  Method:       file
+    //
+    //  Description:  Returns a household file with the given number
+    //                of rows, generating it on first use.
+    //
+    //  Parameters:   int rows - number of households
+    //
+    //  Returns:      Path - the data file
+    //
+    //***************************************************************
+    public static Path file(int rows) throws IOException {
+        Path dir = Paths.get(System.getProperty("java.io.tmpdir"), "household-benchmarks");
+        Files.createDirectories(dir);
+        Path file = dir.resolve("households-" + rows + ".txt");
+        if (Files.exists(file)) {
+            return file;
+        }
+
+        Path temp = Files.createTempFile(dir, "households-" + rows, ".tmp");
+        SplittableRandom random = new SplittableRandom(4301);
+        try (BufferedWriter out = Files.newBufferedWriter(temp)) {
+            for (int i = 0; i < rows; i++) {
+                long cents = random.nextLong(15_000_000L);
+                out.write(Integer.toString(1000 + i));
+                out.write("  ");
+                out.write(Long.toString(cents / 100));
+                out.write('.');
+                long fraction = cents % 100;
+                out.write(fraction < 10 ? "0" + fraction : Long.toString(fraction));
+                out.write("  ");
+                out.write(Integer.toString(1 + random.nextInt(12)));
+                out.write(' ');
+                out.write(STATES[random.nextInt(STATES.length)]);
+                out.write('\n');
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return file;
+    }
+}
@@ -0,0 +1,394 @@
+//********************************************************************
+//
+//  Developer:     Mauricio Rivas
+//
+//  Program #:     Three
+//
+//  File Name:     Workloads.java
+//
+//  Course:        COSC 4301 Modern Programming
+//
+//  Due Date:      4/14/2025
+//
+//  Instructor:    Prof. Fred Kumi
+//
+//  Java Version:  11
+//
+//  Description:   JMH will not generate benchmarks in the default
+//                 package, and named packages cannot refer to the
+//                 program's default-package classes. The benchmarks
+//                 therefore call the program through these interfaces,
+//                 which small default-package classes implement. Each
+//                 implementation is loaded once per trial, so the
+//                 measured calls are plain interface calls.
+//
+//********************************************************************
+package benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+public final class Workloads {
+    //***************************************************************
+    //
+    //  Interface:    Ingest
+    //
+    //  Description:  Loading and parsing a household file.
+    //
+    //***************************************************************
+    public interface Ingest {
+        //***************************************************************
+        //
+        //  Method:       prepare
+        //
+        //  Description:  Chooses the household file to read.
+        //
+        //  Parameters:   Path file - household data file
+        //
+        //  Returns:      void
+        //
+        //***************************************************************
+        void prepare(Path file);
+        //***************************************************************
+        //
+        //  Method:       compress
+        //
+        //  Description:  Returns a gzip or block gzip copy of the file.
+        //
+        //  Parameters:   Path file     - household text file
+        //                String format - "gzip" or "bgzf"
+        //
+        //  Returns:      Path - the compressed copy
+        //
+        //***************************************************************
+        Path compress(Path file, String format) throws IOException;
+        //***************************************************************
+        //
+        //  Method:       scannerSplit
+        //
+        //  Description:  Reads the file with Scanner and String.split.
+        //
+        //  Parameters:   None
+        //
+        //  Returns:      long - records read
+        //
+        //***************************************************************
+        long scannerSplit() throws IOException;
+        //***************************************************************
+        //
+        //  Method:       parseStream
+        //
+        //  Description:  Reads the file with the streaming byte parser.
+        //
+        //  Parameters:   None
+        //
+        //  Returns:      long - records read
+        //
+        //***************************************************************
+        long parseStream() throws IOException;
+        //***************************************************************
+        //
+        //  Method:       loadMapped
+        //
+        //  Description:  Loads the file into the column store through a
+        //                memory map.
+        //
+        //  Parameters:   None
+        //
+        //  Returns:      long - records read
+        //
+        //***************************************************************
+        long loadMapped() throws IOException;
+        //***************************************************************
+        //
+        //  Method:       analyzeParallel
+        //
+        //  Description:  Analyzes the file in parallel chunks.
+        //
+        //  Parameters:   int parallelism - worker threads
+        //
+        //  Returns:      long - records analyzed
+        //
+        //***************************************************************
+        long analyzeParallel(int parallelism) throws IOException;
+    }
+
+    //***************************************************************
+    //
+    //  Interface:    Lookup
+    //
+    //  Description:  Poverty and Medicaid threshold checks.
+    //
+    //***************************************************************
+    public interface Lookup {
+        //***************************************************************
+        //
+        //  Method:       prepare
+        //
+        //  Description:  Builds the households to look up.
+        //
+        //  Parameters:   int households - number of households
+        //
+        //  Returns:      void
+        //
+        //***************************************************************
+        void prepare(int households);
+        //***************************************************************
+        //
+        //  Method:       hashMapLookup
+        //
+        //  Description:  Looks up every household through a string-keyed
+        //                map.
+        //
+        //  Parameters:   None
+        //
+        //  Returns:      long - households below either limit
+        //
+        //***************************************************************
+        long hashMapLookup();
+        //***************************************************************
+        //
+        //  Method:       thresholdTable
+        //
+        //  Description:  Looks up every household through
+        //                FPLThresholdTable.
+        //
+        //  Parameters:   None
+        //
+        //  Returns:      long - households below either limit
+        //
+        //***************************************************************
+        long thresholdTable();
+        //***************************************************************
+        //
+        //  Method:       extractIncomeFromJson
+        //
+        //  Description:  Reads the income field out of a JSON answer.
+        //
+        //  Parameters:   None
+        //
+        //  Returns:      double - the guideline income
+        //
+        //***************************************************************
+        double extractIncomeFromJson();
+    }
+
+    //***************************************************************
+    //
+    //  Interface:    Kernels
+    //
+    //  Description:  The report total loops, row at a time against
+    //                the IncomeKernels column kernels.
+    //
+    //***************************************************************
+    public interface Kernels {
+        //***************************************************************
+        //
+        //  Method:       prepare
+        //
+        //  Description:  Builds the household columns.
+        //
+        //  Parameters:   int households - number of households
+        //
+        //  Returns:      void
+        //
+        //***************************************************************
+        void prepare(int households);
+        //***************************************************************
+        //
+        //  Method:       sumRows
+        //
+        //  Description:  Sums the incomes a row at a time.
+        //
+        //  Parameters:   None
+        //
+        //  Returns:      long - total in cents
+        //
+        //***************************************************************
+        long sumRows();
+        //***************************************************************
+        //
+        //  Method:       sumKernel
+        //
+        //  Description:  Sums the incomes with the column kernel.
+        //
+        //  Parameters:   None
+        //
+        //  Returns:      long - total in cents
+        //
+        //***************************************************************
+        long sumKernel();
+        //***************************************************************
+        //
+        //  Method:       belowPovertyRows
+        //
+        //  Description:  Counts households below the poverty line a row
+        //                at a time.
+        //
+        //  Parameters:   None
+        //
+        //  Returns:      long - households below the line
+        //
+        //***************************************************************
+        long belowPovertyRows();
+        //***************************************************************
+        //
+        //  Method:       belowPovertyKernel
+        //
+        //  Description:  Counts households below the poverty line with
+        //                the column kernel.
+        //
+        //  Parameters:   None
+        //
+        //  Returns:      long - households below the line
+        //
+        //***************************************************************
+        long belowPovertyKernel();
+        //***************************************************************
+        //
+        //  Method:       medicaidRows
+        //
+        //  Description:  Counts households under the Medicaid limit a row
+        //                at a time.
+        //
+        //  Parameters:   None
+        //
+        //  Returns:      long - households under the limit
+        //
+        //***************************************************************
+        long medicaidRows();
+        //***************************************************************
+        //
+        //  Method:       medicaidKernel
+        //
+        //  Description:  Counts households under the Medicaid limit with
+        //                the column kernel.
+        //
+        //  Parameters:   None
+        //
+        //  Returns:      long - households under the limit
+        //
+        //***************************************************************
+        long medicaidKernel();
+    }
+
+    //***************************************************************
+    //
+    //  Interface:    Query
+    //
+    //  Description:  Filtered household counts, by scanning the table
+    //                or through HouseholdIndex bitmaps.
+    //
+    //***************************************************************
+    public interface Query {
+        //***************************************************************
+        //
+        //  Method:       prepare
+        //
+        //  Description:  Loads the file, indexes it, and parses the
+        //                query.
+        //
+        //  Parameters:   Path file    - household data file
+        //                String query - listing parameters
+        //
+        //  Returns:      void
+        //
+        //***************************************************************
+        void prepare(Path file, String query) throws IOException;
+        //***************************************************************
+        //
+        //  Method:       scan
+        //
+        //  Description:  Counts the matching households by checking each
+        //                row.
+        //
+        //  Parameters:   None
+        //
+        //  Returns:      long - matching households
+        //
+        //***************************************************************
+        long scan();
+        //***************************************************************
+        //
+        //  Method:       indexed
+        //
+        //  Description:  Counts the matching households through the
+        //                index.
+        //
+        //  Parameters:   None
+        //
+        //  Returns:      long - matching households
+        //
+        //***************************************************************
+        long indexed();
+    }
+
+    //***************************************************************
+    //
+    //  Interface:    Report
+    //
+    //  Description:  End-to-end report generation with a stubbed
+    //                guideline source.
+    //
+    //***************************************************************
+    public interface Report {
+        //***************************************************************
+        //
+        //  Method:       prepare
+        //
+        //  Description:  Sets up the guideline source and output file.
+        //
+        //  Parameters:   Path dataFile - household data file
+        //                Path workDir  - directory for scratch files
+        //
+        //  Returns:      void
+        //
+        //***************************************************************
+        void prepare(Path dataFile, Path workDir) throws IOException;
+        //***************************************************************
+        //
+        //  Method:       generateReport
+        //
+        //  Description:  Runs the whole program once.
+        //
+        //  Parameters:   None
+        //
+        //  Returns:      void
+        //
+        //***************************************************************
+        void generateReport() throws IOException;
+    }
+    //***************************************************************
+    //
+    //  Method:       Workloads (Constructor)
+    //
+    //  Description:  Not used; the class has only static members.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      None
+    //
+    //***************************************************************
+    private Workloads() {
+    }
+    //***************************************************************
+    //
+    //  Method:       load
+    //
+    //  Description:  Creates the default-package implementation of a
+    //                workload interface.
+    //
+    //  Parameters:   String className - implementation class name
+    //                Class<T> type    - workload interface
+    //
+    //  Returns:      T - the workload
+    //
+    //***************************************************************
+    public static <T> T load(String className, Class<T> type) {
+        try {
+            return type.cast(Class.forName(className).getDeclaredConstructor().newInstance());
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot create workload " + className, e);
+        }
+    }
+}
@@ -0,0 +1,194 @@
+//********************************************************************
+//
+//  Developer:     Mauricio Rivas
+//
+//  Program #:     Three
+//
+//  File Name:     AnalysisServiceTest.java
+//
+//  Course:        COSC 4301 Modern Programming
+//
+//  Due Date:      4/14/2025
+//
+//  Instructor:    Prof. Fred Kumi
+//
+//  Java Version:  11
+//
+//  Description:   These tests run random listing queries against a
+//                 synthetic table and check that the rows the index
+//                 selects, and every page of them, are exactly the
+//                 rows the row-by-row filter matches. The table is
+//                 large enough for several bitmap containers, and its
+//                 states are skewed so that the same posting list is
+//                 dense in some containers and sparse in others.
+//
+//********************************************************************
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class AnalysisServiceTest {
+    private static final int HOUSEHOLDS = 4 * 65536 + 1234;
+    private static final int QUERIES = 200;
+    private static final double[] TEXAS_SHARE = {0.6, 0.02, 0.3, 0.0, 0.9};
+    private static final String[] OTHER_SPELLINGS = {"TEXAS", "Atlantis", "Narnia"};
+    private static final String[] QUERY_STATES = {"Texas", "texas", "TEXAS", "California", "Alaska", "Hawaii",
+        "Vermont", "Atlantis", "Narnia"};
+
+    private final FPLThresholdTable thresholds = thresholds();
+    //***************************************************************
+    //
+    //  Method:       selectAgreesWithMatches
+    //
+    //  Description:  Builds random queries over every condition and
+    //                checks that Filter.select returns the rows that
+    //                Filter.matches accepts, and that a random page of
+    //                the selection is the same slice of those rows.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    @Test
+    void selectAgreesWithMatches() {
+        Random random = new Random(4301);
+        ColumnarHouseholdStore table = households(random);
+        HouseholdIndex index = new HouseholdIndex(table, thresholds);
+
+        for (int q = 0; q < QUERIES; q++) {
+            Map<String, String> query = query(random, table);
+            AnalysisService.Filter filter = AnalysisService.Filter.parse(query);
+            int[] expected = IntStream.range(0, table.size())
+                    .filter(i -> filter.matches(table, i, thresholds)).toArray();
+
+            RowBitmap rows = filter.select(index);
+            IntStream.Builder all = IntStream.builder();
+            rows.forEach(0, Long.MAX_VALUE, all::add);
+            assertArrayEquals(expected, all.build().toArray(), query.toString());
+            assertEquals(expected.length, rows.cardinality(), query.toString());
+
+            int skip = random.nextInt(expected.length + 10);
+            int limit = 1 + random.nextInt(5000);
+            IntStream.Builder page = IntStream.builder();
+            boolean more = rows.forEach(skip, limit, page::add);
+            int from = Math.min(skip, expected.length);
+            int to = Math.min(skip + limit, expected.length);
+            assertArrayEquals(Arrays.copyOfRange(expected, from, to), page.build().toArray(),
+                    query + " skip " + skip + " limit " + limit);
+            assertEquals(expected.length > skip + limit, more, query + " skip " + skip + " limit " + limit);
+        }
+    }
+    //***************************************************************
+    //
+    //  Method:       households
+    //
+    //  Description:  Builds the synthetic table. The share of Texas
+    //                rows changes from one bitmap container to the
+    //                next, and about one row in a hundred has a state
+    //                spelling the state table does not hold exactly.
+    //
+    //  Parameters:   Random random - seeded source
+    //
+    //  Returns:      ColumnarHouseholdStore - the table
+    //
+    //***************************************************************
+    private static ColumnarHouseholdStore households(Random random) {
+        ColumnarHouseholdStore table = new ColumnarHouseholdStore();
+        for (int id = 0; id < HOUSEHOLDS; id++) {
+            int stateCode;
+            String state;
+            if (random.nextInt(100) == 0) {
+                state = OTHER_SPELLINGS[random.nextInt(OTHER_SPELLINGS.length)];
+                stateCode = StateTable.lookup(state);
+            } else {
+                stateCode = random.nextDouble() < TEXAS_SHARE[id >> 16] ? StateTable.lookup("Texas")
+                        : random.nextInt(StateTable.COUNT);
+                state = StateTable.name(stateCode);
+            }
+            int members = random.nextInt(50) == 0 ? 20 : random.nextInt(15);
+            table.add(id, random.nextInt(12_000_000) / 100.0, members, stateCode, state);
+        }
+        return table;
+    }
+    //***************************************************************
+    //
+    //  Method:       query
+    //
+    //  Description:  Builds a random listing query over states,
+    //                household size, an income range taken from the
+    //                table, and the poverty and Medicaid flags.
+    //
+    //  Parameters:   Random random        - seeded source
+    //                HouseholdTable table - table to query
+    //
+    //  Returns:      Map<String, String> - query parameters
+    //
+    //***************************************************************
+    private static Map<String, String> query(Random random, HouseholdTable table) {
+        Map<String, String> query = new HashMap<>();
+        if (random.nextBoolean()) {
+            StringBuilder states = new StringBuilder(QUERY_STATES[random.nextInt(QUERY_STATES.length)]);
+            for (int extra = random.nextInt(3); extra > 0; extra--) {
+                states.append(',').append(QUERY_STATES[random.nextInt(QUERY_STATES.length)]);
+            }
+            query.put("state", states.toString());
+        }
+        switch (random.nextInt(4)) {
+            case 0:
+                query.put("members", Integer.toString(random.nextInt(16)));
+                break;
+            case 1:
+                query.put("minMembers", Integer.toString(random.nextInt(8)));
+                query.put("maxMembers", Integer.toString(4 + random.nextInt(20)));
+                break;
+            default:
+                break;
+        }
+        double low = table.getIncome(random.nextInt(table.size()));
+        double high = table.getIncome(random.nextInt(table.size()));
+        if (random.nextBoolean()) {
+            query.put("minIncome", Double.toString(Math.min(low, high)));
+        }
+        if (random.nextBoolean()) {
+            query.put("maxIncome", Double.toString(Math.max(low, high)));
+        }
+        if (random.nextInt(3) > 0) {
+            query.put("belowFpl", Boolean.toString(random.nextBoolean()));
+        }
+        if (random.nextInt(3) > 0) {
+            query.put("medicaid", Boolean.toString(random.nextBoolean()));
+        }
+        return query;
+    }
+    //***************************************************************
+    //
+    //  Method:       thresholds
+    //
+    //  Description:  Builds a guideline table from the published base
+    //                and per-person amounts for the three regions.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      FPLThresholdTable - poverty thresholds
+    //
+    //***************************************************************
+    private static FPLThresholdTable thresholds() {
+        double[] base = {15650, 19550, 17990};
+        double[] increment = {5500, 6880, 6330};
+        double[][] guidelines = new double[base.length][FPLThresholdTable.MAX_TABLE_SIZE + 1];
+        for (int region = 0; region < base.length; region++) {
+            for (int size = 1; size <= FPLThresholdTable.MAX_TABLE_SIZE; size++) {
+                guidelines[region][size] = base[region] + increment[region] * (size - 1);
+            }
+        }
+        return new FPLThresholdTable(FPLGuidelineCache.DEFAULT_YEAR, guidelines);
+    }
+}
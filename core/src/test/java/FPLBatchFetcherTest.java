@@ -0,0 +1,257 @@
+//********************************************************************
+//
+//  Developer:     Mauricio Rivas
+//
+//  Program #:     Three
+//
+//  File Name:     FPLBatchFetcherTest.java
+//
+//  Course:        COSC 4301 Modern Programming
+//
+//  Due Date:      4/14/2025
+//
+//  Instructor:    Prof. Fred Kumi
+//
+//  Java Version:  11
+//
+//  Description:   These tests run the guideline fetcher against a
+//                 stub API server and check the concurrency cap, the
+//                 per-request timeout, retries with backoff, and the
+//                 circuit breaker.
+//
+//********************************************************************
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class FPLBatchFetcherTest {
+    private static final int YEAR = 2099;
+    private static final long DEADLINE_MILLIS = 10_000;
+
+    private FPLStubServer server;
+    //***************************************************************
+    //
+    //  Method:       start
+    //
+    //  Description:  Starts a stub API server for each test.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    @BeforeEach
+    void start() throws IOException {
+        server = new FPLStubServer();
+    }
+    //***************************************************************
+    //
+    //  Method:       stop
+    //
+    //  Description:  Stops the stub server.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    @AfterEach
+    void stop() {
+        server.close();
+    }
+    //***************************************************************
+    //
+    //  Method:       capsRequestsInFlight
+    //
+    //  Description:  Sends more requests than the cap allows while
+    //                the server is slow and checks that no more than
+    //                the cap were ever in flight at once.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    @Test
+    void capsRequestsInFlight() {
+        server.delay(100);
+        FPLBatchFetcher fetcher = fetcher(2, 5_000, 0, 10, 10);
+
+        List<CompletableFuture<Double>> pending = new ArrayList<>();
+        for (int size = 1; size <= 6; size++) {
+            pending.add(fetcher.fetchAsync(YEAR, "us", size));
+        }
+        for (CompletableFuture<Double> future : pending) {
+            assertEquals(15650, future.join(), 0);
+        }
+        assertEquals(6, server.requests());
+        assertEquals(2, server.maxInFlight());
+    }
+    //***************************************************************
+    //
+    //  Method:       timesOutSlowRequest
+    //
+    //  Description:  Checks that a request the server never answers
+    //                in time fails after the request timeout instead
+    //                of waiting for the server.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    @Test
+    void timesOutSlowRequest() {
+        server.delay(3_000);
+        FPLBatchFetcher fetcher = fetcher(4, 200, 0, 10, 10);
+
+        long start = System.nanoTime();
+        double income = fetcher.fetch(YEAR, "us", 1);
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertTrue(Double.isNaN(income));
+        assertTrue(elapsed < 2_000, "timed out after " + elapsed + " ms");
+        assertEquals(1, server.requests());
+    }
+    //***************************************************************
+    //
+    //  Method:       retriesThrottledAndServerErrors
+    //
+    //  Description:  Answers 429 and then 503 before succeeding and
+    //                checks that both were retried, each after at
+    //                least half of its doubling backoff.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    @Test
+    void retriesThrottledAndServerErrors() {
+        server.script(429, 503);
+        FPLBatchFetcher fetcher = fetcher(4, 5_000, 3, 40, 10);
+
+        assertEquals(15650, fetcher.fetch(YEAR, "us", 1), 0);
+
+        List<Long> arrivals = server.arrivals();
+        assertEquals(3, arrivals.size());
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(arrivals.get(1) - arrivals.get(0)) >= 20);
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(arrivals.get(2) - arrivals.get(1)) >= 40);
+    }
+    //***************************************************************
+    //
+    //  Method:       doesNotRetryClientErrors
+    //
+    //  Description:  Checks that a 404 answer fails without a retry.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    @Test
+    void doesNotRetryClientErrors() {
+        server.respond(404, 0);
+        FPLBatchFetcher fetcher = fetcher(4, 5_000, 3, 10, 10);
+
+        assertTrue(Double.isNaN(fetcher.fetch(YEAR, "us", 1)));
+        assertEquals(1, server.requests());
+    }
+    //***************************************************************
+    //
+    //  Method:       breakerOpensAndHalfOpens
+    //
+    //  Description:  Fails requests until the breaker opens, checks
+    //                that no request is sent while it is open, that a
+    //                failed trial opens it again, and that a good
+    //                trial after the open time closes it.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    @Test
+    void breakerOpensAndHalfOpens() throws InterruptedException {
+        server.respond(500, 0);
+        FPLBatchFetcher fetcher = fetcher(4, 5_000, 0, 10, 2, 300);
+
+        assertTrue(Double.isNaN(fetcher.fetch(YEAR, "us", 1)));
+        assertFalse(fetcher.isCircuitOpen());
+        assertTrue(Double.isNaN(fetcher.fetch(YEAR, "us", 2)));
+        assertTrue(fetcher.isCircuitOpen());
+
+        assertTrue(Double.isNaN(fetcher.fetch(YEAR, "us", 3)));
+        assertEquals(2, server.requests());
+
+        Thread.sleep(400);
+        assertTrue(Double.isNaN(fetcher.fetch(YEAR, "us", 3)));
+        assertEquals(3, server.requests());
+        assertTrue(fetcher.isCircuitOpen());
+        assertTrue(Double.isNaN(fetcher.fetch(YEAR, "us", 3)));
+        assertEquals(3, server.requests());
+
+        Thread.sleep(400);
+        server.respond(200, 15650);
+        assertEquals(15650, fetcher.fetch(YEAR, "us", 3), 0);
+        assertFalse(fetcher.isCircuitOpen());
+        assertEquals(15650, fetcher.fetch(YEAR, "us", 4), 0);
+        assertEquals(5, server.requests());
+    }
+    //***************************************************************
+    //
+    //  Method:       fetcher
+    //
+    //  Description:  Creates a fetcher against the stub server whose
+    //                circuit breaker stays open for 30 seconds.
+    //
+    //  Parameters:   int maxConcurrent   - request cap
+    //                long timeoutMillis  - request timeout
+    //                int retries         - retries per request
+    //                long backoffMillis  - first retry delay
+    //                int breakerFailures - failures that open the
+    //                                      breaker
+    //
+    //  Returns:      FPLBatchFetcher - the fetcher
+    //
+    //***************************************************************
+    private FPLBatchFetcher fetcher(int maxConcurrent, long timeoutMillis, int retries, long backoffMillis,
+            int breakerFailures) {
+        return fetcher(maxConcurrent, timeoutMillis, retries, backoffMillis, breakerFailures, 30_000);
+    }
+    //***************************************************************
+    //
+    //  Method:       fetcher
+    //
+    //  Description:  Creates a fetcher against the stub server with
+    //                every retry and breaker setting given.
+    //
+    //  Parameters:   int maxConcurrent      - request cap
+    //                long timeoutMillis     - request timeout
+    //                int retries            - retries per request
+    //                long backoffMillis     - first retry delay
+    //                int breakerFailures    - failures that open the
+    //                                         breaker
+    //                long breakerOpenMillis - time the breaker stays
+    //                                         open
+    //
+    //  Returns:      FPLBatchFetcher - the fetcher
+    //
+    //***************************************************************
+    private FPLBatchFetcher fetcher(int maxConcurrent, long timeoutMillis, int retries, long backoffMillis,
+            int breakerFailures, long breakerOpenMillis) {
+        return new FPLBatchFetcher(server.url(), maxConcurrent, Duration.ofMillis(timeoutMillis),
+                Duration.ofSeconds(5), retries, backoffMillis, DEADLINE_MILLIS, breakerFailures, breakerOpenMillis);
+    }
+}
@@ -0,0 +1,179 @@
+//********************************************************************
+//
+//  Developer:     Mauricio Rivas
+//
+//  Program #:     Three
+//
+//  File Name:     FPLGuidelineCacheTest.java
+//
+//  Course:        COSC 4301 Modern Programming
+//
+//  Due Date:      4/14/2025
+//
+//  Instructor:    Prof. Fred Kumi
+//
+//  Java Version:  11
+//
+//  Description:   These tests run the guideline cache against a stub
+//                 API server and check that expired entries are
+//                 served while they are refreshed in the background,
+//                 and that a refresh does not block other lookups.
+//
+//********************************************************************
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class FPLGuidelineCacheTest {
+    private static final int YEAR = 2099;
+
+    @TempDir
+    Path directory;
+
+    private FPLStubServer server;
+    //***************************************************************
+    //
+    //  Method:       start
+    //
+    //  Description:  Starts a stub API server that answers 20000 for
+    //                each test.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    @BeforeEach
+    void start() throws IOException {
+        server = new FPLStubServer();
+        server.respond(200, 20000);
+    }
+    //***************************************************************
+    //
+    //  Method:       stop
+    //
+    //  Description:  Stops the stub server.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    @AfterEach
+    void stop() {
+        server.close();
+    }
+    //***************************************************************
+    //
+    //  Method:       servesStaleEntryWhileRevalidating
+    //
+    //  Description:  Holds the refresh of an expired entry at the
+    //                server and checks that lookups keep getting the
+    //                old value at once, that only one refresh is sent,
+    //                and that its answer replaces the old value.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    @Test
+    void servesStaleEntryWhileRevalidating() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        server.hold(release);
+        FPLGuidelineCache cache = cache(4);
+
+        assertEquals(10000, cache.getFPL(YEAR, "us", 1), 0);
+        assertEquals(10000, cache.getFPL(YEAR, "us", 1), 0);
+        release.countDown();
+
+        assertEquals(20000, await(cache, "us", 1, 20000), 0);
+        assertEquals(1, server.requests());
+    }
+    //***************************************************************
+    //
+    //  Method:       lookupDoesNotBlockRefresh
+    //
+    //  Description:  With a single request slot, starts a lookup of a
+    //                missing key while the refresh of an expired key
+    //                holds the slot, and checks that both finish once
+    //                the server answers.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    @Test
+    void lookupDoesNotBlockRefresh() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        server.hold(release);
+        FPLGuidelineCache cache = cache(1);
+
+        assertEquals(10000, cache.getFPL(YEAR, "us", 1), 0);
+        CompletableFuture<Double> missing = CompletableFuture.supplyAsync(() -> cache.getFPL(YEAR, "us", 2));
+        Thread.sleep(100);
+        release.countDown();
+
+        assertEquals(20000, missing.get(5, TimeUnit.SECONDS), 0);
+        assertEquals(20000, await(cache, "us", 1, 20000), 0);
+    }
+    //***************************************************************
+    //
+    //  Method:       cache
+    //
+    //  Description:  Creates a cache with a one-hour time to live
+    //                whose file holds one stale entry, us size 1 at
+    //                10000, fetched at time zero.
+    //
+    //  Parameters:   int maxConcurrent - request cap
+    //
+    //  Returns:      FPLGuidelineCache - the cache
+    //
+    //***************************************************************
+    private FPLGuidelineCache cache(int maxConcurrent) throws IOException {
+        Path file = directory.resolve("FPLCache.txt");
+        Files.writeString(file, "# year region size income fetchedAtMillis\n" + YEAR + " us 1 10000.0 0\n");
+        FPLBatchFetcher fetcher = new FPLBatchFetcher(server.url(), maxConcurrent, Duration.ofSeconds(5));
+        return new FPLGuidelineCache(file.toString(), 1, fetcher, new GuidelineStore());
+    }
+    //***************************************************************
+    //
+    //  Method:       await
+    //
+    //  Description:  Asks the cache for a guideline until it returns
+    //                the expected value or five seconds pass, and
+    //                fails if it never does.
+    //
+    //  Parameters:   FPLGuidelineCache cache - cache to ask
+    //                String region           - region code
+    //                int size                - household size
+    //                double expected         - value to wait for
+    //
+    //  Returns:      double - the last value returned
+    //
+    //***************************************************************
+    private static double await(FPLGuidelineCache cache, String region, int size, double expected)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        double level = cache.getFPL(YEAR, region, size);
+        while (level != expected && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            level = cache.getFPL(YEAR, region, size);
+        }
+        assertTrue(level == expected, "cached value is still " + level);
+        return level;
+    }
+}
@@ -0,0 +1,250 @@
+//********************************************************************
+//
+//  Developer:     Mauricio Rivas
+//
+//  Program #:     Three
+//
+//  File Name:     FPLStubServer.java
+//
+//  Course:        COSC 4301 Modern Programming
+//
+//  Due Date:      4/14/2025
+//
+//  Instructor:    Prof. Fred Kumi
+//
+//  Java Version:  11
+//
+//  Description:   This class stands in for the HHS guideline API in
+//                 the tests. It answers every request on the loopback
+//                 address with a scripted status, can hold or delay
+//                 answers, and records how many requests arrived, when
+//                 they arrived, and how many were in flight at once.
+//
+//********************************************************************
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+final class FPLStubServer implements AutoCloseable {
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final Queue<Integer> scripted = new ConcurrentLinkedQueue<>();
+    private final List<Long> arrivals = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private volatile int status = 200;
+    private volatile double income = 15650;
+    private volatile long delayMillis;
+    private volatile CountDownLatch hold;
+    //***************************************************************
+    //
+    //  Method:       FPLStubServer (Constructor)
+    //
+    //  Description:  Starts the server on a free loopback port.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      None
+    //
+    //***************************************************************
+    FPLStubServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+    //***************************************************************
+    //
+    //  Method:       url
+    //
+    //  Description:  Returns the base URL of the server.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      String - http://host:port/
+    //
+    //***************************************************************
+    String url() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + "/";
+    }
+    //***************************************************************
+    //
+    //  Method:       respond
+    //
+    //  Description:  Sets the answer given to every request that has
+    //                no scripted status.
+    //
+    //  Parameters:   int status    - HTTP status
+    //                double income - guideline income in a 200 answer
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    void respond(int status, double income) {
+        this.status = status;
+        this.income = income;
+    }
+    //***************************************************************
+    //
+    //  Method:       script
+    //
+    //  Description:  Queues statuses for the next requests, one each,
+    //                before the default answer is used again.
+    //
+    //  Parameters:   int... statuses - HTTP statuses in order
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    void script(int... statuses) {
+        for (int code : statuses) {
+            scripted.add(code);
+        }
+    }
+    //***************************************************************
+    //
+    //  Method:       delay
+    //
+    //  Description:  Makes every answer wait before it is sent.
+    //
+    //  Parameters:   long millis - delay in milliseconds
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    void delay(long millis) {
+        delayMillis = millis;
+    }
+    //***************************************************************
+    //
+    //  Method:       hold
+    //
+    //  Description:  Holds every answer until a latch is released,
+    //                for at most 10 seconds.
+    //
+    //  Parameters:   CountDownLatch latch - latch that releases the
+    //                                       answers
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    void hold(CountDownLatch latch) {
+        hold = latch;
+    }
+    //***************************************************************
+    //
+    //  Method:       requests
+    //
+    //  Description:  Returns the number of requests received.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      int - requests so far
+    //
+    //***************************************************************
+    int requests() {
+        return arrivals.size();
+    }
+    //***************************************************************
+    //
+    //  Method:       arrivals
+    //
+    //  Description:  Returns the arrival time of every request.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      List<Long> - System.nanoTime of each request
+    //
+    //***************************************************************
+    List<Long> arrivals() {
+        synchronized (arrivals) {
+            return new ArrayList<>(arrivals);
+        }
+    }
+    //***************************************************************
+    //
+    //  Method:       maxInFlight
+    //
+    //  Description:  Returns the most requests that were in flight at
+    //                once.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      int - largest concurrency seen
+    //
+    //***************************************************************
+    int maxInFlight() {
+        return maxInFlight.get();
+    }
+    //***************************************************************
+    //
+    //  Method:       close
+    //
+    //  Description:  Stops the server and its threads.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+    //***************************************************************
+    //
+    //  Method:       handle
+    //
+    //  Description:  Answers one request. The request stops counting
+    //                as in flight before its answer is sent, so a
+    //                client that starts the next request as soon as
+    //                an answer arrives is never counted twice.
+    //
+    //  Parameters:   HttpExchange exchange - the request
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    private void handle(HttpExchange exchange) throws IOException {
+        arrivals.add(System.nanoTime());
+        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        try {
+            CountDownLatch latch = hold;
+            if (latch != null) {
+                latch.await(10, TimeUnit.SECONDS);
+            }
+            if (delayMillis > 0) {
+                Thread.sleep(delayMillis);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            inFlight.decrementAndGet();
+        }
+
+        Integer next = scripted.poll();
+        int code = next != null ? next : status;
+        byte[] body = (code == 200 ? "{\"income\": " + income + "}" : "{\"error\": \"stub\"}")
+                .getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(code, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
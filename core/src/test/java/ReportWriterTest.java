@@ -0,0 +1,113 @@
+//********************************************************************
+//
+//  Developer:     Mauricio Rivas
+//
+//  Program #:     Three
+//
+//  File Name:     ReportWriterTest.java
+//
+//  Course:        COSC 4301 Modern Programming
+//
+//  Due Date:      4/14/2025
+//
+//  Instructor:    Prof. Fred Kumi
+//
+//  Java Version:  11
+//
+//  Description:   These tests check the hand-formatted decimal column
+//                 against String.format("%-12.2f"): values near a
+//                 rounding tie, negative, not finite, or too large
+//                 must be left to Formatter, and every other value
+//                 must be written exactly as Formatter writes it.
+//
+//********************************************************************
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.Charset;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class ReportWriterTest {
+    private static final double[] TIES = {0.125, 2.675, 0.005, 1.005, 0.015, 1234.565, 8.345, 999999999.995};
+    private static final double[] NEGATIVE = {-0.0, -0.004, -1.5, -2.675, -31000, -Double.MIN_VALUE};
+    private static final double[] NOT_FINITE = {Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY};
+    private static final double[] LARGE = {1e9, 123456789012.345, 9007199254740993.0, 0x1p53 + 2, 1e17,
+        Double.MAX_VALUE};
+    //***************************************************************
+    //
+    //  Method:       leavesHardCasesToFormatter
+    //
+    //  Description:  Checks that ties, negative values, NaN and the
+    //                infinities, and values from one billion up (past
+    //                2^53 included) are not rounded by hand, and that
+    //                the column still matches Formatter for them.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    @Test
+    void leavesHardCasesToFormatter() {
+        for (double[] values : new double[][] {TIES, NEGATIVE, NOT_FINITE, LARGE}) {
+            for (double value : values) {
+                assertEquals(-1, ReportWriter.roundedCents(value), Double.toString(value));
+                assertEquals(String.format("%-12.2f", value), column(value), Double.toString(value));
+            }
+        }
+    }
+    //***************************************************************
+    //
+    //  Method:       roundsHalfUpLikeFormatter
+    //
+    //  Description:  Checks values just either side of a tie and of a
+    //                whole cent, and random incomes and doubles below
+    //                one billion, against Formatter.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    @Test
+    void roundsHalfUpLikeFormatter() {
+        assertEquals(268, ReportWriter.roundedCents(2.6751));
+        assertEquals(267, ReportWriter.roundedCents(2.6749));
+        assertEquals(100, ReportWriter.roundedCents(0.9999));
+        assertEquals(0, ReportWriter.roundedCents(0.0));
+
+        Random random = new Random(4301);
+        for (int i = 0; i < 100_000; i++) {
+            double value = i % 2 == 0 ? random.nextInt(1_000_000_000) / 100.0
+                    : random.nextDouble() * Math.pow(10, random.nextInt(10));
+            assertEquals(String.format("%-12.2f", value), column(value), Double.toString(value));
+        }
+        for (int cents = 0; cents < 50_000; cents++) {
+            double tie = (cents + 0.5) / 100;
+            for (double value : new double[] {Math.nextDown(tie), tie, Math.nextUp(tie), cents / 100.0}) {
+                assertEquals(String.format("%-12.2f", value), column(value), Double.toString(value));
+            }
+        }
+    }
+    //***************************************************************
+    //
+    //  Method:       column
+    //
+    //  Description:  Returns a value as decimalColumn writes it in a
+    //                12-character column.
+    //
+    //  Parameters:   double value - number to write
+    //
+    //  Returns:      String - the column text
+    //
+    //***************************************************************
+    private static String column(double value) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ReportWriter writer = new ReportWriter(out);
+        writer.decimalColumn(value, 12);
+        writer.close();
+        return new String(out.toByteArray(), Charset.defaultCharset());
+    }
+}
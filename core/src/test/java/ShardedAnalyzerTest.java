@@ -0,0 +1,215 @@
+//********************************************************************
+//
+//  Developer:     Mauricio Rivas
+//
+//  Program #:     Three
+//
+//  File Name:     ShardedAnalyzerTest.java
+//
+//  Course:        COSC 4301 Modern Programming
+//
+//  Due Date:      4/14/2025
+//
+//  Instructor:    Prof. Fred Kumi
+//
+//  Java Version:  11
+//
+//  Description:   These tests split a synthetic household file into
+//                 shards, analyze and merge them, and check that the
+//                 saved totals match a run over the whole file byte
+//                 for byte. They also check which files resolve takes
+//                 from a shard or partial result directory.
+//
+//********************************************************************
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ShardedAnalyzerTest {
+    private static final int HOUSEHOLDS = 4000;
+    private static final int SHARDS = 4;
+    private static final String[] SPELLINGS = {"TEXAS", "new york", "Puerto Rico"};
+
+    @TempDir
+    Path directory;
+
+    private final FPLThresholdTable thresholds = thresholds();
+    //***************************************************************
+    //
+    //  Method:       mergedShardsMatchWholeFile
+    //
+    //  Description:  Analyzes four shards of a synthetic file, merges
+    //                their partial result files, and checks that the
+    //                totals, the groups, and both histograms write the
+    //                same bytes as a single run over the whole file.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    @Test
+    void mergedShardsMatchWholeFile() throws IOException {
+        List<String> lines = households(new Random(4301));
+        Path whole = directory.resolve("households.txt");
+        Files.write(whole, lines, StandardCharsets.UTF_8);
+        Path shardDir = Files.createDirectories(directory.resolve("shards"));
+        int perShard = (lines.size() + SHARDS - 1) / SHARDS;
+        for (int shard = 0; shard < SHARDS; shard++) {
+            List<String> part = lines.subList(shard * perShard, Math.min(lines.size(), (shard + 1) * perShard));
+            Files.write(shardDir.resolve("shard-" + shard + ".txt"), part, StandardCharsets.UTF_8);
+        }
+
+        PartialAggregate single = new PartialAggregate(thresholds);
+        new HouseholdParser().parseMapped(whole, single);
+
+        Path partialDir = directory.resolve("partials");
+        List<Path> shards = ShardedAnalyzer.resolve(shardDir.toString());
+        assertEquals(SHARDS, shards.size());
+        PartialAggregate analyzed = new ShardedAnalyzer(thresholds, 2).analyze(shards, partialDir);
+        PartialAggregate merged = ShardedAnalyzer.merge(
+                ShardedAnalyzer.resolve(partialDir.toString(), ShardedAnalyzer.PARTIAL_SUFFIX), year -> thresholds);
+
+        assertEquals(SHARDS, analyzed.getShardCount());
+        assertEquals(SHARDS, merged.getShardCount());
+        assertEquals(HOUSEHOLDS, merged.getTotals().getCount());
+        for (PartialAggregate sharded : Arrays.asList(analyzed, merged)) {
+            assertArrayEquals(bytes(single.getTotals()::writeTo), bytes(sharded.getTotals()::writeTo));
+            assertArrayEquals(bytes(single.getGroups()::writeTo), bytes(sharded.getGroups()::writeTo));
+            assertArrayEquals(bytes(single.getDistribution().getIncomeHistogram()::writeTo),
+                    bytes(sharded.getDistribution().getIncomeHistogram()::writeTo));
+            assertArrayEquals(bytes(single.getDistribution().getRatioHistogram()::writeTo),
+                    bytes(sharded.getDistribution().getRatioHistogram()::writeTo));
+        }
+    }
+    //***************************************************************
+    //
+    //  Method:       resolveSkipsPartialAndUnfinishedFiles
+    //
+    //  Description:  Fills a directory with shards, a partial result,
+    //                unfinished .tmp files, and a hidden file, and
+    //                checks that a shard listing takes only the shards
+    //                and a partial listing takes only the finished
+    //                partial results.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      void
+    //
+    //***************************************************************
+    @Test
+    void resolveSkipsPartialAndUnfinishedFiles() throws IOException {
+        for (String name : new String[] {"b.txt", "a.txt", "a.txt.partial", "b.txt.partial.tmp", "c.txt.tmp",
+                ".hidden.txt"}) {
+            Files.write(directory.resolve(name), new byte[] {1});
+        }
+        Files.createDirectories(directory.resolve("partials.txt"));
+
+        assertEquals(Arrays.asList(directory.resolve("a.txt"), directory.resolve("b.txt")),
+                ShardedAnalyzer.resolve(directory.toString()));
+        assertEquals(Arrays.asList(directory.resolve("a.txt"), directory.resolve("b.txt")),
+                ShardedAnalyzer.resolve(directory.toString(), ".txt"));
+        assertEquals(Arrays.asList(directory.resolve("a.txt.partial")),
+                ShardedAnalyzer.resolve(directory.toString(), ShardedAnalyzer.PARTIAL_SUFFIX));
+    }
+
+    //***************************************************************
+    //
+    //  Interface:    Writer
+    //
+    //  Description:  A writeTo method of one of the saved totals.
+    //
+    //***************************************************************
+    private interface Writer {
+        //***************************************************************
+        //
+        //  Method:       writeTo
+        //
+        //  Description:  Writes saved totals to a stream.
+        //
+        //  Parameters:   DataOutputStream out - stream to write to
+        //
+        //  Returns:      void
+        //
+        //***************************************************************
+        void writeTo(DataOutputStream out) throws IOException;
+    }
+    //***************************************************************
+    //
+    //  Method:       bytes
+    //
+    //  Description:  Returns the bytes one writeTo method writes.
+    //
+    //  Parameters:   Writer writer - method to call
+    //
+    //  Returns:      byte[] - the bytes written
+    //
+    //***************************************************************
+    private static byte[] bytes(Writer writer) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(buffer)) {
+            writer.writeTo(out);
+        }
+        return buffer.toByteArray();
+    }
+    //***************************************************************
+    //
+    //  Method:       households
+    //
+    //  Description:  Builds the lines of a synthetic household file.
+    //                About one line in twenty spells its state
+    //                differently from the state table.
+    //
+    //  Parameters:   Random random - seeded source
+    //
+    //  Returns:      List<String> - one line per household
+    //
+    //***************************************************************
+    private static List<String> households(Random random) {
+        List<String> lines = new ArrayList<>();
+        for (int id = 1; id <= HOUSEHOLDS; id++) {
+            String state = random.nextInt(20) == 0 ? SPELLINGS[random.nextInt(SPELLINGS.length)]
+                    : StateTable.name(random.nextInt(StateTable.COUNT));
+            long cents = random.nextInt(12_000_000);
+            lines.add(String.format("%d  %d.%02d  %d %s", id, cents / 100, cents % 100, 1 + random.nextInt(14),
+                    state));
+        }
+        return lines;
+    }
+    //***************************************************************
+    //
+    //  Method:       thresholds
+    //
+    //  Description:  Builds a guideline table from the published base
+    //                and per-person amounts for the three regions.
+    //
+    //  Parameters:   None
+    //
+    //  Returns:      FPLThresholdTable - poverty thresholds
+    //
+    //***************************************************************
+    private static FPLThresholdTable thresholds() {
+        double[] base = {15650, 19550, 17990};
+        double[] increment = {5500, 6880, 6330};
+        double[][] guidelines = new double[base.length][FPLThresholdTable.MAX_TABLE_SIZE + 1];
+        for (int region = 0; region < base.length; region++) {
+            for (int size = 1; size <= FPLThresholdTable.MAX_TABLE_SIZE; size++) {
+                guidelines[region][size] = base[region] + increment[region] * (size - 1);
+            }
+        }
+        return new FPLThresholdTable(FPLGuidelineCache.DEFAULT_YEAR, guidelines);
+    }
+}